@@ -0,0 +1,205 @@
+package com.urlshortener;
+
+import com.urlshortener.api.LinkStatsResource;
+import com.urlshortener.api.LinksResource;
+import com.urlshortener.api.MigrationStatusResource;
+import com.urlshortener.api.RedirectResource;
+import com.urlshortener.cache.LinkCache;
+import com.urlshortener.cache.ShortCodeFilter;
+import com.urlshortener.cache.SingleFlight;
+import com.urlshortener.commands.ImportLinksCommand;
+import com.urlshortener.core.Base62Service;
+import com.urlshortener.core.IdBlockAllocator;
+import com.urlshortener.core.Link;
+import com.urlshortener.db.ClickRollupDAO;
+import com.urlshortener.db.IdSequenceDAO;
+import com.urlshortener.db.LinkDAO;
+import com.urlshortener.db.VisitorSketchDAO;
+import com.urlshortener.health.BasicHealthCheck;
+import com.urlshortener.health.DatabaseHealthCheck;
+import com.urlshortener.kafka.ClickEventDispatcher;
+import com.urlshortener.kafka.ClickEventSpool;
+import com.urlshortener.kafka.EventPublisher;
+import com.urlshortener.kafka.SpoolDrainer;
+import com.urlshortener.manager.ClickManager;
+import com.urlshortener.manager.LinkManager;
+import com.urlshortener.manager.LinkStatsManager;
+import com.urlshortener.metrics.VirtualThreadMetrics;
+import com.urlshortener.ratelimit.RateLimitFilter;
+import com.urlshortener.ratelimit.TokenBucketRateLimiter;
+import com.urlshortener.tasks.RebuildShortCodeFilterTask;
+import io.dropwizard.configuration.EnvironmentVariableSubstitutor;
+import io.dropwizard.configuration.SubstitutingSourceProvider;
+import io.dropwizard.core.Application;
+import io.dropwizard.core.server.AbstractServerFactory;
+import io.dropwizard.core.setup.Bootstrap;
+import io.dropwizard.core.setup.Environment;
+import io.dropwizard.db.DataSourceFactory;
+import io.dropwizard.migrations.MigrationsBundle;
+import org.jdbi.v3.core.Jdbi;
+import org.jdbi.v3.sqlobject.SqlObjectPlugin;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.util.Optional;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+public class UrlShortenerApplication extends Application<UrlShortenerConfiguration> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(UrlShortenerApplication.class);
+
+    private Jdbi jdbi;
+
+    public static void main(final String[] args) throws Exception {
+        new UrlShortenerApplication().run(args);
+    }
+
+    public Jdbi getJdbi() {
+        return jdbi;
+    }
+
+    @Override
+    public String getName() {
+        return "UrlShortener";
+    }
+
+    @Override
+    public void initialize(final Bootstrap<UrlShortenerConfiguration> bootstrap) {
+        bootstrap.setConfigurationSourceProvider(
+                new SubstitutingSourceProvider(bootstrap.getConfigurationSourceProvider(),
+                        new EnvironmentVariableSubstitutor(false)));
+        
+        bootstrap.addBundle(new MigrationsBundle<UrlShortenerConfiguration>() {
+            @Override
+            public DataSourceFactory getDataSourceFactory(UrlShortenerConfiguration configuration) {
+                return configuration.getDataSourceFactory();
+            }
+        });
+        bootstrap.addCommand(new ImportLinksCommand());
+    }
+
+    @Override
+    public void run(final UrlShortenerConfiguration configuration,
+                    final Environment environment) {
+
+        // server.enableVirtualThreads runs Jersey resource methods on virtual threads; click
+        // publishing follows the same mode so a request never waits on a platform thread
+        boolean virtualThreads = configuration.getServerFactory() instanceof AbstractServerFactory serverFactory
+                && serverFactory.isEnableVirtualThreads();
+        if (virtualThreads) {
+            environment.lifecycle().manage(
+                    new VirtualThreadMetrics(VirtualThreadMetrics.DEFAULT_PINNED_THRESHOLD, environment.metrics()));
+        }
+
+        // Use configured version instead of hardcoded value
+        UrlShortenerConfiguration.ApplicationConfiguration appConfig = configuration.getApplication();
+        environment.healthChecks().register("application",
+                new BasicHealthCheck(appConfig.getVersion(), appConfig.getName()));
+
+        DataSource dataSource = configuration.getDataSourceFactory().build(environment.metrics(), "database");
+        environment.healthChecks().register("database", new DatabaseHealthCheck(dataSource));
+
+        this.jdbi = Jdbi.create(dataSource);
+        this.jdbi.installPlugin(new SqlObjectPlugin());
+
+        LinkDAO linkDAO = this.jdbi.onDemand(LinkDAO.class);
+        Base62Service base62Service = new Base62Service();
+        IdBlockAllocator linkIdAllocator = new IdBlockAllocator(this.jdbi.onDemand(IdSequenceDAO.class),
+                "links", appConfig.getIdBlockSize(), environment.metrics());
+
+        // Initialize Kafka EventPublisher
+        UrlShortenerConfiguration.KafkaConfiguration kafkaConfig = configuration.getKafka();
+        UrlShortenerConfiguration.ClickSpoolConfiguration spoolConfig = configuration.getClickSpool();
+        ClickEventSpool clickEventSpool = null;
+        if (spoolConfig.isEnabled()) {
+            clickEventSpool = new ClickEventSpool(spoolConfig, environment.metrics());
+            environment.lifecycle().manage(clickEventSpool);
+        }
+
+        EventPublisher eventPublisher = new EventPublisher(kafkaConfig, clickEventSpool);
+        eventPublisher.registerMetrics(environment.metrics());
+        environment.lifecycle().manage(eventPublisher);
+
+        if (clickEventSpool != null) {
+            environment.lifecycle().manage(
+                    new SpoolDrainer(clickEventSpool, eventPublisher, spoolConfig, environment.metrics()));
+        }
+
+        // Managed after the publisher so it is stopped, and drained, before the producer closes
+        ClickEventDispatcher clickEventDispatcher = new ClickEventDispatcher(
+                eventPublisher, configuration.getClickDispatch(), environment.metrics(), virtualThreads);
+        environment.lifecycle().manage(clickEventDispatcher);
+
+        LinkCache linkCache = new LinkCache(configuration.getLinkCache(), environment.metrics());
+        ShortCodeFilter shortCodeFilter = new ShortCodeFilter(configuration.getShortCodeFilter(), linkDAO, environment.metrics());
+        environment.lifecycle().manage(shortCodeFilter);
+        environment.admin().addTask(new RebuildShortCodeFilterTask(shortCodeFilter));
+        scheduleShortCodeFilterMaintenance(configuration.getShortCodeFilter(), shortCodeFilter, environment);
+
+        SingleFlight<String, Optional<Link>> shortCodeLookups = new SingleFlight<>("short-code-lookups",
+                appConfig.getCoalescedLookupTimeout().toJavaDuration(), environment.metrics());
+        LinkManager linkManager = new LinkManager(linkDAO, linkIdAllocator, base62Service, appConfig, linkCache,
+                shortCodeFilter, shortCodeLookups);
+        ClickManager clickManager = new ClickManager(eventPublisher, clickEventDispatcher);
+
+        LinksResource linksResource = new LinksResource(linkManager, appConfig.getMaxBatchSize());
+        RedirectResource redirectResource = new RedirectResource(linkManager, clickManager, environment.metrics());
+        LinkStatsManager linkStatsManager = new LinkStatsManager(this.jdbi.onDemand(VisitorSketchDAO.class),
+                this.jdbi.onDemand(ClickRollupDAO.class));
+        LinkStatsResource linkStatsResource = new LinkStatsResource(linkManager, linkStatsManager);
+        MigrationStatusResource migrationStatusResource = new MigrationStatusResource(dataSource);
+
+        environment.jersey().register(linksResource);
+        environment.jersey().register(redirectResource);
+        environment.jersey().register(linkStatsResource);
+        environment.jersey().register(migrationStatusResource);
+        environment.jersey().register(new RateLimitFilter(
+                rateLimiter("create", appConfig.getRateLimitRequestsPerMinute(), appConfig, environment),
+                rateLimiter("redirect", appConfig.getRedirectRateLimitRequestsPerMinute(), appConfig, environment)));
+    }
+
+    private TokenBucketRateLimiter rateLimiter(String name, int requestsPerMinute,
+                                               UrlShortenerConfiguration.ApplicationConfiguration appConfig,
+                                               Environment environment) {
+        if (requestsPerMinute == 0) {
+            return null;
+        }
+        return new TokenBucketRateLimiter(name, requestsPerMinute, appConfig.getRateLimitMaxClients(),
+                environment.metrics());
+    }
+
+    private void scheduleShortCodeFilterMaintenance(UrlShortenerConfiguration.ShortCodeFilterConfiguration filterConfig,
+                                                    ShortCodeFilter shortCodeFilter,
+                                                    Environment environment) {
+        long rebuildIntervalMs = filterConfig.getRebuildInterval().toMilliseconds();
+        long syncIntervalMs = filterConfig.getSyncInterval().toMilliseconds();
+        if (!filterConfig.isEnabled() || (rebuildIntervalMs <= 0 && syncIntervalMs <= 0)) {
+            return;
+        }
+
+        ScheduledExecutorService scheduler = environment.lifecycle()
+                .scheduledExecutorService("short-code-filter-maintenance")
+                .threads(1)
+                .build();
+        if (rebuildIntervalMs > 0) {
+            scheduler.scheduleWithFixedDelay(() -> {
+                try {
+                    shortCodeFilter.rebuild();
+                } catch (Exception e) {
+                    LOGGER.error("Scheduled short code filter rebuild failed: {}", e.getMessage());
+                }
+            }, rebuildIntervalMs, rebuildIntervalMs, TimeUnit.MILLISECONDS);
+        }
+        if (syncIntervalMs > 0) {
+            scheduler.scheduleWithFixedDelay(() -> {
+                try {
+                    shortCodeFilter.sync();
+                } catch (Exception e) {
+                    LOGGER.error("Short code filter sync failed: {}", e.getMessage());
+                }
+            }, syncIntervalMs, syncIntervalMs, TimeUnit.MILLISECONDS);
+        }
+    }
+}
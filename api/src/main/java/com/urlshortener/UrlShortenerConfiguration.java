@@ -0,0 +1,717 @@
+package com.urlshortener;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import io.dropwizard.core.Configuration;
+import io.dropwizard.db.DataSourceFactory;
+import io.dropwizard.util.DataSize;
+import io.dropwizard.util.Duration;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+
+public class UrlShortenerConfiguration extends Configuration {
+
+    @Valid
+    @NotNull
+    @JsonProperty("database")
+    private DataSourceFactory database = new DataSourceFactory();
+
+    @Valid
+    @NotNull
+    @JsonProperty("application")
+    private ApplicationConfiguration application = new ApplicationConfiguration();
+
+    @Valid
+    @NotNull
+    @JsonProperty("kafka")
+    private KafkaConfiguration kafka = new KafkaConfiguration();
+
+    @Valid
+    @NotNull
+    @JsonProperty("linkCache")
+    private LinkCacheConfiguration linkCache = new LinkCacheConfiguration();
+
+    @Valid
+    @NotNull
+    @JsonProperty("shortCodeFilter")
+    private ShortCodeFilterConfiguration shortCodeFilter = new ShortCodeFilterConfiguration();
+
+    @Valid
+    @NotNull
+    @JsonProperty("clickDispatch")
+    private ClickDispatchConfiguration clickDispatch = new ClickDispatchConfiguration();
+
+    @Valid
+    @NotNull
+    @JsonProperty("clickSpool")
+    private ClickSpoolConfiguration clickSpool = new ClickSpoolConfiguration();
+
+    public DataSourceFactory getDataSourceFactory() {
+        return database;
+    }
+
+    public void setDataSourceFactory(DataSourceFactory dataSourceFactory) {
+        this.database = dataSourceFactory;
+    }
+
+    public ApplicationConfiguration getApplication() {
+        return application;
+    }
+
+    public void setApplication(ApplicationConfiguration application) {
+        this.application = application;
+    }
+
+    public KafkaConfiguration getKafka() {
+        return kafka;
+    }
+
+    public void setKafka(KafkaConfiguration kafka) {
+        this.kafka = kafka;
+    }
+
+    public LinkCacheConfiguration getLinkCache() {
+        return linkCache;
+    }
+
+    public void setLinkCache(LinkCacheConfiguration linkCache) {
+        this.linkCache = linkCache;
+    }
+
+    public ShortCodeFilterConfiguration getShortCodeFilter() {
+        return shortCodeFilter;
+    }
+
+    public void setShortCodeFilter(ShortCodeFilterConfiguration shortCodeFilter) {
+        this.shortCodeFilter = shortCodeFilter;
+    }
+
+    public ClickDispatchConfiguration getClickDispatch() {
+        return clickDispatch;
+    }
+
+    public void setClickDispatch(ClickDispatchConfiguration clickDispatch) {
+        this.clickDispatch = clickDispatch;
+    }
+
+    public ClickSpoolConfiguration getClickSpool() {
+        return clickSpool;
+    }
+
+    public void setClickSpool(ClickSpoolConfiguration clickSpool) {
+        this.clickSpool = clickSpool;
+    }
+
+    public static class ApplicationConfiguration {
+
+        public enum ShortCodeLookup {
+            // Decode generated codes to their id and read the row by primary key, once the short code filter is built
+            PRIMARY_KEY,
+            // Look every code up through the short_code index
+            SHORT_CODE_INDEX
+        }
+
+        @NotNull
+        @NotBlank
+        @JsonProperty("baseUrl")
+        private String baseUrl = "http://localhost:8080";
+
+        @NotNull
+        @NotBlank
+        @JsonProperty("version")
+        private String version = "1.0.0-SNAPSHOT";
+
+        @JsonProperty("name")
+        private String name = "UrlShortener";
+
+        // Link creation requests allowed per client IP; 0 disables the limit
+        @Min(0)
+        @JsonProperty("rateLimitRequestsPerMinute")
+        private int rateLimitRequestsPerMinute = 20;
+
+        // Redirects allowed per client IP; 0 disables the limit
+        @Min(0)
+        @JsonProperty("redirectRateLimitRequestsPerMinute")
+        private int redirectRateLimitRequestsPerMinute = 600;
+
+        // Client IPs tracked per limit; the least recently seen are forgotten beyond this
+        @Min(1)
+        @JsonProperty("rateLimitMaxClients")
+        private long rateLimitMaxClients = 100_000;
+
+        @JsonProperty("maxCustomShortCodeLength")
+        private int maxCustomShortCodeLength = 50;
+
+        // Number of link ids reserved from id_sequences per database round trip
+        @Min(1)
+        @JsonProperty("idBlockSize")
+        private int idBlockSize = 100;
+
+        @NotNull
+        @JsonProperty("shortCodeLookup")
+        private ShortCodeLookup shortCodeLookup = ShortCodeLookup.PRIMARY_KEY;
+
+        // Most links accepted by one POST /api/v1/links/batch request
+        @Min(1)
+        @JsonProperty("maxBatchSize")
+        private int maxBatchSize = 1000;
+
+        // Rows sent to the database per JDBC batch when inserting a link batch
+        @Min(1)
+        @JsonProperty("batchInsertChunkSize")
+        private int batchInsertChunkSize = 500;
+
+        // How long a redirect waits for another request's in-flight lookup of the same short code
+        @NotNull
+        @JsonProperty("coalescedLookupTimeout")
+        private Duration coalescedLookupTimeout = Duration.seconds(5);
+
+        // Return the existing generated short code when a link for the same long URL already exists
+        @JsonProperty("reuseShortCodes")
+        private boolean reuseShortCodes = false;
+
+        // Recently created or reused links remembered by long URL hash, so repeats skip the database
+        @Min(0)
+        @JsonProperty("reuseCacheSize")
+        private int reuseCacheSize = 10_000;
+
+        // Getters and setters
+        public String getBaseUrl() {
+            return baseUrl;
+        }
+
+        public void setBaseUrl(String baseUrl) {
+            this.baseUrl = baseUrl;
+        }
+
+        public String getVersion() {
+            return version;
+        }
+
+        public void setVersion(String version) {
+            this.version = version;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public int getRateLimitRequestsPerMinute() {
+            return rateLimitRequestsPerMinute;
+        }
+
+        public void setRateLimitRequestsPerMinute(int rateLimitRequestsPerMinute) {
+            this.rateLimitRequestsPerMinute = rateLimitRequestsPerMinute;
+        }
+
+        public int getRedirectRateLimitRequestsPerMinute() {
+            return redirectRateLimitRequestsPerMinute;
+        }
+
+        public void setRedirectRateLimitRequestsPerMinute(int redirectRateLimitRequestsPerMinute) {
+            this.redirectRateLimitRequestsPerMinute = redirectRateLimitRequestsPerMinute;
+        }
+
+        public long getRateLimitMaxClients() {
+            return rateLimitMaxClients;
+        }
+
+        public void setRateLimitMaxClients(long rateLimitMaxClients) {
+            this.rateLimitMaxClients = rateLimitMaxClients;
+        }
+
+        public int getMaxCustomShortCodeLength() {
+            return maxCustomShortCodeLength;
+        }
+
+        public void setMaxCustomShortCodeLength(int maxCustomShortCodeLength) {
+            this.maxCustomShortCodeLength = maxCustomShortCodeLength;
+        }
+
+        public int getIdBlockSize() {
+            return idBlockSize;
+        }
+
+        public void setIdBlockSize(int idBlockSize) {
+            this.idBlockSize = idBlockSize;
+        }
+
+        public ShortCodeLookup getShortCodeLookup() {
+            return shortCodeLookup;
+        }
+
+        public void setShortCodeLookup(ShortCodeLookup shortCodeLookup) {
+            this.shortCodeLookup = shortCodeLookup;
+        }
+
+        public int getMaxBatchSize() {
+            return maxBatchSize;
+        }
+
+        public void setMaxBatchSize(int maxBatchSize) {
+            this.maxBatchSize = maxBatchSize;
+        }
+
+        public int getBatchInsertChunkSize() {
+            return batchInsertChunkSize;
+        }
+
+        public void setBatchInsertChunkSize(int batchInsertChunkSize) {
+            this.batchInsertChunkSize = batchInsertChunkSize;
+        }
+
+        public Duration getCoalescedLookupTimeout() {
+            return coalescedLookupTimeout;
+        }
+
+        public void setCoalescedLookupTimeout(Duration coalescedLookupTimeout) {
+            this.coalescedLookupTimeout = coalescedLookupTimeout;
+        }
+
+        public boolean isReuseShortCodes() {
+            return reuseShortCodes;
+        }
+
+        public void setReuseShortCodes(boolean reuseShortCodes) {
+            this.reuseShortCodes = reuseShortCodes;
+        }
+
+        public int getReuseCacheSize() {
+            return reuseCacheSize;
+        }
+
+        public void setReuseCacheSize(int reuseCacheSize) {
+            this.reuseCacheSize = reuseCacheSize;
+        }
+    }
+
+    public static class KafkaConfiguration {
+
+        public enum EventFormat {
+            // One JSON object per click event
+            JSON,
+            // ClickEventCodec's versioned binary encoding; the consumer reads it alongside JSON
+            BINARY
+        }
+
+        @NotBlank
+        @JsonProperty("bootstrapServers")
+        private String bootstrapServers = "localhost:9092";
+
+        @NotBlank
+        @JsonProperty("topicName")
+        private String topicName = "link_clicks";
+
+        // === PSEUDOCODE: Change acknowledgment strategy ===
+        // UPDATE default value from "1" to "all"
+        // REASON: With idempotence enabled, "all" ensures replicas persist before ack
+        // PREVENTS: Data loss during broker failover
+        // ===================================================
+        @NotBlank
+        @JsonProperty("acks")
+        private String acks = "all";
+
+        // === PSEUDOCODE: Increase retry attempts ===
+        // UPDATE retries from 3 to Integer.MAX_VALUE
+        // REASON: With idempotence + acks="all", retries are safe and won't cause duplicates
+        // ENSURES: Transient failures don't lose messages
+        // ============================================
+        @JsonProperty("retries")
+        private int retries = Integer.MAX_VALUE;
+
+        @JsonProperty("requestTimeoutMs")
+        private int requestTimeoutMs = 30000;
+
+        @JsonProperty("maxBlockMs")
+        private int maxBlockMs = 60000;
+
+        @JsonProperty("enableIdempotence")
+        private boolean enableIdempotence = true;
+
+        // === PSEUDOCODE: Add max in-flight requests limit ===
+        // ADD new configuration field
+        // SET default value to 5 (Kafka's recommended max for idempotence)
+        // REASON: Prevents message reordering when retries occur
+        // ENSURES: Messages are delivered in order even with retries
+        // =====================================================
+        @JsonProperty("maxInFlightRequestsPerConnection")
+        private int maxInFlightRequestsPerConnection = 5;
+
+        @JsonProperty("compressionType")
+        private String compressionType = "lz4";
+
+        @NotNull
+        @JsonProperty("eventFormat")
+        private EventFormat eventFormat = EventFormat.JSON;
+
+        // Getters and setters
+        public String getBootstrapServers() {
+            return bootstrapServers;
+        }
+
+        public void setBootstrapServers(String bootstrapServers) {
+            this.bootstrapServers = bootstrapServers;
+        }
+
+        public String getTopicName() {
+            return topicName;
+        }
+
+        public void setTopicName(String topicName) {
+            this.topicName = topicName;
+        }
+
+        public String getAcks() {
+            return acks;
+        }
+
+        public void setAcks(String acks) {
+            this.acks = acks;
+        }
+
+        public int getRetries() {
+            return retries;
+        }
+
+        public void setRetries(int retries) {
+            this.retries = retries;
+        }
+
+        public int getRequestTimeoutMs() {
+            return requestTimeoutMs;
+        }
+
+        public void setRequestTimeoutMs(int requestTimeoutMs) {
+            this.requestTimeoutMs = requestTimeoutMs;
+        }
+
+        public int getMaxBlockMs() {
+            return maxBlockMs;
+        }
+
+        public void setMaxBlockMs(int maxBlockMs) {
+            this.maxBlockMs = maxBlockMs;
+        }
+
+        public boolean isEnableIdempotence() {
+            return enableIdempotence;
+        }
+
+        public void setEnableIdempotence(boolean enableIdempotence) {
+            this.enableIdempotence = enableIdempotence;
+        }
+
+        // === PSEUDOCODE: Add getter and setter for maxInFlightRequestsPerConnection ===
+        // ADD getter method that RETURNS the maxInFlightRequestsPerConnection value
+        // ADD setter method that ACCEPTS an int parameter and SETS the field
+        // ==============================================================================
+        public int getMaxInFlightRequestsPerConnection() {
+            return maxInFlightRequestsPerConnection;
+        }
+
+        public void setMaxInFlightRequestsPerConnection(int maxInFlightRequestsPerConnection) {
+            this.maxInFlightRequestsPerConnection = maxInFlightRequestsPerConnection;
+        }
+
+        public String getCompressionType() {
+            return compressionType;
+        }
+
+        public void setCompressionType(String compressionType) {
+            this.compressionType = compressionType;
+        }
+
+        public EventFormat getEventFormat() {
+            return eventFormat;
+        }
+
+        public void setEventFormat(EventFormat eventFormat) {
+            this.eventFormat = eventFormat;
+        }
+    }
+
+    public static class LinkCacheConfiguration {
+
+        @JsonProperty("enabled")
+        private boolean enabled = true;
+
+        @Min(1)
+        @JsonProperty("maximumSize")
+        private long maximumSize = 100_000;
+
+        @NotNull
+        @JsonProperty("expireAfterWrite")
+        private Duration expireAfterWrite = Duration.minutes(10);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getMaximumSize() {
+            return maximumSize;
+        }
+
+        public void setMaximumSize(long maximumSize) {
+            this.maximumSize = maximumSize;
+        }
+
+        public Duration getExpireAfterWrite() {
+            return expireAfterWrite;
+        }
+
+        public void setExpireAfterWrite(Duration expireAfterWrite) {
+            this.expireAfterWrite = expireAfterWrite;
+        }
+    }
+
+    public static class ShortCodeFilterConfiguration {
+
+        @JsonProperty("enabled")
+        private boolean enabled = true;
+
+        // Lower bound for the filter size; a rebuild sizes for twice the current row count if larger
+        @Min(1)
+        @JsonProperty("expectedInsertions")
+        private long expectedInsertions = 1_000_000;
+
+        @DecimalMin(value = "0.0", inclusive = false)
+        @DecimalMax(value = "1.0", inclusive = false)
+        @JsonProperty("falsePositiveProbability")
+        private double falsePositiveProbability = 0.01;
+
+        // Periodic rebuild resizes the filter as the table grows; 0 disables it
+        @NotNull
+        @JsonProperty("rebuildInterval")
+        private Duration rebuildInterval = Duration.hours(1);
+
+        // How often links created by other instances or imports are added; 0 disables it
+        @NotNull
+        @JsonProperty("syncInterval")
+        private Duration syncInterval = Duration.seconds(1);
+
+        // How far each sync reads back before the newest link already loaded, for inserts that commit late
+        @NotNull
+        @JsonProperty("syncOverlap")
+        private Duration syncOverlap = Duration.seconds(10);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getExpectedInsertions() {
+            return expectedInsertions;
+        }
+
+        public void setExpectedInsertions(long expectedInsertions) {
+            this.expectedInsertions = expectedInsertions;
+        }
+
+        public double getFalsePositiveProbability() {
+            return falsePositiveProbability;
+        }
+
+        public void setFalsePositiveProbability(double falsePositiveProbability) {
+            this.falsePositiveProbability = falsePositiveProbability;
+        }
+
+        public Duration getRebuildInterval() {
+            return rebuildInterval;
+        }
+
+        public void setRebuildInterval(Duration rebuildInterval) {
+            this.rebuildInterval = rebuildInterval;
+        }
+
+        public Duration getSyncInterval() {
+            return syncInterval;
+        }
+
+        public void setSyncInterval(Duration syncInterval) {
+            this.syncInterval = syncInterval;
+        }
+
+        public Duration getSyncOverlap() {
+            return syncOverlap;
+        }
+
+        public void setSyncOverlap(Duration syncOverlap) {
+            this.syncOverlap = syncOverlap;
+        }
+    }
+
+    public static class ClickDispatchConfiguration {
+
+        public enum OverflowPolicy {
+            // Discard the event immediately when the queue is full
+            DROP,
+            // Keep one in every sampleRate overflowing events, waiting up to blockTimeout for space
+            SAMPLE,
+            // Wait up to blockTimeout for space, then discard
+            BLOCK
+        }
+
+        @Min(1)
+        @JsonProperty("threads")
+        private int threads = 2;
+
+        @Min(1)
+        @JsonProperty("queueCapacity")
+        private int queueCapacity = 10_000;
+
+        @NotNull
+        @JsonProperty("overflowPolicy")
+        private OverflowPolicy overflowPolicy = OverflowPolicy.DROP;
+
+        @Min(1)
+        @JsonProperty("sampleRate")
+        private int sampleRate = 10;
+
+        @NotNull
+        @JsonProperty("blockTimeout")
+        private Duration blockTimeout = Duration.milliseconds(50);
+
+        public int getThreads() {
+            return threads;
+        }
+
+        public void setThreads(int threads) {
+            this.threads = threads;
+        }
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public OverflowPolicy getOverflowPolicy() {
+            return overflowPolicy;
+        }
+
+        public void setOverflowPolicy(OverflowPolicy overflowPolicy) {
+            this.overflowPolicy = overflowPolicy;
+        }
+
+        public int getSampleRate() {
+            return sampleRate;
+        }
+
+        public void setSampleRate(int sampleRate) {
+            this.sampleRate = sampleRate;
+        }
+
+        public Duration getBlockTimeout() {
+            return blockTimeout;
+        }
+
+        public void setBlockTimeout(Duration blockTimeout) {
+            this.blockTimeout = blockTimeout;
+        }
+    }
+
+    public static class ClickSpoolConfiguration {
+
+        @JsonProperty("enabled")
+        private boolean enabled = false;
+
+        @NotBlank
+        @JsonProperty("directory")
+        private String directory = "spool/click-events";
+
+        @NotNull
+        @JsonProperty("segmentSize")
+        private DataSize segmentSize = DataSize.mebibytes(16);
+
+        // Segments older than this are deleted even if they were never replayed
+        @NotNull
+        @JsonProperty("retention")
+        private Duration retention = Duration.days(7);
+
+        // Oldest segments are deleted once the spool grows past this size
+        @NotNull
+        @JsonProperty("maxSize")
+        private DataSize maxSize = DataSize.gibibytes(1);
+
+        @NotNull
+        @JsonProperty("drainInterval")
+        private Duration drainInterval = Duration.seconds(1);
+
+        @Min(1)
+        @JsonProperty("drainBatchSize")
+        private int drainBatchSize = 500;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getDirectory() {
+            return directory;
+        }
+
+        public void setDirectory(String directory) {
+            this.directory = directory;
+        }
+
+        public DataSize getSegmentSize() {
+            return segmentSize;
+        }
+
+        public void setSegmentSize(DataSize segmentSize) {
+            this.segmentSize = segmentSize;
+        }
+
+        public Duration getRetention() {
+            return retention;
+        }
+
+        public void setRetention(Duration retention) {
+            this.retention = retention;
+        }
+
+        public DataSize getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(DataSize maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        public Duration getDrainInterval() {
+            return drainInterval;
+        }
+
+        public void setDrainInterval(Duration drainInterval) {
+            this.drainInterval = drainInterval;
+        }
+
+        public int getDrainBatchSize() {
+            return drainBatchSize;
+        }
+
+        public void setDrainBatchSize(int drainBatchSize) {
+            this.drainBatchSize = drainBatchSize;
+        }
+    }
+}
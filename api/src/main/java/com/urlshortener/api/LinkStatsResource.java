@@ -0,0 +1,125 @@
+package com.urlshortener.api;
+
+import com.urlshortener.core.ClickBucket;
+import com.urlshortener.core.Link;
+import com.urlshortener.manager.LinkManager;
+import com.urlshortener.manager.LinkStatsManager;
+import com.urlshortener.models.ClickSeriesResponse;
+import com.urlshortener.models.UniqueVisitorsResponse;
+import com.urlshortener.rollup.RollupGranularity;
+import io.dropwizard.jersey.jsr310.OffsetDateTimeParam;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+
+// Not under /api/v1/links/{shortCode}, which would take /api/v1/links/batch away from LinksResource
+@Path("/api/v1/stats/{shortCode}")
+@Produces(MediaType.APPLICATION_JSON)
+public class LinkStatsResource {
+
+    private static final Duration DEFAULT_RANGE = Duration.ofDays(1);
+    // A day of minutes, 60 days of hours or about four years of days
+    private static final int MAX_BUCKETS = 1440;
+
+    private final LinkManager linkManager;
+    private final LinkStatsManager linkStatsManager;
+
+    public LinkStatsResource(LinkManager linkManager, LinkStatsManager linkStatsManager) {
+        this.linkManager = linkManager;
+        this.linkStatsManager = linkStatsManager;
+    }
+
+    /**
+     * Estimated distinct visitors between {@code from} and {@code to}, ISO-8601 date-times with an
+     * offset that default to the last day. The range is widened to whole hours and the response gives the
+     * range actually counted.
+     */
+    @GET
+    @Path("/visitors")
+    public Response getUniqueVisitors(@PathParam("shortCode") String shortCode,
+                                      @QueryParam("from") OffsetDateTimeParam fromParam,
+                                      @QueryParam("to") OffsetDateTimeParam toParam) {
+        Instant to = toParam != null ? toParam.get().toInstant() : Instant.now();
+        Instant from = fromParam != null ? fromParam.get().toInstant() : to.minus(DEFAULT_RANGE);
+        if (!from.isBefore(to)) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("from must be before to")
+                    .build();
+        }
+
+        Optional<Link> link = linkManager.findByShortCode(shortCode);
+        if (link.isEmpty()) {
+            return Response.status(Response.Status.NOT_FOUND).build();
+        }
+
+        Instant bucketsFrom = LinkStatsManager.bucketStart(from);
+        Instant bucketsTo = LinkStatsManager.bucketEnd(to);
+        long uniqueVisitors = linkStatsManager.estimateUniqueVisitors(link.get().getId(), bucketsFrom, bucketsTo);
+        return Response.ok(new UniqueVisitorsResponse(shortCode, bucketsFrom.toString(), bucketsTo.toString(),
+                uniqueVisitors)).build();
+    }
+
+    /**
+     * Clicks per minute, hour or day between {@code from} and {@code to}, read from the rollup
+     * of that granularity. Without a {@code granularity} the finest one covering the range in at
+     * most {@value #MAX_BUCKETS} buckets is used. The range is widened to whole buckets, and
+     * buckets without clicks are left out.
+     */
+    @GET
+    @Path("/clicks")
+    public Response getClicks(@PathParam("shortCode") String shortCode,
+                              @QueryParam("from") OffsetDateTimeParam fromParam,
+                              @QueryParam("to") OffsetDateTimeParam toParam,
+                              @QueryParam("granularity") String granularityParam) {
+        Instant to = toParam != null ? toParam.get().toInstant() : Instant.now();
+        Instant from = fromParam != null ? fromParam.get().toInstant() : to.minus(DEFAULT_RANGE);
+        if (!from.isBefore(to)) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("from must be before to")
+                    .build();
+        }
+
+        RollupGranularity granularity;
+        if (granularityParam == null) {
+            granularity = RollupGranularity.finestFor(from, to, MAX_BUCKETS);
+        } else {
+            try {
+                granularity = RollupGranularity.valueOf(granularityParam.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                return Response.status(Response.Status.BAD_REQUEST)
+                        .entity("granularity must be minute, hour or day")
+                        .build();
+            }
+        }
+        if (granularity.bucketsBetween(from, to) > MAX_BUCKETS) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("A series is limited to " + MAX_BUCKETS + " buckets; shorten the range or use a coarser granularity")
+                    .build();
+        }
+
+        Optional<Link> link = linkManager.findByShortCode(shortCode);
+        if (link.isEmpty()) {
+            return Response.status(Response.Status.NOT_FOUND).build();
+        }
+
+        Instant bucketsFrom = granularity.bucketStart(from);
+        Instant bucketsTo = granularity.bucketEnd(to);
+        List<ClickBucket> buckets = linkStatsManager.getClickSeries(link.get().getId(), granularity, bucketsFrom, bucketsTo);
+        long totalClicks = buckets.stream().mapToLong(ClickBucket::getClicks).sum();
+        return Response.ok(new ClickSeriesResponse(shortCode, granularity.name().toLowerCase(Locale.ROOT),
+                bucketsFrom.toString(), bucketsTo.toString(), totalClicks,
+                buckets.stream()
+                        .map(bucket -> new ClickSeriesResponse.Bucket(bucket.getBucketStart().toString(), bucket.getClicks()))
+                        .toList())).build();
+    }
+}
@@ -0,0 +1,88 @@
+package com.urlshortener.api;
+
+import com.urlshortener.manager.LinkManager;
+import com.urlshortener.models.BatchCreateLinkItem;
+import com.urlshortener.models.BatchCreateLinkResponse;
+import com.urlshortener.models.CreateLinkRequest;
+import com.urlshortener.models.CreateLinkResponse;
+import com.urlshortener.models.LinkCreationError;
+import com.urlshortener.models.LinkCreationResult;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import jakarta.ws.rs.Consumes;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.core.MediaType;
+import jakarta.ws.rs.core.Response;
+
+import java.util.List;
+
+@Path("/api/v1/links")
+@Produces(MediaType.APPLICATION_JSON)
+@Consumes(MediaType.APPLICATION_JSON)
+public class LinksResource {
+
+    private final LinkManager linkManager;
+    private final int maxBatchSize;
+
+    public LinksResource(LinkManager linkManager, int maxBatchSize) {
+        this.linkManager = linkManager;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    @POST
+    public Response createShortLink(@Valid CreateLinkRequest request) {
+        LinkCreationResult result = linkManager.createLink(
+                request.getLongUrl(),
+                request.getCustomShortCode()
+        );
+
+        if (!result.isSuccess()) {
+            return Response.status(statusOf(result.getError()))
+                    .entity(result.getErrorMessage())
+                    .build();
+        }
+
+        CreateLinkResponse response = new CreateLinkResponse(result.getShortUrl(), result.getShortCode());
+        return Response.status(Response.Status.CREATED)
+                .entity(response)
+                .build();
+    }
+
+    /**
+     * Creates up to {@code maxBatchSize} links in one request. Links that fail do not stop the
+     * others; each gets the status the single create endpoint would have returned for it.
+     */
+    @POST
+    @Path("/batch")
+    public Response createShortLinks(@NotNull @Valid List<@NotNull CreateLinkRequest> requests) {
+        if (requests.isEmpty() || requests.size() > maxBatchSize) {
+            return Response.status(Response.Status.BAD_REQUEST)
+                    .entity("A batch must contain between 1 and " + maxBatchSize + " links")
+                    .build();
+        }
+
+        List<BatchCreateLinkItem> items = linkManager.createLinks(requests).stream()
+                .map(LinksResource::toBatchItem)
+                .toList();
+        return Response.ok(new BatchCreateLinkResponse(items)).build();
+    }
+
+    private static BatchCreateLinkItem toBatchItem(LinkCreationResult result) {
+        if (result.isSuccess()) {
+            return new BatchCreateLinkItem(Response.Status.CREATED.getStatusCode(),
+                    result.getShortUrl(), result.getShortCode(), null, null);
+        }
+        return new BatchCreateLinkItem(statusOf(result.getError()).getStatusCode(),
+                null, null, result.getError(), result.getErrorMessage());
+    }
+
+    private static Response.Status statusOf(LinkCreationError error) {
+        return switch (error) {
+            case CUSTOM_CODE_TOO_LONG -> Response.Status.BAD_REQUEST;
+            case CUSTOM_CODE_ALREADY_EXISTS -> Response.Status.CONFLICT;
+        };
+    }
+}
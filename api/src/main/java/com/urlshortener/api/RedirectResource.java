@@ -0,0 +1,74 @@
+package com.urlshortener.api;
+
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.codahale.metrics.annotation.Timed;
+import com.urlshortener.core.Link;
+import com.urlshortener.logging.LogSampler;
+import com.urlshortener.metrics.HdrHistogramReservoir;
+import com.urlshortener.manager.ClickManager;
+import com.urlshortener.manager.LinkManager;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.PathParam;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.Response;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.Optional;
+
+@Path("/")
+public class RedirectResource {
+
+    private static final Logger logger = LoggerFactory.getLogger(RedirectResource.class);
+
+    // One redirect a second is logged; the @Timed metrics count all of them
+    private final LogSampler redirectLogSampler = new LogSampler(Duration.ofSeconds(1));
+
+    private final LinkManager linkManager;
+    private final ClickManager clickManager;
+    // Resolving the short code: the filter, the link cache and, on a miss, the database
+    private final Timer lookup;
+
+    public RedirectResource(LinkManager linkManager, ClickManager clickManager) {
+        this(linkManager, clickManager, new MetricRegistry());
+    }
+
+    public RedirectResource(LinkManager linkManager, ClickManager clickManager, MetricRegistry metrics) {
+        this.linkManager = linkManager;
+        this.clickManager = clickManager;
+        this.lookup = HdrHistogramReservoir.timer(metrics, MetricRegistry.name(RedirectResource.class, "lookup"));
+    }
+
+    @GET
+    @Path("/{shortCode}")
+    @Timed
+    public Response redirect(@PathParam("shortCode") String shortCode, @Context HttpServletRequest request) {
+        Optional<Link> optionalLink;
+        try (Timer.Context ignored = lookup.time()) {
+            optionalLink = linkManager.findByShortCode(shortCode);
+        }
+
+        if (optionalLink.isEmpty()) {
+            return Response.status(Response.Status.NOT_FOUND).build();
+        }
+
+        Link link = optionalLink.get();
+
+        // Queue the click for publishing on the bounded click dispatch pool; never blocks the redirect
+        clickManager.recordClickAsync(link, request);
+
+        if (logger.isInfoEnabled() && redirectLogSampler.shouldLog()) {
+            logger.info("Redirecting short code {} to URL {} ({} more redirects since the last logged)",
+                    shortCode, link.getLongUrl(), redirectLogSampler.suppressed());
+        }
+
+        return Response.status(Response.Status.FOUND)
+                .location(URI.create(link.getLongUrl()))
+                .build();
+    }
+}
@@ -0,0 +1,89 @@
+package com.urlshortener.cache;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.urlshortener.UrlShortenerConfiguration.LinkCacheConfiguration;
+import com.urlshortener.core.Link;
+
+import java.util.Optional;
+import java.util.function.Function;
+
+import static com.codahale.metrics.MetricRegistry.name;
+
+/**
+ * Bounded in-memory cache of links keyed by short code, sitting in front of the database on the
+ * redirect path. Entries are evicted by size (W-TinyLFU) and by time since they were written.
+ * Only links that exist are cached; misses always fall through to the loader.
+ */
+public class LinkCache {
+
+    private final Cache<String, Link> cache;
+    private final Meter hits;
+    private final Meter misses;
+    private final Meter evictions;
+
+    public LinkCache(LinkCacheConfiguration config, MetricRegistry metrics) {
+        this.hits = metrics.meter(name(LinkCache.class, "hits"));
+        this.misses = metrics.meter(name(LinkCache.class, "misses"));
+        this.evictions = metrics.meter(name(LinkCache.class, "evictions"));
+
+        if (config.isEnabled()) {
+            this.cache = Caffeine.newBuilder()
+                    .maximumSize(config.getMaximumSize())
+                    .expireAfterWrite(config.getExpireAfterWrite().toJavaDuration())
+                    .evictionListener((String key, Link link, RemovalCause cause) -> evictions.mark())
+                    .build();
+            metrics.register(name(LinkCache.class, "size"), (Gauge<Long>) cache::estimatedSize);
+        } else {
+            this.cache = null;
+        }
+    }
+
+    /**
+     * Creates a cache that never stores anything and delegates every lookup to the loader.
+     */
+    public static LinkCache disabled() {
+        LinkCacheConfiguration config = new LinkCacheConfiguration();
+        config.setEnabled(false);
+        return new LinkCache(config, new MetricRegistry());
+    }
+
+    /**
+     * Returns the cached link for the short code, or invokes the loader on a miss and caches
+     * the result if one was found.
+     *
+     * @param shortCode The short code to resolve
+     * @param loader    Fallback lookup used on a cache miss
+     * @return The link, or empty if neither the cache nor the loader has it
+     */
+    public Optional<Link> get(String shortCode, Function<String, Optional<Link>> loader) {
+        if (cache == null) {
+            return loader.apply(shortCode);
+        }
+
+        Link cached = cache.getIfPresent(shortCode);
+        if (cached != null) {
+            hits.mark();
+            return Optional.of(cached);
+        }
+
+        misses.mark();
+        Optional<Link> loaded = loader.apply(shortCode);
+        loaded.ifPresent(this::put);
+        return loaded;
+    }
+
+    public void put(Link link) {
+        if (cache != null) {
+            cache.put(link.getShortCode(), link);
+        }
+    }
+
+    public boolean isEnabled() {
+        return cache != null;
+    }
+}
@@ -0,0 +1,213 @@
+package com.urlshortener.cache;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.hash.BloomFilter;
+import com.google.common.hash.Funnels;
+import com.urlshortener.UrlShortenerConfiguration.ShortCodeFilterConfiguration;
+import com.urlshortener.core.Base62Service;
+import com.urlshortener.core.Link;
+import com.urlshortener.db.LinkDAO;
+import io.dropwizard.lifecycle.Managed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+
+import static com.codahale.metrics.MetricRegistry.name;
+
+/**
+ * Bloom filter over every short code in the links table, consulted before the cache and the
+ * database so that lookups for codes that were never created are answered in memory.
+ *
+ * <p>The filter fails open: until the first build completes, or when disabled, every code is
+ * reported as possibly present. Links created by other API instances or by an import are added
+ * by {@link #sync()}, which reads the links created since the newest one already loaded, less an
+ * overlap for inserts that commit late. Until the next sync, such a link answers 404 here.
+ *
+ * <p>A second filter holds the displaced codes: those that are valid generated codes but are
+ * stored under an id other than the one they decode to, such as custom and imported codes. Every
+ * other generated code can be read by primary key alone.
+ */
+public class ShortCodeFilter implements Managed {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ShortCodeFilter.class);
+    private static final Base62Service BASE62 = new Base62Service();
+    // Lower bound for sizing the displaced filter, whose count is only known after a build
+    private static final long MIN_DISPLACED_INSERTIONS = 10_000;
+
+    private final ShortCodeFilterConfiguration config;
+    private final LinkDAO linkDAO;
+    private final Meter rejections;
+    private final Meter synced;
+
+    private volatile BloomFilter<CharSequence> filter;
+    // Receives concurrent puts while a rebuild is streaming codes, so none are lost on swap
+    private volatile BloomFilter<CharSequence> pending;
+    private volatile BloomFilter<CharSequence> displaced;
+    private volatile BloomFilter<CharSequence> pendingDisplaced;
+    private long displacedCount;
+    // created_at of the newest link loaded; the next sync reads from here, less the overlap
+    private Instant syncedThrough;
+
+    public ShortCodeFilter(ShortCodeFilterConfiguration config, LinkDAO linkDAO, MetricRegistry metrics) {
+        this.config = config;
+        this.linkDAO = linkDAO;
+        this.rejections = metrics.meter(name(ShortCodeFilter.class, "rejections"));
+        this.synced = metrics.meter(name(ShortCodeFilter.class, "synced"));
+
+        metrics.register(name(ShortCodeFilter.class, "false-positive-rate"), (Gauge<Double>) () -> {
+            BloomFilter<CharSequence> current = filter;
+            return current == null ? 1.0 : current.expectedFpp();
+        });
+        metrics.register(name(ShortCodeFilter.class, "approximate-size"), (Gauge<Long>) () -> {
+            BloomFilter<CharSequence> current = filter;
+            return current == null ? 0L : current.approximateElementCount();
+        });
+    }
+
+    /**
+     * Creates a filter that reports every code as possibly present.
+     */
+    public static ShortCodeFilter disabled() {
+        ShortCodeFilterConfiguration config = new ShortCodeFilterConfiguration();
+        config.setEnabled(false);
+        return new ShortCodeFilter(config, null, new MetricRegistry());
+    }
+
+    /**
+     * Returns false if the short code was neither loaded by the last rebuild nor put since.
+     */
+    public boolean mightContain(String shortCode) {
+        BloomFilter<CharSequence> current = filter;
+        if (current == null || current.mightContain(shortCode)) {
+            return true;
+        }
+        rejections.mark();
+        return false;
+    }
+
+    /**
+     * Returns false if the short code, should it exist, is stored under the id it decodes to.
+     * Reports every code as possibly displaced until the first build completes, or when disabled.
+     */
+    public boolean mightBeDisplaced(String shortCode) {
+        BloomFilter<CharSequence> current = displaced;
+        return current == null || current.mightContain(shortCode);
+    }
+
+    /**
+     * Adds the short code of a link that has its id assigned.
+     */
+    public void put(Link link) {
+        // Displaced first, so a code is never seen as present before it is seen as displaced
+        if (isDisplaced(link)) {
+            put(displaced, pendingDisplaced, link.getShortCode());
+        }
+        put(filter, pending, link.getShortCode());
+    }
+
+    private static void put(BloomFilter<CharSequence> current, BloomFilter<CharSequence> building, String shortCode) {
+        if (current != null) {
+            current.put(shortCode);
+        }
+        if (building != null) {
+            building.put(shortCode);
+        }
+    }
+
+    private static boolean isDisplaced(Link link) {
+        String shortCode = link.getShortCode();
+        return BASE62.isCanonical(shortCode) && BASE62.decode(shortCode) != link.getId();
+    }
+
+    /**
+     * Rebuilds the filter from the links table and swaps it in.
+     *
+     * @return The number of short codes loaded
+     */
+    public synchronized long rebuild() {
+        if (!config.isEnabled()) {
+            return 0;
+        }
+
+        long expectedInsertions = Math.max(config.getExpectedInsertions(), linkDAO.count() * 2);
+        BloomFilter<CharSequence> building = BloomFilter.create(
+                Funnels.stringFunnel(StandardCharsets.UTF_8),
+                expectedInsertions,
+                config.getFalsePositiveProbability());
+        // Undersized after a large import, which only sends more lookups to the index until the next rebuild
+        BloomFilter<CharSequence> buildingDisplaced = BloomFilter.create(
+                Funnels.stringFunnel(StandardCharsets.UTF_8),
+                Math.max(MIN_DISPLACED_INSERTIONS, displacedCount * 2),
+                config.getFalsePositiveProbability());
+        pending = building;
+        pendingDisplaced = buildingDisplaced;
+
+        // Read first, so links created while the table is scanned are picked up by the next sync
+        Instant newest = linkDAO.findNewestCreatedAt();
+        long[] loaded = {0, 0};
+        try {
+            linkDAO.forEachShortCode(link -> {
+                if (isDisplaced(link)) {
+                    buildingDisplaced.put(link.getShortCode());
+                    loaded[1]++;
+                }
+                building.put(link.getShortCode());
+                loaded[0]++;
+            });
+            displaced = buildingDisplaced;
+            filter = building;
+            syncedThrough = newest;
+            displacedCount = loaded[1];
+        } finally {
+            pending = null;
+            pendingDisplaced = null;
+        }
+
+        LOGGER.info("Short code filter rebuilt with {} codes, {} displaced (sized for {}, expected fpp {})",
+                loaded[0], loaded[1], expectedInsertions, building.expectedFpp());
+        return loaded[0];
+    }
+
+    /**
+     * Adds the codes of links created since the newest one already loaded, such as those created
+     * on other instances or imported. Does nothing until the filter has been built.
+     *
+     * @return The number of links read
+     */
+    public synchronized int sync() {
+        BloomFilter<CharSequence> current = filter;
+        if (current == null) {
+            return 0;
+        }
+
+        Instant since = syncedThrough == null ? Instant.EPOCH : syncedThrough.minus(config.getSyncOverlap().toJavaDuration());
+        List<Link> links = linkDAO.findCreatedSince(since);
+        for (Link link : links) {
+            put(link);
+            if (syncedThrough == null || link.getCreatedAt().isAfter(syncedThrough)) {
+                syncedThrough = link.getCreatedAt();
+            }
+        }
+        synced.mark(links.size());
+        return links.size();
+    }
+
+    @Override
+    public void start() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            // Stay open rather than block startup; the next scheduled rebuild will retry
+            LOGGER.error("Failed to build short code filter, lookups will go to the database: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void stop() {
+    }
+}
@@ -0,0 +1,85 @@
+package com.urlshortener.cache;
+
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.util.concurrent.UncheckedTimeoutException;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+
+import static com.codahale.metrics.MetricRegistry.name;
+
+/**
+ * Collapses concurrent loads of the same key into one. The first caller for a key runs the
+ * loader on its own thread; callers arriving while it runs wait for and share its result, or
+ * its exception. Nothing is kept once the load finishes, so a later call loads again.
+ *
+ * <ul>
+ *   <li>{@code <name>.coalesced}: calls that shared another caller's load instead of running their own</li>
+ *   <li>{@code <name>.timeouts}: waiting calls that gave up before the shared load finished</li>
+ * </ul>
+ */
+public class SingleFlight<K, V> {
+
+    public static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(5);
+
+    private final ConcurrentHashMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final long timeoutNanos;
+    private final Meter coalesced;
+    private final Meter timeouts;
+
+    public SingleFlight(String name, Duration timeout, MetricRegistry metrics) {
+        this.timeoutNanos = timeout.toNanos();
+        this.coalesced = metrics.meter(name(SingleFlight.class, name, "coalesced"));
+        this.timeouts = metrics.meter(name(SingleFlight.class, name, "timeouts"));
+    }
+
+    /**
+     * Loads {@code key}, sharing the load already in flight for it if there is one.
+     *
+     * @throws UncheckedTimeoutException if another caller's load did not finish within the timeout;
+     *                                   the load itself carries on
+     */
+    public V load(K key, Function<K, V> loader) {
+        CompletableFuture<V> flight = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, flight);
+        if (existing != null) {
+            coalesced.mark();
+            return await(key, existing);
+        }
+
+        try {
+            V value = loader.apply(key);
+            flight.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            flight.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    private V await(K key, CompletableFuture<V> flight) {
+        try {
+            return flight.get(timeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            timeouts.mark();
+            throw new UncheckedTimeoutException("Timed out waiting for the in-flight load of " + key, e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted waiting for the in-flight load of " + key, e);
+        } catch (ExecutionException e) {
+            // The loader's own exception, so every waiter sees what the caller that ran it saw
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw (Error) e.getCause();
+        }
+    }
+}
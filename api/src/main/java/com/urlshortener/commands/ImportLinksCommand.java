@@ -0,0 +1,119 @@
+package com.urlshortener.commands;
+
+import com.urlshortener.UrlShortenerConfiguration;
+import com.urlshortener.core.IdBlockAllocator;
+import com.urlshortener.db.IdSequenceDAO;
+import com.urlshortener.db.LinkDAO;
+import com.urlshortener.importer.ImportCheckpoint;
+import com.urlshortener.importer.LinkImporter;
+import com.urlshortener.importer.LinkRecordReader;
+import io.dropwizard.core.cli.ConfiguredCommand;
+import io.dropwizard.core.setup.Bootstrap;
+import io.dropwizard.db.ManagedDataSource;
+import net.sourceforge.argparse4j.impl.Arguments;
+import net.sourceforge.argparse4j.inf.Namespace;
+import net.sourceforge.argparse4j.inf.Subparser;
+import org.jdbi.v3.core.Jdbi;
+import org.jdbi.v3.sqlobject.SqlObjectPlugin;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Locale;
+
+/**
+ * Streams links from an NDJSON or CSV file into the links table, for migrations from another
+ * shortener. Run with
+ * {@code java -jar url-shortener-api.jar import-links --input links.ndjson config.yml}; if the
+ * import stops, running the same command again resumes from its checkpoint file.
+ */
+public class ImportLinksCommand extends ConfiguredCommand<UrlShortenerConfiguration> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ImportLinksCommand.class);
+
+    public ImportLinksCommand() {
+        super("import-links", "Imports long_url/short_code pairs from an NDJSON or CSV file");
+    }
+
+    @Override
+    public void configure(Subparser subparser) {
+        super.configure(subparser);
+        subparser.addArgument("-i", "--input")
+                .dest("input")
+                .required(true)
+                .type(Arguments.fileType().verifyCanRead())
+                .help("NDJSON file of objects, or CSV file with a header row, with long_url and short_code fields");
+        subparser.addArgument("--format")
+                .dest("format")
+                .choices("ndjson", "csv")
+                .help("Input format; defaults to csv for .csv files and ndjson otherwise");
+        subparser.addArgument("--batch-size")
+                .dest("batchSize")
+                .type(Integer.class)
+                .setDefault(1000)
+                .help("Rows per insert transaction");
+        subparser.addArgument("--threads")
+                .dest("threads")
+                .type(Integer.class)
+                .setDefault(4)
+                .help("Writer threads; keep at or below the database pool's maxSize");
+        subparser.addArgument("--checkpoint")
+                .dest("checkpoint")
+                .type(Arguments.fileType())
+                .help("Checkpoint file; defaults to the input file name with .checkpoint appended");
+        subparser.addArgument("--progress-interval")
+                .dest("progressInterval")
+                .type(Integer.class)
+                .setDefault(10)
+                .help("Seconds between progress reports and checkpoint saves");
+    }
+
+    @Override
+    protected void run(Bootstrap<UrlShortenerConfiguration> bootstrap, Namespace namespace,
+                       UrlShortenerConfiguration configuration) throws Exception {
+        Path input = namespace.<File>get("input").toPath();
+        String format = namespace.getString("format");
+        File checkpointFile = namespace.get("checkpoint");
+        Path checkpointPath = checkpointFile != null
+                ? checkpointFile.toPath()
+                : input.resolveSibling(input.getFileName() + ".checkpoint");
+        int batchSize = namespace.getInt("batchSize");
+        int threads = namespace.getInt("threads");
+        if (batchSize < 1 || threads < 1) {
+            throw new IllegalArgumentException("--batch-size and --threads must be positive");
+        }
+
+        ManagedDataSource dataSource = configuration.getDataSourceFactory()
+                .build(bootstrap.getMetricRegistry(), "import");
+        try {
+            Jdbi jdbi = Jdbi.create(dataSource);
+            jdbi.installPlugin(new SqlObjectPlugin());
+
+            // One id block per batch keeps id_sequences round trips off the per-row path
+            IdBlockAllocator idAllocator = new IdBlockAllocator(jdbi.onDemand(IdSequenceDAO.class), "links",
+                    batchSize, bootstrap.getMetricRegistry());
+            LinkImporter importer = new LinkImporter(jdbi.onDemand(LinkDAO.class), idAllocator,
+                    bootstrap.getValidatorFactory().getValidator(),
+                    configuration.getApplication().getMaxCustomShortCodeLength(),
+                    batchSize, threads, Duration.ofSeconds(namespace.getInt("progressInterval")));
+
+            ImportCheckpoint checkpoint = ImportCheckpoint.load(checkpointPath, input);
+            LinkRecordReader.Format recordFormat = format != null
+                    ? LinkRecordReader.Format.valueOf(format.toUpperCase(Locale.ROOT))
+                    : LinkRecordReader.Format.of(input);
+            try (LinkRecordReader reader = LinkRecordReader.open(input, recordFormat)) {
+                LinkImporter.Result result = importer.run(reader, checkpoint);
+                LOGGER.info("Import of {} finished in {}s: {} records read ({} rows/s), {} written, {} duplicates, "
+                                + "{} invalid, {} skipped from an earlier run",
+                        input, result.elapsed().toSeconds(), result.read(), Math.round(result.rowsPerSecond()),
+                        result.written(), result.duplicates(), result.invalid(), result.skipped());
+                LOGGER.info("Running API instances pick up imported codes at their next short code filter sync; "
+                        + "POST /tasks/rebuild-short-code-filter on each admin port to resize their filters for the new rows");
+            }
+        } finally {
+            dataSource.stop();
+        }
+    }
+}
@@ -0,0 +1,207 @@
+package com.urlshortener.core;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Service for encoding numbers to Base62 strings and decoding Base62 strings back to numbers.
+ * Base62 encoding uses digits (0-9), lowercase letters (a-z), and uppercase letters (A-Z).
+ *
+ * <p>Encoding fills a fixed-size buffer from the right and decoding uses a reverse lookup table.
+ * {@link #encode(long)} allocates only that buffer and the returned String; the other encode and
+ * decode variants work on caller-supplied buffers and do not allocate.
+ */
+public final class Base62Service {
+
+    private static final String BASE62_CHARS = "0123456789abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ";
+    private static final int BASE = BASE62_CHARS.length();
+    private static final byte[] BASE62_DIGITS = BASE62_CHARS.getBytes(StandardCharsets.US_ASCII);
+
+    /**
+     * Length of the longest encoded value, that of {@link Long#MAX_VALUE}.
+     */
+    public static final int MAX_ENCODED_LENGTH = 11;
+
+    // Digit value for each ASCII character, or -1 if the character is not a Base62 digit
+    private static final byte[] DECODE_TABLE = new byte[128];
+
+    // Largest value that can be multiplied by the base without overflowing a long
+    private static final long MAX_BEFORE_SHIFT = Long.MAX_VALUE / BASE;
+
+    static {
+        Arrays.fill(DECODE_TABLE, (byte) -1);
+        for (int i = 0; i < BASE62_DIGITS.length; i++) {
+            DECODE_TABLE[BASE62_DIGITS[i]] = (byte) i;
+        }
+    }
+
+    // Private constructor to prevent instantiation
+	public Base62Service() {}
+
+    /**
+     * Encodes a positive long number to Base62 string.
+     *
+     * @param number The positive number to encode
+     * @return Base62 encoded string
+     * @throws IllegalArgumentException if the input number is negative
+     */
+    public String encode(long number) {
+        byte[] buffer = new byte[MAX_ENCODED_LENGTH];
+        int start = fillFromRight(number, buffer, MAX_ENCODED_LENGTH);
+        return new String(buffer, start, MAX_ENCODED_LENGTH - start, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * Encodes a positive long number as ASCII bytes into {@code destination}, starting at
+     * {@code offset}.
+     *
+     * @param number      The positive number to encode
+     * @param destination The buffer to write to
+     * @param offset      The index of the first byte to write
+     * @return The number of bytes written
+     * @throws IllegalArgumentException  if the input number is negative
+     * @throws IndexOutOfBoundsException if the encoded value does not fit in the buffer
+     */
+    public int encode(long number, byte[] destination, int offset) {
+        int length = encodedLength(number);
+        Objects.checkFromIndexSize(offset, length, destination.length);
+        fillFromRight(number, destination, offset + length);
+        return length;
+    }
+
+    /**
+     * Appends the Base62 encoding of a positive long number to {@code destination}.
+     *
+     * @param number      The positive number to encode
+     * @param destination The builder to append to
+     * @throws IllegalArgumentException if the input number is negative
+     */
+    public void encode(long number, StringBuilder destination) {
+        int length = encodedLength(number);
+        int end = destination.length() + length;
+        destination.setLength(end);
+        for (int i = end - 1; i >= end - length; i--) {
+            destination.setCharAt(i, (char) BASE62_DIGITS[(int) (number % BASE)]);
+            number /= BASE;
+        }
+    }
+
+    /**
+     * Returns the number of characters in the Base62 encoding of a positive long number.
+     *
+     * @throws IllegalArgumentException if the input number is negative
+     */
+    public int encodedLength(long number) {
+        checkPositive(number);
+        int length = 1;
+        while (number >= BASE) {
+            number /= BASE;
+            length++;
+        }
+        return length;
+    }
+
+    /**
+     * Writes the digits of {@code number} so that the last one lands just before {@code end}.
+     *
+     * @return The index of the first digit written
+     */
+    private static int fillFromRight(long number, byte[] buffer, int end) {
+        checkPositive(number);
+        int position = end;
+        do {
+            buffer[--position] = BASE62_DIGITS[(int) (number % BASE)];
+            number /= BASE;
+        } while (number > 0);
+        return position;
+    }
+
+    private static void checkPositive(long number) {
+        if (number < 0) {
+            throw new IllegalArgumentException("Number must be positive");
+        }
+    }
+
+    /**
+     * Decodes a Base62 string back to the original number.
+     *
+     * @param encoded The Base62 string to decode
+     * @return The decoded number
+     * @throws IllegalArgumentException if the input string is null, empty, contains invalid
+     *                                  characters or encodes a value larger than {@link Long#MAX_VALUE}
+     */
+    public long decode(CharSequence encoded) {
+        if (encoded == null || encoded.isEmpty()) {
+            throw new IllegalArgumentException("Encoded string cannot be null or empty");
+        }
+        return decode(encoded, 0, encoded.length());
+    }
+
+    /**
+     * Decodes the Base62 characters of {@code encoded} between {@code start} (inclusive) and
+     * {@code end} (exclusive).
+     *
+     * @throws IllegalArgumentException if the range is empty, contains invalid characters or
+     *                                  encodes a value larger than {@link Long#MAX_VALUE}
+     */
+    public long decode(CharSequence encoded, int start, int end) {
+        Objects.checkFromToIndex(start, end, encoded.length());
+        if (start == end) {
+            throw new IllegalArgumentException("Encoded string cannot be null or empty");
+        }
+
+        long number = 0;
+        for (int i = start; i < end; i++) {
+            number = accumulate(number, encoded.charAt(i));
+        }
+        return number;
+    }
+
+    /**
+     * Decodes {@code length} ASCII Base62 bytes of {@code source} starting at {@code offset}.
+     *
+     * @throws IllegalArgumentException if the range is empty, contains invalid characters or
+     *                                  encodes a value larger than {@link Long#MAX_VALUE}
+     */
+    public long decode(byte[] source, int offset, int length) {
+        Objects.checkFromIndexSize(offset, length, source.length);
+        if (length == 0) {
+            throw new IllegalArgumentException("Encoded string cannot be null or empty");
+        }
+
+        long number = 0;
+        for (int i = offset; i < offset + length; i++) {
+            number = accumulate(number, (char) (source[i] & 0xFF));
+        }
+        return number;
+    }
+
+    /**
+     * Returns true if {@code encoded} is what {@link #encode(long)} returns for some value: only
+     * Base62 digits, no leading zero and no larger than {@link Long#MAX_VALUE}.
+     */
+    public boolean isCanonical(CharSequence encoded) {
+        if (encoded == null || encoded.isEmpty() || encoded.length() > MAX_ENCODED_LENGTH
+                || (encoded.length() > 1 && encoded.charAt(0) == '0')) {
+            return false;
+        }
+        try {
+            decode(encoded);
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    private static long accumulate(long number, char c) {
+        int digit = c < DECODE_TABLE.length ? DECODE_TABLE[c] : -1;
+        if (digit < 0) {
+            throw new IllegalArgumentException("Invalid character in encoded string: " + c);
+        }
+        if (number > MAX_BEFORE_SHIFT || number * BASE > Long.MAX_VALUE - digit) {
+            throw new IllegalArgumentException("Encoded value exceeds the maximum of " + Long.MAX_VALUE);
+        }
+        return number * BASE + digit;
+    }
+}
@@ -0,0 +1,34 @@
+package com.urlshortener.core;
+
+import java.time.Instant;
+
+/**
+ * A link's clicks in one bucket of a click rollup table.
+ */
+public class ClickBucket {
+    private Instant bucketStart;
+    private long clicks;
+
+    public ClickBucket() {}
+
+    public ClickBucket(Instant bucketStart, long clicks) {
+        this.bucketStart = bucketStart;
+        this.clicks = clicks;
+    }
+
+    public Instant getBucketStart() {
+        return bucketStart;
+    }
+
+    public void setBucketStart(Instant bucketStart) {
+        this.bucketStart = bucketStart;
+    }
+
+    public long getClicks() {
+        return clicks;
+    }
+
+    public void setClicks(long clicks) {
+        this.clicks = clicks;
+    }
+}
@@ -0,0 +1,53 @@
+package com.urlshortener.core;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.urlshortener.db.IdSequenceDAO;
+
+import static com.codahale.metrics.MetricRegistry.name;
+
+/**
+ * Hands out ids from blocks reserved in the id_sequences table (hi/lo allocation), so a new
+ * link's id, and therefore its Base62 short code, is known before it is inserted.
+ *
+ * Ids left in a block when the process stops are never reused, so the sequence has gaps.
+ */
+public class IdBlockAllocator {
+
+    private final IdSequenceDAO idSequenceDAO;
+    private final String sequenceName;
+    private final int blockSize;
+    private final Timer refills;
+
+    private long next;
+    private long limit;
+
+    public IdBlockAllocator(IdSequenceDAO idSequenceDAO, String sequenceName, int blockSize, MetricRegistry metrics) {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("Block size must be positive");
+        }
+        this.idSequenceDAO = idSequenceDAO;
+        this.sequenceName = sequenceName;
+        this.blockSize = blockSize;
+        this.refills = metrics.timer(name(IdBlockAllocator.class, sequenceName, "refills"));
+        metrics.register(name(IdBlockAllocator.class, sequenceName, "remaining"), (Gauge<Long>) this::remaining);
+    }
+
+    /**
+     * Returns the next unused id, reserving a new block from the database when the current one is exhausted.
+     */
+    public synchronized long nextId() {
+        if (next >= limit) {
+            try (Timer.Context ignored = refills.time()) {
+                next = idSequenceDAO.reserveBlock(sequenceName, blockSize);
+                limit = next + blockSize;
+            }
+        }
+        return next++;
+    }
+
+    private synchronized long remaining() {
+        return limit - next;
+    }
+}
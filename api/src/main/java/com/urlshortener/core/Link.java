@@ -1,10 +1,14 @@
 package com.urlshortener.core;
 
+import com.google.common.hash.Hashing;
+
+import java.nio.charset.StandardCharsets;
 import java.time.Instant;
 
 public class Link {
     private Long id;
     private String longUrl;
+    private Long longUrlHash;
     private String shortCode;
     private Instant createdAt;
     private Integer clickCount;
@@ -13,6 +17,7 @@ public class Link {
 
     public Link(String longUrl, String shortCode) {
         this.longUrl = longUrl;
+        this.longUrlHash = longUrl == null ? null : hashLongUrl(longUrl);
         this.shortCode = shortCode;
         // createdAt will be set by database DEFAULT CURRENT_TIMESTAMP
     }
@@ -33,6 +38,22 @@ public class Link {
         this.longUrl = longUrl;
     }
 
+    /**
+     * 64-bit hash of a long URL, stored in long_url_hash so that links for the same URL can be
+     * found through an index. Different URLs can share a hash, so matches must compare the URL.
+     */
+    public static long hashLongUrl(String longUrl) {
+        return Hashing.murmur3_128().hashString(longUrl, StandardCharsets.UTF_8).asLong();
+    }
+
+    public Long getLongUrlHash() {
+        return longUrlHash;
+    }
+
+    public void setLongUrlHash(Long longUrlHash) {
+        this.longUrlHash = longUrlHash;
+    }
+
     public String getShortCode() {
         return shortCode;
     }
@@ -0,0 +1,22 @@
+package com.urlshortener.db;
+
+import com.urlshortener.core.ClickBucket;
+import org.jdbi.v3.sqlobject.config.RegisterBeanMapper;
+import org.jdbi.v3.sqlobject.customizer.Bind;
+import org.jdbi.v3.sqlobject.customizer.Define;
+import org.jdbi.v3.sqlobject.statement.SqlQuery;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Reads the click rollup tables the telemetry consumer maintains.
+ */
+@RegisterBeanMapper(ClickBucket.class)
+public interface ClickRollupDAO {
+
+    @SqlQuery("SELECT bucket_start, clicks FROM <table> "
+            + "WHERE link_id = :linkId AND bucket_start >= :from AND bucket_start < :to ORDER BY bucket_start")
+    List<ClickBucket> findBuckets(@Define("table") String table, @Bind("linkId") long linkId,
+                                  @Bind("from") Instant from, @Bind("to") Instant to);
+}
@@ -0,0 +1,27 @@
+package com.urlshortener.db;
+
+import org.jdbi.v3.sqlobject.customizer.Bind;
+import org.jdbi.v3.sqlobject.statement.SqlQuery;
+import org.jdbi.v3.sqlobject.statement.SqlUpdate;
+import org.jdbi.v3.sqlobject.transaction.Transaction;
+
+public interface IdSequenceDAO {
+
+    @SqlQuery("SELECT next_value FROM id_sequences WHERE name = :name FOR UPDATE")
+    long lockNextValue(@Bind("name") String name);
+
+    @SqlUpdate("UPDATE id_sequences SET next_value = :nextValue WHERE name = :name")
+    void updateNextValue(@Bind("name") String name, @Bind("nextValue") long nextValue);
+
+    /**
+     * Reserves {@code blockSize} consecutive ids from the named sequence in one transaction.
+     *
+     * @return The first id of the reserved block
+     */
+    @Transaction
+    default long reserveBlock(String name, int blockSize) {
+        long start = lockNextValue(name);
+        updateNextValue(name, start + blockSize);
+        return start;
+    }
+}
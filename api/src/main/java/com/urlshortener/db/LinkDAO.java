@@ -0,0 +1,112 @@
+package com.urlshortener.db;
+
+import com.urlshortener.core.Link;
+import org.jdbi.v3.sqlobject.config.RegisterBeanMapper;
+import org.jdbi.v3.sqlobject.customizer.Bind;
+import org.jdbi.v3.sqlobject.customizer.BindBean;
+import org.jdbi.v3.sqlobject.customizer.BindList;
+import org.jdbi.v3.sqlobject.statement.BatchChunkSize;
+import org.jdbi.v3.sqlobject.statement.SqlBatch;
+import org.jdbi.v3.sqlobject.statement.SqlQuery;
+import org.jdbi.v3.sqlobject.statement.SqlUpdate;
+import org.jdbi.v3.sqlobject.transaction.Transaction;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+
+@RegisterBeanMapper(Link.class)
+public interface LinkDAO {
+
+    int SHORT_CODE_PAGE_SIZE = 10_000;
+
+    @SqlUpdate("INSERT INTO links (id, long_url, long_url_hash, short_code) VALUES (:id, :longUrl, :longUrlHash, :shortCode)")
+    void insert(@BindBean Link link);
+
+    // Sent as one JDBC batch per chunk; MySQL folds each into a multi-row INSERT with rewriteBatchedStatements
+    @SqlBatch("INSERT INTO links (id, long_url, long_url_hash, short_code) VALUES (:id, :longUrl, :longUrlHash, :shortCode)")
+    @Transaction
+    void insertAll(@BindBean List<Link> links, @BatchChunkSize int chunkSize);
+
+    // Skips rows whose short code already exists, so a resumed import can replay its last batches.
+    // Unlike INSERT IGNORE, the no-op update leaves truncation and other errors to fail the batch.
+    @SqlBatch("INSERT INTO links (id, long_url, long_url_hash, short_code) VALUES (:id, :longUrl, :longUrlHash, :shortCode) "
+            + "ON DUPLICATE KEY UPDATE id = id")
+    void insertAllSkippingDuplicates(@BindBean List<Link> links);
+
+    /**
+     * Inserts the links whose short code is neither in the table nor earlier in the list.
+     * Duplicates are found with a lookup, since MySQL reports no per-row update counts for a batch
+     * rewritten into one statement.
+     *
+     * @return The number of links inserted
+     */
+    @Transaction
+    default int insertAllMissing(List<Link> links) {
+        Set<String> seen = new HashSet<>(findExistingShortCodes(links.stream().map(Link::getShortCode).toList()));
+        List<Link> missing = links.stream()
+                .filter(link -> seen.add(link.getShortCode()))
+                .toList();
+        if (!missing.isEmpty()) {
+            // Still skips codes that another writer inserts after the lookup
+            insertAllSkippingDuplicates(missing);
+        }
+        return missing.size();
+    }
+
+    @SqlQuery("SELECT * FROM links WHERE id = :id")
+    Optional<Link> findById(@Bind("id") long id);
+
+    @SqlQuery("SELECT * FROM links WHERE short_code = :shortCode")
+    Optional<Link> findByShortCode(@Bind("shortCode") String shortCode);
+
+    @SqlQuery("SELECT * FROM links WHERE long_url_hash = :longUrlHash")
+    List<Link> findByLongUrlHash(@Bind("longUrlHash") long longUrlHash);
+
+    @SqlQuery("SELECT * FROM links WHERE long_url_hash IN (<longUrlHashes>)")
+    List<Link> findByLongUrlHashes(@BindList("longUrlHashes") Collection<Long> longUrlHashes);
+
+    @SqlQuery("SELECT short_code FROM links WHERE short_code IN (<shortCodes>)")
+    Set<String> findExistingShortCodes(@BindList("shortCodes") Collection<String> shortCodes);
+
+    @SqlQuery("SELECT COUNT(*) FROM links")
+    long count();
+
+    @SqlQuery("SELECT MAX(created_at) FROM links")
+    Instant findNewestCreatedAt();
+
+    @SqlQuery("SELECT id, short_code, created_at FROM links WHERE created_at >= :since")
+    List<Link> findCreatedSince(@Bind("since") Instant since);
+
+    @SqlQuery("SELECT id, short_code FROM links WHERE id > :afterId ORDER BY id LIMIT :limit")
+    List<Link> findShortCodesAfter(@Bind("afterId") long afterId, @Bind("limit") int limit);
+
+    default void forEachShortCode(Consumer<Link> consumer) {
+        forEachShortCode(SHORT_CODE_PAGE_SIZE, consumer);
+    }
+
+    /**
+     * Passes every link, with only its id and short code set, to {@code consumer}, reading the
+     * table in primary key pages so that no single result set holds it all.
+     */
+    default void forEachShortCode(int pageSize, Consumer<Link> consumer) {
+        long afterId = Long.MIN_VALUE;
+        List<Link> page;
+        do {
+            page = findShortCodesAfter(afterId, pageSize);
+            for (Link link : page) {
+                consumer.accept(link);
+            }
+            if (!page.isEmpty()) {
+                afterId = page.get(page.size() - 1).getId();
+            }
+        } while (page.size() == pageSize);
+    }
+
+    @SqlUpdate("UPDATE links SET click_count = click_count + 1 WHERE id = :id")
+    void incrementClickCount(@Bind("id") long id);
+}
\ No newline at end of file
@@ -0,0 +1,18 @@
+package com.urlshortener.db;
+
+import org.jdbi.v3.sqlobject.customizer.Bind;
+import org.jdbi.v3.sqlobject.statement.SqlQuery;
+
+import java.time.Instant;
+import java.util.function.Consumer;
+
+/**
+ * Reads the hourly visitor sketches the telemetry consumer writes to link_visitor_sketches.
+ */
+public interface VisitorSketchDAO {
+
+    // Streams the sketches so a long range is merged without holding every bucket in memory
+    @SqlQuery("SELECT sketch FROM link_visitor_sketches WHERE link_id = :linkId AND bucket_start >= :from AND bucket_start < :to")
+    void forEachSketch(@Bind("linkId") long linkId, @Bind("from") Instant from, @Bind("to") Instant to,
+                       Consumer<byte[]> consumer);
+}
@@ -0,0 +1,90 @@
+package com.urlshortener.importer;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.TreeMap;
+
+/**
+ * How far an import has got, as the number of leading records of the source file that are all
+ * written. Batches finish out of order on the writer threads, so the checkpoint only moves past a
+ * batch once every earlier batch has finished too. Saved as a small JSON file that is replaced
+ * atomically, so a crash leaves either the old or the new checkpoint.
+ */
+public class ImportCheckpoint {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final Path file;
+    private final String source;
+
+    // Batches that finished ahead of an earlier one, by sequence number, with their last record
+    private final TreeMap<Long, Long> finishedAhead = new TreeMap<>();
+    private long nextSequence;
+    private long records;
+
+    private ImportCheckpoint(Path file, String source, long records) {
+        this.file = file;
+        this.source = source;
+        this.records = records;
+    }
+
+    /**
+     * Loads the checkpoint stored in {@code file}, or starts from the beginning if there is none.
+     *
+     * @throws IllegalStateException if the checkpoint belongs to a different source file
+     */
+    public static ImportCheckpoint load(Path file, Path source) throws IOException {
+        String sourceName = source.toAbsolutePath().toString();
+        if (!Files.exists(file)) {
+            return new ImportCheckpoint(file, sourceName, 0);
+        }
+
+        JsonNode saved = MAPPER.readTree(file.toFile());
+        if (!sourceName.equals(saved.path("source").asText())) {
+            throw new IllegalStateException("Checkpoint " + file + " is for " + saved.path("source").asText()
+                    + ", not " + sourceName);
+        }
+        return new ImportCheckpoint(file, sourceName, saved.path("records").asLong());
+    }
+
+    /**
+     * Number of leading records that are written and can be skipped when resuming.
+     */
+    public synchronized long getRecords() {
+        return records;
+    }
+
+    /**
+     * Records that batch {@code sequence}, the batches of this run being numbered from 0, has been
+     * written, along with every record up to and including {@code lastRecord}.
+     */
+    public synchronized void batchFinished(long sequence, long lastRecord) {
+        finishedAhead.put(sequence, lastRecord);
+        Long last;
+        while ((last = finishedAhead.remove(nextSequence)) != null) {
+            records = last;
+            nextSequence++;
+        }
+    }
+
+    /**
+     * Writes the checkpoint to its file. Synchronized because the progress reporter and the end of
+     * the import both save, and they share the temporary file.
+     */
+    public synchronized void save() {
+        long saved = records;
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            MAPPER.writeValue(temp.toFile(), MAPPER.createObjectNode().put("source", source).put("records", saved));
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not save import checkpoint " + file, e);
+        }
+    }
+}
@@ -0,0 +1,237 @@
+package com.urlshortener.importer;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.urlshortener.core.IdBlockAllocator;
+import com.urlshortener.core.Link;
+import com.urlshortener.db.LinkDAO;
+import com.urlshortener.importer.LinkRecordReader.LinkRecord;
+import com.urlshortener.models.CreateLinkRequest;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Loads links from a {@link LinkRecordReader} into the links table. The calling thread parses and
+ * validates records and groups them into batches, which writer threads insert, one transaction per
+ * batch. At most one batch per writer waits in the queue, after which the reader inserts the next
+ * batch itself, so memory use stays bounded by the batch size whatever the size of the file.
+ *
+ * <p>Rows are inserted with their short codes as given, like custom codes, and rows whose short
+ * code already exists are skipped. That makes replaying the batches after the last checkpoint
+ * harmless when an import is resumed. An imported code may equal the Base62 code of an id not
+ * handed out yet; link creation skips such ids, as it does for custom codes.
+ */
+public class LinkImporter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LinkImporter.class);
+    private static final int LOGGED_INVALID_RECORDS = 10;
+
+    public record Result(long skipped, long read, long written, long duplicates, long invalid, Duration elapsed) {
+
+        public double rowsPerSecond() {
+            return elapsed.isZero() ? 0 : read * 1000.0 / elapsed.toMillis();
+        }
+    }
+
+    private final LinkDAO linkDAO;
+    private final IdBlockAllocator idAllocator;
+    private final Validator validator;
+    private final int maxShortCodeLength;
+    private final int batchSize;
+    private final int threads;
+    private final Duration progressInterval;
+
+    private final LongAdder read = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder duplicates = new LongAdder();
+    private final LongAdder invalid = new LongAdder();
+    private final AtomicReference<Exception> failure = new AtomicReference<>();
+
+    public LinkImporter(LinkDAO linkDAO, IdBlockAllocator idAllocator, Validator validator, int maxShortCodeLength,
+                        int batchSize, int threads, Duration progressInterval) {
+        this.linkDAO = linkDAO;
+        this.idAllocator = idAllocator;
+        this.validator = validator;
+        this.maxShortCodeLength = maxShortCodeLength;
+        this.batchSize = batchSize;
+        this.threads = threads;
+        this.progressInterval = progressInterval;
+    }
+
+    /**
+     * Imports every record after the checkpoint, saving the checkpoint as batches are written.
+     *
+     * @throws IllegalStateException if a batch could not be written; the checkpoint is left at the
+     *                               last record before the first failed batch
+     */
+    public Result run(LinkRecordReader reader, ImportCheckpoint checkpoint) throws IOException, InterruptedException {
+        long started = System.nanoTime();
+        long skipped = reader.skip(checkpoint.getRecords());
+        if (skipped > 0) {
+            LOGGER.info("Resuming after {} records already imported", skipped);
+        }
+
+        ThreadPoolExecutor writers = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(threads),
+                new ThreadFactoryBuilder().setNameFormat("link-import-%d").build(),
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        ScheduledExecutorService progress = Executors.newSingleThreadScheduledExecutor(
+                new ThreadFactoryBuilder().setNameFormat("link-import-progress").setDaemon(true).build());
+        long intervalMs = progressInterval.toMillis();
+        progress.scheduleAtFixedRate(new ProgressReporter(checkpoint), intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+
+        try {
+            readBatches(reader, checkpoint, writers);
+        } catch (IOException | RuntimeException e) {
+            // Keep what was written, without letting a failed save hide why reading stopped
+            stop(writers, progress);
+            try {
+                checkpoint.save();
+            } catch (RuntimeException saveFailure) {
+                e.addSuppressed(saveFailure);
+            }
+            throw e;
+        }
+        stop(writers, progress);
+        checkpoint.save();
+
+        if (failure.get() != null) {
+            throw new IllegalStateException("Import stopped after record " + checkpoint.getRecords(), failure.get());
+        }
+        return new Result(skipped, read.sum(), written.sum(), duplicates.sum(), invalid.sum(),
+                Duration.ofNanos(System.nanoTime() - started));
+    }
+
+    private static void stop(ThreadPoolExecutor writers, ScheduledExecutorService progress) throws InterruptedException {
+        writers.shutdown();
+        writers.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+        progress.shutdownNow();
+        progress.awaitTermination(Long.MAX_VALUE, TimeUnit.MILLISECONDS);
+    }
+
+    private void readBatches(LinkRecordReader reader, ImportCheckpoint checkpoint, ThreadPoolExecutor writers)
+            throws IOException {
+        long sequence = 0;
+        long lastRecord = 0;
+        List<Link> batch = new ArrayList<>(batchSize);
+
+        LinkRecord record;
+        while (failure.get() == null && (record = reader.next()) != null) {
+            read.increment();
+            lastRecord = record.number();
+
+            String problem = validate(record);
+            if (problem != null) {
+                invalid.increment();
+                if (invalid.sum() <= LOGGED_INVALID_RECORDS) {
+                    LOGGER.warn("Skipping invalid record {}: {}", record.number(), problem);
+                }
+                continue;
+            }
+
+            Link link = new Link(record.longUrl(), record.shortCode());
+            link.setId(idAllocator.nextId());
+            batch.add(link);
+            if (batch.size() == batchSize) {
+                submit(writers, checkpoint, sequence++, batch, lastRecord);
+                batch = new ArrayList<>(batchSize);
+            }
+        }
+
+        // The final batch may be empty but still moves the checkpoint past trailing invalid records
+        if (failure.get() == null) {
+            submit(writers, checkpoint, sequence, batch, lastRecord);
+        }
+    }
+
+    private void submit(ThreadPoolExecutor writers, ImportCheckpoint checkpoint, long sequence,
+                        List<Link> batch, long lastRecord) {
+        writers.execute(() -> {
+            if (failure.get() != null) {
+                return;
+            }
+            try {
+                if (!batch.isEmpty()) {
+                    write(batch);
+                }
+                checkpoint.batchFinished(sequence, lastRecord);
+            } catch (Exception e) {
+                LOGGER.error("Writing the batch ending at record {} failed: {}", lastRecord, e.getMessage());
+                failure.compareAndSet(null, e);
+            }
+        });
+    }
+
+    private void write(List<Link> batch) {
+        int inserted = linkDAO.insertAllMissing(batch);
+        duplicates.add(batch.size() - inserted);
+        written.add(inserted);
+    }
+
+    /**
+     * Applies the checks of {@link CreateLinkRequest}, and requires the short code being migrated.
+     *
+     * @return A description of what is wrong, or {@code null} if the record is valid
+     */
+    private String validate(LinkRecord record) {
+        CreateLinkRequest request = new CreateLinkRequest();
+        request.setLongUrl(record.longUrl());
+        request.setCustomShortCode(record.shortCode());
+        Set<ConstraintViolation<CreateLinkRequest>> violations = validator.validate(request);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .map(violation -> violation.getPropertyPath() + " " + violation.getMessage())
+                    .collect(Collectors.joining(", "));
+        }
+        if (record.shortCode() == null) {
+            return "short_code is missing";
+        }
+        if (record.shortCode().length() > maxShortCodeLength) {
+            return "short_code exceeds maximum length of " + maxShortCodeLength;
+        }
+        return null;
+    }
+
+    private class ProgressReporter implements Runnable {
+
+        private final ImportCheckpoint checkpoint;
+        private long lastRead;
+        private long lastNanos = System.nanoTime();
+
+        ProgressReporter(ImportCheckpoint checkpoint) {
+            this.checkpoint = checkpoint;
+        }
+
+        @Override
+        public void run() {
+            long now = System.nanoTime();
+            long total = read.sum();
+            double rate = (total - lastRead) * 1e9 / Math.max(1, now - lastNanos);
+            lastRead = total;
+            lastNanos = now;
+
+            try {
+                checkpoint.save();
+            } catch (RuntimeException e) {
+                LOGGER.warn("{}", e.getMessage());
+            }
+            LOGGER.info("Read {} records ({} rows/s), {} written, {} duplicates, {} invalid, checkpoint at record {}",
+                    total, Math.round(rate), written.sum(), duplicates.sum(), invalid.sum(), checkpoint.getRecords());
+        }
+    }
+}
@@ -0,0 +1,129 @@
+package com.urlshortener.importer;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.dataformat.csv.CsvFactory;
+import com.fasterxml.jackson.dataformat.csv.CsvParser;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Locale;
+
+/**
+ * Streams link records from an NDJSON or CSV file with Jackson's streaming parser, so only the
+ * current record is held in memory. NDJSON lines are objects and CSV files start with a header
+ * row; either way {@code long_url} and {@code short_code} are read (or {@code longUrl} and
+ * {@code shortCode}), and any other fields are ignored.
+ */
+public class LinkRecordReader implements Closeable {
+
+    public enum Format {
+        NDJSON,
+        CSV;
+
+        /**
+         * Picks the format from the file extension, defaulting to NDJSON.
+         */
+        public static Format of(Path file) {
+            return file.getFileName().toString().toLowerCase(Locale.ROOT).endsWith(".csv") ? CSV : NDJSON;
+        }
+    }
+
+    /**
+     * One line of the input. {@code number} counts records from 1, and is what checkpoints refer to.
+     */
+    public record LinkRecord(long number, String longUrl, String shortCode) {
+    }
+
+    private final JsonParser parser;
+    private long number;
+
+    LinkRecordReader(JsonParser parser) {
+        this.parser = parser;
+    }
+
+    public static LinkRecordReader open(Path file, Format format) throws IOException {
+        // Jackson buffers the stream itself
+        InputStream in = Files.newInputStream(file);
+        return switch (format) {
+            case NDJSON -> new LinkRecordReader(new JsonFactory().createParser(in));
+            case CSV -> {
+                CsvParser parser = new CsvFactory().createParser(in);
+                parser.setSchema(CsvSchema.emptySchema().withHeader());
+                yield new LinkRecordReader(parser);
+            }
+        };
+    }
+
+    /**
+     * Reads the next record.
+     *
+     * @return The record, or {@code null} at the end of the file
+     * @throws IOException if the file cannot be read or a record is not an object
+     */
+    public LinkRecord next() throws IOException {
+        if (!nextObject()) {
+            return null;
+        }
+
+        String longUrl = null;
+        String shortCode = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "long_url", "longUrl" -> longUrl = text(value);
+                case "short_code", "shortCode" -> shortCode = text(value);
+                default -> parser.skipChildren();
+            }
+        }
+        return new LinkRecord(number, longUrl, shortCode);
+    }
+
+    /**
+     * Skips up to {@code records} records without reading their fields.
+     *
+     * @return The number of records skipped, fewer than requested if the file ends first
+     */
+    public long skip(long records) throws IOException {
+        long skipped = 0;
+        while (skipped < records && nextObject()) {
+            parser.skipChildren();
+            skipped++;
+        }
+        return skipped;
+    }
+
+    private boolean nextObject() throws IOException {
+        JsonToken token = parser.nextToken();
+        if (token == null) {
+            return false;
+        }
+        number++;
+        if (token != JsonToken.START_OBJECT) {
+            throw new JsonParseException(parser, "Record " + number + " is not an object");
+        }
+        return true;
+    }
+
+    // Blank CSV cells and JSON nulls both read as missing
+    private String text(JsonToken value) throws IOException {
+        if (!value.isScalarValue()) {
+            parser.skipChildren();
+            return null;
+        }
+        String text = value == JsonToken.VALUE_NULL ? null : parser.getText();
+        return text == null || text.isEmpty() ? null : text;
+    }
+
+    @Override
+    public void close() throws IOException {
+        parser.close();
+    }
+}
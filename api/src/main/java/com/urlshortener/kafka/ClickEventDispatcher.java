@@ -0,0 +1,161 @@
+package com.urlshortener.kafka;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.urlshortener.UrlShortenerConfiguration.ClickDispatchConfiguration;
+import com.urlshortener.UrlShortenerConfiguration.ClickDispatchConfiguration.OverflowPolicy;
+import com.urlshortener.events.ClickEvent;
+import com.urlshortener.logging.LogSampler;
+import com.urlshortener.metrics.HdrHistogramReservoir;
+
+import io.dropwizard.lifecycle.Managed;
+
+/**
+ * Hands click events to the {@link EventPublisher} on a dedicated, bounded thread pool so that
+ * request threads never wait on Kafka. When the queue is full the configured
+ * {@link OverflowPolicy} decides whether the event is dropped, sampled or waited for.
+ */
+public class ClickEventDispatcher implements Managed {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ClickEventDispatcher.class);
+
+    private final EventPublisher eventPublisher;
+    private final ThreadPoolExecutor executor;
+    private final Meter dropped;
+    // Time from dispatch until a pool thread starts publishing the event
+    private final Timer queued;
+    // Failures are counted by EventPublisher; while they persist only one is logged every 10 seconds
+    private final LogSampler failureLogSampler = new LogSampler(Duration.ofSeconds(10));
+
+    private ClickEventDispatcher(EventPublisher eventPublisher, ThreadPoolExecutor executor, Meter dropped,
+                                 Timer queued) {
+        this.eventPublisher = eventPublisher;
+        this.executor = executor;
+        this.dropped = dropped;
+        this.queued = queued;
+    }
+
+    public ClickEventDispatcher(EventPublisher eventPublisher, ClickDispatchConfiguration config, MetricRegistry metrics) {
+        this(eventPublisher, config, metrics, false);
+    }
+
+    /**
+     * @param virtualThreads Whether to publish on virtual threads instead of platform threads. The
+     *                       pool size and queue bound apply either way.
+     */
+    public ClickEventDispatcher(EventPublisher eventPublisher, ClickDispatchConfiguration config, MetricRegistry metrics,
+                                boolean virtualThreads) {
+        this.eventPublisher = eventPublisher;
+        this.dropped = metrics.meter(MetricRegistry.name(ClickEventDispatcher.class, "dropped"));
+        this.queued = HdrHistogramReservoir.timer(metrics, MetricRegistry.name(ClickEventDispatcher.class, "queued"));
+
+        BlockingQueue<Runnable> queue = new ArrayBlockingQueue<>(config.getQueueCapacity());
+        this.executor = new ThreadPoolExecutor(
+                config.getThreads(),
+                config.getThreads(),
+                0L, TimeUnit.MILLISECONDS,
+                queue,
+                virtualThreads
+                        ? Thread.ofVirtual().name("click-dispatch-", 0).factory()
+                        : new ThreadFactoryBuilder().setNameFormat("click-dispatch-%d").setDaemon(true).build(),
+                overflowHandler(config));
+
+        metrics.register(MetricRegistry.name(ClickEventDispatcher.class, "queue-depth"), (Gauge<Integer>) queue::size);
+    }
+
+    /**
+     * Creates a dispatcher that publishes on the calling thread.
+     */
+    public static ClickEventDispatcher direct(EventPublisher eventPublisher) {
+        return new ClickEventDispatcher(eventPublisher, null, new Meter(), new Timer());
+    }
+
+    /**
+     * Queues the event for publishing. Never throws; failures are logged and counted.
+     */
+    public void dispatch(ClickEvent event) {
+        if (executor == null) {
+            publish(event);
+            return;
+        }
+        long dispatchedAt = System.nanoTime();
+        executor.execute(() -> {
+            queued.update(System.nanoTime() - dispatchedAt, TimeUnit.NANOSECONDS);
+            publish(event);
+        });
+    }
+
+    private void publish(ClickEvent event) {
+        try {
+            eventPublisher.publishClickEvent(event);
+        } catch (Exception e) {
+            if (failureLogSampler.shouldLog()) {
+                LOGGER.error("Failed to record click event for short code {}: {} "
+                                + "({} more failures since the last logged)",
+                        event.getShortCode(), e.getMessage(), failureLogSampler.suppressed());
+            }
+        }
+    }
+
+    private RejectedExecutionHandler overflowHandler(ClickDispatchConfiguration config) {
+        long blockTimeoutMs = config.getBlockTimeout().toMilliseconds();
+        AtomicLong overflowCount = new AtomicLong();
+
+        return (task, pool) -> {
+            if (pool.isShutdown()) {
+                dropped.mark();
+                return;
+            }
+
+            boolean shouldWait = switch (config.getOverflowPolicy()) {
+                case DROP -> false;
+                case SAMPLE -> overflowCount.getAndIncrement() % config.getSampleRate() == 0;
+                case BLOCK -> true;
+            };
+
+            if (shouldWait && offer(pool, task, blockTimeoutMs)) {
+                return;
+            }
+            dropped.mark();
+        };
+    }
+
+    private static boolean offer(ThreadPoolExecutor pool, Runnable task, long timeoutMs) {
+        try {
+            return pool.getQueue().offer(task, timeoutMs, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    @Override
+    public void start() {
+    }
+
+    @Override
+    public void stop() throws InterruptedException {
+        if (executor == null) {
+            return;
+        }
+        executor.shutdown();
+        if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+            LOGGER.warn("Click dispatch queue did not drain before shutdown, {} events discarded",
+                    executor.shutdownNow().size());
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.urlshortener.kafka;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Serializer;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.urlshortener.UrlShortenerConfiguration.KafkaConfiguration.EventFormat;
+import com.urlshortener.events.ClickEvent;
+import com.urlshortener.events.ClickEventCodec;
+
+/**
+ * Serializes click events for the link_clicks topic as JSON or in {@link ClickEventCodec}'s
+ * binary format. The telemetry consumer tells the formats apart per record, so producers can be
+ * switched from one to the other while events of both are on the topic.
+ */
+public class ClickEventSerializer implements Serializer<ClickEvent> {
+
+    private final EventFormat format;
+    private final ObjectMapper objectMapper;
+
+    public ClickEventSerializer(EventFormat format, ObjectMapper objectMapper) {
+        this.format = format;
+        this.objectMapper = objectMapper;
+    }
+
+    public EventFormat getFormat() {
+        return format;
+    }
+
+    /**
+     * @throws SerializationException if the event cannot be written in the configured format
+     */
+    @Override
+    public byte[] serialize(String topic, ClickEvent event) {
+        if (event == null) {
+            return null;
+        }
+        try {
+            return switch (format) {
+                case JSON -> objectMapper.writeValueAsBytes(event);
+                case BINARY -> ClickEventCodec.encode(event);
+            };
+        } catch (JsonProcessingException | IllegalArgumentException e) {
+            throw new SerializationException("Could not serialize click event for short code "
+                    + event.getShortCode(), e);
+        }
+    }
+}
@@ -0,0 +1,387 @@
+package com.urlshortener.kafka;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.urlshortener.UrlShortenerConfiguration.ClickSpoolConfiguration;
+
+import io.dropwizard.lifecycle.Managed;
+
+/**
+ * Append-only local spool for click events that could not be handed to Kafka.
+ *
+ * <p>Events are written to fixed-size, memory-mapped segment files in arrival order, so a
+ * process crash loses nothing the OS has already seen. Each record is
+ * {@code [int length][int keyLength][key bytes][value bytes]}; a zero length marks the end of the
+ * written data in a segment. A small checkpoint file records how far the drainer has replayed,
+ * and fully replayed segments are deleted.
+ */
+public class ClickEventSpool implements Managed {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ClickEventSpool.class);
+
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".spool";
+    private static final String CHECKPOINT_FILE = "checkpoint";
+    private static final int LENGTH_BYTES = Integer.BYTES;
+
+    /**
+     * A spooled event with its value as serialized for Kafka, in whichever event format was
+     * configured when it was spooled.
+     */
+    public record SpooledEvent(String key, byte[] value) {
+    }
+
+    /**
+     * Events read from the spool together with the position just after the last of them.
+     */
+    public record Batch(List<SpooledEvent> events, long segment, int position) {
+    }
+
+    private final Path directory;
+    private final int segmentSize;
+    private final long retentionMillis;
+    private final long maxBytes;
+
+    private final Meter appended;
+    private final Meter expired;
+    private final Meter rejected;
+
+    private final TreeMap<Long, Path> segments = new TreeMap<>();
+    private final MappedByteBuffer checkpoint;
+
+    private long writeSegment;
+    private MappedByteBuffer writeBuffer;
+
+    private long readSegment;
+    private int readPosition;
+    private MappedByteBuffer readBuffer;
+
+    public ClickEventSpool(ClickSpoolConfiguration config, MetricRegistry metrics) {
+        this.directory = Paths.get(config.getDirectory());
+        this.segmentSize = Math.toIntExact(config.getSegmentSize().toBytes());
+        this.retentionMillis = config.getRetention().toMilliseconds();
+        this.maxBytes = config.getMaxSize().toBytes();
+
+        this.appended = metrics.meter(MetricRegistry.name(ClickEventSpool.class, "appended"));
+        this.expired = metrics.meter(MetricRegistry.name(ClickEventSpool.class, "expired-segments"));
+        this.rejected = metrics.meter(MetricRegistry.name(ClickEventSpool.class, "rejected"));
+
+        try {
+            Files.createDirectories(directory);
+            try (Stream<Path> files = Files.list(directory)) {
+                files.filter(ClickEventSpool::isSegment).forEach(path -> segments.put(segmentNumber(path), path));
+            }
+            this.checkpoint = map(directory.resolve(CHECKPOINT_FILE), 2 * Long.BYTES, FileChannel.MapMode.READ_WRITE);
+            openWriteSegment();
+            openReadSegment(checkpoint.getLong(0), (int) checkpoint.getLong(Long.BYTES));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to open click event spool in " + directory, e);
+        }
+
+        metrics.register(MetricRegistry.name(ClickEventSpool.class, "pending-bytes"), (Gauge<Long>) this::pendingBytes);
+        metrics.register(MetricRegistry.name(ClickEventSpool.class, "segments"), (Gauge<Integer>) this::segmentCount);
+
+        LOGGER.info("Click event spool opened in {} with {} segments, {} bytes pending",
+                directory, segments.size(), pendingBytes());
+    }
+
+    /**
+     * Appends an event to the end of the spool.
+     *
+     * @return false if the event is larger than a segment and was discarded
+     */
+    public synchronized boolean append(String key, byte[] value) {
+        byte[] keyBytes = key == null ? new byte[0] : key.getBytes(StandardCharsets.UTF_8);
+        int length = LENGTH_BYTES + keyBytes.length + value.length;
+        int recordSize = LENGTH_BYTES + length;
+
+        if (recordSize > segmentSize) {
+            rejected.mark();
+            LOGGER.warn("Discarding click event of {} bytes, larger than spool segment size {}", recordSize, segmentSize);
+            return false;
+        }
+        if (writeBuffer.capacity() - writeBuffer.position() < recordSize) {
+            rollSegment();
+        }
+
+        // Body first, length last: a reader never sees a length whose body is not written yet
+        int position = writeBuffer.position();
+        writeBuffer.putInt(position + LENGTH_BYTES, keyBytes.length);
+        writeBuffer.put(position + 2 * LENGTH_BYTES, keyBytes);
+        writeBuffer.put(position + 2 * LENGTH_BYTES + keyBytes.length, value);
+        writeBuffer.putInt(position, length);
+        writeBuffer.position(position + recordSize);
+
+        appended.mark();
+        return true;
+    }
+
+    /**
+     * Appends the event only if older events are still waiting to be replayed, so that events
+     * for the same short code keep their order while the spool drains.
+     *
+     * @return true if the event was spooled
+     */
+    public synchronized boolean appendIfBacklogged(String key, byte[] value) {
+        return !isEmpty() && append(key, value);
+    }
+
+    public synchronized boolean isEmpty() {
+        return readSegment == writeSegment && readPosition == writeBuffer.position();
+    }
+
+    /**
+     * Reads up to {@code maxEvents} events from the replay position without consuming them.
+     * Pass the result to {@link #commit(Batch)} once the events have been delivered.
+     */
+    public synchronized Batch peek(int maxEvents) {
+        List<SpooledEvent> events = new ArrayList<>();
+        long segment = readSegment;
+        int position = readPosition;
+        MappedByteBuffer buffer = readBuffer;
+
+        while (events.size() < maxEvents) {
+            int length = recordLength(buffer, position);
+            if (length > 0) {
+                events.add(readEvent(buffer, position, length));
+                position += LENGTH_BYTES + length;
+                continue;
+            }
+
+            if (segment == writeSegment) {
+                if (position < writeBuffer.position()) {
+                    LOGGER.error("Corrupt record in spool segment {} at offset {}, skipping to end", segment, position);
+                    position = writeBuffer.position();
+                }
+                break;
+            }
+
+            segment = segments.higherKey(segment);
+            position = 0;
+            buffer = bufferFor(segment);
+        }
+
+        return new Batch(events, segment, position);
+    }
+
+    /**
+     * Marks everything up to the end of the batch as replayed and deletes drained segments.
+     */
+    public synchronized void commit(Batch batch) {
+        if (!segments.containsKey(batch.segment())) {
+            // The segment expired while the batch was being replayed
+            openReadSegment(segments.firstKey(), 0);
+        } else {
+            openReadSegment(batch.segment(), batch.position());
+        }
+
+        Iterator<Map.Entry<Long, Path>> drained = segments.headMap(readSegment).entrySet().iterator();
+        while (drained.hasNext()) {
+            deleteQuietly(drained.next().getValue());
+            drained.remove();
+        }
+    }
+
+    /**
+     * Forces written events and the replay checkpoint to disk.
+     */
+    public synchronized void flush() {
+        writeBuffer.force();
+        checkpoint.force();
+    }
+
+    public synchronized long pendingBytes() {
+        long pending = writeBuffer.position() - (long) readPosition;
+        for (long segment : segments.subMap(readSegment, writeSegment).keySet()) {
+            pending += sizeOf(segments.get(segment));
+        }
+        return pending;
+    }
+
+    private synchronized int segmentCount() {
+        return segments.size();
+    }
+
+    private void rollSegment() {
+        writeBuffer.force();
+        writeSegment++;
+        Path path = segmentPath(writeSegment);
+        segments.put(writeSegment, path);
+        writeBuffer = mapUnchecked(path, segmentSize, FileChannel.MapMode.READ_WRITE);
+        enforceRetention();
+    }
+
+    private void enforceRetention() {
+        long now = System.currentTimeMillis();
+        long totalBytes = segments.values().stream().mapToLong(ClickEventSpool::sizeOf).sum();
+
+        Iterator<Map.Entry<Long, Path>> oldest = segments.headMap(writeSegment).entrySet().iterator();
+        while (oldest.hasNext()) {
+            Map.Entry<Long, Path> entry = oldest.next();
+            Path path = entry.getValue();
+            boolean tooOld = now - lastModified(path) > retentionMillis;
+            if (!tooOld && totalBytes <= maxBytes) {
+                break;
+            }
+
+            LOGGER.warn("Deleting unreplayed spool segment {} ({})", path, tooOld ? "past retention" : "spool full");
+            totalBytes -= sizeOf(path);
+            deleteQuietly(path);
+            oldest.remove();
+            expired.mark();
+        }
+
+        if (!segments.containsKey(readSegment)) {
+            openReadSegment(segments.firstKey(), 0);
+        }
+    }
+
+    private void openWriteSegment() throws IOException {
+        if (segments.isEmpty()) {
+            writeSegment = 1;
+            segments.put(writeSegment, segmentPath(writeSegment));
+            writeBuffer = map(segments.get(writeSegment), segmentSize, FileChannel.MapMode.READ_WRITE);
+            return;
+        }
+
+        writeSegment = segments.lastKey();
+        Path path = segments.get(writeSegment);
+        writeBuffer = map(path, (int) Math.max(Files.size(path), segmentSize), FileChannel.MapMode.READ_WRITE);
+        writeBuffer.position(endOfData(writeBuffer));
+    }
+
+    private void openReadSegment(long segment, int position) {
+        if (!segments.containsKey(segment)) {
+            segment = segments.firstKey();
+            position = 0;
+        }
+        if (readBuffer == null || segment != readSegment) {
+            readBuffer = bufferFor(segment);
+        }
+        readSegment = segment;
+        readPosition = position;
+        checkpoint.putLong(0, readSegment);
+        checkpoint.putLong(Long.BYTES, readPosition);
+    }
+
+    private MappedByteBuffer bufferFor(long segment) {
+        if (segment == writeSegment) {
+            return writeBuffer;
+        }
+        Path path = segments.get(segment);
+        return mapUnchecked(path, (int) sizeOf(path), FileChannel.MapMode.READ_ONLY);
+    }
+
+    private static int endOfData(MappedByteBuffer buffer) {
+        int position = 0;
+        int length;
+        while ((length = recordLength(buffer, position)) > 0) {
+            position += LENGTH_BYTES + length;
+        }
+        return position;
+    }
+
+    private static int recordLength(MappedByteBuffer buffer, int position) {
+        if (position + LENGTH_BYTES > buffer.capacity()) {
+            return 0;
+        }
+        int length = buffer.getInt(position);
+        if (length < LENGTH_BYTES || position + LENGTH_BYTES + length > buffer.capacity()) {
+            return 0;
+        }
+        return length;
+    }
+
+    private static SpooledEvent readEvent(MappedByteBuffer buffer, int position, int length) {
+        int keyLength = buffer.getInt(position + LENGTH_BYTES);
+        byte[] key = new byte[keyLength];
+        byte[] value = new byte[length - LENGTH_BYTES - keyLength];
+        buffer.get(position + 2 * LENGTH_BYTES, key);
+        buffer.get(position + 2 * LENGTH_BYTES + keyLength, value);
+        return new SpooledEvent(keyLength == 0 ? null : new String(key, StandardCharsets.UTF_8), value);
+    }
+
+    private Path segmentPath(long segment) {
+        return directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, segment, SEGMENT_SUFFIX));
+    }
+
+    private static boolean isSegment(Path path) {
+        String name = path.getFileName().toString();
+        return name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX);
+    }
+
+    private static long segmentNumber(Path path) {
+        String name = path.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private static MappedByteBuffer map(Path path, int size, FileChannel.MapMode mode) throws IOException {
+        StandardOpenOption[] options = mode == FileChannel.MapMode.READ_ONLY
+                ? new StandardOpenOption[]{StandardOpenOption.READ}
+                : new StandardOpenOption[]{StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.CREATE};
+        try (FileChannel channel = FileChannel.open(path, options)) {
+            return channel.map(mode, 0, size);
+        }
+    }
+
+    private static MappedByteBuffer mapUnchecked(Path path, int size, FileChannel.MapMode mode) {
+        try {
+            return map(path, size, mode);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to map spool segment " + path, e);
+        }
+    }
+
+    private static long sizeOf(Path path) {
+        try {
+            return Files.size(path);
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private static long lastModified(Path path) {
+        try {
+            return Files.getLastModifiedTime(path).toMillis();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            LOGGER.warn("Failed to delete spool segment {}: {}", path, e.getMessage());
+        }
+    }
+
+    @Override
+    public void start() {
+    }
+
+    @Override
+    public void stop() {
+        flush();
+    }
+}
@@ -0,0 +1,292 @@
+package com.urlshortener.kafka;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.Producer;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.urlshortener.UrlShortenerConfiguration.KafkaConfiguration;
+import com.urlshortener.UrlShortenerConfiguration.KafkaConfiguration.EventFormat;
+import com.urlshortener.events.ClickEvent;
+import com.urlshortener.logging.LogSampler;
+import com.urlshortener.metrics.HdrHistogramReservoir;
+
+import io.dropwizard.lifecycle.Managed;
+
+/**
+ * EventPublisher handles publishing click events to Kafka. Implements
+ * Dropwizard's Managed interface for proper lifecycle management.
+ */
+public class EventPublisher implements Managed {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(EventPublisher.class);
+
+    private final Producer<String, byte[]> producer;
+    private final String topicName;
+    private final ClickEventSerializer serializer;
+    private final ClickEventSpool spool;
+
+    // Cleared when a send fails; every event is spooled until a replay succeeds
+    private volatile boolean healthy = true;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    // Unresolved sends by short code; only tracked with a spool
+    private final Map<String, Integer> inFlightByKey = new ConcurrentHashMap<>();
+    // Events held back until the earlier in-flight sends of their short code resolve, so that a
+    // send failing late is spooled ahead of them; guarded by itself
+    private final Map<String, List<byte[]>> fenced = new HashMap<>();
+    private final Timer serializeTime = new Timer(new HdrHistogramReservoir());
+    // From the send to the broker acknowledgement
+    private final Timer publishLatency = new Timer(new HdrHistogramReservoir());
+    private final Meter published = new Meter();
+    private final Meter failures = new Meter();
+    // While Kafka is down every send fails; the failures meter counts them all
+    private final LogSampler failureLogSampler = new LogSampler(Duration.ofSeconds(10));
+
+    public EventPublisher(KafkaConfiguration kafkaConfig) {
+        this(kafkaConfig, new ObjectMapper());
+    }
+
+    public EventPublisher(KafkaConfiguration kafkaConfig, ObjectMapper objectMapper) {
+        this(createProducer(kafkaConfig), kafkaConfig.getTopicName(),
+                new ClickEventSerializer(kafkaConfig.getEventFormat(), objectMapper), null);
+    }
+
+    /**
+     * Creates a publisher that falls back to the given spool while Kafka is unavailable.
+     */
+    public EventPublisher(KafkaConfiguration kafkaConfig, ClickEventSpool spool) {
+        this(createProducer(kafkaConfig), kafkaConfig.getTopicName(),
+                new ClickEventSerializer(kafkaConfig.getEventFormat(), new ObjectMapper()), spool);
+    }
+
+    /**
+     * Constructor for testing that accepts a Producer. Allows injection of
+     * mock producers for unit testing. Events are published as JSON.
+     */
+    public EventPublisher(Producer<String, byte[]> producer, String topicName, ObjectMapper objectMapper) {
+        this(producer, topicName, objectMapper, null);
+    }
+
+    public EventPublisher(Producer<String, byte[]> producer, String topicName, ObjectMapper objectMapper,
+                          ClickEventSpool spool) {
+        this(producer, topicName, new ClickEventSerializer(EventFormat.JSON, objectMapper), spool);
+    }
+
+    public EventPublisher(Producer<String, byte[]> producer, String topicName, ClickEventSerializer serializer,
+                          ClickEventSpool spool) {
+        this.producer = producer;
+        this.topicName = topicName;
+        this.serializer = serializer;
+        this.spool = spool;
+
+        LOGGER.info("EventPublisher initialized with topic: {}, event format: {}", topicName, serializer.getFormat());
+    }
+
+    // Values are serialized before the send, so the same bytes can go to the spool if it fails
+    private static KafkaProducer<String, byte[]> createProducer(KafkaConfiguration config) {
+        Properties props = new Properties();
+        props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, config.getBootstrapServers());
+        props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class.getName());
+        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class.getName());
+        props.put(ProducerConfig.ACKS_CONFIG, config.getAcks());
+        props.put(ProducerConfig.RETRIES_CONFIG, config.getRetries());
+        props.put(ProducerConfig.REQUEST_TIMEOUT_MS_CONFIG, config.getRequestTimeoutMs());
+        props.put(ProducerConfig.MAX_BLOCK_MS_CONFIG, config.getMaxBlockMs());
+        props.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, config.isEnableIdempotence());
+        props.put(ProducerConfig.MAX_IN_FLIGHT_REQUESTS_PER_CONNECTION, config.getMaxInFlightRequestsPerConnection());
+        props.put(ProducerConfig.COMPRESSION_TYPE_CONFIG, config.getCompressionType());
+
+        return new KafkaProducer<>(props);
+    }
+
+    /**
+     * Registers in-flight, serialization and acknowledgement latency, success and failure metrics
+     * for sends made by this publisher.
+     */
+    public void registerMetrics(MetricRegistry metrics) {
+        metrics.register(MetricRegistry.name(EventPublisher.class, "in-flight"), (Gauge<Integer>) inFlight::get);
+        metrics.register(MetricRegistry.name(EventPublisher.class, "serialize"), serializeTime);
+        metrics.register(MetricRegistry.name(EventPublisher.class, "publish-latency"), publishLatency);
+        metrics.register(MetricRegistry.name(EventPublisher.class, "published"), published);
+        metrics.register(MetricRegistry.name(EventPublisher.class, "failures"), failures);
+    }
+
+    /**
+     * Publishes a click event to Kafka without waiting for the broker acknowledgement.
+     * Delivery failures are reported through the send callback and the failures meter.
+     * When a spool is configured, the event is spooled instead while Kafka is unhealthy or
+     * older spooled events are still waiting to be replayed, and failed sends are spooled. An
+     * event is only spooled once every earlier send for its short code has resolved, so events
+     * for a short code stay in order in the spool.
+     *
+     * @param event The click event to publish
+     * @throws SerializationException if event serialization fails
+     */
+    public void publishClickEvent(ClickEvent event) {
+        long serializeStart = System.nanoTime();
+        byte[] value = serializer.serialize(topicName, event);
+        serializeTime.update(System.nanoTime() - serializeStart, TimeUnit.NANOSECONDS);
+        String key = event.getShortCode(); // Use shortCode as partition key for ordering
+
+        ProducerRecord<String, byte[]> record = new ProducerRecord<>(topicName, key, value);
+
+        if (spool != null && spoolBehindEarlierSends(key, value)) {
+            LOGGER.debug("Spooled click event: linkId={}, shortCode={}", event.getLinkId(), event.getShortCode());
+            return;
+        }
+
+        LOGGER.debug("Publishing click event: linkId={}, shortCode={}", event.getLinkId(), event.getShortCode());
+
+        long startNanos = System.nanoTime();
+        inFlight.incrementAndGet();
+        if (spool != null && key != null) {
+            inFlightByKey.merge(key, 1, Integer::sum);
+        }
+        try {
+            producer.send(record, (metadata, exception) -> {
+                inFlight.decrementAndGet();
+                publishLatency.update(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+                if (exception != null) {
+                    failures.mark();
+                    if (failureLogSampler.shouldLog()) {
+                        LOGGER.error("Failed to publish click event for short code {}: {} "
+                                        + "({} more failures since the last logged)",
+                                event.getShortCode(), exception.getMessage(), failureLogSampler.suppressed());
+                    }
+                    resolveSend(key, value, true);
+                    return;
+                }
+                published.mark();
+                resolveSend(key, value, false);
+            });
+        } catch (RuntimeException e) {
+            // send() throws directly when the record cannot be enqueued, e.g. after maxBlockMs
+            inFlight.decrementAndGet();
+            failures.mark();
+            if (!resolveSend(key, value, true)) {
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * Spools the event, or holds it back while an earlier send for its short code is in flight.
+     *
+     * @return false if the event should be sent instead
+     */
+    private boolean spoolBehindEarlierSends(String key, byte[] value) {
+        synchronized (fenced) {
+            boolean backlogged = !healthy || !fenced.isEmpty();
+            List<byte[]> waiting = fenced.get(key);
+            if (waiting == null && key != null && inFlightByKey.containsKey(key) && (backlogged || !spool.isEmpty())) {
+                waiting = new ArrayList<>();
+                fenced.put(key, waiting);
+            }
+            if (waiting != null) {
+                waiting.add(value);
+                return true;
+            }
+            return backlogged ? spool.append(key, value) : spool.appendIfBacklogged(key, value);
+        }
+    }
+
+    /**
+     * Spools a failed send, then the events held back behind the last in-flight send for its
+     * short code.
+     *
+     * @return true if the failed send was spooled
+     */
+    private boolean resolveSend(String key, byte[] value, boolean failed) {
+        if (spool == null) {
+            return false;
+        }
+        synchronized (fenced) {
+            boolean spooled = false;
+            if (failed) {
+                healthy = false;
+                spooled = spool.append(key, value);
+            }
+            if (key != null && inFlightByKey.computeIfPresent(key, (k, sends) -> sends == 1 ? null : sends - 1) == null) {
+                List<byte[]> waiting = fenced.remove(key);
+                if (waiting != null) {
+                    waiting.forEach(held -> spool.append(key, held));
+                }
+            }
+            return spooled;
+        }
+    }
+
+    /**
+     * Sends previously spooled events and waits for every acknowledgement. Used by the
+     * {@link SpoolDrainer}; a successful replay marks Kafka healthy again.
+     *
+     * @return true if every event was acknowledged
+     */
+    public boolean replay(List<ClickEventSpool.SpooledEvent> events) {
+        List<Future<RecordMetadata>> acks = new ArrayList<>(events.size());
+        try {
+            for (ClickEventSpool.SpooledEvent event : events) {
+                acks.add(producer.send(new ProducerRecord<>(topicName, event.key(), event.value())));
+            }
+            for (Future<RecordMetadata> ack : acks) {
+                ack.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } catch (ExecutionException | RuntimeException e) {
+            healthy = false;
+            LOGGER.warn("Replay of spooled click events failed, will retry: {}", e.getMessage());
+            return false;
+        }
+
+        healthy = true;
+        return true;
+    }
+
+    public boolean isHealthy() {
+        return healthy;
+    }
+
+    public int getInFlightCount() {
+        return inFlight.get();
+    }
+
+    @Override
+    public void start() {
+        LOGGER.info("EventPublisher started");
+    }
+
+    @Override
+    public void stop() {
+        LOGGER.info("Closing Kafka producer...");
+        if (producer != null) {
+            producer.close();
+            LOGGER.info("Kafka producer closed successfully");
+        }
+    }
+}
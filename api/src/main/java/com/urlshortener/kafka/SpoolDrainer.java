@@ -0,0 +1,89 @@
+package com.urlshortener.kafka;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.urlshortener.UrlShortenerConfiguration.ClickSpoolConfiguration;
+
+import io.dropwizard.lifecycle.Managed;
+
+import static java.util.concurrent.Executors.newSingleThreadScheduledExecutor;
+
+/**
+ * Background task that replays spooled click events to Kafka, oldest first, once the broker
+ * accepts sends again. A batch is only committed after every event in it is acknowledged, so
+ * replay is at-least-once and keeps the original order of events.
+ */
+public class SpoolDrainer implements Managed {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SpoolDrainer.class);
+
+    private final ClickEventSpool spool;
+    private final EventPublisher eventPublisher;
+    private final long drainIntervalMs;
+    private final int batchSize;
+    private final Meter replayed;
+
+    private ScheduledExecutorService scheduler;
+
+    public SpoolDrainer(ClickEventSpool spool, EventPublisher eventPublisher,
+                        ClickSpoolConfiguration config, MetricRegistry metrics) {
+        this.spool = spool;
+        this.eventPublisher = eventPublisher;
+        this.drainIntervalMs = config.getDrainInterval().toMilliseconds();
+        this.batchSize = config.getDrainBatchSize();
+        this.replayed = metrics.meter(MetricRegistry.name(SpoolDrainer.class, "replayed"));
+    }
+
+    /**
+     * Replays spooled events until the spool is empty or a send fails.
+     *
+     * @return The number of events replayed
+     */
+    public long drain() {
+        spool.flush();
+
+        long total = 0;
+        while (!spool.isEmpty()) {
+            ClickEventSpool.Batch batch = spool.peek(batchSize);
+            if (!batch.events().isEmpty() && !eventPublisher.replay(batch.events())) {
+                break;
+            }
+            spool.commit(batch);
+            replayed.mark(batch.events().size());
+            total += batch.events().size();
+        }
+
+        if (total > 0) {
+            LOGGER.info("Replayed {} spooled click events, {} bytes still pending", total, spool.pendingBytes());
+        }
+        return total;
+    }
+
+    @Override
+    public void start() {
+        scheduler = newSingleThreadScheduledExecutor(
+                new ThreadFactoryBuilder().setNameFormat("click-spool-drainer").setDaemon(true).build());
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                drain();
+            } catch (Exception e) {
+                LOGGER.error("Click spool drain failed: {}", e.getMessage());
+            }
+        }, drainIntervalMs, drainIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void stop() throws InterruptedException {
+        if (scheduler != null) {
+            scheduler.shutdown();
+            scheduler.awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.urlshortener.logging;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Lets a per-request log statement through at most once per interval. The calls held back in
+ * between are counted, so the statement that does get logged can say how many it stands for:
+ *
+ * <pre>
+ * if (LOGGER.isInfoEnabled() &amp;&amp; sampler.shouldLog()) {
+ *     LOGGER.info("Redirecting {} to {} ({} more since the last)", code, url, sampler.suppressed());
+ * }
+ * </pre>
+ *
+ * A held back call costs one volatile read and a {@link LongAdder} increment.
+ */
+public class LogSampler {
+
+    private final long intervalNanos;
+    private final LongSupplier nanoTime;
+    private final AtomicLong nextLogNanos;
+    private final LongAdder held = new LongAdder();
+    private volatile long suppressed;
+
+    public LogSampler(Duration interval) {
+        this(interval, System::nanoTime);
+    }
+
+    LogSampler(Duration interval, LongSupplier nanoTime) {
+        this.intervalNanos = interval.toNanos();
+        this.nanoTime = nanoTime;
+        this.nextLogNanos = new AtomicLong(nanoTime.getAsLong());
+    }
+
+    /**
+     * @return true if the caller should log now, at most once per interval
+     */
+    public boolean shouldLog() {
+        long now = nanoTime.getAsLong();
+        long next = nextLogNanos.get();
+        if (now - next >= 0 && nextLogNanos.compareAndSet(next, now + intervalNanos)) {
+            suppressed = held.sumThenReset();
+            return true;
+        }
+        held.increment();
+        return false;
+    }
+
+    /**
+     * @return how many calls were held back before the last one that {@link #shouldLog()} let through
+     */
+    public long suppressed() {
+        return suppressed;
+    }
+}
@@ -0,0 +1,69 @@
+package com.urlshortener.manager;
+
+import com.urlshortener.core.Link;
+import com.urlshortener.events.ClickEvent;
+import com.urlshortener.kafka.ClickEventDispatcher;
+import com.urlshortener.kafka.EventPublisher;
+import jakarta.servlet.http.HttpServletRequest;
+
+import java.time.Instant;
+
+public class ClickManager {
+
+    private final EventPublisher eventPublisher;
+    private final ClickEventDispatcher clickEventDispatcher;
+
+    public ClickManager(EventPublisher eventPublisher) {
+        this(eventPublisher, ClickEventDispatcher.direct(eventPublisher));
+    }
+
+    public ClickManager(EventPublisher eventPublisher, ClickEventDispatcher clickEventDispatcher) {
+        this.eventPublisher = eventPublisher;
+        this.clickEventDispatcher = clickEventDispatcher;
+    }
+
+    public void recordClick(Link link, HttpServletRequest request) {
+        eventPublisher.publishClickEvent(createClickEvent(link, request));
+    }
+
+    /**
+     * Captures the click from the request on the calling thread and queues it for publishing.
+     * The request is not touched after this returns, so it is safe to call from a resource method.
+     */
+    public void recordClickAsync(Link link, HttpServletRequest request) {
+        clickEventDispatcher.dispatch(createClickEvent(link, request));
+    }
+
+    private ClickEvent createClickEvent(Link link, HttpServletRequest request) {
+        String userAgent = request.getHeader("User-Agent");
+        String referer = request.getHeader("Referer");
+        String ipAddress = getClientIpAddress(request);
+
+        return new ClickEvent(
+                link.getId(),
+                link.getShortCode(),
+                Instant.now(),
+                userAgent,
+                ipAddress,
+                referer
+        );
+    }
+
+    /**
+     * The client's address: the first {@code X-Forwarded-For} entry, then {@code X-Real-IP},
+     * then the address of the connection.
+     */
+    public static String getClientIpAddress(HttpServletRequest request) {
+        String xForwardedFor = request.getHeader("X-Forwarded-For");
+        if (xForwardedFor != null && !xForwardedFor.isEmpty()) {
+            return xForwardedFor.split(",")[0].trim();
+        }
+
+        String xRealIp = request.getHeader("X-Real-IP");
+        if (xRealIp != null && !xRealIp.isEmpty()) {
+            return xRealIp;
+        }
+
+        return request.getRemoteAddr();
+    }
+}
@@ -0,0 +1,366 @@
+package com.urlshortener.manager;
+
+import com.codahale.metrics.MetricRegistry;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.urlshortener.UrlShortenerConfiguration;
+import com.urlshortener.UrlShortenerConfiguration.ApplicationConfiguration.ShortCodeLookup;
+import com.urlshortener.cache.LinkCache;
+import com.urlshortener.cache.ShortCodeFilter;
+import com.urlshortener.cache.SingleFlight;
+import com.urlshortener.core.Base62Service;
+import com.urlshortener.core.IdBlockAllocator;
+import com.urlshortener.core.Link;
+import com.urlshortener.db.LinkDAO;
+import com.urlshortener.models.CreateLinkRequest;
+import com.urlshortener.models.LinkCreationError;
+import com.urlshortener.models.LinkCreationResult;
+import org.jdbi.v3.core.statement.UnableToExecuteStatementException;
+
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+public class LinkManager {
+
+    private final LinkDAO linkDAO;
+    private final IdBlockAllocator idAllocator;
+    private final Base62Service base62Service;
+    private final UrlShortenerConfiguration.ApplicationConfiguration appConfig;
+    private final LinkCache linkCache;
+    private final ShortCodeFilter shortCodeFilter;
+    // Concurrent cache misses for the same short code share one database lookup
+    private final SingleFlight<String, Optional<Link>> shortCodeLookups;
+    private final boolean primaryKeyLookup;
+    private final boolean reuseShortCodes;
+    // Recently created or reused links with generated codes, by long URL hash; null when not reusing
+    private final Cache<Long, Link> recentLinks;
+
+    public LinkManager(LinkDAO linkDAO, IdBlockAllocator idAllocator, Base62Service base62Service,
+                       UrlShortenerConfiguration.ApplicationConfiguration appConfig) {
+        this(linkDAO, idAllocator, base62Service, appConfig, LinkCache.disabled(), ShortCodeFilter.disabled());
+    }
+
+    public LinkManager(LinkDAO linkDAO, IdBlockAllocator idAllocator, Base62Service base62Service,
+                       UrlShortenerConfiguration.ApplicationConfiguration appConfig,
+                       LinkCache linkCache, ShortCodeFilter shortCodeFilter) {
+        this(linkDAO, idAllocator, base62Service, appConfig, linkCache, shortCodeFilter,
+                new SingleFlight<>("short-code-lookups", SingleFlight.DEFAULT_TIMEOUT, new MetricRegistry()));
+    }
+
+    public LinkManager(LinkDAO linkDAO, IdBlockAllocator idAllocator, Base62Service base62Service,
+                       UrlShortenerConfiguration.ApplicationConfiguration appConfig,
+                       LinkCache linkCache, ShortCodeFilter shortCodeFilter,
+                       SingleFlight<String, Optional<Link>> shortCodeLookups) {
+        this.linkDAO = linkDAO;
+        this.idAllocator = idAllocator;
+        this.base62Service = base62Service;
+        this.appConfig = appConfig;
+        this.linkCache = linkCache;
+        this.shortCodeFilter = shortCodeFilter;
+        this.shortCodeLookups = shortCodeLookups;
+        this.primaryKeyLookup = appConfig.getShortCodeLookup() == ShortCodeLookup.PRIMARY_KEY;
+        this.reuseShortCodes = appConfig.isReuseShortCodes();
+        this.recentLinks = reuseShortCodes && appConfig.getReuseCacheSize() > 0
+                ? Caffeine.newBuilder().maximumSize(appConfig.getReuseCacheSize()).build()
+                : null;
+    }
+
+    public Optional<Link> findByShortCode(String shortCode) {
+        if (!shortCodeFilter.mightContain(shortCode)) {
+            return Optional.empty();
+        }
+        return linkCache.get(shortCode, code -> shortCodeLookups.load(code, this::loadByShortCode));
+    }
+
+    private Optional<Link> loadByShortCode(String shortCode) {
+        // Custom and imported codes, and codes the filter has not loaded yet, are only reachable through the index
+        if (!primaryKeyLookup || !base62Service.isCanonical(shortCode) || shortCodeFilter.mightBeDisplaced(shortCode)) {
+            return linkDAO.findByShortCode(shortCode);
+        }
+
+        // The id may hold a custom link if its generated code was skipped, so the stored code must match
+        return linkDAO.findById(base62Service.decode(shortCode))
+                .filter(link -> shortCode.equals(link.getShortCode()));
+    }
+
+    public LinkCreationResult createLink(String longUrl, String customShortCode) {
+        String shortCode = null;
+
+        if (customShortCode != null && !customShortCode.isEmpty()) {
+            shortCode = customShortCode;
+
+            if (shortCode.length() > appConfig.getMaxCustomShortCodeLength()) {
+                return customCodeTooLong();
+            }
+
+            if (linkDAO.findByShortCode(shortCode).isPresent()) {
+                return customCodeTaken();
+            }
+        } else if (reuseShortCodes) {
+            Optional<Link> existing = findReusableLink(longUrl);
+            if (existing.isPresent()) {
+                return LinkCreationResult.success(buildShortUrl(existing.get().getShortCode()), existing.get().getShortCode());
+            }
+        }
+
+        // The id comes from a pre-reserved block, so the generated code is known before the single INSERT
+        boolean generated = shortCode == null;
+        Link link = new Link(longUrl, shortCode);
+        if (generated) {
+            assignGeneratedId(link);
+            insertGenerated(link);
+            rememberReusable(link);
+        } else {
+            link.setId(idAllocator.nextId());
+            linkDAO.insert(link);
+        }
+        cacheCreatedLink(link);
+
+        String fullShortUrl = buildShortUrl(link.getShortCode());
+        return LinkCreationResult.success(fullShortUrl, link.getShortCode());
+    }
+
+    private void assignGeneratedId(Link link) {
+        long id = idAllocator.nextId();
+        link.setId(id);
+        link.setShortCode(base62Service.encode(id));
+    }
+
+    /**
+     * Inserts a link with a generated code, moving it to the next id while its code is already
+     * taken by a custom or imported link.
+     */
+    private void insertGenerated(Link link) {
+        while (true) {
+            try {
+                linkDAO.insert(link);
+                return;
+            } catch (UnableToExecuteStatementException e) {
+                if (!(e.getCause() instanceof SQLIntegrityConstraintViolationException)
+                        || linkDAO.findByShortCode(link.getShortCode()).isEmpty()) {
+                    throw e;
+                }
+                assignGeneratedId(link);
+            }
+        }
+    }
+
+    /**
+     * Creates a batch of links with one query for short code conflicts and one transaction of
+     * batched inserts. A custom code that is already taken, or repeated earlier in the batch, fails
+     * only its own link.
+     *
+     * @return One result per request, in request order
+     */
+    public List<LinkCreationResult> createLinks(List<CreateLinkRequest> requests) {
+        LinkCreationResult[] results = new LinkCreationResult[requests.size()];
+        String[] shortCodes = new String[requests.size()];
+        Set<String> customCodes = new HashSet<>();
+
+        for (int i = 0; i < requests.size(); i++) {
+            String customShortCode = requests.get(i).getCustomShortCode();
+            if (customShortCode == null || customShortCode.isEmpty()) {
+                continue;
+            }
+            if (customShortCode.length() > appConfig.getMaxCustomShortCodeLength()) {
+                results[i] = customCodeTooLong();
+            } else {
+                shortCodes[i] = customShortCode;
+                customCodes.add(customShortCode);
+            }
+        }
+
+        Map<String, Link> reusableLinks = reuseShortCodes
+                ? findReusableLinks(requests, results, shortCodes)
+                : new HashMap<>();
+
+        // Generated codes are allocated up front so one query checks them along with the custom codes
+        Link[] created = new Link[requests.size()];
+        Set<Link> newLinks = new HashSet<>();
+        List<Link> generatedLinks = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            if (results[i] != null || shortCodes[i] != null) {
+                continue;
+            }
+            String longUrl = requests.get(i).getLongUrl();
+            Link link = reusableLinks.get(longUrl);
+            if (link == null) {
+                link = new Link(longUrl, null);
+                assignGeneratedId(link);
+                generatedLinks.add(link);
+                newLinks.add(link);
+                if (reuseShortCodes) {
+                    // Later repeats of the URL in this batch reuse this link
+                    reusableLinks.put(longUrl, link);
+                }
+            }
+            created[i] = link;
+        }
+
+        Set<String> candidateCodes = new HashSet<>(customCodes);
+        generatedLinks.forEach(link -> candidateCodes.add(link.getShortCode()));
+        Set<String> takenCodes = candidateCodes.isEmpty()
+                ? new HashSet<>()
+                : new HashSet<>(linkDAO.findExistingShortCodes(candidateCodes));
+
+        for (int i = 0; i < requests.size(); i++) {
+            if (results[i] != null || shortCodes[i] == null) {
+                continue;
+            }
+            if (!takenCodes.add(shortCodes[i])) {
+                results[i] = customCodeTaken();
+                continue;
+            }
+            Link link = new Link(requests.get(i).getLongUrl(), shortCodes[i]);
+            newLinks.add(link);
+            created[i] = link;
+        }
+        skipTakenCodes(generatedLinks, takenCodes);
+
+        List<Link> links = new ArrayList<>(newLinks.size());
+        for (int i = 0; i < requests.size(); i++) {
+            Link link = created[i];
+            if (link == null) {
+                continue;
+            }
+            if (newLinks.remove(link)) {
+                if (link.getId() == null) {
+                    link.setId(idAllocator.nextId());
+                }
+                links.add(link);
+            }
+            results[i] = LinkCreationResult.success(buildShortUrl(link.getShortCode()), link.getShortCode());
+        }
+
+        if (!links.isEmpty()) {
+            linkDAO.insertAll(links, appConfig.getBatchInsertChunkSize());
+            links.forEach(this::cacheCreatedLink);
+            reusableLinks.values().forEach(this::rememberReusable);
+        }
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Moves generated links whose code is in {@code takenCodes}, or already in the database, to
+     * new ids until every code is free.
+     */
+    private void skipTakenCodes(List<Link> generatedLinks, Set<String> takenCodes) {
+        List<Link> colliding = generatedLinks.stream()
+                .filter(link -> takenCodes.contains(link.getShortCode()))
+                .toList();
+        while (!colliding.isEmpty()) {
+            colliding.forEach(this::assignGeneratedId);
+            Set<String> existing = linkDAO.findExistingShortCodes(
+                    colliding.stream().map(Link::getShortCode).collect(Collectors.toSet()));
+            colliding = colliding.stream()
+                    .filter(link -> existing.contains(link.getShortCode()) || takenCodes.contains(link.getShortCode()))
+                    .toList();
+        }
+    }
+
+    /**
+     * Finds an existing link for {@code longUrl} whose code was generated, checking recently
+     * created links before the long_url_hash index.
+     */
+    private Optional<Link> findReusableLink(String longUrl) {
+        long hash = Link.hashLongUrl(longUrl);
+        Link recent = recentLinks == null ? null : recentLinks.getIfPresent(hash);
+        if (recent != null && longUrl.equals(recent.getLongUrl())) {
+            return Optional.of(recent);
+        }
+
+        Optional<Link> existing = linkDAO.findByLongUrlHash(hash).stream()
+                .filter(link -> longUrl.equals(link.getLongUrl()) && hasGeneratedCode(link))
+                .findFirst();
+        existing.ifPresent(this::rememberReusable);
+        return existing;
+    }
+
+    /**
+     * Batch form of {@link #findReusableLink}, with one query for all the long URLs that are not
+     * among the recently created links.
+     *
+     * @return Reusable links by long URL, for the requests that want a generated code
+     */
+    private Map<String, Link> findReusableLinks(List<CreateLinkRequest> requests, LinkCreationResult[] results,
+                                                String[] shortCodes) {
+        Map<String, Link> reusable = new HashMap<>();
+        Set<String> unresolved = new HashSet<>();
+        Set<Long> hashes = new HashSet<>();
+        for (int i = 0; i < requests.size(); i++) {
+            String longUrl = requests.get(i).getLongUrl();
+            if (results[i] != null || shortCodes[i] != null || reusable.containsKey(longUrl)) {
+                continue;
+            }
+            long hash = Link.hashLongUrl(longUrl);
+            Link recent = recentLinks == null ? null : recentLinks.getIfPresent(hash);
+            if (recent != null && longUrl.equals(recent.getLongUrl())) {
+                reusable.put(longUrl, recent);
+            } else {
+                unresolved.add(longUrl);
+                hashes.add(hash);
+            }
+        }
+
+        if (!hashes.isEmpty()) {
+            for (Link link : linkDAO.findByLongUrlHashes(hashes)) {
+                if (unresolved.contains(link.getLongUrl()) && hasGeneratedCode(link)) {
+                    reusable.putIfAbsent(link.getLongUrl(), link);
+                }
+            }
+        }
+        return reusable;
+    }
+
+    // Custom codes are chosen for one purpose, so only links with generated codes are shared
+    private boolean hasGeneratedCode(Link link) {
+        return link.getId() != null && link.getShortCode().equals(base62Service.encode(link.getId()));
+    }
+
+    private void rememberReusable(Link link) {
+        if (recentLinks != null) {
+            recentLinks.put(link.getLongUrlHash() != null ? link.getLongUrlHash() : Link.hashLongUrl(link.getLongUrl()), link);
+        }
+    }
+
+    private LinkCreationResult customCodeTooLong() {
+        return LinkCreationResult.error(
+            LinkCreationError.CUSTOM_CODE_TOO_LONG,
+            "Custom short code exceeds maximum length of " + appConfig.getMaxCustomShortCodeLength()
+        );
+    }
+
+    private static LinkCreationResult customCodeTaken() {
+        return LinkCreationResult.error(
+            LinkCreationError.CUSTOM_CODE_ALREADY_EXISTS,
+            "Custom URL is already taken."
+        );
+    }
+
+    public void incrementClickCount(long linkId) {
+        linkDAO.incrementClickCount(linkId);
+    }
+
+    // Seed the filter and cache so the first redirect for a new link never goes to the database
+    private void cacheCreatedLink(Link link) {
+        link.setClickCount(0);
+        shortCodeFilter.put(link);
+        linkCache.put(link);
+    }
+
+    private String buildShortUrl(String shortCode) {
+        String baseUrl = appConfig.getBaseUrl();
+        if (baseUrl.endsWith("/")) {
+            baseUrl = baseUrl.substring(0, baseUrl.length() - 1);
+        }
+        return baseUrl + "/" + shortCode;
+    }
+}
@@ -0,0 +1,56 @@
+package com.urlshortener.manager;
+
+import com.urlshortener.core.ClickBucket;
+import com.urlshortener.db.ClickRollupDAO;
+import com.urlshortener.db.VisitorSketchDAO;
+import com.urlshortener.rollup.RollupGranularity;
+import com.urlshortener.sketch.HyperLogLog;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * Answers link statistics from the aggregates the telemetry consumer maintains, never from the
+ * raw clicks table.
+ */
+public class LinkStatsManager {
+
+    private final VisitorSketchDAO visitorSketchDAO;
+    private final ClickRollupDAO clickRollupDAO;
+
+    public LinkStatsManager(VisitorSketchDAO visitorSketchDAO, ClickRollupDAO clickRollupDAO) {
+        this.visitorSketchDAO = visitorSketchDAO;
+        this.clickRollupDAO = clickRollupDAO;
+    }
+
+    /**
+     * Visitor sketches are kept per hour, so ranges are widened to whole hours.
+     */
+    public static Instant bucketStart(Instant instant) {
+        return instant.truncatedTo(ChronoUnit.HOURS);
+    }
+
+    public static Instant bucketEnd(Instant instant) {
+        Instant start = bucketStart(instant);
+        return start.equals(instant) ? start : start.plus(1, ChronoUnit.HOURS);
+    }
+
+    /**
+     * Estimates the distinct visitors, by IP address and user agent, to a link between two hour
+     * boundaries by merging the link's hourly HyperLogLog sketches.
+     */
+    public long estimateUniqueVisitors(long linkId, Instant from, Instant to) {
+        HyperLogLog visitors = new HyperLogLog();
+        visitorSketchDAO.forEachSketch(linkId, from, to, sketch -> visitors.merge(HyperLogLog.fromBytes(sketch)));
+        return visitors.estimate();
+    }
+
+    /**
+     * A link's clicks per bucket of {@code granularity} between two bucket boundaries, oldest
+     * first. Buckets without clicks are left out.
+     */
+    public List<ClickBucket> getClickSeries(long linkId, RollupGranularity granularity, Instant from, Instant to) {
+        return clickRollupDAO.findBuckets(granularity.getTable(), linkId, from, to);
+    }
+}
@@ -0,0 +1,153 @@
+package com.urlshortener.metrics;
+
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.stream.LongStream;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.HistogramIterationValue;
+import org.HdrHistogram.Recorder;
+
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Reservoir;
+import com.codahale.metrics.Snapshot;
+import com.codahale.metrics.Timer;
+
+/**
+ * Reservoir backed by an HdrHistogram {@link Recorder}, for latencies whose tail matters. Every
+ * value is counted, from a nanosecond up to an hour, to two significant digits, where the
+ * default reservoir keeps a sample of about a thousand values and so loses the rare slow ones.
+ *
+ * <p>Recording is wait-free and allocation-free, so it can stay on in hot paths. Values are
+ * taken out of the recorder when a snapshot is read, and a snapshot covers those read in the
+ * current window plus the whole previous window: between one and two windows of recent history
+ * when the metrics are polled regularly, as the admin servlet and reporters do.
+ */
+public class HdrHistogramReservoir implements Reservoir {
+
+    public static final Duration DEFAULT_WINDOW = Duration.ofMinutes(1);
+
+    private static final long HIGHEST_TRACKABLE_VALUE = TimeUnit.HOURS.toNanos(1);
+    private static final int SIGNIFICANT_DIGITS = 2;
+
+    private final Recorder recorder = new Recorder(HIGHEST_TRACKABLE_VALUE, SIGNIFICANT_DIGITS);
+    private final long windowNanos;
+    private final LongSupplier nanoTime;
+
+    // Guarded by this
+    private Histogram interval;
+    private final Histogram current = new Histogram(HIGHEST_TRACKABLE_VALUE, SIGNIFICANT_DIGITS);
+    private final Histogram previous = new Histogram(HIGHEST_TRACKABLE_VALUE, SIGNIFICANT_DIGITS);
+    private long windowStart;
+
+    public HdrHistogramReservoir() {
+        this(DEFAULT_WINDOW, System::nanoTime);
+    }
+
+    HdrHistogramReservoir(Duration window, LongSupplier nanoTime) {
+        this.windowNanos = window.toNanos();
+        this.nanoTime = nanoTime;
+        this.windowStart = nanoTime.getAsLong();
+    }
+
+    /**
+     * Gets or registers a timer under {@code name} whose durations are kept in an
+     * {@link HdrHistogramReservoir}.
+     */
+    public static Timer timer(MetricRegistry metrics, String name) {
+        return metrics.timer(name, () -> new Timer(new HdrHistogramReservoir()));
+    }
+
+    @Override
+    public void update(long value) {
+        recorder.recordValue(Math.max(0, Math.min(value, HIGHEST_TRACKABLE_VALUE)));
+    }
+
+    @Override
+    public int size() {
+        return getSnapshot().size();
+    }
+
+    @Override
+    public synchronized Snapshot getSnapshot() {
+        interval = recorder.getIntervalHistogram(interval);
+        current.add(interval);
+
+        long now = nanoTime.getAsLong();
+        if (now - windowStart >= windowNanos) {
+            previous.reset();
+            previous.add(current);
+            current.reset();
+            windowStart = now;
+        }
+
+        Histogram recent = previous.copy();
+        recent.add(current);
+        return new HdrSnapshot(recent);
+    }
+
+    private static final class HdrSnapshot extends Snapshot {
+
+        private final Histogram histogram;
+
+        HdrSnapshot(Histogram histogram) {
+            this.histogram = histogram;
+        }
+
+        @Override
+        public double getValue(double quantile) {
+            return histogram.getValueAtPercentile(quantile * 100);
+        }
+
+        /**
+         * One value per distinct recorded bucket rather than every value recorded.
+         */
+        @Override
+        public long[] getValues() {
+            LongStream.Builder values = LongStream.builder();
+            for (HistogramIterationValue value : histogram.recordedValues()) {
+                values.add(histogram.highestEquivalentValue(value.getValueIteratedTo()));
+            }
+            return values.build().toArray();
+        }
+
+        @Override
+        public int size() {
+            return (int) Math.min(histogram.getTotalCount(), Integer.MAX_VALUE);
+        }
+
+        @Override
+        public long getMax() {
+            return histogram.getTotalCount() == 0 ? 0 : histogram.getMaxValue();
+        }
+
+        @Override
+        public double getMean() {
+            return histogram.getTotalCount() == 0 ? 0 : histogram.getMean();
+        }
+
+        @Override
+        public long getMin() {
+            return histogram.getTotalCount() == 0 ? 0 : histogram.getMinValue();
+        }
+
+        @Override
+        public double getStdDev() {
+            return histogram.getTotalCount() == 0 ? 0 : histogram.getStdDeviation();
+        }
+
+        @Override
+        public void dump(OutputStream output) {
+            try (PrintWriter out = new PrintWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8))) {
+                for (long value : getValues()) {
+                    out.printf("%d%n", value);
+                }
+            }
+        }
+    }
+}
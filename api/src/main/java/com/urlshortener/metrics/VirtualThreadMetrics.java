@@ -0,0 +1,110 @@
+package com.urlshortener.metrics;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.codahale.metrics.CachedGauge;
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+
+import io.dropwizard.lifecycle.Managed;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingStream;
+
+import static com.codahale.metrics.MetricRegistry.name;
+
+/**
+ * Reports how virtual threads behave on their carrier threads. Pinning, where a virtual thread
+ * blocks while holding a monitor or in native code and so holds its carrier, is read from the
+ * JDK's {@code jdk.VirtualThreadPinned} flight recorder events, streamed in process.
+ *
+ * <ul>
+ *   <li>{@code pinned}: timer of pinned blocking, for operations taking longer than the threshold</li>
+ *   <li>{@code submit-failed}: virtual threads that could not be scheduled on a carrier</li>
+ *   <li>{@code carrier-parallelism}: carrier threads the scheduler aims to keep busy</li>
+ *   <li>{@code carrier-threads}: carrier threads currently alive, sampled every 10 seconds</li>
+ * </ul>
+ */
+public class VirtualThreadMetrics implements Managed {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(VirtualThreadMetrics.class);
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final String SUBMIT_FAILED_EVENT = "jdk.VirtualThreadSubmitFailed";
+    private static final String CARRIER_THREAD_CLASS = "jdk.internal.misc.CarrierThread";
+
+    /**
+     * Pinned operations shorter than this are not recorded.
+     */
+    public static final Duration DEFAULT_PINNED_THRESHOLD = Duration.ofMillis(20);
+
+    private final Duration pinnedThreshold;
+    private final Predicate<RecordedEvent> pinnedFilter;
+    private final Timer pinned;
+    private final Meter submitFailed;
+
+    private RecordingStream recording;
+
+    public VirtualThreadMetrics(Duration pinnedThreshold, MetricRegistry metrics) {
+        this(pinnedThreshold, event -> true, metrics);
+    }
+
+    // Tests record only the pinned events of their own threads
+    VirtualThreadMetrics(Duration pinnedThreshold, Predicate<RecordedEvent> pinnedFilter, MetricRegistry metrics) {
+        this.pinnedThreshold = pinnedThreshold;
+        this.pinnedFilter = pinnedFilter;
+        this.pinned = metrics.timer(name(VirtualThreadMetrics.class, "pinned"));
+        this.submitFailed = metrics.meter(name(VirtualThreadMetrics.class, "submit-failed"));
+
+        metrics.register(name(VirtualThreadMetrics.class, "carrier-parallelism"),
+                (Gauge<Integer>) VirtualThreadMetrics::carrierParallelism);
+        metrics.register(name(VirtualThreadMetrics.class, "carrier-threads"),
+                new CachedGauge<Long>(10, TimeUnit.SECONDS) {
+                    @Override
+                    protected Long loadValue() {
+                        return Thread.getAllStackTraces().keySet().stream()
+                                .filter(thread -> thread.getClass().getName().equals(CARRIER_THREAD_CLASS))
+                                .count();
+                    }
+                });
+    }
+
+    private static int carrierParallelism() {
+        String configured = System.getProperty("jdk.virtualThreadScheduler.parallelism");
+        return configured != null ? Integer.parseInt(configured) : Runtime.getRuntime().availableProcessors();
+    }
+
+    private void onPinned(RecordedEvent event) {
+        if (!pinnedFilter.test(event)) {
+            return;
+        }
+        pinned.update(event.getDuration());
+        LOGGER.debug("Virtual thread pinned for {} ms at {}", event.getDuration().toMillis(),
+                event.getStackTrace() == null ? "unknown" : event.getStackTrace().getFrames().stream()
+                        .limit(3).map(frame -> frame.getMethod().getType().getName() + "." + frame.getMethod().getName())
+                        .toList());
+    }
+
+    @Override
+    public void start() {
+        recording = new RecordingStream();
+        recording.enable(PINNED_EVENT).withThreshold(pinnedThreshold).withStackTrace();
+        recording.enable(SUBMIT_FAILED_EVENT);
+        recording.onEvent(PINNED_EVENT, this::onPinned);
+        recording.onEvent(SUBMIT_FAILED_EVENT, event -> submitFailed.mark());
+        recording.startAsync();
+    }
+
+    @Override
+    public void stop() {
+        if (recording != null) {
+            recording.close();
+        }
+    }
+}
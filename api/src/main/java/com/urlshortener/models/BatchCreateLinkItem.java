@@ -0,0 +1,48 @@
+package com.urlshortener.models;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Outcome of one link in a batch create request. {@code status} is the HTTP status the single
+ * create endpoint would have answered with for the same link.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchCreateLinkItem {
+    private int status;
+    private String shortUrl;
+    private String shortCode;
+    private LinkCreationError error;
+    private String errorMessage;
+
+    private BatchCreateLinkItem() {
+    }
+
+    public BatchCreateLinkItem(int status, String shortUrl, String shortCode,
+                               LinkCreationError error, String errorMessage) {
+        this.status = status;
+        this.shortUrl = shortUrl;
+        this.shortCode = shortCode;
+        this.error = error;
+        this.errorMessage = errorMessage;
+    }
+
+    public int getStatus() {
+        return status;
+    }
+
+    public String getShortUrl() {
+        return shortUrl;
+    }
+
+    public String getShortCode() {
+        return shortCode;
+    }
+
+    public LinkCreationError getError() {
+        return error;
+    }
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+}
@@ -0,0 +1,21 @@
+package com.urlshortener.models;
+
+import java.util.List;
+
+/**
+ * Results of a batch create request, in the order the links were submitted.
+ */
+public class BatchCreateLinkResponse {
+    private List<BatchCreateLinkItem> results;
+
+    private BatchCreateLinkResponse() {
+    }
+
+    public BatchCreateLinkResponse(List<BatchCreateLinkItem> results) {
+        this.results = results;
+    }
+
+    public List<BatchCreateLinkItem> getResults() {
+        return results;
+    }
+}
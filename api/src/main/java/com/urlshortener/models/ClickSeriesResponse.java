@@ -0,0 +1,70 @@
+package com.urlshortener.models;
+
+import java.util.List;
+
+public class ClickSeriesResponse {
+    private String shortCode;
+    private String granularity;
+    private String from;
+    private String to;
+    private long totalClicks;
+    private List<Bucket> buckets;
+
+    private ClickSeriesResponse() {
+    }
+
+    public ClickSeriesResponse(String shortCode, String granularity, String from, String to, long totalClicks,
+                               List<Bucket> buckets) {
+        this.shortCode = shortCode;
+        this.granularity = granularity;
+        this.from = from;
+        this.to = to;
+        this.totalClicks = totalClicks;
+        this.buckets = buckets;
+    }
+
+    public String getShortCode() {
+        return shortCode;
+    }
+
+    public String getGranularity() {
+        return granularity;
+    }
+
+    public String getFrom() {
+        return from;
+    }
+
+    public String getTo() {
+        return to;
+    }
+
+    public long getTotalClicks() {
+        return totalClicks;
+    }
+
+    public List<Bucket> getBuckets() {
+        return buckets;
+    }
+
+    public static class Bucket {
+        private String start;
+        private long clicks;
+
+        private Bucket() {
+        }
+
+        public Bucket(String start, long clicks) {
+            this.start = start;
+            this.clicks = clicks;
+        }
+
+        public String getStart() {
+            return start;
+        }
+
+        public long getClicks() {
+            return clicks;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.urlshortener.models;
+
+public class UniqueVisitorsResponse {
+    private String shortCode;
+    private String from;
+    private String to;
+    private long uniqueVisitors;
+
+    private UniqueVisitorsResponse() {
+    }
+
+    public UniqueVisitorsResponse(String shortCode, String from, String to, long uniqueVisitors) {
+        this.shortCode = shortCode;
+        this.from = from;
+        this.to = to;
+        this.uniqueVisitors = uniqueVisitors;
+    }
+
+    public String getShortCode() {
+        return shortCode;
+    }
+
+    public String getFrom() {
+        return from;
+    }
+
+    public String getTo() {
+        return to;
+    }
+
+    public long getUniqueVisitors() {
+        return uniqueVisitors;
+    }
+}
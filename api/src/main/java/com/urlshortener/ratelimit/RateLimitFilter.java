@@ -0,0 +1,75 @@
+package com.urlshortener.ratelimit;
+
+import com.urlshortener.api.LinksResource;
+import com.urlshortener.api.RedirectResource;
+import com.urlshortener.manager.ClickManager;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.ws.rs.POST;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ContainerRequestFilter;
+import jakarta.ws.rs.container.ResourceInfo;
+import jakarta.ws.rs.core.Context;
+import jakarta.ws.rs.core.HttpHeaders;
+import jakarta.ws.rs.core.Response;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Applies the create limit to the link creation endpoints and the redirect limit to redirects,
+ * per client IP. A request whose client has used up its {@link TokenBucketRateLimiter} bucket is
+ * refused with {@code 429 Too Many Requests}, and {@code Retry-After} gives the whole seconds
+ * until the bucket has a token again. A batch request counts as one request, however many links
+ * it creates. Either limiter may be null to leave those routes unlimited.
+ */
+public class RateLimitFilter implements ContainerRequestFilter {
+
+    private static final long NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private final TokenBucketRateLimiter createLimiter;
+    private final TokenBucketRateLimiter redirectLimiter;
+
+    @Context
+    private ResourceInfo resourceInfo;
+
+    @Context
+    private HttpServletRequest request;
+
+    public RateLimitFilter(TokenBucketRateLimiter createLimiter, TokenBucketRateLimiter redirectLimiter) {
+        this.createLimiter = createLimiter;
+        this.redirectLimiter = redirectLimiter;
+    }
+
+    RateLimitFilter(TokenBucketRateLimiter createLimiter, TokenBucketRateLimiter redirectLimiter,
+                    ResourceInfo resourceInfo, HttpServletRequest request) {
+        this(createLimiter, redirectLimiter);
+        this.resourceInfo = resourceInfo;
+        this.request = request;
+    }
+
+    @Override
+    public void filter(ContainerRequestContext requestContext) {
+        TokenBucketRateLimiter rateLimiter = limiterFor(resourceInfo);
+        if (rateLimiter == null) {
+            return;
+        }
+
+        long waitNanos = rateLimiter.tryAcquire(ClickManager.getClientIpAddress(request));
+        if (waitNanos > 0) {
+            long retryAfterSeconds = (waitNanos + NANOS_PER_SECOND - 1) / NANOS_PER_SECOND;
+            requestContext.abortWith(Response.status(Response.Status.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, retryAfterSeconds)
+                    .build());
+        }
+    }
+
+    private TokenBucketRateLimiter limiterFor(ResourceInfo resourceInfo) {
+        Class<?> resource = resourceInfo.getResourceClass();
+        if (resource == LinksResource.class && resourceInfo.getResourceMethod().isAnnotationPresent(POST.class)) {
+            return createLimiter;
+        }
+        if (resource == RedirectResource.class) {
+            return redirectLimiter;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,88 @@
+package com.urlshortener.ratelimit;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Ticker;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.codahale.metrics.MetricRegistry.name;
+
+/**
+ * Per-client token buckets holding up to a minute's worth of requests and refilled evenly over
+ * the minute.
+ *
+ * <p>Each bucket is a single {@link AtomicLong} holding the time at which it will be full again,
+ * so taking a token is one compare-and-set and no lock is held. A bucket that has not been used
+ * for a minute is full, and forgetting it is the same as keeping it, so buckets expire after a
+ * minute without access; the number of clients tracked is also capped, dropping the least
+ * recently seen.
+ *
+ * <ul>
+ *   <li>{@code <name>.rejected}: requests refused because the client's bucket was empty</li>
+ *   <li>{@code <name>.buckets}: clients currently tracked</li>
+ * </ul>
+ */
+public class TokenBucketRateLimiter {
+
+    private static final long NANOS_PER_MINUTE = TimeUnit.MINUTES.toNanos(1);
+
+    private final long refillNanos;
+    private final long capacityNanos;
+    private final Ticker ticker;
+    private final Cache<String, AtomicLong> buckets;
+    private final Meter rejected;
+
+    public TokenBucketRateLimiter(String name, int requestsPerMinute, long maxClients, MetricRegistry metrics) {
+        this(name, requestsPerMinute, maxClients, metrics, Ticker.systemTicker());
+    }
+
+    TokenBucketRateLimiter(String name, int requestsPerMinute, long maxClients, MetricRegistry metrics, Ticker ticker) {
+        if (requestsPerMinute < 1) {
+            throw new IllegalArgumentException("requestsPerMinute must be positive, got: " + requestsPerMinute);
+        }
+        this.refillNanos = NANOS_PER_MINUTE / requestsPerMinute;
+        this.capacityNanos = refillNanos * requestsPerMinute;
+        this.ticker = ticker;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxClients)
+                .expireAfterAccess(Duration.ofNanos(capacityNanos))
+                .ticker(ticker)
+                .build();
+        this.rejected = metrics.meter(name(TokenBucketRateLimiter.class, name, "rejected"));
+        metrics.register(name(TokenBucketRateLimiter.class, name, "buckets"), (Gauge<Long>) this::bucketCount);
+    }
+
+    /**
+     * Takes a token from the client's bucket.
+     *
+     * @return 0 if the request may go ahead, otherwise how long in nanoseconds until the bucket
+     * has a token again
+     */
+    public long tryAcquire(String client) {
+        long now = ticker.read();
+        AtomicLong fullAt = buckets.get(client, key -> new AtomicLong(now));
+        while (true) {
+            long current = fullAt.get();
+            long next = Math.max(current, now) + refillNanos;
+            long wait = next - now - capacityNanos;
+            if (wait > 0) {
+                rejected.mark();
+                return wait;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    long bucketCount() {
+        buckets.cleanUp();
+        return buckets.estimatedSize();
+    }
+}
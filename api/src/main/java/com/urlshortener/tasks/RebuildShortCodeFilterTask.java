@@ -0,0 +1,28 @@
+package com.urlshortener.tasks;
+
+import com.urlshortener.cache.ShortCodeFilter;
+import io.dropwizard.servlets.tasks.Task;
+
+import java.io.PrintWriter;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Admin task that rebuilds the short code filter from the links table.
+ * Run with {@code curl -X POST http://localhost:8081/tasks/rebuild-short-code-filter}.
+ */
+public class RebuildShortCodeFilterTask extends Task {
+
+    private final ShortCodeFilter shortCodeFilter;
+
+    public RebuildShortCodeFilterTask(ShortCodeFilter shortCodeFilter) {
+        super("rebuild-short-code-filter");
+        this.shortCodeFilter = shortCodeFilter;
+    }
+
+    @Override
+    public void execute(Map<String, List<String>> parameters, PrintWriter output) {
+        long loaded = shortCodeFilter.rebuild();
+        output.println("Short code filter rebuilt with " + loaded + " codes");
+    }
+}
@@ -0,0 +1,32 @@
+-- Changeset 6: Click counts per link per minute, hour and day, kept up to date by the
+-- telemetry consumer so time series never scan the clicks table
+CREATE TABLE IF NOT EXISTS click_rollups_minute (
+    link_id BIGINT NOT NULL,
+    bucket_start TIMESTAMP NOT NULL,
+    clicks BIGINT NOT NULL,
+    PRIMARY KEY (link_id, bucket_start),
+    CONSTRAINT fk_click_rollups_minute_link_id FOREIGN KEY (link_id) REFERENCES links(id) ON DELETE CASCADE
+);
+
+CREATE TABLE IF NOT EXISTS click_rollups_hour (
+    link_id BIGINT NOT NULL,
+    bucket_start TIMESTAMP NOT NULL,
+    clicks BIGINT NOT NULL,
+    PRIMARY KEY (link_id, bucket_start),
+    CONSTRAINT fk_click_rollups_hour_link_id FOREIGN KEY (link_id) REFERENCES links(id) ON DELETE CASCADE
+);
+
+CREATE TABLE IF NOT EXISTS click_rollups_day (
+    link_id BIGINT NOT NULL,
+    bucket_start TIMESTAMP NOT NULL,
+    clicks BIGINT NOT NULL,
+    PRIMARY KEY (link_id, bucket_start),
+    CONSTRAINT fk_click_rollups_day_link_id FOREIGN KEY (link_id) REFERENCES links(id) ON DELETE CASCADE
+);
+
+-- Progress of the telemetry consumer's backfill-rollups command, committed with each chunk
+CREATE TABLE IF NOT EXISTS click_rollup_backfill (
+    name VARCHAR(64) PRIMARY KEY,
+    next_click_id BIGINT NOT NULL,
+    through_click_id BIGINT NOT NULL
+);
@@ -0,0 +1,20 @@
+-- Changeset 7 (MySQL only): Partition clicks by UTC day of click_timestamp, so the telemetry
+-- consumer drops expired days whole instead of deleting rows. Partitioned InnoDB tables cannot
+-- have foreign keys, and every unique key must include the partitioning column.
+ALTER TABLE clicks DROP FOREIGN KEY fk_clicks_link_id;
+
+ALTER TABLE clicks DROP PRIMARY KEY, ADD PRIMARY KEY (id, click_timestamp);
+
+-- Existing clicks stay in p_history until it expires; the consumer splits days off p_future
+SET @history_end = UNIX_TIMESTAMP() - MOD(UNIX_TIMESTAMP(), 86400) + 86400;
+
+SET @partition_clicks = CONCAT(
+    'ALTER TABLE clicks PARTITION BY RANGE (UNIX_TIMESTAMP(click_timestamp)) (',
+    'PARTITION p_history VALUES LESS THAN (', @history_end, '), ',
+    'PARTITION p_future VALUES LESS THAN MAXVALUE)');
+
+PREPARE partition_clicks FROM @partition_clicks;
+
+EXECUTE partition_clicks;
+
+DEALLOCATE PREPARE partition_clicks;
@@ -0,0 +1,9 @@
+-- Changeset 2: Create id_sequences table for hi/lo id block allocation
+CREATE TABLE IF NOT EXISTS id_sequences (
+    name VARCHAR(64) PRIMARY KEY,
+    next_value BIGINT NOT NULL
+);
+
+-- Start the links sequence after any existing rows
+INSERT INTO id_sequences (name, next_value)
+SELECT 'links', COALESCE(MAX(id), 0) + 1 FROM links;
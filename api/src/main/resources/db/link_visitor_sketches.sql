@@ -0,0 +1,9 @@
+-- Changeset 5: HyperLogLog sketch of the distinct visitors to each link in each hour,
+-- written by the telemetry consumer and merged by the API for unique visitor estimates
+CREATE TABLE IF NOT EXISTS link_visitor_sketches (
+    link_id BIGINT NOT NULL,
+    bucket_start TIMESTAMP NOT NULL,
+    sketch BLOB NOT NULL,
+    PRIMARY KEY (link_id, bucket_start),
+    CONSTRAINT fk_link_visitor_sketches_link_id FOREIGN KEY (link_id) REFERENCES links(id) ON DELETE CASCADE
+);
@@ -0,0 +1,2 @@
+-- Changeset 8: Lets API instances read the links created since their last short code filter sync
+CREATE INDEX idx_links_created_at ON links(created_at);
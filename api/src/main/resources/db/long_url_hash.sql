@@ -0,0 +1,4 @@
+-- Changeset 4: Hash of long_url, so links for the same URL can be found through an index
+ALTER TABLE links ADD COLUMN long_url_hash BIGINT NULL;
+
+CREATE INDEX idx_long_url_hash ON links(long_url_hash);
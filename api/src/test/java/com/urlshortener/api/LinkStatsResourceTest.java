@@ -0,0 +1,229 @@
+package com.urlshortener.api;
+
+import com.urlshortener.UrlShortenerConfiguration;
+import com.urlshortener.core.Base62Service;
+import com.urlshortener.core.ClickBucket;
+import com.urlshortener.core.IdBlockAllocator;
+import com.urlshortener.core.Link;
+import com.urlshortener.db.ClickRollupDAO;
+import com.urlshortener.db.LinkDAO;
+import com.urlshortener.db.VisitorSketchDAO;
+import com.urlshortener.manager.LinkManager;
+import com.urlshortener.manager.LinkStatsManager;
+import com.urlshortener.models.ClickSeriesResponse;
+import com.urlshortener.models.CreateLinkRequest;
+import com.urlshortener.models.UniqueVisitorsResponse;
+import com.urlshortener.sketch.HyperLogLog;
+import io.dropwizard.testing.junit5.DropwizardExtensionsSupport;
+import io.dropwizard.testing.junit5.ResourceExtension;
+import jakarta.ws.rs.client.Entity;
+import jakarta.ws.rs.core.Response;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(DropwizardExtensionsSupport.class)
+class LinkStatsResourceTest {
+
+    private final LinkDAO linkDAO = mock(LinkDAO.class);
+    private final VisitorSketchDAO visitorSketchDAO = mock(VisitorSketchDAO.class);
+    private final ClickRollupDAO clickRollupDAO = mock(ClickRollupDAO.class);
+    private final UrlShortenerConfiguration.ApplicationConfiguration appConfig =
+            mock(UrlShortenerConfiguration.ApplicationConfiguration.class);
+    private final LinkManager linkManager = new LinkManager(linkDAO, mock(IdBlockAllocator.class),
+            mock(Base62Service.class), appConfig);
+
+    private final ResourceExtension resource = ResourceExtension.builder()
+            .addResource(new LinksResource(linkManager, 2))
+            .addResource(new LinkStatsResource(linkManager, new LinkStatsManager(visitorSketchDAO, clickRollupDAO)))
+            .build();
+
+    @BeforeEach
+    void setUp() {
+        Link link = new Link("https://example.com", "C");
+        link.setId(7L);
+        when(linkDAO.findByShortCode("C")).thenReturn(Optional.of(link));
+    }
+
+    private static byte[] sketchOf(long... hashes) {
+        HyperLogLog sketch = new HyperLogLog();
+        for (long hash : hashes) {
+            sketch.add(hash);
+        }
+        return sketch.toBytes();
+    }
+
+    @SuppressWarnings("unchecked")
+    private void storeSketches(byte[]... sketches) {
+        doAnswer(invocation -> {
+            Consumer<byte[]> consumer = invocation.getArgument(3);
+            for (byte[] sketch : sketches) {
+                consumer.accept(sketch);
+            }
+            return null;
+        }).when(visitorSketchDAO).forEachSketch(anyLong(), any(Instant.class), any(Instant.class), any(Consumer.class));
+    }
+
+    private Response getVisitors(String shortCode, String from, String to) {
+        return resource.target("/api/v1/stats/" + shortCode + "/visitors")
+                .queryParam("from", from)
+                .queryParam("to", to)
+                .request()
+                .get();
+    }
+
+    @Test
+    void getUniqueVisitors_mergesTheHourlySketchesInTheRange() {
+        // Arrange: one visitor seen in both hours
+        storeSketches(
+                sketchOf(0x1000_0000_0000_0000L, 0x2000_0000_0000_0000L),
+                sketchOf(0x2000_0000_0000_0000L, 0x3000_0000_0000_0000L));
+
+        // Act
+        Response response = getVisitors("C", "2024-01-15T10:20:00Z", "2024-01-15T13:40:00+02:00");
+
+        // Assert
+        assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
+        UniqueVisitorsResponse body = response.readEntity(UniqueVisitorsResponse.class);
+        assertEquals(3, body.getUniqueVisitors());
+        assertEquals("2024-01-15T10:00:00Z", body.getFrom());
+        assertEquals("2024-01-15T12:00:00Z", body.getTo());
+        verify(visitorSketchDAO).forEachSketch(eq(7L), eq(Instant.parse("2024-01-15T10:00:00Z")),
+                eq(Instant.parse("2024-01-15T12:00:00Z")), any());
+    }
+
+    @Test
+    void getUniqueVisitors_isZeroWithoutSketches() {
+        // Act
+        Response response = getVisitors("C", "2024-01-15T10:00:00Z", "2024-01-15T11:00:00Z");
+
+        // Assert
+        assertEquals(0, response.readEntity(UniqueVisitorsResponse.class).getUniqueVisitors());
+    }
+
+    @Test
+    void getUniqueVisitors_rejectsInvalidRanges() {
+        for (List<String> range : List.of(
+                List.of("2024-01-15T11:00:00Z", "2024-01-15T12:00:00+02:00"),
+                List.of("yesterday", "2024-01-15T10:00:00Z"))) {
+            // Act
+            Response response = getVisitors("C", range.get(0), range.get(1));
+
+            // Assert
+            assertEquals(Response.Status.BAD_REQUEST.getStatusCode(), response.getStatus(), range.toString());
+        }
+        verifyNoInteractions(visitorSketchDAO);
+    }
+
+    @Test
+    void getUniqueVisitors_unknownShortCode() {
+        // Arrange
+        when(linkDAO.findByShortCode("missing")).thenReturn(Optional.empty());
+
+        // Act
+        Response response = getVisitors("missing", "2024-01-15T10:00:00Z", "2024-01-15T11:00:00Z");
+
+        // Assert
+        assertEquals(Response.Status.NOT_FOUND.getStatusCode(), response.getStatus());
+    }
+
+    private Response getClicks(String shortCode, String from, String to, String granularity) {
+        return resource.target("/api/v1/stats/" + shortCode + "/clicks")
+                .queryParam("from", from)
+                .queryParam("to", to)
+                .queryParam("granularity", granularity)
+                .request()
+                .get();
+    }
+
+    @Test
+    void getClicks_readsTheRollupOfTheRequestedGranularity() {
+        // Arrange
+        when(clickRollupDAO.findBuckets("click_rollups_hour", 7L, Instant.parse("2024-01-15T10:00:00Z"),
+                Instant.parse("2024-01-15T12:00:00Z"))).thenReturn(List.of(
+                new ClickBucket(Instant.parse("2024-01-15T10:00:00Z"), 4),
+                new ClickBucket(Instant.parse("2024-01-15T11:00:00Z"), 3)));
+
+        // Act
+        Response response = getClicks("C", "2024-01-15T10:20:00Z", "2024-01-15T13:40:00+02:00", "hour");
+
+        // Assert
+        assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
+        ClickSeriesResponse body = response.readEntity(ClickSeriesResponse.class);
+        assertEquals("hour", body.getGranularity());
+        assertEquals("2024-01-15T10:00:00Z", body.getFrom());
+        assertEquals("2024-01-15T12:00:00Z", body.getTo());
+        assertEquals(7, body.getTotalClicks());
+        assertEquals(List.of("2024-01-15T10:00:00Z", "2024-01-15T11:00:00Z"),
+                body.getBuckets().stream().map(ClickSeriesResponse.Bucket::getStart).toList());
+        assertEquals(List.of(4L, 3L), body.getBuckets().stream().map(ClickSeriesResponse.Bucket::getClicks).toList());
+    }
+
+    @Test
+    void getClicks_picksTheFinestGranularityThatFitsTheRange() {
+        for (List<String> range : List.of(
+                List.of("2024-01-15T00:00:00Z", "2024-01-16T00:00:00Z", "minute", "click_rollups_minute"),
+                List.of("2024-01-15T00:00:00Z", "2024-01-16T00:00:01Z", "hour", "click_rollups_hour"),
+                List.of("2024-01-01T00:00:00Z", "2024-03-01T00:00:00Z", "hour", "click_rollups_hour"),
+                List.of("2024-01-01T00:00:00Z", "2024-06-01T00:00:00Z", "day", "click_rollups_day"))) {
+            // Act
+            Response response = getClicks("C", range.get(0), range.get(1), null);
+
+            // Assert
+            assertEquals(range.get(2), response.readEntity(ClickSeriesResponse.class).getGranularity(), range.toString());
+            verify(clickRollupDAO).findBuckets(eq(range.get(3)), eq(7L), any(Instant.class), any(Instant.class));
+            reset(clickRollupDAO);
+        }
+    }
+
+    @Test
+    void getClicks_rejectsInvalidRequests() {
+        for (List<String> request : List.of(
+                List.of("2024-01-15T11:00:00Z", "2024-01-15T10:00:00Z", "hour"),
+                List.of("2024-01-15T10:00:00Z", "2024-01-15T11:00:00Z", "week"),
+                List.of("2024-01-15T00:00:00Z", "2024-01-16T00:01:00Z", "minute"),
+                List.of("2010-01-01T00:00:00Z", "2024-01-01T00:00:00Z", "day"))) {
+            // Act
+            Response response = getClicks("C", request.get(0), request.get(1), request.get(2));
+
+            // Assert
+            assertEquals(Response.Status.BAD_REQUEST.getStatusCode(), response.getStatus(), request.toString());
+        }
+        verifyNoInteractions(clickRollupDAO);
+    }
+
+    @Test
+    void getClicks_unknownShortCode() {
+        // Arrange
+        when(linkDAO.findByShortCode("missing")).thenReturn(Optional.empty());
+
+        // Act
+        Response response = getClicks("missing", "2024-01-15T10:00:00Z", "2024-01-15T11:00:00Z", "minute");
+
+        // Assert
+        assertEquals(Response.Status.NOT_FOUND.getStatusCode(), response.getStatus());
+    }
+
+    @Test
+    void batchCreateIsStillRoutedToLinksResource() {
+        // Arrange
+        CreateLinkRequest request = new CreateLinkRequest();
+        request.setLongUrl("https://example.com");
+
+        // Act
+        Response response = resource.target("/api/v1/links/batch").request()
+                .post(Entity.json(List.of(request, request, request)));
+
+        // Assert: the batch size check of LinksResource answered
+        assertEquals(Response.Status.BAD_REQUEST.getStatusCode(), response.getStatus());
+        assertEquals("A batch must contain between 1 and 2 links", response.readEntity(String.class));
+    }
+}
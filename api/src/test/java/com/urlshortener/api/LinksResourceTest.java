@@ -0,0 +1,207 @@
+package com.urlshortener.api;
+
+import com.urlshortener.UrlShortenerConfiguration;
+import com.urlshortener.core.Base62Service;
+import com.urlshortener.core.IdBlockAllocator;
+import com.urlshortener.core.Link;
+import com.urlshortener.db.LinkDAO;
+import com.urlshortener.manager.LinkManager;
+import com.urlshortener.models.BatchCreateLinkResponse;
+import com.urlshortener.models.CreateLinkRequest;
+import com.urlshortener.models.CreateLinkResponse;
+import com.urlshortener.models.LinkCreationError;
+import io.dropwizard.testing.junit5.DropwizardExtensionsSupport;
+import io.dropwizard.testing.junit5.ResourceExtension;
+import jakarta.ws.rs.client.Entity;
+import jakarta.ws.rs.core.Response;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(DropwizardExtensionsSupport.class)
+class LinksResourceTest {
+
+    private final LinkDAO linkDAO = mock(LinkDAO.class);
+    private final IdBlockAllocator idAllocator = mock(IdBlockAllocator.class);
+    private final Base62Service base62Service = mock(Base62Service.class);
+    private final UrlShortenerConfiguration.ApplicationConfiguration appConfig =
+            mock(UrlShortenerConfiguration.ApplicationConfiguration.class);
+    private final LinkManager linkManager = new LinkManager(linkDAO, idAllocator, base62Service, appConfig);
+
+    private final ResourceExtension resource = ResourceExtension.builder()
+            .addResource(new LinksResource(linkManager, 2))
+            .build();
+
+    // The shipped defaults, including primary key short code lookups
+    private final ResourceExtension defaultConfigResource = ResourceExtension.builder()
+            .addResource(new LinksResource(new LinkManager(linkDAO, idAllocator, new Base62Service(),
+                    new UrlShortenerConfiguration.ApplicationConfiguration()), 2))
+            .build();
+
+    @BeforeEach
+    void setUp() {
+        when(appConfig.getBaseUrl()).thenReturn("http://localhost:8080");
+        when(appConfig.getMaxCustomShortCodeLength()).thenReturn(50);
+    }
+
+    private Response createLinkRequest(String url) {
+        CreateLinkRequest request = new CreateLinkRequest();
+        request.setLongUrl(url);
+        return resource.target("/api/v1/links").request().post(Entity.json(request));
+    }
+
+    private static CreateLinkRequest link(String url, String customShortCode) {
+        CreateLinkRequest request = new CreateLinkRequest();
+        request.setLongUrl(url);
+        request.setCustomShortCode(customShortCode);
+        return request;
+    }
+
+    private Response createBatchRequest(CreateLinkRequest... requests) {
+        return resource.target("/api/v1/links/batch").request().post(Entity.json(Arrays.asList(requests)));
+    }
+
+    @Test
+    void createShortLink_happyPath() {
+        // Arrange
+        when(idAllocator.nextId()).thenReturn(123L);
+        when(base62Service.encode(123L)).thenReturn("C");
+
+        // Act
+        Response response = createLinkRequest("https://example.com");
+
+        // Assert
+        assertEquals(Response.Status.CREATED.getStatusCode(), response.getStatus());
+
+        CreateLinkResponse responseBody = response.readEntity(CreateLinkResponse.class);
+        assertEquals("http://localhost:8080/C", responseBody.getShortUrl());
+        assertEquals("C", responseBody.getShortCode());
+
+        verify(linkDAO).insert(any(Link.class));
+    }
+
+    @Test
+    void createShortLink_invalidUrl() {
+        // Act
+        Response response = createLinkRequest(null);
+
+        // Assert
+        assertEquals(422, response.getStatus());
+    }
+
+    @Test
+    void createShortLink_emptyUrl() {
+        // Act
+        Response response = createLinkRequest("");
+
+        // Assert
+        assertEquals(422, response.getStatus());
+    }
+
+    @Test
+    void createShortLink_invalidUrlFormat() {
+        // Act
+        Response response = createLinkRequest("invalid-url");
+
+        // Assert
+        assertEquals(422, response.getStatus());
+    }
+
+    @Test
+    void createShortLinks_reportsAResultPerLink() {
+        // Arrange
+        when(appConfig.getBatchInsertChunkSize()).thenReturn(500);
+        when(linkDAO.findExistingShortCodes(Set.of("C", "taken"))).thenReturn(Set.of("taken"));
+        when(idAllocator.nextId()).thenReturn(123L);
+        when(base62Service.encode(123L)).thenReturn("C");
+
+        // Act
+        Response response = createBatchRequest(link("https://example.com", null), link("https://example.org", "taken"));
+
+        // Assert
+        assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
+
+        BatchCreateLinkResponse responseBody = response.readEntity(BatchCreateLinkResponse.class);
+        assertEquals(201, responseBody.getResults().get(0).getStatus());
+        assertEquals("http://localhost:8080/C", responseBody.getResults().get(0).getShortUrl());
+        assertNull(responseBody.getResults().get(0).getError());
+        assertEquals(409, responseBody.getResults().get(1).getStatus());
+        assertEquals(LinkCreationError.CUSTOM_CODE_ALREADY_EXISTS, responseBody.getResults().get(1).getError());
+
+        verify(linkDAO).insertAll(anyList(), eq(500));
+    }
+
+    @Test
+    void createShortLinks_rejectsBatchesOverTheLimit() {
+        // Act
+        Response response = createBatchRequest(
+                link("https://example.com/1", null), link("https://example.com/2", null), link("https://example.com/3", null));
+
+        // Assert
+        assertEquals(Response.Status.BAD_REQUEST.getStatusCode(), response.getStatus());
+        verifyNoInteractions(linkDAO);
+    }
+
+    @Test
+    void createShortLinks_rejectsEmptyBatches() {
+        // Act
+        Response response = resource.target("/api/v1/links/batch").request().post(Entity.json(List.of()));
+
+        // Assert
+        assertEquals(Response.Status.BAD_REQUEST.getStatusCode(), response.getStatus());
+    }
+
+    @Test
+    void createShortLinks_validatesEveryLink() {
+        // Act
+        Response response = createBatchRequest(link("https://example.com", null), link("invalid-url", null));
+
+        // Assert
+        assertEquals(422, response.getStatus());
+        verifyNoInteractions(linkDAO);
+    }
+
+    @Test
+    void createShortLink_keepsCustomCodesAsGivenWithTheDefaultConfig() {
+        // Arrange
+        when(idAllocator.nextId()).thenReturn(123L);
+        when(linkDAO.findByShortCode("promo")).thenReturn(Optional.empty());
+        CreateLinkRequest request = link("https://example.com", "promo");
+
+        // Act
+        Response response = defaultConfigResource.target("/api/v1/links").request().post(Entity.json(request));
+
+        // Assert
+        assertEquals(Response.Status.CREATED.getStatusCode(), response.getStatus());
+
+        CreateLinkResponse responseBody = response.readEntity(CreateLinkResponse.class);
+        assertEquals("promo", responseBody.getShortCode());
+        assertEquals("http://localhost:8080/promo", responseBody.getShortUrl());
+    }
+
+    @Test
+    void createShortLinks_keepsCustomCodesAsGivenWithTheDefaultConfig() {
+        // Arrange
+        when(idAllocator.nextId()).thenReturn(123L);
+        List<CreateLinkRequest> requests = List.of(link("https://example.com", "promo"));
+
+        // Act
+        Response response = defaultConfigResource.target("/api/v1/links/batch").request().post(Entity.json(requests));
+
+        // Assert
+        assertEquals(Response.Status.OK.getStatusCode(), response.getStatus());
+
+        BatchCreateLinkResponse responseBody = response.readEntity(BatchCreateLinkResponse.class);
+        assertEquals("promo", responseBody.getResults().get(0).getShortCode());
+        assertEquals("http://localhost:8080/promo", responseBody.getResults().get(0).getShortUrl());
+    }
+}
@@ -2,6 +2,7 @@ package com.urlshortener.api;
 
 import com.urlshortener.UrlShortenerConfiguration;
 import com.urlshortener.core.Base62Service;
+import com.urlshortener.core.IdBlockAllocator;
 import com.urlshortener.core.Link;
 import com.urlshortener.db.LinkDAO;
 import com.urlshortener.events.ClickEvent;
@@ -25,7 +26,7 @@ class RedirectResourceTest {
 	private final Base62Service base62Service = mock(Base62Service.class);
 	private final UrlShortenerConfiguration.ApplicationConfiguration appConfig =
 			mock(UrlShortenerConfiguration.ApplicationConfiguration.class);
-	private final LinkManager linkManager = new LinkManager(linkDAO, base62Service, appConfig);
+	private final LinkManager linkManager = new LinkManager(linkDAO, mock(IdBlockAllocator.class), base62Service, appConfig);
 	private final ClickManager clickManager = new ClickManager(eventPublisher);
 	private final HttpServletRequest request = mock(HttpServletRequest.class);
 	private final RedirectResource redirectResource = new RedirectResource(linkManager, clickManager);
@@ -0,0 +1,103 @@
+package com.urlshortener.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.codahale.metrics.MetricRegistry;
+import com.urlshortener.UrlShortenerConfiguration.LinkCacheConfiguration;
+import com.urlshortener.core.Link;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+public class LinkCacheTest {
+
+    private MetricRegistry metrics;
+    private LinkCache linkCache;
+
+    @BeforeEach
+    void setUp() {
+        metrics = new MetricRegistry();
+        linkCache = new LinkCache(new LinkCacheConfiguration(), metrics);
+    }
+
+    private static Link link(long id, String shortCode) {
+        Link link = new Link("https://example.com/" + shortCode, shortCode);
+        link.setId(id);
+        return link;
+    }
+
+    @Test
+    void itLoadsOnMissAndServesFromCacheAfterwards() {
+        // Given
+        AtomicInteger loads = new AtomicInteger();
+        Function<String, Optional<Link>> loader = code -> {
+            loads.incrementAndGet();
+            return Optional.of(link(1L, code));
+        };
+
+        // When
+        Optional<Link> first = linkCache.get("abc", loader);
+        Optional<Link> second = linkCache.get("abc", loader);
+
+        // Then
+        assertTrue(first.isPresent());
+        assertSame(first.get(), second.get());
+        assertEquals(1, loads.get());
+        assertEquals(1, metrics.meter(MetricRegistry.name(LinkCache.class, "hits")).getCount());
+        assertEquals(1, metrics.meter(MetricRegistry.name(LinkCache.class, "misses")).getCount());
+    }
+
+    @Test
+    void itDoesNotCacheMissingLinks() {
+        // Given
+        AtomicInteger loads = new AtomicInteger();
+        Function<String, Optional<Link>> loader = code -> {
+            loads.incrementAndGet();
+            return Optional.empty();
+        };
+
+        // When
+        linkCache.get("missing", loader);
+        Optional<Link> result = linkCache.get("missing", loader);
+
+        // Then
+        assertFalse(result.isPresent());
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void itServesPutLinksWithoutCallingTheLoader() {
+        // Given
+        linkCache.put(link(7L, "seeded"));
+
+        // When
+        Optional<Link> result = linkCache.get("seeded", code -> {
+            throw new AssertionError("loader should not be called");
+        });
+
+        // Then
+        assertTrue(result.isPresent());
+        assertEquals(7L, result.get().getId());
+    }
+
+    @Test
+    void itDelegatesEveryLookupWhenDisabled() {
+        // Given
+        LinkCache disabled = LinkCache.disabled();
+        AtomicInteger loads = new AtomicInteger();
+        disabled.put(link(1L, "abc"));
+
+        // When
+        disabled.get("abc", code -> {
+            loads.incrementAndGet();
+            return Optional.of(link(1L, code));
+        });
+
+        // Then
+        assertFalse(disabled.isEnabled());
+        assertEquals(1, loads.get());
+    }
+}
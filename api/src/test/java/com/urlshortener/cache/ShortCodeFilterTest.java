@@ -0,0 +1,217 @@
+package com.urlshortener.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+import com.urlshortener.UrlShortenerConfiguration.ShortCodeFilterConfiguration;
+import com.urlshortener.core.Base62Service;
+import com.urlshortener.core.Link;
+import com.urlshortener.db.LinkDAO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+@ExtendWith(MockitoExtension.class)
+public class ShortCodeFilterTest {
+
+    @Mock
+    private LinkDAO linkDAO;
+
+    private static final Base62Service BASE62 = new Base62Service();
+
+    private MetricRegistry metrics;
+    private ShortCodeFilter shortCodeFilter;
+
+    @BeforeEach
+    void setUp() {
+        metrics = new MetricRegistry();
+        shortCodeFilter = new ShortCodeFilter(new ShortCodeFilterConfiguration(), linkDAO, metrics);
+    }
+
+    // Generated codes, each stored under the id it decodes to
+    private void givenExistingShortCodes(String... shortCodes) {
+        givenExistingLinks(Stream.of(shortCodes).map(ShortCodeFilterTest::generated).toArray(Link[]::new));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void givenExistingLinks(Link... links) {
+        when(linkDAO.count()).thenReturn((long) links.length);
+        doAnswer(invocation -> {
+            Consumer<Link> consumer = invocation.getArgument(0);
+            List.of(links).forEach(consumer);
+            return null;
+        }).when(linkDAO).forEachShortCode(any(Consumer.class));
+    }
+
+    private static Link link(long id, String shortCode) {
+        Link link = new Link(null, shortCode);
+        link.setId(id);
+        return link;
+    }
+
+    private static Link generated(String shortCode) {
+        return link(BASE62.decode(shortCode), shortCode);
+    }
+
+    @Test
+    void itReportsEverythingAsPresentBeforeTheFirstBuild() {
+        assertTrue(shortCodeFilter.mightContain("anything"));
+    }
+
+    @Test
+    void itRejectsCodesThatWereNeverLoaded() {
+        // Given
+        givenExistingShortCodes("abc", "def");
+
+        // When
+        long loaded = shortCodeFilter.rebuild();
+
+        // Then
+        assertEquals(2, loaded);
+        assertTrue(shortCodeFilter.mightContain("abc"));
+        assertTrue(shortCodeFilter.mightContain("def"));
+        assertFalse(shortCodeFilter.mightContain("zzz"));
+        assertEquals(1, metrics.meter(MetricRegistry.name(ShortCodeFilter.class, "rejections")).getCount());
+    }
+
+    @Test
+    void itAcceptsCodesAddedAfterTheBuild() {
+        // Given
+        givenExistingShortCodes();
+        shortCodeFilter.rebuild();
+
+        // When
+        shortCodeFilter.put(generated("new123"));
+
+        // Then
+        assertTrue(shortCodeFilter.mightContain("new123"));
+    }
+
+    private static Link link(String shortCode, Instant createdAt) {
+        Link link = generated(shortCode);
+        link.setCreatedAt(createdAt);
+        return link;
+    }
+
+    @Test
+    void itSyncsLinksCreatedSinceTheNewestLoadedLessTheOverlap() {
+        // Given: a filter built when the newest link was created at 10:00
+        Instant builtAt = Instant.parse("2024-01-15T10:00:00Z");
+        givenExistingShortCodes("abc");
+        when(linkDAO.findNewestCreatedAt()).thenReturn(builtAt);
+        shortCodeFilter.rebuild();
+        when(linkDAO.findCreatedSince(builtAt.minusSeconds(10)))
+                .thenReturn(List.of(link("abc", builtAt), link("other1", builtAt.plusSeconds(5))));
+
+        // When
+        int synced = shortCodeFilter.sync();
+
+        // Then: the link from another instance is known, and the next sync starts from it
+        assertEquals(2, synced);
+        assertTrue(shortCodeFilter.mightContain("other1"));
+        assertEquals(2, metrics.meter(MetricRegistry.name(ShortCodeFilter.class, "synced")).getCount());
+        when(linkDAO.findCreatedSince(builtAt.minusSeconds(5))).thenReturn(List.of());
+        assertEquals(0, shortCodeFilter.sync());
+    }
+
+    @Test
+    void itSyncsFromTheStartWhenTheTableWasEmpty() {
+        // Given
+        givenExistingShortCodes();
+        shortCodeFilter.rebuild();
+        when(linkDAO.findCreatedSince(Instant.EPOCH)).thenReturn(List.of(link("first", Instant.parse("2024-01-15T10:00:00Z"))));
+
+        // When
+        shortCodeFilter.sync();
+
+        // Then
+        assertTrue(shortCodeFilter.mightContain("first"));
+    }
+
+    @Test
+    void itDoesNotSyncBeforeTheFirstBuild() {
+        // When
+        int synced = shortCodeFilter.sync();
+
+        // Then
+        assertEquals(0, synced);
+        verifyNoInteractions(linkDAO);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void itExposesTheFalsePositiveRate() {
+        // Given
+        givenExistingShortCodes("abc");
+        shortCodeFilter.rebuild();
+
+        // When
+        Gauge<Double> gauge = (Gauge<Double>) metrics.getGauges()
+                .get(MetricRegistry.name(ShortCodeFilter.class, "false-positive-rate"));
+
+        // Then
+        assertTrue(gauge.getValue() < 0.01);
+    }
+
+    @Test
+    void itStaysOpenWhenDisabled() {
+        // Given
+        ShortCodeFilter disabled = ShortCodeFilter.disabled();
+
+        // When
+        long loaded = disabled.rebuild();
+
+        // Then
+        assertEquals(0, loaded);
+        assertTrue(disabled.mightContain("anything"));
+    }
+
+    @Test
+    void itReportsEveryCodeAsDisplacedBeforeTheFirstBuild() {
+        assertTrue(shortCodeFilter.mightBeDisplaced("abc"));
+    }
+
+    @Test
+    void itTracksCodesStoredUnderAnotherId() {
+        // Given: a generated code, a custom code that decodes to another id and one that does not decode
+        givenExistingLinks(generated("G"), link(7L, "promo"), link(8L, "my-promo"));
+
+        // When
+        shortCodeFilter.rebuild();
+
+        // Then: only the custom code that looks generated is displaced
+        assertFalse(shortCodeFilter.mightBeDisplaced("G"));
+        assertTrue(shortCodeFilter.mightBeDisplaced("promo"));
+        assertFalse(shortCodeFilter.mightBeDisplaced("my-promo"));
+    }
+
+    @Test
+    void itTracksDisplacedCodesAddedAfterTheBuild() {
+        // Given
+        givenExistingShortCodes();
+        when(linkDAO.findNewestCreatedAt()).thenReturn(Instant.parse("2024-01-15T10:00:00Z"));
+        shortCodeFilter.rebuild();
+        Link synced = link(9L, "sale");
+        synced.setCreatedAt(Instant.parse("2024-01-15T10:00:01Z"));
+        when(linkDAO.findCreatedSince(any(Instant.class))).thenReturn(List.of(synced));
+
+        // When: one custom link is created here and another is synced from elsewhere
+        shortCodeFilter.put(link(8L, "promo"));
+        shortCodeFilter.sync();
+
+        // Then
+        assertTrue(shortCodeFilter.mightBeDisplaced("promo"));
+        assertTrue(shortCodeFilter.mightBeDisplaced("sale"));
+        assertFalse(shortCodeFilter.mightBeDisplaced("G"));
+    }
+}
@@ -0,0 +1,149 @@
+package com.urlshortener.cache;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.util.concurrent.UncheckedTimeoutException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+public class SingleFlightTest {
+
+    private static final int CALLERS = 8;
+
+    private MetricRegistry metrics;
+    private SingleFlight<String, String> singleFlight;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        metrics = new MetricRegistry();
+        singleFlight = new SingleFlight<>("lookups", Duration.ofSeconds(5), metrics);
+        executor = Executors.newFixedThreadPool(CALLERS);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Starts {@link #CALLERS} loads of the same key once the first one is inside the loader, and
+     * releases the loader once the rest are waiting on it.
+     */
+    private List<Future<String>> loadConcurrently(SingleFlight<String, String> flight, Function<String, String> loader)
+            throws InterruptedException {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<Future<String>> results = new ArrayList<>();
+        results.add(executor.submit(() -> flight.load("abc", key -> {
+            loading.countDown();
+            awaitQuietly(release);
+            return loader.apply(key);
+        })));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+        for (int i = 1; i < CALLERS; i++) {
+            results.add(executor.submit(() -> flight.load("abc", key -> fail("Load should have been shared"))));
+        }
+        while (metrics.meter("com.urlshortener.cache.SingleFlight.lookups.coalesced").getCount() < CALLERS - 1) {
+            Thread.onSpinWait();
+        }
+        release.countDown();
+        return results;
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Test
+    void itSharesOneLoadBetweenConcurrentCallers() throws Exception {
+        // Given
+        AtomicInteger loads = new AtomicInteger();
+
+        // When
+        List<Future<String>> results = loadConcurrently(singleFlight, key -> {
+            loads.incrementAndGet();
+            return "link for " + key;
+        });
+
+        // Then
+        for (Future<String> result : results) {
+            assertEquals("link for abc", result.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, loads.get());
+        assertEquals(CALLERS - 1, metrics.meter("com.urlshortener.cache.SingleFlight.lookups.coalesced").getCount());
+    }
+
+    @Test
+    void itGivesEveryWaiterTheLoadersException() throws Exception {
+        // Given
+        IllegalStateException failure = new IllegalStateException("database unavailable");
+
+        // When
+        List<Future<String>> results = loadConcurrently(singleFlight, key -> {
+            throw failure;
+        });
+
+        // Then
+        for (Future<String> result : results) {
+            ExecutionException e = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+            assertSame(failure, e.getCause());
+        }
+    }
+
+    @Test
+    void itTimesOutWaitersButNotTheLoader() throws Exception {
+        // Given
+        SingleFlight<String, String> shortTimeout = new SingleFlight<>("lookups", Duration.ofMillis(50), metrics);
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<String> loader = executor.submit(() -> shortTimeout.load("abc", key -> {
+            loading.countDown();
+            awaitQuietly(release);
+            return "link for " + key;
+        }));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+        // When
+        assertThrows(UncheckedTimeoutException.class,
+                () -> shortTimeout.load("abc", key -> fail("Load should have been shared")));
+        release.countDown();
+
+        // Then
+        assertEquals("link for abc", loader.get(5, TimeUnit.SECONDS));
+        assertEquals(1, metrics.meter("com.urlshortener.cache.SingleFlight.lookups.timeouts").getCount());
+    }
+
+    @Test
+    void itLoadsAgainOnceTheLoadHasFinished() {
+        // Given
+        AtomicInteger loads = new AtomicInteger();
+
+        // When
+        singleFlight.load("abc", key -> "first " + loads.incrementAndGet());
+        String second = singleFlight.load("abc", key -> "second " + loads.incrementAndGet());
+
+        // Then
+        assertEquals("second 2", second);
+        assertEquals(0, metrics.meter("com.urlshortener.cache.SingleFlight.lookups.coalesced").getCount());
+    }
+}
@@ -0,0 +1,174 @@
+package com.urlshortener.core;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+// Import the standard JUnit 5 assertions
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+
+class Base62ServiceTest {
+
+	private Base62Service base62Service;
+
+	@BeforeEach
+	void setUp() {
+		base62Service = new Base62Service();
+	}
+
+	@Test
+	void testEncodeZero() {
+		// Given the number 0
+		long number = 0L;
+
+		// When the encode method is called
+		String encoded = base62Service.encode(number);
+
+		// Then the result should be "0"
+		// assertEquals uses the format: assertEquals(expected, actual)
+		assertEquals("0", encoded);
+	}
+
+	@Test
+	void testEncodeSingleCharacter() {
+		// Given a number that maps to a single Base62 character
+		long number = 10L;
+
+		// When the encode method is called
+		String encoded = base62Service.encode(number);
+
+		// Then the result should be "a"
+		assertEquals("a", encoded);
+	}
+
+	@Test
+	void testEncodeMultiCharacter() {
+		// Given a number that results in a multi-character string
+		long number = 62L;
+
+		// When the encode method is called
+		String encoded = base62Service.encode(number);
+
+		// Then the result should be "10"
+		assertEquals("10", encoded);
+	}
+
+	@Test
+	void testEncodeLargeNumber() {
+		// Given a large number
+		long number = 123456789L;
+
+		// When the encode method is called
+		String encoded = base62Service.encode(number);
+
+		// Then the result should be "1ly7vk"
+		assertEquals("8m0Kx", encoded);
+	}
+
+	@Test
+	void testEncodeMaxValue() {
+		// Given the maximum long value
+		long number = Long.MAX_VALUE;
+
+		// When the encode method is called
+		String encoded = base62Service.encode(number);
+
+		// Then the result should be "AzL8n0Y58m7"
+		assertEquals("aZl8N0y58M7", encoded);
+	}
+
+	@Test
+	void testDecodeRoundTrip() {
+		// Given values across the whole positive range
+		long[] numbers = {0L, 61L, 62L, 123456789L, 3521614606208L, Long.MAX_VALUE};
+
+		for (long number : numbers) {
+			// When a value is encoded and decoded again
+			long decoded = base62Service.decode(base62Service.encode(number));
+
+			// Then the original value is returned
+			assertEquals(number, decoded);
+		}
+	}
+
+	@Test
+	void testDecodeRejectsInvalidCharacters() {
+		// Given strings with characters outside the Base62 alphabet, including non-ASCII ones
+		// When/Then decoding fails
+		assertThrows(IllegalArgumentException.class, () -> base62Service.decode("abc-1"));
+		assertThrows(IllegalArgumentException.class, () -> base62Service.decode("abcé"));
+		assertThrows(IllegalArgumentException.class, () -> base62Service.decode(""));
+	}
+
+	@Test
+	void testDecodeDetectsOverflow() {
+		// Given the encoding of Long.MAX_VALUE and the next larger value
+		// When/Then the first decodes and the second is rejected instead of wrapping around
+		assertEquals(Long.MAX_VALUE, base62Service.decode("aZl8N0y58M7"));
+		assertThrows(IllegalArgumentException.class, () -> base62Service.decode("aZl8N0y58M8"));
+		assertThrows(IllegalArgumentException.class, () -> base62Service.decode("100000000000"));
+	}
+
+	@Test
+	void testIsCanonicalOnlyForEncodedValues() {
+		// Given codes that encode returns, and codes that decode but are never returned by encode
+		// When/Then only the first are canonical
+		assertTrue(base62Service.isCanonical("0"));
+		assertTrue(base62Service.isCanonical("promo"));
+		assertTrue(base62Service.isCanonical("aZl8N0y58M7"));
+		assertFalse(base62Service.isCanonical("0G"));
+		assertFalse(base62Service.isCanonical("my-promo"));
+		assertFalse(base62Service.isCanonical("aZl8N0y58M8"));
+		assertFalse(base62Service.isCanonical(""));
+	}
+
+	@Test
+	void testEncodeIntoCallerBuffer() {
+		// Given a buffer with room before and after the encoded value
+		byte[] buffer = "xx------------".getBytes(StandardCharsets.US_ASCII);
+
+		// When 123456789 is encoded at offset 2
+		int length = base62Service.encode(123456789L, buffer, 2);
+
+		// Then only the encoded bytes are written and they decode back to the value
+		assertEquals(5, length);
+		assertEquals("xx8m0Kx-------", new String(buffer, StandardCharsets.US_ASCII));
+		assertEquals(123456789L, base62Service.decode(buffer, 2, length));
+	}
+
+	@Test
+	void testEncodeIntoBufferThatIsTooSmall() {
+		// Given a buffer shorter than the encoded value
+		byte[] buffer = new byte[3];
+
+		// When/Then encoding fails without writing past the buffer
+		assertThrows(IndexOutOfBoundsException.class, () -> base62Service.encode(123456789L, buffer, 0));
+	}
+
+	@Test
+	void testEncodeAppendsToStringBuilder() {
+		// Given a builder with existing content
+		StringBuilder builder = new StringBuilder("https://sho.rt/");
+
+		// When a value is appended
+		base62Service.encode(62L, builder);
+
+		// Then it is encoded after the existing content and can be decoded in place
+		assertEquals("https://sho.rt/10", builder.toString());
+		assertEquals(62L, base62Service.decode(builder, 15, builder.length()));
+	}
+
+	@Test
+	void testEncodeRejectsNegativeNumbers() {
+		// Given a negative number
+		// When/Then every encode variant rejects it
+		assertThrows(IllegalArgumentException.class, () -> base62Service.encode(-1L));
+		assertThrows(IllegalArgumentException.class, () -> base62Service.encode(-1L, new byte[11], 0));
+		assertThrows(IllegalArgumentException.class, () -> base62Service.encode(-1L, new StringBuilder()));
+	}
+}
@@ -0,0 +1,68 @@
+package com.urlshortener.core;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import com.codahale.metrics.MetricRegistry;
+import com.urlshortener.db.IdSequenceDAO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+public class IdBlockAllocatorTest {
+
+    @Mock
+    private IdSequenceDAO idSequenceDAO;
+
+    private MetricRegistry metrics;
+    private IdBlockAllocator allocator;
+
+    @BeforeEach
+    void setUp() {
+        metrics = new MetricRegistry();
+        allocator = new IdBlockAllocator(idSequenceDAO, "links", 3, metrics);
+    }
+
+    @Test
+    void itHandsOutIdsFromTheReservedBlock() {
+        // Given
+        when(idSequenceDAO.reserveBlock("links", 3)).thenReturn(100L);
+
+        // When
+        long first = allocator.nextId();
+        long second = allocator.nextId();
+        long third = allocator.nextId();
+
+        // Then
+        assertEquals(100L, first);
+        assertEquals(101L, second);
+        assertEquals(102L, third);
+        verify(idSequenceDAO, times(1)).reserveBlock("links", 3);
+    }
+
+    @Test
+    void itReservesANewBlockWhenTheCurrentOneIsExhausted() {
+        // Given
+        when(idSequenceDAO.reserveBlock("links", 3)).thenReturn(1L, 50L);
+
+        // When
+        for (int i = 0; i < 3; i++) {
+            allocator.nextId();
+        }
+        long next = allocator.nextId();
+
+        // Then
+        assertEquals(50L, next);
+        verify(idSequenceDAO, times(2)).reserveBlock("links", 3);
+        assertEquals(2, metrics.timer(MetricRegistry.name(IdBlockAllocator.class, "links", "refills")).getCount());
+    }
+
+    @Test
+    void itRejectsNonPositiveBlockSizes() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new IdBlockAllocator(idSequenceDAO, "links", 0, new MetricRegistry()));
+    }
+}
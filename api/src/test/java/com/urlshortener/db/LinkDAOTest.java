@@ -0,0 +1,143 @@
+package com.urlshortener.db;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import org.jdbi.v3.core.Jdbi;
+import org.jdbi.v3.core.statement.UnableToExecuteStatementException;
+import org.jdbi.v3.sqlobject.SqlObjectPlugin;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.urlshortener.core.Link;
+
+public class LinkDAOTest {
+
+    private static final AtomicInteger DATABASES = new AtomicInteger();
+
+    private LinkDAO linkDAO;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        Jdbi jdbi = Jdbi.create("jdbc:h2:mem:links-" + DATABASES.incrementAndGet() + ";MODE=MySQL;DB_CLOSE_DELAY=-1");
+        jdbi.installPlugin(new SqlObjectPlugin());
+        String schema = resource("db/schema.sql") + resource("db/long_url_hash.sql") + resource("db/links_created_at.sql");
+        jdbi.useHandle(handle -> handle.createScript(schema).execute());
+        linkDAO = jdbi.onDemand(LinkDAO.class);
+    }
+
+    private static String resource(String path) throws IOException {
+        try (InputStream in = LinkDAOTest.class.getClassLoader().getResourceAsStream(path)) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private static List<Link> links(long fromId, long toId) {
+        return LongStream.rangeClosed(fromId, toId)
+                .mapToObj(id -> {
+                    Link link = new Link("https://example.com/" + id, "code" + id);
+                    link.setId(id);
+                    return link;
+                })
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    void itVisitsEveryShortCodeAcrossPages() {
+        // GIVEN: more links than fit in one page, ending on a page boundary
+        linkDAO.insertAll(links(1, 30), 100);
+
+        // WHEN: the short codes are read ten at a time
+        List<String> shortCodes = new ArrayList<>();
+        List<Long> ids = new ArrayList<>();
+        linkDAO.forEachShortCode(10, link -> {
+            shortCodes.add(link.getShortCode());
+            ids.add(link.getId());
+        });
+
+        // THEN: each code is seen exactly once, in id order, with its id
+        assertEquals(30, shortCodes.size());
+        assertEquals(ids.stream().sorted().toList(), ids);
+        assertEquals(30, new HashSet<>(shortCodes).size());
+        assertEquals("code1", shortCodes.get(0));
+        assertEquals("code30", shortCodes.get(29));
+    }
+
+    @Test
+    void itVisitsNothingInAnEmptyTable() {
+        // GIVEN: no links
+
+        // WHEN: the short codes are read
+        List<String> shortCodes = new ArrayList<>();
+        linkDAO.forEachShortCode(link -> shortCodes.add(link.getShortCode()));
+
+        // THEN: the consumer is never called
+        assertEquals(List.of(), shortCodes);
+    }
+
+    @Test
+    void itInsertsOnlyLinksWhoseShortCodeIsMissing() {
+        // GIVEN: two of the codes are already stored and one repeats within the batch
+        linkDAO.insertAll(links(1, 2), 100);
+        List<Link> batch = links(1, 4);
+        batch.forEach(link -> link.setId(link.getId() + 10));
+        Link repeat = new Link("https://example.com/repeat", "code3");
+        repeat.setId(20L);
+        batch.add(repeat);
+
+        // WHEN: the batch is inserted
+        int inserted = linkDAO.insertAllMissing(batch);
+
+        // THEN: only the first rows with new codes are written
+        assertEquals(2, inserted);
+        assertEquals(4, linkDAO.count());
+        assertEquals(13L, linkDAO.findByShortCode("code3").orElseThrow().getId());
+    }
+
+    @Test
+    void itSkipsDuplicateShortCodesButNotOtherErrors() {
+        // GIVEN: a stored code, as if another writer inserted it after the duplicate lookup
+        linkDAO.insertAll(links(1, 1), 100);
+        Link duplicate = new Link("https://example.com/other", "code1");
+        duplicate.setId(11L);
+        Link tooLong = new Link("https://example.com/long", "x".repeat(51));
+        tooLong.setId(12L);
+
+        // WHEN: the duplicate is inserted, THEN: it is skipped and the stored link is unchanged
+        linkDAO.insertAllSkippingDuplicates(List.of(duplicate));
+        assertEquals(1, linkDAO.count());
+        assertEquals(1L, linkDAO.findByShortCode("code1").orElseThrow().getId());
+
+        // WHEN: a code too long for the column is inserted, THEN: the batch fails instead of truncating it
+        assertThrows(UnableToExecuteStatementException.class, () -> linkDAO.insertAllSkippingDuplicates(List.of(tooLong)));
+        assertEquals(1, linkDAO.count());
+    }
+
+    @Test
+    void itFindsLinksCreatedSinceAnInstant() {
+        // GIVEN: links created before and after a point in time
+        linkDAO.insertAll(links(1, 2), 100);
+        Instant newest = linkDAO.findNewestCreatedAt();
+
+        // WHEN: the links created since then are read
+        List<Link> created = linkDAO.findCreatedSince(newest.plusSeconds(1));
+        List<Link> all = linkDAO.findCreatedSince(newest.minusSeconds(60));
+
+        // THEN: only links at or after the instant are returned, with their creation time
+        assertEquals(List.of(), created);
+        assertEquals(Set.of("code1", "code2"), all.stream().map(Link::getShortCode).collect(Collectors.toSet()));
+        assertEquals(newest, all.stream().map(Link::getCreatedAt).max(Instant::compareTo).orElseThrow());
+    }
+}
@@ -0,0 +1,88 @@
+package com.urlshortener.importer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class ImportCheckpointTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void onlyAdvancesOverContiguousBatches() throws Exception {
+        // GIVEN: a fresh checkpoint
+        ImportCheckpoint checkpoint = ImportCheckpoint.load(directory.resolve("cp"), directory.resolve("links.csv"));
+
+        // WHEN: batches 1 and 2 finish before batch 0
+        checkpoint.batchFinished(1, 20);
+        checkpoint.batchFinished(2, 30);
+
+        // THEN: nothing is safe to skip until batch 0 finishes too
+        assertEquals(0, checkpoint.getRecords());
+        checkpoint.batchFinished(0, 10);
+        assertEquals(30, checkpoint.getRecords());
+    }
+
+    @Test
+    void resumesFromTheSavedCheckpoint() throws Exception {
+        // GIVEN: a checkpoint saved after one batch
+        Path file = directory.resolve("cp");
+        Path source = directory.resolve("links.csv");
+        ImportCheckpoint checkpoint = ImportCheckpoint.load(file, source);
+        checkpoint.batchFinished(0, 1000);
+        checkpoint.save();
+
+        // WHEN: it is loaded again
+        ImportCheckpoint resumed = ImportCheckpoint.load(file, source);
+
+        // THEN: it starts where the last run stopped, and numbers this run's batches from 0
+        assertEquals(1000, resumed.getRecords());
+        resumed.batchFinished(0, 1500);
+        assertEquals(1500, resumed.getRecords());
+    }
+
+    @Test
+    void refusesACheckpointForAnotherFile() throws Exception {
+        // GIVEN: a checkpoint saved for one file
+        Path file = directory.resolve("cp");
+        ImportCheckpoint checkpoint = ImportCheckpoint.load(file, directory.resolve("a.csv"));
+        checkpoint.save();
+
+        // WHEN / THEN: it is not used for another
+        assertThrows(IllegalStateException.class, () -> ImportCheckpoint.load(file, directory.resolve("b.csv")));
+    }
+
+    @Test
+    void savesFromSeveralThreadsWithoutClashing() throws Exception {
+        // GIVEN: a checkpoint that the progress reporter and the importer save at the same time
+        Path file = directory.resolve("cp");
+        Path source = directory.resolve("links.csv");
+        ImportCheckpoint checkpoint = ImportCheckpoint.load(file, source);
+        checkpoint.batchFinished(0, 500);
+        ExecutorService savers = Executors.newFixedThreadPool(4);
+
+        // WHEN: many saves overlap
+        List<Future<?>> saves = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            saves.add(savers.submit(checkpoint::save));
+        }
+
+        // THEN: every save succeeds and the file holds the checkpoint
+        for (Future<?> save : saves) {
+            save.get(10, TimeUnit.SECONDS);
+        }
+        savers.shutdown();
+        assertEquals(500, ImportCheckpoint.load(file, source).getRecords());
+    }
+}
@@ -0,0 +1,175 @@
+package com.urlshortener.importer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.jdbi.v3.core.Jdbi;
+import org.jdbi.v3.sqlobject.SqlObjectPlugin;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.codahale.metrics.MetricRegistry;
+import com.urlshortener.UrlShortenerConfiguration;
+import com.urlshortener.core.Base62Service;
+import com.urlshortener.core.IdBlockAllocator;
+import com.urlshortener.db.IdSequenceDAO;
+import com.urlshortener.db.LinkDAO;
+import com.urlshortener.importer.LinkRecordReader.Format;
+import com.urlshortener.manager.LinkManager;
+import com.urlshortener.models.LinkCreationResult;
+
+import io.dropwizard.jersey.validation.Validators;
+
+public class LinkImporterTest {
+
+    private static final AtomicInteger DATABASES = new AtomicInteger();
+
+    @TempDir
+    Path directory;
+
+    private Jdbi jdbi;
+    private LinkDAO linkDAO;
+    private IdBlockAllocator idAllocator;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        jdbi = Jdbi.create("jdbc:h2:mem:import-" + DATABASES.incrementAndGet() + ";MODE=MySQL;DB_CLOSE_DELAY=-1");
+        jdbi.installPlugin(new SqlObjectPlugin());
+        String schema = resource("db/schema.sql") + resource("db/id_sequences.sql") + resource("db/long_url_hash.sql");
+        jdbi.useHandle(handle -> handle.createScript(schema).execute());
+        linkDAO = jdbi.onDemand(LinkDAO.class);
+        idAllocator = new IdBlockAllocator(jdbi.onDemand(IdSequenceDAO.class), "links", 10, new MetricRegistry());
+    }
+
+    private static String resource(String path) throws IOException {
+        try (InputStream in = LinkImporterTest.class.getClassLoader().getResourceAsStream(path)) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    private LinkImporter importer(LinkDAO dao) {
+        return new LinkImporter(dao, idAllocator, Validators.newValidator(), 10, 4, 3, Duration.ofSeconds(10));
+    }
+
+    private Path ndjson(int records) throws IOException {
+        String lines = IntStream.rangeClosed(1, records)
+                .mapToObj(i -> "{\"long_url\":\"https://example.com/" + i + "\",\"short_code\":\"old" + i + "\"}")
+                .collect(Collectors.joining("\n"));
+        return Files.writeString(directory.resolve("links.ndjson"), lines);
+    }
+
+    private LinkImporter.Result run(LinkImporter importer, Path file, ImportCheckpoint checkpoint) throws Exception {
+        try (LinkRecordReader reader = LinkRecordReader.open(file, Format.NDJSON)) {
+            return importer.run(reader, checkpoint);
+        }
+    }
+
+    @Test
+    void importsValidRecordsAndSkipsInvalidOnes() throws Exception {
+        // GIVEN: valid rows mixed with a bad URL, a missing code and a code that is too long
+        Path file = Files.writeString(directory.resolve("links.ndjson"), """
+                {"long_url":"https://example.com/1","short_code":"a1"}
+                {"long_url":"not a url","short_code":"a2"}
+                {"long_url":"https://example.com/3"}
+                {"long_url":"https://example.com/4","short_code":"waytoolongcode"}
+                {"long_url":"https://example.com/5","short_code":"a5"}
+                """);
+        ImportCheckpoint checkpoint = ImportCheckpoint.load(directory.resolve("cp"), file);
+
+        // WHEN: the file is imported
+        LinkImporter.Result result = run(importer(linkDAO), file, checkpoint);
+
+        // THEN: only the valid rows are written, with their original codes
+        assertEquals(5, result.read());
+        assertEquals(2, result.written());
+        assertEquals(3, result.invalid());
+        assertEquals(2, linkDAO.count());
+        assertEquals("https://example.com/5", linkDAO.findByShortCode("a5").orElseThrow().getLongUrl());
+        assertEquals(5, checkpoint.getRecords());
+    }
+
+    @Test
+    void importsAcrossWriterThreadsAndCheckpointsTheEnd() throws Exception {
+        // GIVEN: more batches than writer threads
+        Path file = ndjson(101);
+        ImportCheckpoint checkpoint = ImportCheckpoint.load(directory.resolve("cp"), file);
+
+        // WHEN: the file is imported
+        LinkImporter.Result result = run(importer(linkDAO), file, checkpoint);
+
+        // THEN: every row is written and the saved checkpoint covers the whole file
+        assertEquals(101, result.written());
+        assertEquals(101, linkDAO.count());
+        assertEquals(101, ImportCheckpoint.load(directory.resolve("cp"), file).getRecords());
+    }
+
+    @Test
+    void resumingReplaysUncheckpointedRowsWithoutDuplicating() throws Exception {
+        // GIVEN: a finished import whose checkpoint was last saved 6 records before the end
+        Path file = ndjson(20);
+        run(importer(linkDAO), file, ImportCheckpoint.load(directory.resolve("cp"), file));
+        Files.writeString(directory.resolve("cp"),
+                "{\"source\":\"" + file.toAbsolutePath() + "\",\"records\":14}");
+
+        // WHEN: the import runs again
+        LinkImporter.Result result = run(importer(linkDAO), file, ImportCheckpoint.load(directory.resolve("cp"), file));
+
+        // THEN: the checkpointed records are skipped and the replayed ones are ignored as duplicates
+        assertEquals(14, result.skipped());
+        assertEquals(6, result.read());
+        assertEquals(6, result.duplicates());
+        assertEquals(0, result.written());
+        assertEquals(20, linkDAO.count());
+    }
+
+    @Test
+    void stopsAtTheFirstFailedBatch() throws Exception {
+        // GIVEN: a database that rejects every insert
+        LinkDAO failing = mock(LinkDAO.class);
+        when(failing.insertAllMissing(anyList())).thenThrow(new IllegalStateException("database down"));
+        Path file = ndjson(20);
+        ImportCheckpoint checkpoint = ImportCheckpoint.load(directory.resolve("cp"), file);
+
+        // WHEN / THEN: the import fails and the checkpoint stays before the failed batch
+        assertThrows(IllegalStateException.class, () -> run(importer(failing), file, checkpoint));
+        assertEquals(0, ImportCheckpoint.load(directory.resolve("cp"), file).getRecords());
+        assertEquals(List.of(), jdbi.withHandle(handle -> handle.createQuery("SELECT id FROM links").mapTo(Long.class).list()));
+    }
+
+    @Test
+    void linksCreatedAfterAnImportSkipIdsWhoseCodesWereImported() throws Exception {
+        // GIVEN: imported codes equal to the Base62 codes of the next two ids the API will hand out
+        Path file = Files.writeString(directory.resolve("links.ndjson"), """
+                {"long_url":"https://example.com/old-b","short_code":"b"}
+                {"long_url":"https://example.com/old-c","short_code":"c"}
+                """);
+        run(importer(linkDAO), file, ImportCheckpoint.load(directory.resolve("cp"), file));
+        IdBlockAllocator apiAllocator = new IdBlockAllocator(jdbi.onDemand(IdSequenceDAO.class), "links", 10,
+                new MetricRegistry());
+        LinkManager linkManager = new LinkManager(linkDAO, apiAllocator, new Base62Service(),
+                new UrlShortenerConfiguration.ApplicationConfiguration());
+
+        // WHEN: a link with a generated code is created
+        LinkCreationResult result = linkManager.createLink("https://example.com/new", null);
+
+        // THEN: it gets the first id whose code is free and the imported links are untouched
+        assertEquals("d", result.getShortCode());
+        assertEquals("https://example.com/old-b", linkManager.findByShortCode("b").orElseThrow().getLongUrl());
+        assertEquals("https://example.com/new", linkManager.findByShortCode("d").orElseThrow().getLongUrl());
+    }
+}
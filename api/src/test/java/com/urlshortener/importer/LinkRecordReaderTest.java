@@ -0,0 +1,95 @@
+package com.urlshortener.importer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.urlshortener.importer.LinkRecordReader.Format;
+import com.urlshortener.importer.LinkRecordReader.LinkRecord;
+
+public class LinkRecordReaderTest {
+
+    @TempDir
+    Path directory;
+
+    private Path write(String name, String content) throws IOException {
+        return Files.writeString(directory.resolve(name), content);
+    }
+
+    @Test
+    void readsNdjsonObjectsAndIgnoresOtherFields() throws Exception {
+        // GIVEN: NDJSON lines with both naming styles, extra fields and a null code
+        Path file = write("links.ndjson", """
+                {"long_url":"https://example.com/1","short_code":"a1","created":{"at":"2020-01-01"}}
+                {"longUrl":"https://example.com/2","shortCode":"b2"}
+                {"long_url":"https://example.com/3","short_code":null}
+                """);
+
+        // WHEN: the file is read
+        try (LinkRecordReader reader = LinkRecordReader.open(file, Format.of(file))) {
+            // THEN: each line becomes a numbered record
+            assertEquals(new LinkRecord(1, "https://example.com/1", "a1"), reader.next());
+            assertEquals(new LinkRecord(2, "https://example.com/2", "b2"), reader.next());
+            assertEquals(new LinkRecord(3, "https://example.com/3", null), reader.next());
+            assertNull(reader.next());
+        }
+    }
+
+    @Test
+    void readsCsvRowsByHeader() throws Exception {
+        // GIVEN: a CSV file whose columns are in a different order, with a blank code
+        Path file = write("links.csv", """
+                short_code,source,long_url
+                a1,legacy,https://example.com/1
+                ,legacy,https://example.com/2
+                """);
+
+        // WHEN: the file is read
+        try (LinkRecordReader reader = LinkRecordReader.open(file, Format.of(file))) {
+            // THEN: fields are matched by header name and blank cells read as missing
+            assertEquals(new LinkRecord(1, "https://example.com/1", "a1"), reader.next());
+            assertEquals(new LinkRecord(2, "https://example.com/2", null), reader.next());
+            assertNull(reader.next());
+        }
+    }
+
+    @Test
+    void skipKeepsRecordNumbers() throws Exception {
+        // GIVEN: three records
+        Path file = write("links.ndjson", """
+                {"long_url":"https://example.com/1","short_code":"a"}
+                {"long_url":"https://example.com/2","short_code":"b"}
+                {"long_url":"https://example.com/3","short_code":"c"}
+                """);
+
+        try (LinkRecordReader reader = LinkRecordReader.open(file, Format.NDJSON)) {
+            // WHEN: the first two are skipped, then more than remain
+            long skipped = reader.skip(2);
+
+            // THEN: reading continues with record 3
+            assertEquals(2, skipped);
+            assertEquals(new LinkRecord(3, "https://example.com/3", "c"), reader.next());
+            assertEquals(0, reader.skip(5));
+        }
+    }
+
+    @Test
+    void rejectsRecordsThatAreNotObjects() throws Exception {
+        // GIVEN: an array where a record should be
+        Path file = write("links.ndjson", "[\"https://example.com\"]\n");
+
+        try (LinkRecordReader reader = LinkRecordReader.open(file, Format.NDJSON)) {
+            // WHEN / THEN: reading fails with the record number
+            JsonParseException e = assertThrows(JsonParseException.class, reader::next);
+            assertEquals(true, e.getMessage().startsWith("Record 1 is not an object"));
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.urlshortener.kafka;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.codahale.metrics.MetricRegistry;
+import com.urlshortener.UrlShortenerConfiguration.ClickDispatchConfiguration;
+import com.urlshortener.UrlShortenerConfiguration.ClickDispatchConfiguration.OverflowPolicy;
+import com.urlshortener.events.ClickEvent;
+
+import io.dropwizard.util.Duration;
+
+@ExtendWith(MockitoExtension.class)
+public class ClickEventDispatcherTest {
+
+    @Mock
+    private EventPublisher eventPublisher;
+
+    private MetricRegistry metrics;
+    private ClickEventDispatcher dispatcher;
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @BeforeEach
+    void setUp() {
+        metrics = new MetricRegistry();
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        release.countDown();
+        if (dispatcher != null) {
+            dispatcher.stop();
+        }
+    }
+
+    private static ClickEvent event(String shortCode) {
+        return new ClickEvent(1L, shortCode, "2025-01-02T10:30:00Z");
+    }
+
+    private ClickEventDispatcher singleSlotDispatcher(OverflowPolicy policy) {
+        ClickDispatchConfiguration config = new ClickDispatchConfiguration();
+        config.setThreads(1);
+        config.setQueueCapacity(1);
+        config.setOverflowPolicy(policy);
+        config.setSampleRate(2);
+        config.setBlockTimeout(Duration.milliseconds(10));
+        return new ClickEventDispatcher(eventPublisher, config, metrics);
+    }
+
+    private void givenPublisherBlocksUntilReleased() throws Exception {
+        doAnswer(invocation -> {
+            release.await(5, TimeUnit.SECONDS);
+            return null;
+        }).when(eventPublisher).publishClickEvent(any(ClickEvent.class));
+    }
+
+    private long dropped() {
+        return metrics.meter(MetricRegistry.name(ClickEventDispatcher.class, "dropped")).getCount();
+    }
+
+    @Test
+    void dispatch_publishesOnTheDispatchThread() throws Exception {
+        // GIVEN: a dispatcher with free capacity
+        dispatcher = singleSlotDispatcher(OverflowPolicy.DROP);
+        ClickEvent event = event("abc");
+
+        // WHEN: an event is dispatched
+        dispatcher.dispatch(event);
+
+        // THEN: it is published, and its time in the queue is recorded
+        verify(eventPublisher, timeout(1000)).publishClickEvent(event);
+        assertEquals(1, metrics.timer(MetricRegistry.name(ClickEventDispatcher.class, "queued")).getCount());
+    }
+
+    @Test
+    void dispatch_publishesOnAVirtualThreadInVirtualThreadMode() throws Exception {
+        // GIVEN: a dispatcher built for virtual threads
+        dispatcher = new ClickEventDispatcher(eventPublisher, new ClickDispatchConfiguration(), metrics, true);
+        AtomicReference<Thread> publishingThread = new AtomicReference<>();
+        CountDownLatch published = new CountDownLatch(1);
+        doAnswer(invocation -> {
+            publishingThread.set(Thread.currentThread());
+            published.countDown();
+            return null;
+        }).when(eventPublisher).publishClickEvent(any(ClickEvent.class));
+
+        // WHEN: an event is dispatched
+        dispatcher.dispatch(event("abc"));
+
+        // THEN: it is published from a virtual dispatch thread
+        assertTrue(published.await(1, TimeUnit.SECONDS));
+        assertTrue(publishingThread.get().isVirtual());
+        assertTrue(publishingThread.get().getName().startsWith("click-dispatch-"));
+    }
+
+    @Test
+    void dispatch_dropsWhenTheQueueIsFull() throws Exception {
+        // GIVEN: the only worker is busy and the only queue slot is taken
+        givenPublisherBlocksUntilReleased();
+        dispatcher = singleSlotDispatcher(OverflowPolicy.DROP);
+        dispatcher.dispatch(event("busy"));
+        verify(eventPublisher, timeout(1000)).publishClickEvent(any(ClickEvent.class));
+        dispatcher.dispatch(event("queued"));
+
+        // WHEN: more events arrive
+        dispatcher.dispatch(event("overflow-1"));
+        dispatcher.dispatch(event("overflow-2"));
+
+        // THEN: they are dropped without blocking the caller
+        assertEquals(2, dropped());
+        assertEquals(1L, (long) (Integer) metrics.getGauges()
+                .get(MetricRegistry.name(ClickEventDispatcher.class, "queue-depth")).getValue());
+    }
+
+    @Test
+    void dispatch_blockPolicyGivesUpAfterTheTimeout() throws Exception {
+        // GIVEN: a full dispatcher with the BLOCK policy
+        givenPublisherBlocksUntilReleased();
+        dispatcher = singleSlotDispatcher(OverflowPolicy.BLOCK);
+        dispatcher.dispatch(event("busy"));
+        verify(eventPublisher, timeout(1000)).publishClickEvent(any(ClickEvent.class));
+        dispatcher.dispatch(event("queued"));
+
+        // WHEN: another event arrives and no space frees up within the timeout
+        dispatcher.dispatch(event("overflow"));
+
+        // THEN: it is dropped
+        assertEquals(1, dropped());
+    }
+
+    @Test
+    void dispatch_samplePolicyOnlyWaitsForSomeOverflowingEvents() throws Exception {
+        // GIVEN: a full dispatcher with the SAMPLE policy keeping one in two
+        givenPublisherBlocksUntilReleased();
+        dispatcher = singleSlotDispatcher(OverflowPolicy.SAMPLE);
+        dispatcher.dispatch(event("busy"));
+        verify(eventPublisher, timeout(1000)).publishClickEvent(any(ClickEvent.class));
+        dispatcher.dispatch(event("queued"));
+
+        // WHEN: four events overflow while the worker stays busy
+        for (int i = 0; i < 4; i++) {
+            dispatcher.dispatch(event("overflow-" + i));
+        }
+
+        // THEN: all are dropped, two of them only after waiting for space
+        assertEquals(4, dropped());
+    }
+
+    @Test
+    void dispatch_directModeSwallowsPublisherFailures() throws Exception {
+        // GIVEN: a direct dispatcher whose publisher fails
+        ClickEventDispatcher direct = ClickEventDispatcher.direct(eventPublisher);
+        doThrow(new RuntimeException("Kafka is down")).when(eventPublisher).publishClickEvent(any(ClickEvent.class));
+
+        // WHEN/THEN: dispatching does not throw
+        assertDoesNotThrow(() -> direct.dispatch(event("abc")));
+        verify(eventPublisher, times(1)).publishClickEvent(any(ClickEvent.class));
+    }
+}
@@ -0,0 +1,153 @@
+package com.urlshortener.kafka;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.codahale.metrics.MetricRegistry;
+import com.urlshortener.UrlShortenerConfiguration.ClickSpoolConfiguration;
+
+import io.dropwizard.util.DataSize;
+
+public class ClickEventSpoolTest {
+
+    @TempDir
+    Path directory;
+
+    private ClickSpoolConfiguration config;
+
+    @BeforeEach
+    void setUp() {
+        config = new ClickSpoolConfiguration();
+        config.setEnabled(true);
+        config.setDirectory(directory.toString());
+        // Room for three of the 18-byte test records per segment
+        config.setSegmentSize(DataSize.bytes(64));
+    }
+
+    private ClickEventSpool openSpool() {
+        return new ClickEventSpool(config, new MetricRegistry());
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static List<String> values(ClickEventSpool.Batch batch) {
+        return batch.events().stream().map(event -> new String(event.value(), StandardCharsets.UTF_8)).toList();
+    }
+
+    private long segmentFiles() throws Exception {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().endsWith(".spool")).count();
+        }
+    }
+
+    @Test
+    void itReplaysEventsInAppendOrderAcrossSegments() {
+        // GIVEN: more events than fit in one segment
+        ClickEventSpool spool = openSpool();
+        for (int i = 0; i < 5; i++) {
+            spool.append("abc", bytes("{\"n\":" + i + "}"));
+        }
+
+        // WHEN: everything is read back
+        ClickEventSpool.Batch batch = spool.peek(10);
+
+        // THEN: events come back in order with their keys
+        assertEquals(List.of("{\"n\":0}", "{\"n\":1}", "{\"n\":2}", "{\"n\":3}", "{\"n\":4}"), values(batch));
+        assertEquals("abc", batch.events().get(0).key());
+    }
+
+    @Test
+    void itOnlyConsumesEventsOnceCommitted() throws Exception {
+        // GIVEN: a spool with events spread over several segments
+        ClickEventSpool spool = openSpool();
+        for (int i = 0; i < 5; i++) {
+            spool.append("abc", bytes("{\"n\":" + i + "}"));
+        }
+
+        // WHEN: a batch is peeked twice and then committed
+        ClickEventSpool.Batch first = spool.peek(3);
+        ClickEventSpool.Batch again = spool.peek(3);
+        spool.commit(first);
+
+        // THEN: peeking is repeatable, commit advances and drained segments are deleted
+        assertEquals(values(first), values(again));
+        assertEquals(List.of("{\"n\":3}", "{\"n\":4}"), values(spool.peek(10)));
+        assertEquals(2, segmentFiles());
+        assertFalse(spool.isEmpty());
+
+        spool.commit(spool.peek(10));
+        assertTrue(spool.isEmpty());
+        assertEquals(0, spool.pendingBytes());
+    }
+
+    @Test
+    void itResumesFromTheCheckpointAfterReopening() {
+        // GIVEN: a spool that was partly replayed before shutdown
+        ClickEventSpool spool = openSpool();
+        for (int i = 0; i < 5; i++) {
+            spool.append("abc", bytes("{\"n\":" + i + "}"));
+        }
+        spool.commit(spool.peek(2));
+        spool.stop();
+
+        // WHEN: the spool is reopened and more events arrive
+        ClickEventSpool reopened = openSpool();
+        reopened.append("abc", bytes("{\"n\":5}"));
+
+        // THEN: replay continues where it left off and new events follow the old ones
+        assertEquals(List.of("{\"n\":2}", "{\"n\":3}", "{\"n\":4}", "{\"n\":5}"), values(reopened.peek(10)));
+    }
+
+    @Test
+    void itOnlyAppendsToABackloggedSpoolWhenAsked() {
+        // GIVEN: an empty spool
+        ClickEventSpool spool = openSpool();
+
+        // WHEN/THEN: conditional appends are refused until something is spooled
+        assertFalse(spool.appendIfBacklogged("abc", bytes("{\"n\":0}")));
+        assertTrue(spool.isEmpty());
+
+        spool.append("abc", bytes("{\"n\":1}"));
+        assertTrue(spool.appendIfBacklogged("abc", bytes("{\"n\":2}")));
+        assertEquals(List.of("{\"n\":1}", "{\"n\":2}"), values(spool.peek(10)));
+    }
+
+    @Test
+    void itDeletesTheOldestSegmentsWhenFull() throws Exception {
+        // GIVEN: a spool capped at two segments
+        config.setMaxSize(DataSize.bytes(128));
+        ClickEventSpool spool = openSpool();
+
+        // WHEN: enough events arrive to fill three segments
+        for (int i = 0; i < 8; i++) {
+            spool.append("abc", bytes("{\"n\":" + i + "}"));
+        }
+
+        // THEN: only the newest events survive
+        assertEquals(2, segmentFiles());
+        assertEquals("{\"n\":3}", values(spool.peek(10)).get(0));
+    }
+
+    @Test
+    void itRejectsEventsLargerThanASegment() {
+        // GIVEN: an empty spool
+        ClickEventSpool spool = openSpool();
+
+        // WHEN/THEN: an oversized event is refused
+        assertFalse(spool.append("abc", bytes("x".repeat(100))));
+        assertTrue(spool.isEmpty());
+    }
+}
@@ -0,0 +1,325 @@
+package com.urlshortener.kafka;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.apache.kafka.clients.producer.Callback;
+import org.apache.kafka.clients.producer.KafkaProducer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.TimeoutException;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import static org.mockito.ArgumentMatchers.any;
+import org.mockito.Mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.codahale.metrics.MetricRegistry;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.urlshortener.UrlShortenerConfiguration.ClickSpoolConfiguration;
+import com.urlshortener.UrlShortenerConfiguration.KafkaConfiguration;
+import com.urlshortener.UrlShortenerConfiguration.KafkaConfiguration.EventFormat;
+import com.urlshortener.events.ClickEvent;
+import com.urlshortener.events.ClickEventCodec;
+
+@ExtendWith(MockitoExtension.class)
+public class EventPublisherTest {
+
+    @Mock
+    private KafkaProducer<String, byte[]> mockProducer;
+
+    @Mock
+    private ObjectMapper mockObjectMapper;
+
+    private KafkaConfiguration kafkaConfig;
+    private ClickEvent testEvent;
+
+    @BeforeEach
+    void setUp() {
+        kafkaConfig = new KafkaConfiguration();
+        kafkaConfig.setBootstrapServers("localhost:9092");
+        kafkaConfig.setTopicName("test-clicks");
+
+        testEvent = new ClickEvent(
+                123L,
+                "abc123",
+                "2025-01-02T10:30:00Z",
+                "Mozilla/5.0",
+                "192.168.1.1",
+                "https://example.com"
+        );
+    }
+
+    @Test
+    void constructor_withKafkaConfig_initializesSuccessfully() {
+        // WHEN: Create EventPublisher with just KafkaConfiguration
+        KafkaConfiguration kafkaConfig = new KafkaConfiguration();
+
+        // THEN: Should not throw exception
+        assertDoesNotThrow(() -> {
+            EventPublisher publisher = new EventPublisher(kafkaConfig);
+            assertNotNull(publisher);
+        });
+    }
+
+    @Test
+    void constructor_withObjectMapper_initializesSuccessfully() {
+        // WHEN: Create EventPublisher with custom ObjectMapper
+        KafkaConfiguration kafkaConfig = new KafkaConfiguration();
+        ObjectMapper customMapper = new ObjectMapper();
+
+        // THEN: Should not throw exception
+        assertDoesNotThrow(() -> {
+            EventPublisher publisher = new EventPublisher(kafkaConfig, customMapper);
+            assertNotNull(publisher);
+        });
+    }
+
+    @Test
+    void start_executesWithoutError() {
+        // GIVEN: EventPublisher instance
+        EventPublisher publisher = new EventPublisher(mockProducer, "test-topic", new ObjectMapper());
+
+        // WHEN: start() is called
+        // THEN: Should not throw
+        assertDoesNotThrow(() -> publisher.start());
+    }
+
+    @Test
+    void stop_closesProducerGracefully() {
+        // GIVEN: EventPublisher instance
+        EventPublisher publisher = new EventPublisher(mockProducer, "test-topic", new ObjectMapper());
+
+        // WHEN: stop() is called
+        publisher.stop();
+
+        // THEN: Producer should be closed
+        verify(mockProducer).close();
+    }
+
+    @Test
+    void constructor_readsAllConfigurationProperties() {
+        // GIVEN: Custom configuration with specific values and valid bootstrap server format
+        KafkaConfiguration customConfig = new KafkaConfiguration();
+        customConfig.setBootstrapServers("localhost:9092");
+        customConfig.setTopicName("custom-topic");
+        customConfig.setAcks("all");
+        customConfig.setRetries(5);
+        customConfig.setRequestTimeoutMs(5000);
+        customConfig.setMaxBlockMs(3000);
+        customConfig.setEnableIdempotence(true);
+        customConfig.setMaxInFlightRequestsPerConnection(1);
+        customConfig.setCompressionType("snappy");
+
+        // WHEN: Create publisher with custom config
+        EventPublisher publisher = new EventPublisher(customConfig);
+
+        // THEN: Should initialize successfully
+        assertNotNull(publisher);
+
+        // Verify lifecycle methods execute without throwing
+        assertDoesNotThrow(() -> {
+            publisher.start();
+            publisher.stop();
+        });
+    }
+
+    @Test
+    void publishClickEvent_withNullEvent_throwsNullPointerException() {
+        // GIVEN: EventPublisher instance
+        EventPublisher publisher = new EventPublisher(mockProducer, "test-topic", new ObjectMapper());
+
+        // WHEN: publishClickEvent called with null
+        // THEN: Should throw NullPointerException
+        assertThrows(NullPointerException.class, () -> {
+            publisher.publishClickEvent(null);
+        }, "Publishing null event should throw NullPointerException");
+    }
+
+    @Test
+    void publishClickEvent_withValidEvent_serializesAndPublishesSuccessfully() throws Exception {
+        // GIVEN: EventPublisher with mocked dependencies
+        String topicName = "test-clicks";
+        EventPublisher publisher = new EventPublisher(mockProducer, topicName, mockObjectMapper);
+
+        ClickEvent validEvent = new ClickEvent(
+                456L,
+                "xyz789",
+                "2025-01-02T14:30:00Z",
+                "Chrome/91.0",
+                "10.0.0.1",
+                "https://test.com"
+        );
+
+        byte[] eventJson = "{\"linkId\":456,\"shortCode\":\"xyz789\"}".getBytes(StandardCharsets.UTF_8);
+        when(mockObjectMapper.writeValueAsBytes(validEvent)).thenReturn(eventJson);
+
+        // WHEN: publishClickEvent called with valid event
+        publisher.publishClickEvent(validEvent);
+
+        // THEN: Verify serialization was called
+        verify(mockObjectMapper).writeValueAsBytes(validEvent);
+
+        // Verify producer.send was called with correct topic and key
+        ArgumentCaptor<ProducerRecord<String, byte[]>> recordCaptor
+                = ArgumentCaptor.forClass(ProducerRecord.class);
+        verify(mockProducer).send(recordCaptor.capture(), any(Callback.class));
+
+        ProducerRecord<String, byte[]> capturedRecord = recordCaptor.getValue();
+        assertEquals(topicName, capturedRecord.topic());
+        assertEquals("xyz789", capturedRecord.key());
+        assertArrayEquals(eventJson, capturedRecord.value());
+    }
+
+    @Test
+    void publishClickEvent_inTheBinaryFormat_sendsTheEncodedEvent() {
+        // GIVEN: EventPublisher configured for the binary format
+        EventPublisher publisher = new EventPublisher(mockProducer, "test-clicks",
+                new ClickEventSerializer(EventFormat.BINARY, new ObjectMapper()), null);
+
+        // WHEN
+        publisher.publishClickEvent(testEvent);
+
+        // THEN: the record value decodes back to the event
+        ArgumentCaptor<ProducerRecord<String, byte[]>> recordCaptor
+                = ArgumentCaptor.forClass(ProducerRecord.class);
+        verify(mockProducer).send(recordCaptor.capture(), any(Callback.class));
+        assertEquals("abc123", recordCaptor.getValue().key());
+        assertEquals(testEvent, ClickEventCodec.decode(recordCaptor.getValue().value()));
+    }
+
+    @Test
+    void publishClickEvent_tracksInFlightSendsUntilTheCallbackFires() throws Exception {
+        // GIVEN: EventPublisher whose producer holds on to the send callback
+        EventPublisher publisher = new EventPublisher(mockProducer, "test-topic", new ObjectMapper());
+        MetricRegistry metrics = new MetricRegistry();
+        publisher.registerMetrics(metrics);
+
+        // WHEN: an event is published but not yet acknowledged
+        publisher.publishClickEvent(testEvent);
+
+        // THEN: it is counted as in flight
+        ArgumentCaptor<Callback> callbackCaptor = ArgumentCaptor.forClass(Callback.class);
+        verify(mockProducer).send(any(ProducerRecord.class), callbackCaptor.capture());
+        assertEquals(1, publisher.getInFlightCount());
+
+        // WHEN: the broker acknowledges the send
+        RecordMetadata metadata = new RecordMetadata(new TopicPartition("test-topic", 0), 0L, 0, 0L, 0, 0);
+        callbackCaptor.getValue().onCompletion(metadata, null);
+
+        // THEN: the send is no longer in flight, its latency is recorded and it is counted as published
+        assertEquals(0, publisher.getInFlightCount());
+        assertEquals(1, metrics.timer(MetricRegistry.name(EventPublisher.class, "publish-latency")).getCount());
+        assertEquals(1, metrics.meter(MetricRegistry.name(EventPublisher.class, "published")).getCount());
+        assertEquals(1, metrics.timer(MetricRegistry.name(EventPublisher.class, "serialize")).getCount());
+    }
+
+    @Test
+    void publishClickEvent_countsFailedSends() throws Exception {
+        // GIVEN: EventPublisher with registered metrics
+        EventPublisher publisher = new EventPublisher(mockProducer, "test-topic", new ObjectMapper());
+        MetricRegistry metrics = new MetricRegistry();
+        publisher.registerMetrics(metrics);
+
+        // WHEN: the broker rejects the send
+        publisher.publishClickEvent(testEvent);
+        ArgumentCaptor<Callback> callbackCaptor = ArgumentCaptor.forClass(Callback.class);
+        verify(mockProducer).send(any(ProducerRecord.class), callbackCaptor.capture());
+        callbackCaptor.getValue().onCompletion(null, new RuntimeException("broker unavailable"));
+
+        // THEN: the failure is counted and the send is no longer in flight
+        assertEquals(0, publisher.getInFlightCount());
+        assertEquals(1, metrics.meter(MetricRegistry.name(EventPublisher.class, "failures")).getCount());
+        assertEquals(0, metrics.meter(MetricRegistry.name(EventPublisher.class, "published")).getCount());
+    }
+
+    @Test
+    void publishClickEvent_spoolsFailedSendsAndEverythingAfterThem(@TempDir Path spoolDirectory) throws Exception {
+        // GIVEN: EventPublisher backed by a spool
+        ClickSpoolConfiguration spoolConfig = new ClickSpoolConfiguration();
+        spoolConfig.setDirectory(spoolDirectory.toString());
+        ClickEventSpool spool = new ClickEventSpool(spoolConfig, new MetricRegistry());
+        EventPublisher publisher = new EventPublisher(mockProducer, "test-topic", new ObjectMapper(), spool);
+
+        // WHEN: the first send fails
+        publisher.publishClickEvent(testEvent);
+        ArgumentCaptor<Callback> callbackCaptor = ArgumentCaptor.forClass(Callback.class);
+        verify(mockProducer).send(any(ProducerRecord.class), callbackCaptor.capture());
+        callbackCaptor.getValue().onCompletion(null, new RuntimeException("broker unavailable"));
+
+        // AND: another event is published
+        publisher.publishClickEvent(testEvent);
+
+        // THEN: both events are spooled in order and no further send is attempted
+        assertFalse(publisher.isHealthy());
+        assertEquals(2, spool.peek(10).events().size());
+        verify(mockProducer, times(1)).send(any(ProducerRecord.class), any(Callback.class));
+    }
+
+    @Test
+    void publishClickEvent_spoolsALateFailureAheadOfLaterEventsForTheSameShortCode(@TempDir Path spoolDirectory) throws Exception {
+        // GIVEN: EventPublisher backed by a spool, with sends for two short codes in flight
+        ClickSpoolConfiguration spoolConfig = new ClickSpoolConfiguration();
+        spoolConfig.setDirectory(spoolDirectory.toString());
+        ClickEventSpool spool = new ClickEventSpool(spoolConfig, new MetricRegistry());
+        EventPublisher publisher = new EventPublisher(mockProducer, "test-topic", new ObjectMapper(), spool);
+        ClickEvent other = new ClickEvent(456L, "other", "2025-01-02T10:29:59Z", "Mozilla/5.0", "192.168.1.2", null);
+        ClickEvent later = new ClickEvent(123L, "abc123", "2025-01-02T10:30:01Z", "Mozilla/5.0", "192.168.1.1", null);
+        publisher.publishClickEvent(other);
+        publisher.publishClickEvent(testEvent);
+        ArgumentCaptor<Callback> callbackCaptor = ArgumentCaptor.forClass(Callback.class);
+        verify(mockProducer, times(2)).send(any(ProducerRecord.class), callbackCaptor.capture());
+
+        // WHEN: the first send fails, a later event for the second short code is published, and only
+        // then does the earlier send for that short code fail
+        callbackCaptor.getAllValues().get(0).onCompletion(null, new RuntimeException("broker unavailable"));
+        publisher.publishClickEvent(later);
+        callbackCaptor.getAllValues().get(1).onCompletion(null, new RuntimeException("broker unavailable"));
+
+        // THEN: the late failure is spooled before the event that followed it
+        List<ClickEventSpool.SpooledEvent> spooled = spool.peek(10).events();
+        assertEquals(List.of("other", "abc123", "abc123"), spooled.stream().map(ClickEventSpool.SpooledEvent::key).toList());
+        ObjectMapper objectMapper = new ObjectMapper();
+        assertEquals(testEvent, objectMapper.readValue(spooled.get(1).value(), ClickEvent.class));
+        assertEquals(later, objectMapper.readValue(spooled.get(2).value(), ClickEvent.class));
+        verify(mockProducer, times(2)).send(any(ProducerRecord.class), any(Callback.class));
+    }
+
+    @Test
+    void replay_marksKafkaHealthyAgainOnceAcknowledged(@TempDir Path spoolDirectory) throws Exception {
+        // GIVEN: an unhealthy publisher with a spooled event
+        ClickSpoolConfiguration spoolConfig = new ClickSpoolConfiguration();
+        spoolConfig.setDirectory(spoolDirectory.toString());
+        ClickEventSpool spool = new ClickEventSpool(spoolConfig, new MetricRegistry());
+        EventPublisher publisher = new EventPublisher(mockProducer, "test-topic", new ObjectMapper(), spool);
+        when(mockProducer.send(any(ProducerRecord.class), any(Callback.class)))
+                .thenThrow(new TimeoutException("metadata not available"));
+        publisher.publishClickEvent(testEvent);
+        assertFalse(publisher.isHealthy());
+
+        // WHEN: the spooled event is replayed successfully
+        RecordMetadata metadata = new RecordMetadata(new TopicPartition("test-topic", 0), 0L, 0, 0L, 0, 0);
+        when(mockProducer.send(any(ProducerRecord.class))).thenReturn(CompletableFuture.completedFuture(metadata));
+        boolean replayed = publisher.replay(spool.peek(10).events());
+
+        // THEN: the publisher is healthy again
+        assertTrue(replayed);
+        assertTrue(publisher.isHealthy());
+    }
+}
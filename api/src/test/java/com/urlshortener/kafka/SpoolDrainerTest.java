@@ -0,0 +1,78 @@
+package com.urlshortener.kafka;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.codahale.metrics.MetricRegistry;
+import com.urlshortener.UrlShortenerConfiguration.ClickSpoolConfiguration;
+
+@ExtendWith(MockitoExtension.class)
+public class SpoolDrainerTest {
+
+    @TempDir
+    Path directory;
+
+    @Mock
+    private EventPublisher eventPublisher;
+
+    private MetricRegistry metrics;
+    private ClickEventSpool spool;
+    private SpoolDrainer drainer;
+
+    @BeforeEach
+    void setUp() {
+        ClickSpoolConfiguration config = new ClickSpoolConfiguration();
+        config.setEnabled(true);
+        config.setDirectory(directory.toString());
+        config.setDrainBatchSize(2);
+
+        metrics = new MetricRegistry();
+        spool = new ClickEventSpool(config, metrics);
+        drainer = new SpoolDrainer(spool, eventPublisher, config, metrics);
+
+        for (int i = 0; i < 5; i++) {
+            spool.append("abc", ("{\"n\":" + i + "}").getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void drain_replaysEverythingWhenKafkaAccepts() {
+        // GIVEN: Kafka acknowledges every replay
+        when(eventPublisher.replay(anyList())).thenReturn(true);
+
+        // WHEN: the drainer runs
+        long replayed = drainer.drain();
+
+        // THEN: the spool is empty and the replay rate is recorded
+        assertEquals(5, replayed);
+        assertTrue(spool.isEmpty());
+        assertEquals(5, metrics.meter(MetricRegistry.name(SpoolDrainer.class, "replayed")).getCount());
+    }
+
+    @Test
+    void drain_keepsUnacknowledgedEventsForTheNextRun() {
+        // GIVEN: Kafka fails after the first batch
+        when(eventPublisher.replay(anyList())).thenReturn(true, false);
+
+        // WHEN: the drainer runs
+        long replayed = drainer.drain();
+
+        // THEN: only the acknowledged batch is consumed
+        assertEquals(2, replayed);
+        assertFalse(spool.isEmpty());
+        assertEquals("{\"n\":2}", new String(spool.peek(1).events().get(0).value(), StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,55 @@
+package com.urlshortener.logging;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class LogSamplerTest {
+
+    private final AtomicLong nanos = new AtomicLong(TimeUnit.HOURS.toNanos(1));
+    private final LogSampler sampler = new LogSampler(Duration.ofSeconds(1), nanos::get);
+
+    @Test
+    void itLetsOneCallThroughPerInterval() {
+        // When
+        boolean first = sampler.shouldLog();
+        boolean second = sampler.shouldLog();
+        nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(999));
+        boolean beforeInterval = sampler.shouldLog();
+        nanos.addAndGet(TimeUnit.MILLISECONDS.toNanos(1));
+        boolean afterInterval = sampler.shouldLog();
+
+        // Then
+        assertTrue(first);
+        assertFalse(second);
+        assertFalse(beforeInterval);
+        assertTrue(afterInterval);
+    }
+
+    @Test
+    void itCountsTheCallsHeldBack() {
+        // Given
+        sampler.shouldLog();
+        for (int i = 0; i < 41; i++) {
+            sampler.shouldLog();
+        }
+
+        // When
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        boolean logged = sampler.shouldLog();
+
+        // Then
+        assertTrue(logged);
+        assertEquals(41, sampler.suppressed());
+    }
+
+    @Test
+    void itReportsNothingSuppressedForTheFirstCall() {
+        assertTrue(sampler.shouldLog());
+        assertEquals(0, sampler.suppressed());
+    }
+}
@@ -0,0 +1,631 @@
+package com.urlshortener.manager;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import com.codahale.metrics.MetricRegistry;
+import com.urlshortener.UrlShortenerConfiguration;
+import com.urlshortener.cache.LinkCache;
+import com.urlshortener.cache.ShortCodeFilter;
+import com.urlshortener.cache.SingleFlight;
+import com.urlshortener.core.Base62Service;
+import com.urlshortener.core.IdBlockAllocator;
+import com.urlshortener.core.Link;
+import com.urlshortener.db.LinkDAO;
+import com.urlshortener.models.CreateLinkRequest;
+import com.urlshortener.models.LinkCreationError;
+import com.urlshortener.models.LinkCreationResult;
+import org.jdbi.v3.core.statement.UnableToExecuteStatementException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+@ExtendWith(MockitoExtension.class)
+public class LinkManagerTest {
+
+    private LinkManager linkManager;
+
+    @Mock
+    private LinkDAO linkDAO;
+
+    @Mock
+    private IdBlockAllocator idAllocator;
+
+    @Mock
+    private Base62Service base62Service;
+
+    @Mock
+    private UrlShortenerConfiguration.ApplicationConfiguration appConfig;
+
+    @BeforeEach
+    void setUp() {
+        linkManager = new LinkManager(linkDAO, idAllocator, base62Service, appConfig);
+    }
+
+    @Test
+    void itCanCreateLink() {
+        // Given
+        String longUrl = "https://example.com/very/long/url";
+        long generatedId = 12345L;
+        String expectedShortCode = "abc123";
+
+        when(appConfig.getBaseUrl()).thenReturn("http://short.url");
+        when(idAllocator.nextId()).thenReturn(generatedId);
+        when(base62Service.encode(generatedId)).thenReturn(expectedShortCode);
+
+        // When
+        LinkCreationResult result = linkManager.createLink(longUrl, null);
+
+        // Then
+        assertTrue(result.isSuccess());
+        assertEquals("http://short.url/" + expectedShortCode, result.getShortUrl());
+        assertEquals(expectedShortCode, result.getShortCode());
+
+        ArgumentCaptor<Link> linkCaptor = ArgumentCaptor.forClass(Link.class);
+        verify(linkDAO, times(1)).insert(linkCaptor.capture());
+        assertEquals(generatedId, linkCaptor.getValue().getId());
+        assertEquals(expectedShortCode, linkCaptor.getValue().getShortCode());
+    }
+
+    @Test
+    void itCanCreateLinkWithCustomShortCode() {
+        // Given
+        String longUrl = "https://example.com/very/long/url";
+        String customShortCode = "mycode";
+
+        when(appConfig.getBaseUrl()).thenReturn("http://short.url");
+        when(appConfig.getMaxCustomShortCodeLength()).thenReturn(20);
+        when(linkDAO.findByShortCode(customShortCode)).thenReturn(Optional.empty());
+        when(idAllocator.nextId()).thenReturn(1L);
+
+        // When
+        LinkCreationResult result = linkManager.createLink(longUrl, customShortCode);
+
+        // Then
+        assertTrue(result.isSuccess());
+        assertEquals("http://short.url/" + customShortCode, result.getShortUrl());
+        assertEquals(customShortCode, result.getShortCode());
+        verify(linkDAO, times(1)).insert(any(Link.class));
+        verify(base62Service, never()).encode(anyLong());
+    }
+
+    @Test
+    void itRejectsCustomShortCodeThatIsTooLong() {
+        // Given
+        String longUrl = "https://example.com/very/long/url";
+        String customShortCode = "thiscodeiswaylongerthantwentycharacters";
+
+        when(appConfig.getMaxCustomShortCodeLength()).thenReturn(20);
+
+        // When
+        LinkCreationResult result = linkManager.createLink(longUrl, customShortCode);
+
+        // Then
+        assertFalse(result.isSuccess());
+        assertEquals(LinkCreationError.CUSTOM_CODE_TOO_LONG, result.getError());
+        assertTrue(result.getErrorMessage().contains("exceeds maximum length"));
+        verify(linkDAO, never()).insert(any(Link.class));
+    }
+
+    @Test
+    void itRejectsCustomShortCodeThatAlreadyExists() {
+        // Given
+        String longUrl = "https://example.com/very/long/url";
+        String customShortCode = "existing";
+        Link existingLink = new Link("https://other.com", customShortCode);
+
+        when(appConfig.getMaxCustomShortCodeLength()).thenReturn(20);
+        when(linkDAO.findByShortCode(customShortCode)).thenReturn(Optional.of(existingLink));
+
+        // When
+        LinkCreationResult result = linkManager.createLink(longUrl, customShortCode);
+
+        // Then
+        assertFalse(result.isSuccess());
+        assertEquals(LinkCreationError.CUSTOM_CODE_ALREADY_EXISTS, result.getError());
+        assertEquals("Custom URL is already taken.", result.getErrorMessage());
+        verify(linkDAO, never()).insert(any(Link.class));
+    }
+
+    @Test
+    void itCanFindByShortCode() {
+        // Given
+        String shortCode = "abc123";
+        Link expectedLink = new Link("https://example.com", shortCode);
+        when(linkDAO.findByShortCode(shortCode)).thenReturn(Optional.of(expectedLink));
+
+        // When
+        Optional<Link> result = linkManager.findByShortCode(shortCode);
+
+        // Then
+        assertTrue(result.isPresent());
+        assertEquals(expectedLink, result.get());
+        verify(linkDAO, times(1)).findByShortCode(shortCode);
+    }
+
+    @Test
+    void itReturnsEmptyWhenShortCodeNotFound() {
+        // Given
+        String shortCode = "nonexistent";
+        when(linkDAO.findByShortCode(shortCode)).thenReturn(Optional.empty());
+
+        // When
+        Optional<Link> result = linkManager.findByShortCode(shortCode);
+
+        // Then
+        assertFalse(result.isPresent());
+        verify(linkDAO, times(1)).findByShortCode(shortCode);
+    }
+
+    @Test
+    void itCanIncrementClickCount() {
+        // Given
+        long linkId = 12345L;
+
+        // When
+        linkManager.incrementClickCount(linkId);
+
+        // Then
+        verify(linkDAO, times(1)).incrementClickCount(linkId);
+    }
+
+    @Test
+    void itServesRepeatedLookupsFromTheCache() {
+        // Given
+        LinkCache linkCache = new LinkCache(new UrlShortenerConfiguration.LinkCacheConfiguration(), new MetricRegistry());
+        LinkManager cachingManager = new LinkManager(linkDAO, idAllocator, base62Service, appConfig, linkCache, ShortCodeFilter.disabled());
+        String shortCode = "abc123";
+        Link expectedLink = new Link("https://example.com", shortCode);
+        when(linkDAO.findByShortCode(shortCode)).thenReturn(Optional.of(expectedLink));
+
+        // When
+        cachingManager.findByShortCode(shortCode);
+        Optional<Link> result = cachingManager.findByShortCode(shortCode);
+
+        // Then
+        assertTrue(result.isPresent());
+        assertEquals(expectedLink, result.get());
+        verify(linkDAO, times(1)).findByShortCode(shortCode);
+    }
+
+    @Test
+    void itSharesOneDatabaseLookupBetweenConcurrentMisses() throws Exception {
+        // Given
+        MetricRegistry metrics = new MetricRegistry();
+        LinkManager coalescingManager = new LinkManager(linkDAO, idAllocator, base62Service, appConfig,
+                LinkCache.disabled(), ShortCodeFilter.disabled(),
+                new SingleFlight<>("short-code-lookups", Duration.ofSeconds(5), metrics));
+        String shortCode = "abc123";
+        Link expectedLink = new Link("https://example.com", shortCode);
+        CountDownLatch lookupStarted = new CountDownLatch(1);
+        CountDownLatch releaseLookup = new CountDownLatch(1);
+        when(linkDAO.findByShortCode(shortCode)).thenAnswer(invocation -> {
+            lookupStarted.countDown();
+            releaseLookup.await();
+            return Optional.of(expectedLink);
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+
+        // When
+        Future<Optional<Link>> first = executor.submit(() -> coalescingManager.findByShortCode(shortCode));
+        assertTrue(lookupStarted.await(5, TimeUnit.SECONDS));
+        Future<Optional<Link>> second = executor.submit(() -> coalescingManager.findByShortCode(shortCode));
+        while (metrics.meter("com.urlshortener.cache.SingleFlight.short-code-lookups.coalesced").getCount() == 0) {
+            Thread.onSpinWait();
+        }
+        releaseLookup.countDown();
+
+        // Then
+        assertEquals(Optional.of(expectedLink), first.get(5, TimeUnit.SECONDS));
+        assertEquals(Optional.of(expectedLink), second.get(5, TimeUnit.SECONDS));
+        verify(linkDAO, times(1)).findByShortCode(shortCode);
+        executor.shutdown();
+    }
+
+    @Test
+    void itSeedsTheCacheWhenCreatingLink() {
+        // Given
+        LinkCache linkCache = new LinkCache(new UrlShortenerConfiguration.LinkCacheConfiguration(), new MetricRegistry());
+        LinkManager cachingManager = new LinkManager(linkDAO, idAllocator, base62Service, appConfig, linkCache, ShortCodeFilter.disabled());
+        String longUrl = "https://example.com/very/long/url";
+
+        when(appConfig.getBaseUrl()).thenReturn("http://short.url");
+        when(idAllocator.nextId()).thenReturn(42L);
+        when(base62Service.encode(42L)).thenReturn("G");
+
+        // When
+        cachingManager.createLink(longUrl, null);
+        Optional<Link> result = cachingManager.findByShortCode("G");
+
+        // Then
+        assertTrue(result.isPresent());
+        assertEquals(42L, result.get().getId());
+        assertEquals(longUrl, result.get().getLongUrl());
+        verify(linkDAO, never()).findByShortCode(anyString());
+    }
+
+    @Test
+    void itAnswersUnknownShortCodesFromTheFilter() {
+        // Given
+        when(linkDAO.count()).thenReturn(0L);
+        ShortCodeFilter shortCodeFilter = new ShortCodeFilter(
+                new UrlShortenerConfiguration.ShortCodeFilterConfiguration(), linkDAO, new MetricRegistry());
+        shortCodeFilter.rebuild();
+        LinkManager filteringManager = new LinkManager(linkDAO, idAllocator, base62Service, appConfig, LinkCache.disabled(), shortCodeFilter);
+
+        // When
+        Optional<Link> result = filteringManager.findByShortCode("nonexistent");
+
+        // Then
+        assertFalse(result.isPresent());
+        verify(linkDAO, never()).findByShortCode(anyString());
+        verify(linkDAO, never()).findById(anyLong());
+    }
+
+    private LinkManager primaryKeyLookupManager() {
+        UrlShortenerConfiguration.ApplicationConfiguration config = new UrlShortenerConfiguration.ApplicationConfiguration();
+        config.setShortCodeLookup(UrlShortenerConfiguration.ApplicationConfiguration.ShortCodeLookup.PRIMARY_KEY);
+        return new LinkManager(linkDAO, idAllocator, new Base62Service(), config);
+    }
+
+    // Primary key lookups with a short code filter built from the given links
+    @SuppressWarnings("unchecked")
+    private LinkManager primaryKeyLookupManager(Link... existing) {
+        when(linkDAO.count()).thenReturn((long) existing.length);
+        doAnswer(invocation -> {
+            Consumer<Link> consumer = invocation.getArgument(0);
+            List.of(existing).forEach(consumer);
+            return null;
+        }).when(linkDAO).forEachShortCode(any(Consumer.class));
+        ShortCodeFilter shortCodeFilter = new ShortCodeFilter(
+                new UrlShortenerConfiguration.ShortCodeFilterConfiguration(), linkDAO, new MetricRegistry());
+        shortCodeFilter.rebuild();
+
+        UrlShortenerConfiguration.ApplicationConfiguration config = new UrlShortenerConfiguration.ApplicationConfiguration();
+        config.setShortCodeLookup(UrlShortenerConfiguration.ApplicationConfiguration.ShortCodeLookup.PRIMARY_KEY);
+        return new LinkManager(linkDAO, idAllocator, new Base62Service(), config, LinkCache.disabled(), shortCodeFilter);
+    }
+
+    private static Link link(long id, String shortCode) {
+        Link link = new Link("https://example.com/" + id, shortCode);
+        link.setId(id);
+        return link;
+    }
+
+    @Test
+    void itLooksUpGeneratedShortCodesByPrimaryKey() {
+        // Given
+        LinkManager pkManager = primaryKeyLookupManager(link(42L, "G"));
+        when(linkDAO.findById(42L)).thenReturn(Optional.of(link(42L, "G")));
+
+        // When
+        Optional<Link> result = pkManager.findByShortCode("G");
+
+        // Then
+        assertTrue(result.isPresent());
+        assertEquals(42L, result.get().getId());
+        verify(linkDAO, never()).findByShortCode(anyString());
+    }
+
+    @Test
+    void itFindsCodesWithLeadingZerosThroughTheIndex() {
+        // Given: "0G" decodes to the id of the link whose code is "G"
+        LinkManager pkManager = primaryKeyLookupManager(link(42L, "G"), link(7L, "0G"));
+        when(linkDAO.findByShortCode("0G")).thenReturn(Optional.of(link(7L, "0G")));
+
+        // When
+        Optional<Link> result = pkManager.findByShortCode("0G");
+
+        // Then
+        assertEquals(7L, result.orElseThrow().getId());
+        verify(linkDAO, never()).findById(anyLong());
+    }
+
+    @Test
+    void itFindsCustomCodesThroughTheIndexOnly() {
+        // Given: a custom code, stored under an id it does not decode to
+        LinkManager pkManager = primaryKeyLookupManager(link(7L, "promo"));
+        when(linkDAO.findByShortCode("promo")).thenReturn(Optional.of(link(7L, "promo")));
+
+        // When
+        Optional<Link> result = pkManager.findByShortCode("promo");
+
+        // Then: one query, without a primary key probe first
+        assertEquals(7L, result.orElseThrow().getId());
+        verify(linkDAO, never()).findById(anyLong());
+    }
+
+    @Test
+    void itDoesNotReturnAnotherLinkStoredUnderTheDecodedId() {
+        // Given: the filter wrongly passes a code whose id holds a custom link
+        LinkManager pkManager = primaryKeyLookupManager(link(42L, "G"));
+        when(linkDAO.findById(42L)).thenReturn(Optional.of(link(42L, "promo")));
+
+        // When
+        Optional<Link> result = pkManager.findByShortCode("G");
+
+        // Then
+        assertFalse(result.isPresent());
+        verify(linkDAO, never()).findByShortCode(anyString());
+    }
+
+    @Test
+    void itUsesTheIndexUntilTheFilterIsBuilt() {
+        // Given: no filter knows which codes are displaced
+        LinkManager pkManager = primaryKeyLookupManager();
+        when(linkDAO.findByShortCode("G")).thenReturn(Optional.of(link(42L, "G")));
+
+        // When
+        Optional<Link> result = pkManager.findByShortCode("G");
+
+        // Then
+        assertEquals(42L, result.orElseThrow().getId());
+        verify(linkDAO, never()).findById(anyLong());
+    }
+
+    @Test
+    void itKeepsCustomCodesAsGivenWithPrimaryKeyLookups() {
+        // Given
+        LinkManager pkManager = primaryKeyLookupManager();
+        when(idAllocator.nextId()).thenReturn(43L);
+        when(linkDAO.findByShortCode("promo")).thenReturn(Optional.empty());
+
+        // When
+        LinkCreationResult created = pkManager.createLink("https://example.com/promo", "promo");
+
+        // Then
+        assertTrue(created.isSuccess());
+        assertEquals("promo", created.getShortCode());
+        assertEquals("http://localhost:8080/promo", created.getShortUrl());
+        ArgumentCaptor<Link> linkCaptor = ArgumentCaptor.forClass(Link.class);
+        verify(linkDAO).insert(linkCaptor.capture());
+        assertEquals(43L, linkCaptor.getValue().getId());
+        assertEquals("promo", linkCaptor.getValue().getShortCode());
+    }
+
+    @Test
+    void itSkipsIdsWhoseGeneratedCodeIsAlreadyTaken() {
+        // Given: the code of the next id belongs to a custom or imported link
+        LinkManager pkManager = primaryKeyLookupManager();
+        Base62Service base62 = new Base62Service();
+        long takenId = base62.decode("promo");
+        when(idAllocator.nextId()).thenReturn(takenId, takenId + 1);
+        doThrow(new UnableToExecuteStatementException(new SQLIntegrityConstraintViolationException("duplicate"), null))
+                .doNothing()
+                .when(linkDAO).insert(any(Link.class));
+        when(linkDAO.findByShortCode("promo")).thenReturn(Optional.of(link(7L, "promo")));
+
+        // When
+        LinkCreationResult created = pkManager.createLink("https://example.com/new", null);
+
+        // Then: the link gets the following id and its code
+        assertTrue(created.isSuccess());
+        assertEquals(base62.encode(takenId + 1), created.getShortCode());
+        verify(linkDAO, times(2)).insert(any(Link.class));
+    }
+
+    @Test
+    void itRethrowsInsertFailuresThatAreNotCodeConflicts() {
+        // Given
+        LinkManager pkManager = primaryKeyLookupManager();
+        when(idAllocator.nextId()).thenReturn(42L);
+        UnableToExecuteStatementException failure =
+                new UnableToExecuteStatementException(new SQLIntegrityConstraintViolationException("duplicate"), null);
+        doThrow(failure).when(linkDAO).insert(any(Link.class));
+        when(linkDAO.findByShortCode("G")).thenReturn(Optional.empty());
+
+        // When / Then
+        assertSame(failure, assertThrows(UnableToExecuteStatementException.class,
+                () -> pkManager.createLink("https://example.com/new", null)));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void itSkipsTakenGeneratedCodesInABatch() {
+        // Given: the first generated code is taken in the database and the second by a custom code in the batch
+        when(appConfig.getBaseUrl()).thenReturn("http://short.url");
+        when(appConfig.getMaxCustomShortCodeLength()).thenReturn(10);
+        when(appConfig.getBatchInsertChunkSize()).thenReturn(500);
+        when(idAllocator.nextId()).thenReturn(1L, 2L, 3L, 4L, 5L);
+        when(base62Service.encode(anyLong())).thenAnswer(invocation -> "g" + invocation.getArgument(0));
+        when(linkDAO.findExistingShortCodes(Set.of("g1", "g2"))).thenReturn(Set.of("g1"));
+        when(linkDAO.findExistingShortCodes(Set.of("g3", "g4"))).thenReturn(Set.of());
+
+        // When
+        List<LinkCreationResult> results = linkManager.createLinks(List.of(
+                request("https://example.com/1", null),
+                request("https://example.com/2", null),
+                request("https://example.com/3", "g2")));
+
+        // Then: both generated links move to free ids and the custom code keeps its code
+        assertEquals(List.of("g3", "g4", "g2"), results.stream().map(LinkCreationResult::getShortCode).toList());
+        ArgumentCaptor<List<Link>> linksCaptor = ArgumentCaptor.forClass(List.class);
+        verify(linkDAO).insertAll(linksCaptor.capture(), eq(500));
+        assertEquals(List.of("g3", "g4", "g2"), linksCaptor.getValue().stream().map(Link::getShortCode).toList());
+        assertEquals(List.of(3L, 4L, 5L), linksCaptor.getValue().stream().map(Link::getId).toList());
+    }
+
+    private static CreateLinkRequest request(String longUrl, String customShortCode) {
+        CreateLinkRequest request = new CreateLinkRequest();
+        request.setLongUrl(longUrl);
+        request.setCustomShortCode(customShortCode);
+        return request;
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void itCreatesABatchWithOneConflictQueryAndOneBatchInsert() {
+        // Given: a generated code, a free custom code, a taken one, a repeat and one that is too long
+        when(appConfig.getBaseUrl()).thenReturn("http://short.url");
+        when(appConfig.getMaxCustomShortCodeLength()).thenReturn(10);
+        when(appConfig.getBatchInsertChunkSize()).thenReturn(500);
+        when(idAllocator.nextId()).thenReturn(1L, 2L);
+        when(base62Service.encode(1L)).thenReturn("1");
+        when(linkDAO.findExistingShortCodes(Set.of("1", "mine", "taken"))).thenReturn(Set.of("taken"));
+
+        // When
+        List<LinkCreationResult> results = linkManager.createLinks(List.of(
+                request("https://example.com/1", null),
+                request("https://example.com/2", "mine"),
+                request("https://example.com/3", "taken"),
+                request("https://example.com/4", "mine"),
+                request("https://example.com/5", "waytoolongforthelimit")));
+
+        // Then: results line up with the requests
+        assertEquals(5, results.size());
+        assertEquals("http://short.url/1", results.get(0).getShortUrl());
+        assertEquals("mine", results.get(1).getShortCode());
+        assertEquals(LinkCreationError.CUSTOM_CODE_ALREADY_EXISTS, results.get(2).getError());
+        assertEquals(LinkCreationError.CUSTOM_CODE_ALREADY_EXISTS, results.get(3).getError());
+        assertEquals(LinkCreationError.CUSTOM_CODE_TOO_LONG, results.get(4).getError());
+
+        // And: the two new links go to the database in one batch, without per-link queries
+        ArgumentCaptor<List<Link>> linksCaptor = ArgumentCaptor.forClass(List.class);
+        verify(linkDAO).insertAll(linksCaptor.capture(), eq(500));
+        assertEquals(List.of(1L, 2L), linksCaptor.getValue().stream().map(Link::getId).toList());
+        assertEquals(List.of("1", "mine"), linksCaptor.getValue().stream().map(Link::getShortCode).toList());
+        verify(linkDAO, times(1)).findExistingShortCodes(anyCollection());
+        verify(linkDAO, never()).findByShortCode(anyString());
+        verify(linkDAO, never()).insert(any(Link.class));
+    }
+
+    @Test
+    void itSkipsTheConflictQueryAndInsertWhenNothingNeedsThem() {
+        // Given: a batch whose only link fails validation
+        when(appConfig.getMaxCustomShortCodeLength()).thenReturn(3);
+
+        // When
+        List<LinkCreationResult> results = linkManager.createLinks(List.of(request("https://example.com", "toolong")));
+
+        // Then
+        assertEquals(LinkCreationError.CUSTOM_CODE_TOO_LONG, results.get(0).getError());
+        verifyNoInteractions(linkDAO, idAllocator);
+    }
+
+    private LinkManager reusingManager(int cacheSize) {
+        when(appConfig.isReuseShortCodes()).thenReturn(true);
+        when(appConfig.getReuseCacheSize()).thenReturn(cacheSize);
+        return new LinkManager(linkDAO, idAllocator, base62Service, appConfig);
+    }
+
+    @Test
+    void itReusesTheGeneratedCodeOfAnIdenticalLongUrl() {
+        // Given: the long URL was shortened before with a generated code
+        LinkManager reusing = reusingManager(0);
+        Link existing = link(42L, "G");
+        when(appConfig.getBaseUrl()).thenReturn("http://short.url");
+        when(base62Service.encode(42L)).thenReturn("G");
+        when(linkDAO.findByLongUrlHash(Link.hashLongUrl(existing.getLongUrl()))).thenReturn(List.of(existing));
+
+        // When
+        LinkCreationResult result = reusing.createLink(existing.getLongUrl(), null);
+
+        // Then: the existing code comes back and nothing is inserted
+        assertTrue(result.isSuccess());
+        assertEquals("G", result.getShortCode());
+        assertEquals("http://short.url/G", result.getShortUrl());
+        verify(linkDAO, never()).insert(any(Link.class));
+        verifyNoInteractions(idAllocator);
+    }
+
+    @Test
+    void itDoesNotReuseHashCollisionsOrCustomCodes() {
+        // Given: one row with the same hash but another URL, and one with the URL but a custom code
+        LinkManager reusing = reusingManager(0);
+        String longUrl = "https://example.com/42";
+        Link collision = new Link("https://example.com/other", "H");
+        collision.setId(43L);
+        Link custom = new Link(longUrl, "promo");
+        custom.setId(44L);
+        when(appConfig.getBaseUrl()).thenReturn("http://short.url");
+        when(linkDAO.findByLongUrlHash(Link.hashLongUrl(longUrl))).thenReturn(List.of(collision, custom));
+        when(base62Service.encode(44L)).thenReturn("I");
+        when(idAllocator.nextId()).thenReturn(45L);
+        when(base62Service.encode(45L)).thenReturn("J");
+
+        // When
+        LinkCreationResult result = reusing.createLink(longUrl, null);
+
+        // Then: a new link is created
+        assertEquals("J", result.getShortCode());
+        verify(linkDAO).insert(any(Link.class));
+    }
+
+    @Test
+    void itReusesRecentlyCreatedLinksWithoutALookup() {
+        // Given: a link created through this manager
+        LinkManager reusing = reusingManager(100);
+        String longUrl = "https://example.com/page";
+        when(appConfig.getBaseUrl()).thenReturn("http://short.url");
+        when(linkDAO.findByLongUrlHash(anyLong())).thenReturn(List.of());
+        when(idAllocator.nextId()).thenReturn(42L);
+        when(base62Service.encode(42L)).thenReturn("G");
+        reusing.createLink(longUrl, null);
+
+        // When: the same URL is shortened again
+        LinkCreationResult result = reusing.createLink(longUrl, null);
+
+        // Then: the cached link answers, with one index lookup and one insert in total
+        assertEquals("G", result.getShortCode());
+        verify(linkDAO, times(1)).findByLongUrlHash(anyLong());
+        verify(linkDAO, times(1)).insert(any(Link.class));
+    }
+
+    @Test
+    void itDoesNotLookUpLongUrlsWhenReuseIsDisabled() {
+        // Given
+        when(appConfig.getBaseUrl()).thenReturn("http://short.url");
+        when(idAllocator.nextId()).thenReturn(42L);
+        when(base62Service.encode(42L)).thenReturn("G");
+
+        // When
+        linkManager.createLink("https://example.com/page", null);
+
+        // Then
+        verify(linkDAO, never()).findByLongUrlHash(anyLong());
+        verify(linkDAO).insert(any(Link.class));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void itReusesCodesWithinAndAcrossBatches() {
+        // Given: one URL already stored, and another that appears twice in the batch
+        LinkManager reusing = reusingManager(0);
+        Link existing = link(42L, "G");
+        when(appConfig.getBaseUrl()).thenReturn("http://short.url");
+        when(appConfig.getBatchInsertChunkSize()).thenReturn(500);
+        when(base62Service.encode(42L)).thenReturn("G");
+        when(linkDAO.findByLongUrlHashes(anyCollection())).thenReturn(List.of(existing));
+        when(idAllocator.nextId()).thenReturn(43L);
+        when(base62Service.encode(43L)).thenReturn("H");
+
+        // When
+        List<LinkCreationResult> results = reusing.createLinks(List.of(
+                request(existing.getLongUrl(), null),
+                request("https://example.com/new", null),
+                request("https://example.com/new", null)));
+
+        // Then: one index query and only the new URL is inserted, once
+        assertEquals(List.of("G", "H", "H"), results.stream().map(LinkCreationResult::getShortCode).toList());
+        verify(linkDAO, times(1)).findByLongUrlHashes(anyCollection());
+        ArgumentCaptor<List<Link>> linksCaptor = ArgumentCaptor.forClass(List.class);
+        verify(linkDAO).insertAll(linksCaptor.capture(), eq(500));
+        assertEquals(List.of("H"), linksCaptor.getValue().stream().map(Link::getShortCode).toList());
+    }
+}
@@ -0,0 +1,90 @@
+package com.urlshortener.metrics;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Snapshot;
+import com.codahale.metrics.Timer;
+
+public class HdrHistogramReservoirTest {
+
+    private final AtomicLong nanos = new AtomicLong(TimeUnit.HOURS.toNanos(1));
+    private final HdrHistogramReservoir reservoir = new HdrHistogramReservoir(Duration.ofMinutes(1), nanos::get);
+
+    private void advanceSeconds(long seconds) {
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(seconds));
+    }
+
+    @Test
+    void itKeepsTheTailThatASampleWouldLose() {
+        // Given: 100,000 fast lookups and ten slow ones
+        for (int i = 0; i < 100_000; i++) {
+            reservoir.update(TimeUnit.MICROSECONDS.toNanos(200));
+        }
+        for (int i = 0; i < 10; i++) {
+            reservoir.update(TimeUnit.MILLISECONDS.toNanos(250));
+        }
+
+        // When
+        Snapshot snapshot = reservoir.getSnapshot();
+
+        // Then: two significant digits
+        assertEquals(100_010, snapshot.size());
+        assertEquals(200_000, snapshot.getMedian(), 2_000);
+        assertEquals(200_000, snapshot.get999thPercentile(), 2_000);
+        assertEquals(250_000_000, snapshot.getValue(0.99995), 2_500_000);
+        assertEquals(250_000_000, snapshot.getMax(), 2_500_000);
+        assertEquals(200_000, snapshot.getMin(), 2_000);
+    }
+
+    @Test
+    void itCoversTheCurrentAndPreviousWindow() {
+        // Given: a value read after the first window closed, and one recorded in the second
+        reservoir.update(1_000);
+        advanceSeconds(60);
+        reservoir.getSnapshot();
+        reservoir.update(2_000);
+
+        // When
+        Snapshot duringSecondWindow = reservoir.getSnapshot();
+        advanceSeconds(60);
+        Snapshot afterSecondWindow = reservoir.getSnapshot();
+
+        // Then
+        assertEquals(2, duringSecondWindow.size());
+        assertEquals(1, afterSecondWindow.size());
+        assertEquals(2_000, afterSecondWindow.getMax(), 20);
+    }
+
+    @Test
+    void itReportsZerosWhenEmpty() {
+        Snapshot snapshot = reservoir.getSnapshot();
+
+        assertEquals(0, snapshot.size());
+        assertEquals(0, snapshot.getMax());
+        assertEquals(0, snapshot.getMin());
+        assertEquals(0, snapshot.getMean());
+        assertEquals(0, snapshot.get99thPercentile());
+        assertEquals(0, snapshot.getValues().length);
+    }
+
+    @Test
+    void itRegistersTimersBackedByTheReservoir() {
+        // Given
+        MetricRegistry metrics = new MetricRegistry();
+
+        // When
+        Timer timer = HdrHistogramReservoir.timer(metrics, "lookup");
+        timer.update(3, TimeUnit.SECONDS);
+
+        // Then
+        assertSame(timer, HdrHistogramReservoir.timer(metrics, "lookup"));
+        assertEquals(TimeUnit.SECONDS.toNanos(3), timer.getSnapshot().getMax(), TimeUnit.MILLISECONDS.toNanos(30));
+    }
+}
@@ -0,0 +1,76 @@
+package com.urlshortener.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.codahale.metrics.Gauge;
+import com.codahale.metrics.MetricRegistry;
+
+public class VirtualThreadMetricsTest {
+
+    private static final String PINNING_THREAD = "pinning-test";
+
+    private MetricRegistry metrics;
+    private VirtualThreadMetrics virtualThreadMetrics;
+
+    @BeforeEach
+    void setUp() {
+        metrics = new MetricRegistry();
+        // Other pinned events in the JVM, such as class loading on a virtual thread, are ignored
+        virtualThreadMetrics = new VirtualThreadMetrics(Duration.ofMillis(10),
+                event -> event.getThread() != null && PINNING_THREAD.equals(event.getThread().getJavaName()), metrics);
+        virtualThreadMetrics.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        virtualThreadMetrics.stop();
+    }
+
+    @Test
+    void pinnedVirtualThread_isTimed() throws Exception {
+        // GIVEN: a virtual thread that blocks while holding a monitor
+        Object lock = new Object();
+        Runnable pinning = () -> {
+            synchronized (lock) {
+                try {
+                    Thread.sleep(50);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+
+        // WHEN: it runs
+        Thread.ofVirtual().name(PINNING_THREAD).start(pinning).join();
+
+        // THEN: the pinned event reaches the timer once the recording stream delivers it
+        long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+        String pinned = MetricRegistry.name(VirtualThreadMetrics.class, "pinned");
+        while (metrics.timer(pinned).getCount() == 0 && System.nanoTime() < deadline) {
+            Thread.sleep(50);
+        }
+        assertEquals(1, metrics.timer(pinned).getCount());
+        assertTrue(metrics.timer(pinned).getSnapshot().getMax() >= Duration.ofMillis(40).toNanos());
+    }
+
+    @Test
+    void carrierGauges_reportScheduler() throws Exception {
+        // GIVEN: a virtual thread has run, so the scheduler has started a carrier
+        Thread.ofVirtual().start(() -> { }).join();
+
+        // WHEN: the carrier gauges are read
+        Gauge<?> parallelism = metrics.getGauges().get(MetricRegistry.name(VirtualThreadMetrics.class, "carrier-parallelism"));
+        Gauge<?> carriers = metrics.getGauges().get(MetricRegistry.name(VirtualThreadMetrics.class, "carrier-threads"));
+
+        // THEN: both are positive
+        assertTrue((Integer) parallelism.getValue() > 0);
+        assertTrue((Long) carriers.getValue() > 0);
+    }
+}
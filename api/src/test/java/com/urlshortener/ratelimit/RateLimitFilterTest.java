@@ -0,0 +1,104 @@
+package com.urlshortener.ratelimit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+import com.codahale.metrics.MetricRegistry;
+import com.urlshortener.api.LinksResource;
+import com.urlshortener.api.MigrationStatusResource;
+import com.urlshortener.api.RedirectResource;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.ws.rs.container.ContainerRequestContext;
+import jakarta.ws.rs.container.ResourceInfo;
+import jakarta.ws.rs.core.Response;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.lang.reflect.Method;
+import java.util.List;
+
+public class RateLimitFilterTest {
+
+    private final ResourceInfo resourceInfo = mock(ResourceInfo.class);
+    private final HttpServletRequest request = mock(HttpServletRequest.class);
+    private final ContainerRequestContext requestContext = mock(ContainerRequestContext.class);
+    private TokenBucketRateLimiter createLimiter;
+    private TokenBucketRateLimiter redirectLimiter;
+    private RateLimitFilter filter;
+
+    @BeforeEach
+    void setUp() {
+        MetricRegistry metrics = new MetricRegistry();
+        createLimiter = spy(new TokenBucketRateLimiter("create", 1, 100, metrics));
+        redirectLimiter = spy(new TokenBucketRateLimiter("redirect", 1, 100, metrics));
+        filter = new RateLimitFilter(createLimiter, redirectLimiter, resourceInfo, request);
+        when(request.getRemoteAddr()).thenReturn("203.0.113.1");
+    }
+
+    private void route(Class<?> resource, String method, Class<?>... parameterTypes) throws Exception {
+        Method resourceMethod = resource.getMethod(method, parameterTypes);
+        doReturn(resource).when(resourceInfo).getResourceClass();
+        when(resourceInfo.getResourceMethod()).thenReturn(resourceMethod);
+    }
+
+    @Test
+    void itRejectsWithRetryAfterOnceTheBucketIsEmpty() throws Exception {
+        // Given
+        route(LinksResource.class, "createShortLinks", List.class);
+
+        // When
+        filter.filter(requestContext);
+        filter.filter(requestContext);
+
+        // Then
+        ArgumentCaptor<Response> response = ArgumentCaptor.forClass(Response.class);
+        verify(requestContext, times(1)).abortWith(response.capture());
+        assertEquals(429, response.getValue().getStatus());
+        assertEquals("60", response.getValue().getHeaderString("Retry-After"));
+    }
+
+    @Test
+    void itUsesTheRedirectLimitForRedirectsAndTheForwardedClientAddress() throws Exception {
+        // Given
+        route(RedirectResource.class, "redirect", String.class, HttpServletRequest.class);
+        when(request.getHeader("X-Forwarded-For")).thenReturn("198.51.100.7, 10.0.0.1");
+
+        // When
+        filter.filter(requestContext);
+
+        // Then
+        verify(redirectLimiter).tryAcquire("198.51.100.7");
+        verifyNoInteractions(createLimiter);
+        verify(requestContext, never()).abortWith(any());
+    }
+
+    @Test
+    void itLeavesOtherRoutesUnlimited() throws Exception {
+        // Given
+        route(MigrationStatusResource.class, "getMigrationStatus");
+
+        // When
+        filter.filter(requestContext);
+        filter.filter(requestContext);
+
+        // Then
+        verifyNoInteractions(createLimiter, redirectLimiter);
+        verify(requestContext, never()).abortWith(any());
+    }
+
+    @Test
+    void itLeavesRoutesWithoutALimiterUnlimited() throws Exception {
+        // Given
+        RateLimitFilter redirectsOnly = new RateLimitFilter(null, redirectLimiter, resourceInfo, request);
+        route(LinksResource.class, "createShortLinks", List.class);
+
+        // When
+        redirectsOnly.filter(requestContext);
+        redirectsOnly.filter(requestContext);
+
+        // Then
+        verify(requestContext, never()).abortWith(any());
+    }
+}
@@ -0,0 +1,130 @@
+package com.urlshortener.ratelimit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.codahale.metrics.MetricRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class TokenBucketRateLimiterTest {
+
+    private final AtomicLong nanos = new AtomicLong(TimeUnit.HOURS.toNanos(1));
+    private MetricRegistry metrics;
+    private TokenBucketRateLimiter rateLimiter;
+
+    @BeforeEach
+    void setUp() {
+        metrics = new MetricRegistry();
+        // One token every 10 seconds, up to 6
+        rateLimiter = new TokenBucketRateLimiter("create", 6, 100, metrics, nanos::get);
+    }
+
+    private void advanceSeconds(long seconds) {
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(seconds));
+    }
+
+    @Test
+    void itAllowsABurstOfAMinutesRequestsThenRejects() {
+        // When
+        for (int i = 0; i < 6; i++) {
+            assertEquals(0, rateLimiter.tryAcquire("203.0.113.1"));
+        }
+        long wait = rateLimiter.tryAcquire("203.0.113.1");
+
+        // Then
+        assertEquals(TimeUnit.SECONDS.toNanos(10), wait);
+        assertEquals(1, metrics.meter("com.urlshortener.ratelimit.TokenBucketRateLimiter.create.rejected").getCount());
+    }
+
+    @Test
+    void itRefillsOneTokenPerInterval() {
+        // Given
+        for (int i = 0; i < 6; i++) {
+            rateLimiter.tryAcquire("203.0.113.1");
+        }
+
+        // When
+        advanceSeconds(4);
+        long waitBeforeRefill = rateLimiter.tryAcquire("203.0.113.1");
+        advanceSeconds(6);
+        long waitAfterRefill = rateLimiter.tryAcquire("203.0.113.1");
+
+        // Then
+        assertEquals(TimeUnit.SECONDS.toNanos(6), waitBeforeRefill);
+        assertEquals(0, waitAfterRefill);
+        assertTrue(rateLimiter.tryAcquire("203.0.113.1") > 0);
+    }
+
+    @Test
+    void itKeepsASeparateBucketPerClient() {
+        // Given
+        for (int i = 0; i < 6; i++) {
+            rateLimiter.tryAcquire("203.0.113.1");
+        }
+
+        // When/Then
+        assertTrue(rateLimiter.tryAcquire("203.0.113.1") > 0);
+        assertEquals(0, rateLimiter.tryAcquire("203.0.113.2"));
+    }
+
+    @Test
+    void itForgetsBucketsUnusedForAMinute() {
+        // Given
+        rateLimiter.tryAcquire("203.0.113.1");
+        rateLimiter.tryAcquire("203.0.113.2");
+        advanceSeconds(30);
+        rateLimiter.tryAcquire("203.0.113.2");
+        assertEquals(2L, metrics.getGauges().get("com.urlshortener.ratelimit.TokenBucketRateLimiter.create.buckets").getValue());
+
+        // When
+        advanceSeconds(31);
+
+        // Then
+        assertEquals(1L, metrics.getGauges().get("com.urlshortener.ratelimit.TokenBucketRateLimiter.create.buckets").getValue());
+    }
+
+    @Test
+    void itNeverGrantsMoreThanTheBucketHoldsUnderContention() throws Exception {
+        // Given
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter("redirect", 1000, 100, metrics, nanos::get);
+        AtomicInteger granted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            threads.add(Thread.ofPlatform().start(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                for (int i = 0; i < 500; i++) {
+                    if (limiter.tryAcquire("203.0.113.1") == 0) {
+                        granted.incrementAndGet();
+                    }
+                }
+            }));
+        }
+
+        // When
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        // Then
+        assertEquals(1000, granted.get());
+    }
+
+    @Test
+    void itRejectsANonPositiveRate() {
+        assertThrows(IllegalArgumentException.class,
+                () -> new TokenBucketRateLimiter("create", 0, 100, new MetricRegistry()));
+    }
+}
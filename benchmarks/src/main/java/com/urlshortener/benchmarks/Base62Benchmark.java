@@ -0,0 +1,55 @@
+package com.urlshortener.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.urlshortener.core.Base62Service;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class Base62Benchmark {
+
+    // A freshly created link, and one a few billion links in
+    @Param({"125000", "3521614606208"})
+    private long id;
+
+    private Base62Service base62Service;
+    private String encoded;
+    private final byte[] buffer = new byte[Base62Service.MAX_ENCODED_LENGTH];
+
+    @Setup
+    public void setUp() {
+        base62Service = new Base62Service();
+        encoded = base62Service.encode(id);
+    }
+
+    @Benchmark
+    public String encode() {
+        return base62Service.encode(id);
+    }
+
+    @Benchmark
+    public long decode() {
+        return base62Service.decode(encoded);
+    }
+
+    @Benchmark
+    public int encodeIntoBuffer() {
+        return base62Service.encode(id, buffer, 0);
+    }
+}
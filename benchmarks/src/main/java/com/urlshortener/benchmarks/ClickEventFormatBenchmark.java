@@ -0,0 +1,71 @@
+package com.urlshortener.benchmarks;
+
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.urlshortener.UrlShortenerConfiguration.KafkaConfiguration.EventFormat;
+import com.urlshortener.events.ClickEvent;
+import com.urlshortener.events.ClickEventCodec;
+import com.urlshortener.events.EventValidator;
+import com.urlshortener.kafka.ClickEventSerializer;
+
+/**
+ * Producer and consumer cost of each click event format on the link_clicks topic. {@code encode}
+ * is what the API does per click; {@code decodeAndValidate} is what the telemetry consumer does
+ * per record before the insert. The encoded size of the event is printed when the trial starts.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ClickEventFormatBenchmark {
+
+    @Param({"JSON", "BINARY"})
+    public EventFormat format;
+
+    private ObjectMapper objectMapper;
+    private ClickEventSerializer serializer;
+    private EventValidator eventValidator;
+    private ClickEvent clickEvent;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new ObjectMapper();
+        serializer = new ClickEventSerializer(format, objectMapper);
+        eventValidator = new EventValidator(objectMapper);
+        // As created by ClickManager for a redirect
+        clickEvent = new ClickEvent(125000L, "wwy", Instant.parse("2024-01-15T10:30:00.123Z"),
+                "Mozilla/5.0 (Macintosh; Intel Mac OS X 10_15_7) AppleWebKit/537.36",
+                "203.0.113.42", "https://news.example.com/article");
+        encoded = serializer.serialize("link_clicks", clickEvent);
+        System.out.println(format + " click event: " + encoded.length + " bytes");
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        return serializer.serialize("link_clicks", clickEvent);
+    }
+
+    @Benchmark
+    public ClickEvent decodeAndValidate() throws Exception {
+        return ClickEventCodec.isBinary(encoded)
+                ? eventValidator.validate(ClickEventCodec.decode(encoded))
+                : eventValidator.parseAndValidate(encoded);
+    }
+}
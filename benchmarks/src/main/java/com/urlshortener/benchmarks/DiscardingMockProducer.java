@@ -0,0 +1,33 @@
+package com.urlshortener.benchmarks;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Future;
+
+import org.apache.kafka.clients.producer.Callback;
+import org.apache.kafka.clients.producer.MockProducer;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.clients.producer.RecordMetadata;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+
+/**
+ * MockProducer that acknowledges every send immediately without keeping it in its history,
+ * so that millions of benchmark invocations do not fill the heap.
+ */
+final class DiscardingMockProducer extends MockProducer<String, byte[]> {
+
+    private static final RecordMetadata METADATA = new RecordMetadata(new TopicPartition("link_clicks", 0), 0L, 0, 0L, 0, 0);
+
+    DiscardingMockProducer() {
+        super(true, new StringSerializer(), new ByteArraySerializer());
+    }
+
+    @Override
+    public synchronized Future<RecordMetadata> send(ProducerRecord<String, byte[]> record, Callback callback) {
+        if (callback != null) {
+            callback.onCompletion(METADATA, null);
+        }
+        return CompletableFuture.completedFuture(METADATA);
+    }
+}
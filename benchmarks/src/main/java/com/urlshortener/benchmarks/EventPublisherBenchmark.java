@@ -0,0 +1,54 @@
+package com.urlshortener.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.urlshortener.events.ClickEvent;
+import com.urlshortener.kafka.EventPublisher;
+
+/**
+ * Cost of turning a click into a Kafka send: JSON serialization, record creation and the
+ * publisher's bookkeeping, against a producer that acknowledges immediately.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EventPublisherBenchmark {
+
+    private ObjectMapper objectMapper;
+    private EventPublisher eventPublisher;
+    private ClickEvent clickEvent;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new ObjectMapper();
+        eventPublisher = new EventPublisher(new DiscardingMockProducer(), "link_clicks", objectMapper);
+        clickEvent = new ClickEvent(125000L, "wwy", "2024-01-15T10:30:00.123Z",
+                "Mozilla/5.0 (Macintosh; Intel Mac OS X 10_15_7) AppleWebKit/537.36",
+                "203.0.113.42", "https://news.example.com/article");
+    }
+
+    @Benchmark
+    public String serializeClickEvent() throws Exception {
+        return objectMapper.writeValueAsString(clickEvent);
+    }
+
+    @Benchmark
+    public void publishClickEvent() throws Exception {
+        eventPublisher.publishClickEvent(clickEvent);
+    }
+}
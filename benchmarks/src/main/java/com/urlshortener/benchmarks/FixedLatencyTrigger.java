@@ -0,0 +1,23 @@
+package com.urlshortener.benchmarks;
+
+import java.sql.Connection;
+
+import org.h2.api.Trigger;
+
+/**
+ * H2 {@code BEFORE SELECT} trigger that sleeps for a fixed time, so every query against the table
+ * it is attached to costs about as much as a round trip to a remote database.
+ */
+public class FixedLatencyTrigger implements Trigger {
+
+    static volatile long latencyMs;
+
+    @Override
+    public void fire(Connection connection, Object[] oldRow, Object[] newRow) {
+        try {
+            Thread.sleep(latencyMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.urlshortener.benchmarks;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.h2.jdbcx.JdbcConnectionPool;
+import org.jdbi.v3.core.Jdbi;
+import org.jdbi.v3.sqlobject.SqlObjectPlugin;
+
+/**
+ * H2 database in MySQL mode with the API's schema and migrations applied, standing in for MySQL.
+ */
+final class InMemoryDatabase {
+
+    private static final AtomicInteger DATABASES = new AtomicInteger();
+
+    private InMemoryDatabase() {
+    }
+
+    static Jdbi create() {
+        return open("jdbc:h2:mem:benchmark-" + DATABASES.incrementAndGet() + ";MODE=MySQL;DB_CLOSE_DELAY=-1");
+    }
+
+    /**
+     * Opens, or creates, a database stored in {@code file} so large tables survive between runs.
+     */
+    static Jdbi create(Path file) {
+        return open("jdbc:h2:file:" + file.toAbsolutePath() + ";MODE=MySQL;DB_CLOSE_DELAY=-1");
+    }
+
+    /**
+     * Opens, or creates, the database at {@code url}. An in-memory url lets an application started
+     * in the same JVM share the database by name.
+     */
+    static Jdbi open(String url) {
+        // Pooled like the application's DataSource, so lookups do not pay for a new connection each time
+        Jdbi jdbi = Jdbi.create(JdbcConnectionPool.create(url, "sa", ""));
+        jdbi.installPlugin(new SqlObjectPlugin());
+        jdbi.useHandle(handle -> {
+            boolean exists = handle.createQuery(
+                    "SELECT COUNT(*) FROM INFORMATION_SCHEMA.TABLES WHERE UPPER(TABLE_NAME) = 'ID_SEQUENCES'")
+                    .mapTo(Integer.class).one() > 0;
+            if (!exists) {
+                handle.createScript(resource("db/schema.sql")).execute();
+                handle.createScript(resource("db/id_sequences.sql")).execute();
+                handle.createScript(resource("db/long_url_hash.sql")).execute();
+                // Changeset 3 of migrations.xml
+                handle.execute("DROP INDEX IF EXISTS idx_short_code");
+            }
+        });
+        return jdbi;
+    }
+
+    private static String resource(String path) {
+        try (InputStream in = InMemoryDatabase.class.getClassLoader().getResourceAsStream(path)) {
+            if (in == null) {
+                throw new IllegalStateException("Missing schema resource: " + path);
+            }
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
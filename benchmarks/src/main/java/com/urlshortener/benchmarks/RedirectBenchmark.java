@@ -0,0 +1,122 @@
+package com.urlshortener.benchmarks;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.jdbi.v3.core.Jdbi;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.codahale.metrics.MetricRegistry;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.urlshortener.UrlShortenerConfiguration.ApplicationConfiguration;
+import com.urlshortener.UrlShortenerConfiguration.LinkCacheConfiguration;
+import com.urlshortener.UrlShortenerConfiguration.ShortCodeFilterConfiguration;
+import com.urlshortener.api.RedirectResource;
+import com.urlshortener.cache.LinkCache;
+import com.urlshortener.cache.ShortCodeFilter;
+import com.urlshortener.core.Base62Service;
+import com.urlshortener.core.IdBlockAllocator;
+import com.urlshortener.core.Link;
+import com.urlshortener.db.IdSequenceDAO;
+import com.urlshortener.db.LinkDAO;
+import com.urlshortener.kafka.ClickEventDispatcher;
+import com.urlshortener.kafka.EventPublisher;
+import com.urlshortener.manager.ClickManager;
+import com.urlshortener.manager.LinkManager;
+import com.urlshortener.models.LinkCreationResult;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.ws.rs.core.Response;
+
+/**
+ * The redirect and create paths through LinkManager and RedirectResource, backed by H2 and a
+ * MockProducer. Clicks are published on the calling thread so their cost is included.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RedirectBenchmark {
+
+    private static final int LINKS = 10_000;
+
+    @Param({"false", "true"})
+    private boolean linkCacheEnabled;
+
+    private LinkManager linkManager;
+    private RedirectResource redirectResource;
+    private HttpServletRequest request;
+    private String[] shortCodes;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Jdbi jdbi = InMemoryDatabase.create();
+        MetricRegistry metrics = new MetricRegistry();
+
+        ApplicationConfiguration appConfig = new ApplicationConfiguration();
+        LinkCacheConfiguration cacheConfig = new LinkCacheConfiguration();
+        cacheConfig.setEnabled(linkCacheEnabled);
+
+        // Built over the empty table and filled as links are created, as the application's filter is
+        LinkDAO linkDAO = jdbi.onDemand(LinkDAO.class);
+        ShortCodeFilter shortCodeFilter = new ShortCodeFilter(new ShortCodeFilterConfiguration(), linkDAO, metrics);
+        shortCodeFilter.rebuild();
+
+        linkManager = new LinkManager(
+                linkDAO,
+                new IdBlockAllocator(jdbi.onDemand(IdSequenceDAO.class), "links", appConfig.getIdBlockSize(), metrics),
+                new Base62Service(),
+                appConfig,
+                new LinkCache(cacheConfig, metrics),
+                shortCodeFilter);
+
+        EventPublisher eventPublisher = new EventPublisher(new DiscardingMockProducer(), "link_clicks", new ObjectMapper());
+        ClickManager clickManager = new ClickManager(eventPublisher, ClickEventDispatcher.direct(eventPublisher));
+        redirectResource = new RedirectResource(linkManager, clickManager);
+
+        request = StubHttpServletRequest.create(Map.of(
+                "User-Agent", "Mozilla/5.0 (Macintosh; Intel Mac OS X 10_15_7) AppleWebKit/537.36",
+                "Referer", "https://news.example.com/article",
+                "X-Forwarded-For", "203.0.113.42"), "10.0.0.1");
+
+        shortCodes = new String[LINKS];
+        for (int i = 0; i < LINKS; i++) {
+            shortCodes[i] = linkManager.createLink("https://example.com/articles/" + i, null).getShortCode();
+        }
+    }
+
+    private String nextShortCode() {
+        String shortCode = shortCodes[next];
+        next = (next + 1) % LINKS;
+        return shortCode;
+    }
+
+    @Benchmark
+    public Optional<Link> findByShortCode() {
+        return linkManager.findByShortCode(nextShortCode());
+    }
+
+    @Benchmark
+    public Response redirect() {
+        return redirectResource.redirect(nextShortCode(), request);
+    }
+
+    @Benchmark
+    public LinkCreationResult createLink() {
+        return linkManager.createLink("https://example.com/new/" + next++, null);
+    }
+}
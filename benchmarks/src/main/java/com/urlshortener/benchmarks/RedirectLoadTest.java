@@ -0,0 +1,297 @@
+package com.urlshortener.benchmarks;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.jdbi.v3.core.Jdbi;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.urlshortener.UrlShortenerApplication;
+import com.urlshortener.core.Base62Service;
+import com.urlshortener.metrics.VirtualThreadMetrics;
+
+/**
+ * Closed-loop load test of the redirect endpoint with platform versus virtual request threads.
+ *
+ * <p>Each mode runs in its own JVM, which starts the real application against an in-memory H2
+ * database whose link lookups are slowed to a fixed latency by {@link FixedLatencyTrigger}. The
+ * link cache is off, so every redirect waits on the database. Concurrent clients then issue
+ * redirects for random links, and the throughput and latency percentiles of each mode are printed
+ * side by side. Kafka is not running, so click publishing fails fast and is dropped.
+ *
+ * <p>Parameters are system properties: {@code loadtest.latencyMs} (100), {@code loadtest.concurrency}
+ * (256), {@code loadtest.maxThreads} (16, the server's platform thread limit),
+ * {@code loadtest.warmupSeconds} (20), {@code loadtest.durationSeconds} (30) and
+ * {@code loadtest.output}, a file to write the results to as JSON. The defaults keep the platform
+ * thread limit, not the CPU, the bottleneck on a single-core machine, which is what the comparison
+ * is meant to show; with more cores raise the concurrency and thread limit together.
+ *
+ * <pre>java -cp target/benchmarks.jar com.urlshortener.benchmarks.RedirectLoadTest</pre>
+ */
+public final class RedirectLoadTest {
+
+    private static final String[] MODES = {"PLATFORM", "VIRTUAL"};
+    private static final String RESULT_PREFIX = "RESULT ";
+    private static final String DATABASE_URL = "jdbc:h2:mem:loadtest;MODE=MySQL;DB_CLOSE_DELAY=-1";
+    private static final int LINKS = 10_000;
+    private static final int PORT = 18080;
+    private static final int ADMIN_PORT = 18081;
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final long LATENCY_MS = Long.getLong("loadtest.latencyMs", 100);
+    private static final int CONCURRENCY = Integer.getInteger("loadtest.concurrency", 256);
+    private static final int MAX_THREADS = Integer.getInteger("loadtest.maxThreads", 16);
+    private static final int WARMUP_SECONDS = Integer.getInteger("loadtest.warmupSeconds", 20);
+    private static final int DURATION_SECONDS = Integer.getInteger("loadtest.durationSeconds", 30);
+
+    private RedirectLoadTest() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 1) {
+            runMode(args[0]);
+            System.exit(0);
+        }
+
+        List<JsonNode> results = new ArrayList<>();
+        for (String mode : MODES) {
+            results.add(fork(mode));
+        }
+
+        System.out.printf(Locale.ROOT, "%nlatency=%dms concurrency=%d maxThreads=%d duration=%ds%n",
+                LATENCY_MS, CONCURRENCY, MAX_THREADS, DURATION_SECONDS);
+        System.out.printf(Locale.ROOT, "%-10s %12s %10s %10s %10s %8s %8s%n",
+                "mode", "requests/s", "p50 ms", "p99 ms", "max ms", "errors", "pinned");
+        for (JsonNode result : results) {
+            System.out.printf(Locale.ROOT, "%-10s %12.1f %10.2f %10.2f %10.2f %8d %8d%n",
+                    result.get("mode").asText(), result.get("throughput").asDouble(),
+                    result.get("p50Ms").asDouble(), result.get("p99Ms").asDouble(), result.get("maxMs").asDouble(),
+                    result.get("errors").asLong(), result.get("pinned").asLong());
+        }
+
+        String output = System.getProperty("loadtest.output");
+        if (output != null) {
+            MAPPER.writerWithDefaultPrettyPrinter().writeValue(Path.of(output).toFile(), results);
+        }
+    }
+
+    /**
+     * Runs one mode in a child JVM with the same class path and load test properties.
+     */
+    private static JsonNode fork(String mode) throws Exception {
+        List<String> command = new ArrayList<>(List.of(
+                Path.of(System.getProperty("java.home"), "bin", "java").toString(), "-Xmx1g"));
+        System.getProperties().stringPropertyNames().stream()
+                .filter(name -> name.startsWith("loadtest.") && !name.equals("loadtest.output"))
+                .forEach(name -> command.add("-D" + name + "=" + System.getProperty(name)));
+        command.addAll(List.of("-cp", System.getProperty("java.class.path"), RedirectLoadTest.class.getName(), mode));
+
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        JsonNode result = null;
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.startsWith(RESULT_PREFIX)) {
+                    result = MAPPER.readTree(line.substring(RESULT_PREFIX.length()));
+                } else {
+                    System.out.println("[" + mode + "] " + line);
+                }
+            }
+        }
+        if (process.waitFor() != 0 || result == null) {
+            throw new IllegalStateException(mode + " run failed with exit code " + process.exitValue());
+        }
+        return result;
+    }
+
+    private static void runMode(String mode) throws Exception {
+        String[] shortCodes = populate();
+        startApplication(mode.equals("VIRTUAL"));
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+
+        System.out.printf("Warming up %s for %ds%n", mode, WARMUP_SECONDS);
+        drive(client, shortCodes, Duration.ofSeconds(WARMUP_SECONDS));
+        long pinnedBefore = pinnedCount(client);
+
+        System.out.printf("Measuring %s for %ds%n", mode, DURATION_SECONDS);
+        Load load = drive(client, shortCodes, Duration.ofSeconds(DURATION_SECONDS));
+
+        long[] latencies = load.latencies();
+        Arrays.sort(latencies);
+        var result = MAPPER.createObjectNode()
+                .put("mode", mode)
+                .put("latencyMs", LATENCY_MS)
+                .put("concurrency", CONCURRENCY)
+                .put("maxThreads", MAX_THREADS)
+                .put("durationSeconds", DURATION_SECONDS)
+                .put("requests", latencies.length)
+                .put("throughput", latencies.length / (double) DURATION_SECONDS)
+                .put("p50Ms", percentile(latencies, 0.50))
+                .put("p99Ms", percentile(latencies, 0.99))
+                .put("maxMs", latencies.length == 0 ? 0 : latencies[latencies.length - 1] / 1e6)
+                .put("errors", load.errors())
+                .put("pinned", pinnedCount(client) - pinnedBefore);
+        System.out.println(RESULT_PREFIX + MAPPER.writeValueAsString(result));
+    }
+
+    /**
+     * Creates the schema and links, then attaches the latency trigger to the links table.
+     *
+     * @return The short codes of the links
+     */
+    private static String[] populate() {
+        Jdbi jdbi = InMemoryDatabase.open(DATABASE_URL);
+        Base62Service base62 = new Base62Service();
+        String[] shortCodes = new String[LINKS];
+        jdbi.useHandle(handle -> {
+            var batch = handle.prepareBatch("INSERT INTO links (id, long_url, short_code) VALUES (:id, :longUrl, :shortCode)");
+            for (int i = 0; i < LINKS; i++) {
+                long id = i + 1;
+                shortCodes[i] = base62.encode(id);
+                batch.bind("id", id).bind("longUrl", "https://example.com/articles/" + id)
+                        .bind("shortCode", shortCodes[i]).add();
+            }
+            batch.execute();
+            handle.execute("CREATE TRIGGER links_latency BEFORE SELECT ON links CALL \""
+                    + FixedLatencyTrigger.class.getName() + "\"");
+        });
+        FixedLatencyTrigger.latencyMs = LATENCY_MS;
+        return shortCodes;
+    }
+
+    private static void startApplication(boolean virtualThreads) throws Exception {
+        Path config = Files.createTempFile("loadtest", ".yml");
+        config.toFile().deleteOnExit();
+        Files.writeString(config, """
+                logging:
+                  level: WARN
+                  loggers:
+                    org.apache.kafka: "OFF"
+                    com.urlshortener.kafka: "OFF"
+                server:
+                  enableVirtualThreads: %s
+                  maxThreads: %d
+                  requestLog:
+                    appenders: []
+                  applicationConnectors:
+                    - type: http
+                      port: %d
+                  adminConnectors:
+                    - type: http
+                      port: %d
+                database:
+                  driverClass: org.h2.Driver
+                  url: "%s"
+                  user: sa
+                  password: ""
+                  initialSize: 8
+                  minSize: 8
+                  maxSize: %d
+                  maxWaitForConnection: 30s
+                linkCache:
+                  enabled: false
+                shortCodeFilter:
+                  enabled: false
+                kafka:
+                  bootstrapServers: "localhost:1"
+                  maxBlockMs: 10
+                """.formatted(virtualThreads, MAX_THREADS, PORT, ADMIN_PORT, DATABASE_URL, CONCURRENCY + 8));
+        new UrlShortenerApplication().run("server", config.toString());
+    }
+
+    private record Load(long[] latencies, long errors) {
+    }
+
+    /**
+     * Runs {@link #CONCURRENCY} clients in a closed loop for {@code duration}.
+     */
+    private static Load drive(HttpClient client, String[] shortCodes, Duration duration) throws InterruptedException {
+        long deadline = System.nanoTime() + duration.toNanos();
+        LongAdder errors = new LongAdder();
+        List<long[]> perClient = new ArrayList<>();
+        int[] counts = new int[CONCURRENCY];
+        List<Thread> clients = new ArrayList<>();
+
+        for (int c = 0; c < CONCURRENCY; c++) {
+            long[] latencies = new long[1 << 16];
+            perClient.add(latencies);
+            int index = c;
+            clients.add(Thread.ofVirtual().start(() -> {
+                long[] recorded = latencies;
+                int count = 0;
+                while (System.nanoTime() < deadline) {
+                    String shortCode = shortCodes[ThreadLocalRandom.current().nextInt(shortCodes.length)];
+                    HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + PORT + "/" + shortCode))
+                            .GET().build();
+                    long start = System.nanoTime();
+                    try {
+                        HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                        if (response.statusCode() != 302) {
+                            errors.increment();
+                            continue;
+                        }
+                    } catch (Exception e) {
+                        errors.increment();
+                        continue;
+                    }
+                    if (count == recorded.length) {
+                        recorded = Arrays.copyOf(recorded, count * 2);
+                        perClient.set(index, recorded);
+                    }
+                    recorded[count++] = System.nanoTime() - start;
+                }
+                counts[index] = count;
+            }));
+        }
+        for (Thread thread : clients) {
+            thread.join();
+        }
+
+        long[] all = new long[Arrays.stream(counts).sum()];
+        int position = 0;
+        for (int c = 0; c < CONCURRENCY; c++) {
+            System.arraycopy(perClient.get(c), 0, all, position, counts[c]);
+            position += counts[c];
+        }
+        return new Load(all, errors.sum());
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        return sorted[(int) Math.min(sorted.length - 1, Math.ceil(quantile * sorted.length) - 1)] / 1e6;
+    }
+
+    /**
+     * Reads the pinned virtual thread count from the admin metrics, or 0 in platform mode.
+     */
+    private static long pinnedCount(HttpClient client) throws Exception {
+        HttpResponse<String> response = client.send(
+                HttpRequest.newBuilder(URI.create("http://localhost:" + ADMIN_PORT + "/metrics")).build(),
+                HttpResponse.BodyHandlers.ofString());
+        JsonNode pinned = MAPPER.readTree(response.body())
+                .path("timers").path(VirtualThreadMetrics.class.getName() + ".pinned");
+        return pinned.path("count").asLong(0);
+    }
+}
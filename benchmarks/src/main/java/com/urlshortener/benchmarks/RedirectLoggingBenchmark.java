@@ -0,0 +1,158 @@
+package com.urlshortener.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.jdbi.v3.core.Jdbi;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+
+import com.codahale.metrics.MetricRegistry;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.urlshortener.UrlShortenerConfiguration.ApplicationConfiguration;
+import com.urlshortener.UrlShortenerConfiguration.LinkCacheConfiguration;
+import com.urlshortener.api.RedirectResource;
+import com.urlshortener.cache.LinkCache;
+import com.urlshortener.cache.ShortCodeFilter;
+import com.urlshortener.core.Base62Service;
+import com.urlshortener.core.IdBlockAllocator;
+import com.urlshortener.db.IdSequenceDAO;
+import com.urlshortener.db.LinkDAO;
+import com.urlshortener.kafka.ClickEventDispatcher;
+import com.urlshortener.kafka.EventPublisher;
+import com.urlshortener.manager.ClickManager;
+import com.urlshortener.manager.LinkManager;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.FileAppender;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.ws.rs.core.Response;
+
+/**
+ * Redirect throughput with the {@code com.urlshortener} loggers off, at INFO and at DEBUG, writing
+ * to a file through logback either directly or through the async appender {@code config.yml} sets
+ * up. Links are served from the link cache and clicks are published on the calling thread, so
+ * the redirect is mostly the logging and publishing around it.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RedirectLoggingBenchmark {
+
+    private static final int LINKS = 1_000;
+
+    @Param({"OFF", "INFO", "DEBUG"})
+    private String level;
+
+    @Param({"ASYNC", "SYNC"})
+    private String appender;
+
+    private ch.qos.logback.classic.Logger logger;
+    private Appender<ILoggingEvent> logAppender;
+    private File logFile;
+    private RedirectResource redirectResource;
+    private HttpServletRequest request;
+    private String[] shortCodes;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        Jdbi jdbi = InMemoryDatabase.create();
+        MetricRegistry metrics = new MetricRegistry();
+        ApplicationConfiguration appConfig = new ApplicationConfiguration();
+
+        LinkManager linkManager = new LinkManager(
+                jdbi.onDemand(LinkDAO.class),
+                new IdBlockAllocator(jdbi.onDemand(IdSequenceDAO.class), "links", appConfig.getIdBlockSize(), metrics),
+                new Base62Service(),
+                appConfig,
+                new LinkCache(new LinkCacheConfiguration(), metrics),
+                ShortCodeFilter.disabled());
+        EventPublisher eventPublisher = new EventPublisher(new DiscardingMockProducer(), "link_clicks", new ObjectMapper());
+        redirectResource = new RedirectResource(linkManager,
+                new ClickManager(eventPublisher, ClickEventDispatcher.direct(eventPublisher)));
+
+        request = StubHttpServletRequest.create(Map.of(
+                "User-Agent", "Mozilla/5.0 (Macintosh; Intel Mac OS X 10_15_7) AppleWebKit/537.36",
+                "Referer", "https://news.example.com/article",
+                "X-Forwarded-For", "203.0.113.42"), "10.0.0.1");
+
+        shortCodes = new String[LINKS];
+        for (int i = 0; i < LINKS; i++) {
+            shortCodes[i] = linkManager.createLink("https://example.com/articles/" + i, null).getShortCode();
+        }
+
+        logFile = Files.createTempFile("redirect-logging", ".log").toFile();
+        configureLogging();
+    }
+
+    // Dropwizard's default console layout and appender settings from config.yml
+    private void configureLogging() {
+        LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(context);
+        encoder.setPattern("%-5p [%d{ISO8601,UTC}] %c: %m%n%rEx");
+        encoder.start();
+
+        FileAppender<ILoggingEvent> file = new FileAppender<>();
+        file.setContext(context);
+        file.setFile(logFile.getAbsolutePath());
+        file.setEncoder(encoder);
+        file.start();
+        logAppender = file;
+
+        if (appender.equals("ASYNC")) {
+            AsyncAppender async = new AsyncAppender();
+            async.setContext(context);
+            async.setQueueSize(8192);
+            async.setDiscardingThreshold(1024);
+            async.setNeverBlock(true);
+            async.addAppender(file);
+            async.start();
+            logAppender = async;
+        }
+
+        logger = context.getLogger("com.urlshortener");
+        logger.setLevel(ch.qos.logback.classic.Level.toLevel(level));
+        logger.setAdditive(false);
+        logger.addAppender(logAppender);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        logger.detachAppender(logAppender);
+        logAppender.stop();
+        System.out.println("Log file: " + logFile.length() + " bytes");
+        logFile.delete();
+    }
+
+    @Benchmark
+    public Response redirect() {
+        String shortCode = shortCodes[next];
+        next = (next + 1) % LINKS;
+        return redirectResource.redirect(shortCode, request);
+    }
+}
@@ -0,0 +1,111 @@
+package com.urlshortener.benchmarks;
+
+import java.nio.file.Path;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.jdbi.v3.core.Jdbi;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.codahale.metrics.MetricRegistry;
+import com.urlshortener.UrlShortenerConfiguration.ApplicationConfiguration;
+import com.urlshortener.UrlShortenerConfiguration.ApplicationConfiguration.ShortCodeLookup;
+import com.urlshortener.cache.LinkCache;
+import com.urlshortener.cache.ShortCodeFilter;
+import com.urlshortener.core.Base62Service;
+import com.urlshortener.core.IdBlockAllocator;
+import com.urlshortener.core.Link;
+import com.urlshortener.db.IdSequenceDAO;
+import com.urlshortener.db.LinkDAO;
+import com.urlshortener.manager.LinkManager;
+
+/**
+ * Uncached LinkManager lookups of random generated codes, resolved by primary key versus the
+ * short_code index. The links table is an H2 file database that is built once per row count and
+ * reused by later runs; use {@code -p rows=...} to change its size.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class ShortCodeLookupBenchmark {
+
+    private static final Base62Service BASE62 = new Base62Service();
+    private static final long INSERT_CHUNK = 1_000_000;
+
+    @Param({"20000000"})
+    private long rows;
+
+    @Param({"PRIMARY_KEY", "SHORT_CODE_INDEX"})
+    private ShortCodeLookup shortCodeLookup;
+
+    private LinkManager linkManager;
+    private String[] shortCodes;
+
+    /**
+     * Called by H2 to generate short codes while populating the table.
+     */
+    public static String base62(long id) {
+        return BASE62.encode(id);
+    }
+
+    @Setup
+    public void setUp() {
+        Path file = Path.of(System.getProperty("java.io.tmpdir"), "urlshortener-bench-" + rows);
+        Jdbi jdbi = InMemoryDatabase.create(file);
+        populate(jdbi);
+
+        ApplicationConfiguration appConfig = new ApplicationConfiguration();
+        appConfig.setShortCodeLookup(shortCodeLookup);
+        MetricRegistry metrics = new MetricRegistry();
+        linkManager = new LinkManager(
+                jdbi.onDemand(LinkDAO.class),
+                new IdBlockAllocator(jdbi.onDemand(IdSequenceDAO.class), "links", appConfig.getIdBlockSize(), metrics),
+                BASE62,
+                appConfig,
+                LinkCache.disabled(),
+                ShortCodeFilter.disabled());
+
+        // Pre-encode a random sample so the benchmark measures the lookup, not the encoding
+        shortCodes = new String[1 << 16];
+        for (int i = 0; i < shortCodes.length; i++) {
+            shortCodes[i] = BASE62.encode(ThreadLocalRandom.current().nextLong(1, rows + 1));
+        }
+    }
+
+    private void populate(Jdbi jdbi) {
+        long existing = jdbi.withHandle(handle -> handle.createQuery("SELECT COUNT(*) FROM links").mapTo(Long.class).one());
+        if (existing == rows) {
+            return;
+        }
+
+        jdbi.useHandle(handle -> {
+            handle.execute("DELETE FROM links");
+            handle.execute("CREATE ALIAS IF NOT EXISTS BASE62 FOR \"" + ShortCodeLookupBenchmark.class.getName() + ".base62\"");
+            for (long from = 1; from <= rows; from += INSERT_CHUNK) {
+                long to = Math.min(rows, from + INSERT_CHUNK - 1);
+                handle.execute("INSERT INTO links (id, long_url, short_code) "
+                        + "SELECT X, CONCAT('https://example.com/articles/', X), BASE62(X) FROM SYSTEM_RANGE(?, ?)", from, to);
+            }
+            handle.execute("UPDATE id_sequences SET next_value = ? WHERE name = 'links'", rows + 1);
+        });
+    }
+
+    @Benchmark
+    public Link findGeneratedShortCode() {
+        String shortCode = shortCodes[ThreadLocalRandom.current().nextInt(shortCodes.length)];
+        return linkManager.findByShortCode(shortCode).orElseThrow();
+    }
+}
@@ -0,0 +1,29 @@
+package com.urlshortener.benchmarks;
+
+import java.lang.reflect.Proxy;
+import java.util.Map;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Minimal HttpServletRequest answering the header and address lookups made on the redirect path.
+ */
+final class StubHttpServletRequest {
+
+    private StubHttpServletRequest() {
+    }
+
+    static HttpServletRequest create(Map<String, String> headers, String remoteAddr) {
+        return (HttpServletRequest) Proxy.newProxyInstance(
+                HttpServletRequest.class.getClassLoader(),
+                new Class<?>[] {HttpServletRequest.class},
+                (proxy, method, args) -> switch (method.getName()) {
+                    case "getHeader" -> headers.get((String) args[0]);
+                    case "getRemoteAddr" -> remoteAddr;
+                    case "hashCode" -> System.identityHashCode(proxy);
+                    case "equals" -> proxy == args[0];
+                    case "toString" -> "StubHttpServletRequest";
+                    default -> null;
+                });
+    }
+}
@@ -0,0 +1,52 @@
+package com.urlshortener.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.codahale.metrics.ExponentiallyDecayingReservoir;
+import com.codahale.metrics.Timer;
+import com.urlshortener.metrics.HdrHistogramReservoir;
+
+/**
+ * Cost of recording one duration in a redirect stage timer, with the metrics library's default
+ * reservoir and with {@link HdrHistogramReservoir}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TimerReservoirBenchmark {
+
+    @Param({"EXPONENTIALLY_DECAYING", "HDR_HISTOGRAM"})
+    private String reservoir;
+
+    private Timer timer;
+    private long duration;
+
+    @Setup
+    public void setUp() {
+        timer = new Timer(reservoir.equals("HDR_HISTOGRAM")
+                ? new HdrHistogramReservoir()
+                : new ExponentiallyDecayingReservoir());
+    }
+
+    @Benchmark
+    public void update() {
+        // Spread over several orders of magnitude, like lookups that hit the cache or the database
+        duration = (duration * 31 + 7_919) & 0xFFFFF;
+        timer.update(duration, TimeUnit.NANOSECONDS);
+    }
+}
@@ -1,5 +1,9 @@
 package com.urlshortener.events;
 
+import java.time.Instant;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 
@@ -17,6 +21,10 @@ public class ClickEvent {
     private String ipAddress;   // Optional: Client IP (consider privacy)
     private String referer;     // Optional: Referring URL
 
+    // The timestamp as epoch millis, once known: set by the binary format and when the timestamp is parsed
+    @JsonIgnore
+    private Long timestampMillis;
+
     // Default constructor
     public ClickEvent() {
     }
@@ -39,6 +47,13 @@ public class ClickEvent {
         this.referer = referer;
     }
 
+    // Constructor with all fields, from a clock reading
+    public ClickEvent(Long linkId, String shortCode, Instant timestamp,
+                     String userAgent, String ipAddress, String referer) {
+        this(linkId, shortCode, timestamp.toString(), userAgent, ipAddress, referer);
+        this.timestampMillis = timestamp.toEpochMilli();
+    }
+
     // Getters
     public Long getLinkId() {
         return linkId;
@@ -52,6 +67,10 @@ public class ClickEvent {
         return timestamp;
     }
 
+    public Long getTimestampMillis() {
+        return timestampMillis;
+    }
+
     public String getUserAgent() {
         return userAgent;
     }
@@ -75,6 +94,12 @@ public class ClickEvent {
 
     public void setTimestamp(String timestamp) {
         this.timestamp = timestamp;
+        this.timestampMillis = null;
+    }
+
+    // Caches the epoch millis of the current timestamp string once it has been parsed
+    void setTimestampMillis(long timestampMillis) {
+        this.timestampMillis = timestampMillis;
     }
 
     public void setUserAgent(String userAgent) {
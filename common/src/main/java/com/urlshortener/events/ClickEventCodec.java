@@ -0,0 +1,214 @@
+package com.urlshortener.events;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeParseException;
+
+/**
+ * Compact binary encoding of {@link ClickEvent}, the alternative to JSON on the link_clicks topic.
+ *
+ * <p>An encoded event is
+ * <pre>
+ * [magic 0xC1][version][linkId varint][timestamp epoch millis varint][shortCode length varint][shortCode]
+ * [tag varint][length varint][value]...
+ * </pre>
+ * Strings are UTF-8 and varints are unsigned LEB128. The optional fields follow as tagged,
+ * length-prefixed entries that are omitted when null. Readers skip tags they do not know, so new
+ * optional fields can be added under new tags without changing the version; the version only
+ * changes if the fixed fields do, and readers reject versions newer than their own. The magic
+ * byte can never start a JSON document, so consumers can tell the two formats apart by the first
+ * byte.
+ */
+public final class ClickEventCodec {
+
+    public static final byte MAGIC = (byte) 0xC1;
+    public static final byte VERSION = 1;
+
+    private static final int USER_AGENT_TAG = 1;
+    private static final int IP_ADDRESS_TAG = 2;
+    private static final int REFERER_TAG = 3;
+
+    private ClickEventCodec() {
+    }
+
+    /**
+     * Whether {@code data} is in this format rather than JSON.
+     */
+    public static boolean isBinary(byte[] data) {
+        return data != null && data.length > 0 && data[0] == MAGIC;
+    }
+
+    /**
+     * @throws IllegalArgumentException if the link id, short code or timestamp is missing, or the
+     *                                  timestamp is not ISO-8601
+     */
+    public static byte[] encode(ClickEvent event) {
+        if (event.getLinkId() == null || event.getShortCode() == null) {
+            throw new IllegalArgumentException("Click event needs a link id and short code: " + event);
+        }
+        byte[] shortCode = event.getShortCode().getBytes(StandardCharsets.UTF_8);
+        byte[] userAgent = utf8(event.getUserAgent());
+        byte[] ipAddress = utf8(event.getIpAddress());
+        byte[] referer = utf8(event.getReferer());
+        long linkId = event.getLinkId();
+        long timestamp = timestampMillis(event);
+
+        int size = 2 + varLongSize(linkId) + varLongSize(timestamp) + varLongSize(shortCode.length) + shortCode.length
+                + fieldSize(userAgent) + fieldSize(ipAddress) + fieldSize(referer);
+        Writer writer = new Writer(size);
+        writer.data[writer.position++] = MAGIC;
+        writer.data[writer.position++] = VERSION;
+        writer.varLong(linkId);
+        writer.varLong(timestamp);
+        writer.bytes(shortCode);
+        writer.field(USER_AGENT_TAG, userAgent);
+        writer.field(IP_ADDRESS_TAG, ipAddress);
+        writer.field(REFERER_TAG, referer);
+        return writer.data;
+    }
+
+    /**
+     * @throws IllegalArgumentException if {@code data} is not an encoded click event of a known version
+     */
+    public static ClickEvent decode(byte[] data) {
+        if (!isBinary(data)) {
+            throw new IllegalArgumentException("Not a binary click event");
+        }
+        Reader reader = new Reader(data);
+        reader.position = 1;
+        int version = reader.readByte();
+        if (version < 1 || version > VERSION) {
+            throw new IllegalArgumentException("Unsupported click event version " + version);
+        }
+
+        long linkId = reader.varLong();
+        long timestamp = reader.varLong();
+        String shortCode = reader.string();
+        String userAgent = null;
+        String ipAddress = null;
+        String referer = null;
+        while (reader.position < data.length) {
+            long tag = reader.varLong();
+            switch ((int) Math.min(tag, Integer.MAX_VALUE)) {
+                case USER_AGENT_TAG -> userAgent = reader.string();
+                case IP_ADDRESS_TAG -> ipAddress = reader.string();
+                case REFERER_TAG -> referer = reader.string();
+                default -> reader.skip();
+            }
+        }
+
+        return new ClickEvent(linkId, shortCode, Instant.ofEpochMilli(timestamp), userAgent, ipAddress, referer);
+    }
+
+    private static long timestampMillis(ClickEvent event) {
+        if (event.getTimestampMillis() != null) {
+            return event.getTimestampMillis();
+        }
+        if (event.getTimestamp() == null) {
+            throw new IllegalArgumentException("Click event has no timestamp: " + event);
+        }
+        try {
+            return OffsetDateTime.parse(event.getTimestamp()).toInstant().toEpochMilli();
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Click event timestamp is not ISO-8601: " + event.getTimestamp(), e);
+        }
+    }
+
+    private static byte[] utf8(String value) {
+        return value == null ? null : value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int fieldSize(byte[] value) {
+        return value == null ? 0 : 1 + varLongSize(value.length) + value.length;
+    }
+
+    private static int varLongSize(long value) {
+        int size = 1;
+        while ((value & ~0x7FL) != 0) {
+            value >>>= 7;
+            size++;
+        }
+        return size;
+    }
+
+    private static final class Writer {
+
+        private final byte[] data;
+        private int position;
+
+        Writer(int size) {
+            this.data = new byte[size];
+        }
+
+        void varLong(long value) {
+            while ((value & ~0x7FL) != 0) {
+                data[position++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            data[position++] = (byte) value;
+        }
+
+        void bytes(byte[] value) {
+            varLong(value.length);
+            System.arraycopy(value, 0, data, position, value.length);
+            position += value.length;
+        }
+
+        void field(int tag, byte[] value) {
+            if (value != null) {
+                varLong(tag);
+                bytes(value);
+            }
+        }
+    }
+
+    private static final class Reader {
+
+        private final byte[] data;
+        private int position;
+
+        Reader(byte[] data) {
+            this.data = data;
+        }
+
+        int readByte() {
+            if (position >= data.length) {
+                throw new IllegalArgumentException("Click event is truncated");
+            }
+            return data[position++] & 0xFF;
+        }
+
+        long varLong() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = readByte();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new IllegalArgumentException("Click event has a malformed varint");
+        }
+
+        int length() {
+            long length = varLong();
+            if (length < 0 || length > data.length - position) {
+                throw new IllegalArgumentException("Click event is truncated");
+            }
+            return (int) length;
+        }
+
+        String string() {
+            int length = length();
+            String value = new String(data, position, length, StandardCharsets.UTF_8);
+            position += length;
+            return value;
+        }
+
+        void skip() {
+            int length = length();
+            position += length;
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.urlshortener.events;
+
+import java.io.IOException;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+
+/**
+ * Reads a JSON click event with Jackson's streaming parser, field by field, instead of through
+ * databind. Values are coerced the way databind would coerce them into {@link ClickEvent}'s
+ * properties: numeric strings are accepted for the link id and scalars for the string fields.
+ * Unknown fields are skipped so that producers can add fields ahead of consumers.
+ */
+public class ClickEventJsonReader {
+
+    private final JsonFactory jsonFactory;
+
+    public ClickEventJsonReader(JsonFactory jsonFactory) {
+        this.jsonFactory = jsonFactory;
+    }
+
+    /**
+     * @throws JsonProcessingException if the input is not a JSON object or a field has the wrong type
+     */
+    public ClickEvent read(String json) throws JsonProcessingException {
+        try (JsonParser parser = jsonFactory.createParser(json)) {
+            return read(parser);
+        } catch (JsonProcessingException e) {
+            throw e;
+        } catch (IOException e) {
+            // Reading from a String does no I/O
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * @throws JsonProcessingException if the input is not a JSON object or a field has the wrong type
+     */
+    public ClickEvent read(byte[] json) throws JsonProcessingException {
+        try (JsonParser parser = jsonFactory.createParser(json)) {
+            return read(parser);
+        } catch (JsonProcessingException e) {
+            throw e;
+        } catch (IOException e) {
+            // Reading from a byte array does no I/O
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static ClickEvent read(JsonParser parser) throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw new JsonParseException(parser, "Click event must be a JSON object");
+        }
+
+        ClickEvent event = new ClickEvent();
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            switch (field) {
+                case "linkId" -> event.setLinkId(readLong(parser, value));
+                case "shortCode" -> event.setShortCode(readString(parser, value));
+                case "timestamp" -> event.setTimestamp(readString(parser, value));
+                case "userAgent" -> event.setUserAgent(readString(parser, value));
+                case "ipAddress" -> event.setIpAddress(readString(parser, value));
+                case "referer" -> event.setReferer(readString(parser, value));
+                default -> parser.skipChildren();
+            }
+        }
+        return event;
+    }
+
+    private static Long readLong(JsonParser parser, JsonToken value) throws IOException {
+        switch (value) {
+            case VALUE_NULL:
+                return null;
+            case VALUE_NUMBER_INT:
+            case VALUE_NUMBER_FLOAT:
+                return parser.getValueAsLong();
+            case VALUE_STRING:
+                String text = parser.getText().trim();
+                if (isInteger(text)) {
+                    return Long.parseLong(text);
+                }
+                break;
+            default:
+                break;
+        }
+        throw new JsonParseException(parser, "Cannot read " + parser.currentName() + " as a number: " + value);
+    }
+
+    // Up to 18 digits always fit in a long
+    private static boolean isInteger(String text) {
+        int start = text.startsWith("-") ? 1 : 0;
+        if (text.length() == start || text.length() - start > 18) {
+            return false;
+        }
+        for (int i = start; i < text.length(); i++) {
+            if (text.charAt(i) < '0' || text.charAt(i) > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String readString(JsonParser parser, JsonToken value) throws IOException {
+        if (value == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (!value.isScalarValue()) {
+            throw new JsonParseException(parser, "Cannot read " + parser.currentName() + " as a string: " + value);
+        }
+        return parser.getText();
+    }
+}
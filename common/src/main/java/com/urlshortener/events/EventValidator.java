@@ -0,0 +1,205 @@
+package com.urlshortener.events;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.Month;
+import java.time.OffsetDateTime;
+import java.time.Year;
+import java.time.format.DateTimeFormatter;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Decodes and validates click events. JSON is read with {@link ClickEventJsonReader} and every
+ * check is made by hand in one pass over the fields, rather than through databind and reflective
+ * Bean Validation; the messages are the ones Bean Validation gave for {@link ClickEvent}'s
+ * constraints. Timestamps in the usual ISO-8601 shape are parsed without exceptions, and only
+ * unusual or invalid ones fall back to {@link DateTimeFormatter}.
+ */
+public class EventValidator {
+
+    // Returned by parseIsoMillis when the timestamp is not in the shape it handles
+    private static final long NOT_PARSED = Long.MIN_VALUE;
+
+    private final ClickEventJsonReader jsonReader;
+
+    public EventValidator(ObjectMapper objectMapper) {
+        this.jsonReader = new ClickEventJsonReader(objectMapper.getFactory());
+    }
+
+    public boolean isValidClickEvent(String jsonMessage) {
+        try {
+            parseAndValidate(jsonMessage);
+            return true;
+        } catch (ValidationException | JsonProcessingException e) {
+            return false;
+        }
+    }
+
+    public ClickEvent parseAndValidate(String jsonMessage) throws ValidationException, JsonProcessingException {
+        if (jsonMessage == null || jsonMessage.trim().isEmpty()) {
+            throw new ValidationException("JSON message cannot be null or empty");
+        }
+        return validate(jsonReader.read(jsonMessage));
+    }
+
+    public ClickEvent parseAndValidate(byte[] jsonMessage) throws ValidationException, JsonProcessingException {
+        if (jsonMessage == null || jsonMessage.length == 0) {
+            throw new ValidationException("JSON message cannot be null or empty");
+        }
+        return validate(jsonReader.read(jsonMessage));
+    }
+
+    /**
+     * Validates an event that has already been decoded, from JSON or the binary format.
+     */
+    public ClickEvent validate(ClickEvent clickEvent) throws ValidationException {
+        // The @NotNull/@NotBlank constraints of ClickEvent, with Bean Validation's messages
+        StringBuilder violations = null;
+        if (clickEvent.getLinkId() == null) {
+            violations = violation(violations, "linkId must not be null");
+        }
+        if (isBlank(clickEvent.getShortCode())) {
+            violations = violation(violations, "shortCode must not be blank");
+        }
+        if (clickEvent.getTimestampMillis() == null && isBlank(clickEvent.getTimestamp())) {
+            violations = violation(violations, "timestamp must not be blank");
+        }
+        if (violations != null) {
+            throw new ValidationException(violations.toString());
+        }
+
+        if (clickEvent.getLinkId() <= 0) {
+            throw new ValidationException("LinkId must be a positive number, got: " + clickEvent.getLinkId());
+        }
+        validateTimestamp(clickEvent);
+
+        return clickEvent;
+    }
+
+    private static StringBuilder violation(StringBuilder violations, String violation) {
+        StringBuilder sb = violations != null ? violations : new StringBuilder("Validation failed: ");
+        return sb.append(violation).append("; ");
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.trim().isEmpty();
+    }
+
+    private void validateTimestamp(ClickEvent clickEvent) throws ValidationException {
+        // Binary events carry epoch millis, so there is nothing to parse
+        if (clickEvent.getTimestampMillis() != null) {
+            return;
+        }
+
+        // The result is kept for writing the click
+        String timestamp = clickEvent.getTimestamp();
+        long millis = parseIsoMillis(timestamp);
+        if (millis != NOT_PARSED) {
+            clickEvent.setTimestampMillis(millis);
+            return;
+        }
+
+        try {
+            // Validate ISO-8601 format - try multiple common formats
+            clickEvent.setTimestampMillis(OffsetDateTime.parse(timestamp, DateTimeFormatter.ISO_OFFSET_DATE_TIME)
+                    .toInstant().toEpochMilli());
+        } catch (Exception e1) {
+            if (timestamp.endsWith("Z")) {
+                try {
+                    clickEvent.setTimestampMillis(Instant.from(DateTimeFormatter.ISO_INSTANT.parse(timestamp))
+                            .toEpochMilli());
+                    return;
+                } catch (Exception e2) {
+                    // Fall through to error
+                }
+            }
+            throw new ValidationException("Timestamp must be in ISO-8601 format, got: " + timestamp, e1);
+        }
+    }
+
+    /**
+     * Parses {@code yyyy-MM-ddTHH:mm[:ss[.fraction]]} followed by {@code Z} or {@code ±HH:mm}, the
+     * forms producers send, into epoch millis.
+     *
+     * @return The epoch millis, or {@link #NOT_PARSED} if the timestamp has another shape or an
+     *         out-of-range field
+     */
+    static long parseIsoMillis(String text) {
+        int length = text.length();
+        if (length < 17 || text.charAt(4) != '-' || text.charAt(7) != '-' || text.charAt(10) != 'T'
+                || text.charAt(13) != ':') {
+            return NOT_PARSED;
+        }
+        int year = digits(text, 0, 4);
+        int month = digits(text, 5, 2);
+        int day = digits(text, 8, 2);
+        int hour = digits(text, 11, 2);
+        int minute = digits(text, 14, 2);
+        if (year < 0 || month < 1 || month > 12 || day < 1 || hour < 0 || hour > 23 || minute < 0 || minute > 59
+                || day > Month.of(month).length(Year.isLeap(year))) {
+            return NOT_PARSED;
+        }
+
+        int position = 16;
+        int second = 0;
+        int millis = 0;
+        if (position < length && text.charAt(position) == ':') {
+            second = position + 3 <= length ? digits(text, position + 1, 2) : -1;
+            if (second < 0 || second > 59) {
+                return NOT_PARSED;
+            }
+            position += 3;
+            if (position < length && text.charAt(position) == '.') {
+                int fractionStart = ++position;
+                while (position < length && Character.isDigit(text.charAt(position)) && position - fractionStart < 9) {
+                    if (position - fractionStart < 3) {
+                        millis = millis * 10 + (text.charAt(position) - '0');
+                    }
+                    position++;
+                }
+                int fractionDigits = position - fractionStart;
+                if (fractionDigits == 0) {
+                    return NOT_PARSED;
+                }
+                for (int i = fractionDigits; i < 3; i++) {
+                    millis *= 10;
+                }
+            }
+        }
+
+        int offsetSeconds;
+        if (position == length - 1 && text.charAt(position) == 'Z') {
+            offsetSeconds = 0;
+        } else if (position == length - 6 && (text.charAt(position) == '+' || text.charAt(position) == '-')
+                && text.charAt(position + 3) == ':') {
+            int offsetHours = digits(text, position + 1, 2);
+            int offsetMinutes = digits(text, position + 4, 2);
+            if (offsetHours < 0 || offsetHours > 18 || offsetMinutes < 0 || offsetMinutes > 59
+                    || offsetHours == 18 && offsetMinutes > 0) {
+                return NOT_PARSED;
+            }
+            offsetSeconds = (text.charAt(position) == '-' ? -1 : 1) * (offsetHours * 3600 + offsetMinutes * 60);
+        } else {
+            return NOT_PARSED;
+        }
+
+        long epochSecond = LocalDate.of(year, month, day).toEpochDay() * 86_400L
+                + hour * 3600L + minute * 60L + second - offsetSeconds;
+        return epochSecond * 1000 + millis;
+    }
+
+    // Value of count ASCII digits starting at start, or -1 if any is not a digit
+    private static int digits(String text, int start, int count) {
+        int value = 0;
+        for (int i = start; i < start + count; i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+}
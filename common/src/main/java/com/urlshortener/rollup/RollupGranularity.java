@@ -0,0 +1,64 @@
+package com.urlshortener.rollup;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * The click rollup tables the telemetry consumer maintains and the API reads, by the length of
+ * their buckets. Buckets start on whole minutes, hours and days in UTC.
+ */
+public enum RollupGranularity {
+    MINUTE("click_rollups_minute", ChronoUnit.MINUTES),
+    HOUR("click_rollups_hour", ChronoUnit.HOURS),
+    DAY("click_rollups_day", ChronoUnit.DAYS);
+
+    private final String table;
+    private final ChronoUnit unit;
+    private final long bucketMillis;
+
+    RollupGranularity(String table, ChronoUnit unit) {
+        this.table = table;
+        this.unit = unit;
+        this.bucketMillis = unit.getDuration().toMillis();
+    }
+
+    public String getTable() {
+        return table;
+    }
+
+    /**
+     * @return the start of the bucket holding {@code epochMillis}
+     */
+    public long bucketStart(long epochMillis) {
+        return epochMillis - Math.floorMod(epochMillis, bucketMillis);
+    }
+
+    public Instant bucketStart(Instant instant) {
+        return instant.truncatedTo(unit);
+    }
+
+    public Instant bucketEnd(Instant instant) {
+        Instant start = bucketStart(instant);
+        return start.equals(instant) ? start : start.plus(1, unit);
+    }
+
+    /**
+     * @return the number of buckets covering {@code from} to {@code to}
+     */
+    public long bucketsBetween(Instant from, Instant to) {
+        return unit.between(bucketStart(from), bucketEnd(to));
+    }
+
+    /**
+     * @return the finest granularity covering the range in at most {@code maxBuckets} buckets, or
+     * {@link #DAY} if none does
+     */
+    public static RollupGranularity finestFor(Instant from, Instant to, long maxBuckets) {
+        for (RollupGranularity granularity : values()) {
+            if (granularity.bucketsBetween(from, to) <= maxBuckets) {
+                return granularity;
+            }
+        }
+        return DAY;
+    }
+}
@@ -0,0 +1,353 @@
+package com.urlshortener.sketch;
+
+import java.util.Arrays;
+
+/**
+ * HyperLogLog sketch estimating the number of distinct 64-bit hashes added to it. With the
+ * default precision of 14 the estimate is within about 0.8% (one standard error) however many
+ * values are added, and two sketches merge into the sketch of the union of their values, so
+ * sketches kept per time bucket or per consumer can be combined afterwards.
+ *
+ * <p>A sketch that has seen few values keeps only the registers it has set, sorted, and switches
+ * to one byte per register once that would be smaller. {@link #toBytes()} writes the same two
+ * forms, so a link with a handful of visitors is stored in a few bytes rather than 16 KB.
+ * Estimates use Ertl's improved estimator, which needs no bias correction tables or separate
+ * small range handling. Not thread-safe.
+ */
+public final class HyperLogLog {
+
+    public static final int DEFAULT_PRECISION = 14;
+    public static final int MIN_PRECISION = 4;
+    public static final int MAX_PRECISION = 18;
+
+    private static final byte FORMAT_VERSION = 1;
+    private static final byte SPARSE = 0;
+    private static final byte DENSE = 1;
+    private static final int HEADER_LENGTH = 3;
+
+    // Sparse entries are the register index above a 6 bit value, so they sort by index
+    private static final int VALUE_BITS = 6;
+    private static final int VALUE_MASK = (1 << VALUE_BITS) - 1;
+
+    private final int precision;
+    private final int registerCount;
+    private final int sparseLimit;
+
+    private int[] sparse;
+    private int sparseSize;
+    // Null until the sketch turns dense
+    private byte[] registers;
+
+    public HyperLogLog() {
+        this(DEFAULT_PRECISION);
+    }
+
+    public HyperLogLog(int precision) {
+        if (precision < MIN_PRECISION || precision > MAX_PRECISION) {
+            throw new IllegalArgumentException("precision must be between " + MIN_PRECISION + " and "
+                    + MAX_PRECISION + ", got: " + precision);
+        }
+        this.precision = precision;
+        this.registerCount = 1 << precision;
+        // A sparse entry takes 4 bytes in memory against 1 per dense register
+        this.sparseLimit = registerCount / 4;
+        this.sparse = new int[Math.min(8, sparseLimit)];
+    }
+
+    public int getPrecision() {
+        return precision;
+    }
+
+    /**
+     * Adds a value by its hash. The hash must be well mixed over all 64 bits, such as a murmur3
+     * hash; the same value must always hash the same way for sketches to merge.
+     */
+    public void add(long hash) {
+        int index = (int) (hash >>> (64 - precision));
+        // Leading zeros after the index bits, plus one; the guard bit caps it at 65 - precision
+        int value = Long.numberOfLeadingZeros((hash << precision) | (1L << (precision - 1))) + 1;
+        set(index, value);
+    }
+
+    /**
+     * Folds {@code other} into this sketch, which then estimates the union of both.
+     *
+     * @throws IllegalArgumentException if the sketches have different precisions
+     */
+    public void merge(HyperLogLog other) {
+        if (other.precision != precision) {
+            throw new IllegalArgumentException("Cannot merge a sketch of precision " + other.precision
+                    + " into one of precision " + precision);
+        }
+        if (other.registers != null) {
+            toDense();
+            for (int i = 0; i < registerCount; i++) {
+                if (other.registers[i] > registers[i]) {
+                    registers[i] = other.registers[i];
+                }
+            }
+        } else if (registers != null) {
+            for (int i = 0; i < other.sparseSize; i++) {
+                set(indexOf(other.sparse[i]), valueOf(other.sparse[i]));
+            }
+        } else {
+            mergeSparse(other);
+        }
+    }
+
+    /**
+     * @return the estimated number of distinct hashes added
+     */
+    public long estimate() {
+        int maxValue = 65 - precision;
+        int[] histogram = new int[maxValue + 1];
+        if (registers != null) {
+            for (byte value : registers) {
+                histogram[value]++;
+            }
+        } else {
+            histogram[0] = registerCount - sparseSize;
+            for (int i = 0; i < sparseSize; i++) {
+                histogram[valueOf(sparse[i])]++;
+            }
+        }
+
+        double m = registerCount;
+        double z = m * tau((m - histogram[maxValue]) / m);
+        for (int k = maxValue - 1; k >= 1; k--) {
+            z = 0.5 * (z + histogram[k]);
+        }
+        z += m * sigma(histogram[0] / m);
+        return Math.round(m * m / (2 * Math.log(2)) / z);
+    }
+
+    /**
+     * Serializes the sketch: a version byte, the precision and the form, followed for a sparse
+     * sketch by the number of registers set and the delta of each entry from the last as varints,
+     * or for a dense one by a byte per register.
+     */
+    public byte[] toBytes() {
+        if (registers != null) {
+            byte[] bytes = new byte[HEADER_LENGTH + registerCount];
+            writeHeader(bytes, DENSE);
+            System.arraycopy(registers, 0, bytes, HEADER_LENGTH, registerCount);
+            return bytes;
+        }
+
+        byte[] bytes = new byte[HEADER_LENGTH + 5 * (sparseSize + 1)];
+        writeHeader(bytes, SPARSE);
+        int position = writeVarint(bytes, HEADER_LENGTH, sparseSize);
+        int previous = 0;
+        for (int i = 0; i < sparseSize; i++) {
+            position = writeVarint(bytes, position, sparse[i] - previous);
+            previous = sparse[i];
+        }
+        return Arrays.copyOf(bytes, position);
+    }
+
+    /**
+     * Reads a sketch written by {@link #toBytes()}.
+     *
+     * @throws IllegalArgumentException if the bytes are not a sketch this version can read
+     */
+    public static HyperLogLog fromBytes(byte[] bytes) {
+        if (bytes.length < HEADER_LENGTH || bytes[0] != FORMAT_VERSION) {
+            throw new IllegalArgumentException("Not a version " + FORMAT_VERSION + " HyperLogLog sketch");
+        }
+        HyperLogLog sketch = new HyperLogLog(bytes[1]);
+        int maxValue = 65 - sketch.precision;
+
+        if (bytes[2] == DENSE) {
+            if (bytes.length != HEADER_LENGTH + sketch.registerCount) {
+                throw new IllegalArgumentException("Dense sketch has " + (bytes.length - HEADER_LENGTH)
+                        + " registers, expected " + sketch.registerCount);
+            }
+            sketch.registers = Arrays.copyOfRange(bytes, HEADER_LENGTH, bytes.length);
+            for (byte value : sketch.registers) {
+                if (value < 0 || value > maxValue) {
+                    throw new IllegalArgumentException("Register value out of range: " + value);
+                }
+            }
+            sketch.sparse = null;
+            return sketch;
+        }
+        if (bytes[2] != SPARSE) {
+            throw new IllegalArgumentException("Unknown sketch form: " + bytes[2]);
+        }
+
+        int[] cursor = {HEADER_LENGTH};
+        int count = readVarint(bytes, cursor);
+        int entry = 0;
+        for (int i = 0; i < count; i++) {
+            int delta = readVarint(bytes, cursor);
+            entry += delta;
+            int value = valueOf(entry);
+            if ((i > 0 && delta == 0) || indexOf(entry) >= sketch.registerCount || value < 1 || value > maxValue) {
+                throw new IllegalArgumentException("Invalid sparse entry at position " + i);
+            }
+            sketch.set(indexOf(entry), value);
+        }
+        if (cursor[0] != bytes.length) {
+            throw new IllegalArgumentException("Trailing bytes after sparse sketch");
+        }
+        return sketch;
+    }
+
+    private void set(int index, int value) {
+        if (registers != null) {
+            if (value > registers[index]) {
+                registers[index] = (byte) value;
+            }
+            return;
+        }
+
+        int position = findSparse(index);
+        if (position >= 0) {
+            if (value > valueOf(sparse[position])) {
+                sparse[position] = entry(index, value);
+            }
+            return;
+        }
+        if (sparseSize == sparseLimit) {
+            toDense();
+            registers[index] = (byte) value;
+            return;
+        }
+        if (sparseSize == sparse.length) {
+            sparse = Arrays.copyOf(sparse, Math.min(Math.max(sparseSize * 2, 8), sparseLimit));
+        }
+        int insertAt = -position - 1;
+        System.arraycopy(sparse, insertAt, sparse, insertAt + 1, sparseSize - insertAt);
+        sparse[insertAt] = entry(index, value);
+        sparseSize++;
+    }
+
+    // Merges two sorted entry lists in one pass instead of inserting one entry at a time
+    private void mergeSparse(HyperLogLog other) {
+        int[] merged = new int[sparseSize + other.sparseSize];
+        int size = 0;
+        int i = 0;
+        int j = 0;
+        while (i < sparseSize || j < other.sparseSize) {
+            int index = i < sparseSize ? indexOf(sparse[i]) : Integer.MAX_VALUE;
+            int otherIndex = j < other.sparseSize ? indexOf(other.sparse[j]) : Integer.MAX_VALUE;
+            if (index < otherIndex) {
+                merged[size++] = sparse[i++];
+            } else if (otherIndex < index) {
+                merged[size++] = other.sparse[j++];
+            } else {
+                merged[size++] = Math.max(sparse[i++], other.sparse[j++]);
+            }
+        }
+
+        sparse = merged;
+        sparseSize = size;
+        if (sparseSize > sparseLimit) {
+            toDense();
+        }
+    }
+
+    private int findSparse(int index) {
+        int low = 0;
+        int high = sparseSize - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            int middleIndex = indexOf(sparse[middle]);
+            if (middleIndex < index) {
+                low = middle + 1;
+            } else if (middleIndex > index) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -(low + 1);
+    }
+
+    private void toDense() {
+        if (registers != null) {
+            return;
+        }
+        registers = new byte[registerCount];
+        for (int i = 0; i < sparseSize; i++) {
+            registers[indexOf(sparse[i])] = (byte) valueOf(sparse[i]);
+        }
+        sparse = null;
+        sparseSize = 0;
+    }
+
+    private void writeHeader(byte[] bytes, byte form) {
+        bytes[0] = FORMAT_VERSION;
+        bytes[1] = (byte) precision;
+        bytes[2] = form;
+    }
+
+    private static int entry(int index, int value) {
+        return index << VALUE_BITS | value;
+    }
+
+    private static int indexOf(int entry) {
+        return entry >>> VALUE_BITS;
+    }
+
+    private static int valueOf(int entry) {
+        return entry & VALUE_MASK;
+    }
+
+    private static int writeVarint(byte[] bytes, int position, int value) {
+        while ((value & ~0x7F) != 0) {
+            bytes[position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        bytes[position++] = (byte) value;
+        return position;
+    }
+
+    private static int readVarint(byte[] bytes, int[] cursor) {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            if (cursor[0] >= bytes.length) {
+                throw new IllegalArgumentException("Sparse sketch is truncated");
+            }
+            byte b = bytes[cursor[0]++];
+            value |= (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Malformed varint in sparse sketch");
+    }
+
+    // sigma and tau from Ertl, "New cardinality estimation algorithms for HyperLogLog sketches"
+    private static double sigma(double x) {
+        if (x == 1) {
+            return Double.POSITIVE_INFINITY;
+        }
+        double y = 1;
+        double z = x;
+        double previous;
+        do {
+            x *= x;
+            previous = z;
+            z += x * y;
+            y += y;
+        } while (z != previous);
+        return z;
+    }
+
+    private static double tau(double x) {
+        if (x == 0 || x == 1) {
+            return 0;
+        }
+        double y = 1;
+        double z = 1 - x;
+        double previous;
+        do {
+            x = Math.sqrt(x);
+            previous = z;
+            y *= 0.5;
+            z -= (1 - x) * (1 - x) * y;
+        } while (z != previous);
+        return z / 3;
+    }
+}
@@ -0,0 +1,98 @@
+package com.urlshortener.events;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+public class ClickEventCodecTest {
+
+    private static final ClickEvent EVENT = new ClickEvent(125000L, "wwy", Instant.parse("2024-01-15T10:30:00.123Z"),
+            "Mozilla/5.0 (Macintosh; Intel Mac OS X 10_15_7)", "203.0.113.42", "https://news.example.com/article");
+
+    @Test
+    void itRoundTripsEveryField() {
+        // When
+        ClickEvent decoded = ClickEventCodec.decode(ClickEventCodec.encode(EVENT));
+
+        // Then
+        assertEquals(EVENT, decoded);
+        assertEquals(EVENT.getUserAgent(), decoded.getUserAgent());
+        assertEquals(EVENT.getIpAddress(), decoded.getIpAddress());
+        assertEquals(EVENT.getReferer(), decoded.getReferer());
+        assertEquals(1705314600123L, decoded.getTimestampMillis());
+    }
+
+    @Test
+    void itOmitsMissingOptionalFields() {
+        // Given
+        ClickEvent event = new ClickEvent(1L, "a", "2024-01-15T10:30:00Z");
+
+        // When
+        byte[] encoded = ClickEventCodec.encode(event);
+        ClickEvent decoded = ClickEventCodec.decode(encoded);
+
+        // Then: magic, version, 1-byte id, 6-byte timestamp and the length-prefixed code
+        assertEquals(11, encoded.length);
+        assertEquals("2024-01-15T10:30:00Z", decoded.getTimestamp());
+        assertNull(decoded.getUserAgent());
+        assertNull(decoded.getIpAddress());
+        assertNull(decoded.getReferer());
+    }
+
+    @Test
+    void itIsSmallerThanJsonAndTellsTheFormatsApart() throws Exception {
+        // Given
+        byte[] json = new ObjectMapper().writeValueAsBytes(EVENT);
+
+        // When
+        byte[] binary = ClickEventCodec.encode(EVENT);
+
+        // Then
+        assertTrue(binary.length < json.length - 80, binary.length + " vs " + json.length);
+        assertTrue(ClickEventCodec.isBinary(binary));
+        assertFalse(ClickEventCodec.isBinary(json));
+    }
+
+    @Test
+    void itSkipsFieldsAddedByNewerWriters() {
+        // Given: an encoded event followed by an unknown tag 9 field
+        byte[] encoded = ClickEventCodec.encode(EVENT);
+        byte[] extended = Arrays.copyOf(encoded, encoded.length + 5);
+        byte[] field = {9, 3, 'n', 'e', 'w'};
+        System.arraycopy(field, 0, extended, encoded.length, field.length);
+
+        // When
+        ClickEvent decoded = ClickEventCodec.decode(extended);
+
+        // Then
+        assertEquals(EVENT, decoded);
+        assertEquals(EVENT.getReferer(), decoded.getReferer());
+    }
+
+    @Test
+    void itRejectsUnknownVersionsAndTruncatedEvents() {
+        // Given
+        byte[] encoded = ClickEventCodec.encode(EVENT);
+        byte[] newerVersion = encoded.clone();
+        newerVersion[1] = (byte) (ClickEventCodec.VERSION + 1);
+
+        // When/Then
+        assertThrows(IllegalArgumentException.class, () -> ClickEventCodec.decode(newerVersion));
+        assertThrows(IllegalArgumentException.class,
+                () -> ClickEventCodec.decode(Arrays.copyOf(encoded, encoded.length - 3)));
+        assertThrows(IllegalArgumentException.class,
+                () -> ClickEventCodec.decode("{}".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void itRejectsEventsWithoutATimestamp() {
+        assertThrows(IllegalArgumentException.class,
+                () -> ClickEventCodec.encode(new ClickEvent(1L, "a", null)));
+    }
+}
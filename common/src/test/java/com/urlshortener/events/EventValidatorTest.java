@@ -0,0 +1,190 @@
+package com.urlshortener.events;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.BeforeEach;
+import static org.junit.jupiter.api.Assertions.*;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+public class EventValidatorTest {
+
+    private EventValidator validator;
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void setUp() {
+        objectMapper = new ObjectMapper();
+        validator = new EventValidator(objectMapper);
+    }
+
+    @Test
+    void testValidClickEvent() throws ValidationException, JsonProcessingException {
+        String validJson = """
+            {
+                "linkId": 123,
+                "shortCode": "abc123",
+                "timestamp": "2025-08-24T10:30:00Z",
+                "userAgent": "Mozilla/5.0",
+                "ipAddress": "192.168.1.1",
+                "referer": "https://example.com"
+            }
+            """;
+
+        assertTrue(validator.isValidClickEvent(validJson));
+        ClickEvent event = validator.parseAndValidate(validJson);
+        assertEquals(123L, event.getLinkId());
+        assertEquals("abc123", event.getShortCode());
+        assertEquals("2025-08-24T10:30:00Z", event.getTimestamp());
+    }
+
+    @Test
+    void testInvalidLinkId() {
+        String invalidJson = """
+            {
+                "linkId": -1,
+                "shortCode": "abc123",
+                "timestamp": "2025-08-24T10:30:00Z"
+            }
+            """;
+
+        assertFalse(validator.isValidClickEvent(invalidJson));
+        assertThrows(ValidationException.class, () -> validator.parseAndValidate(invalidJson));
+    }
+
+    @Test
+    void testMissingShortCode() {
+        String invalidJson = """
+            {
+                "linkId": 123,
+                "timestamp": "2025-08-24T10:30:00Z"
+            }
+            """;
+
+        assertFalse(validator.isValidClickEvent(invalidJson));
+        assertThrows(ValidationException.class, () -> validator.parseAndValidate(invalidJson));
+    }
+
+    @Test
+    void testInvalidTimestamp() {
+        String invalidJson = """
+            {
+                "linkId": 123,
+                "shortCode": "abc123",
+                "timestamp": "invalid-timestamp"
+            }
+            """;
+
+        assertFalse(validator.isValidClickEvent(invalidJson));
+        assertThrows(ValidationException.class, () -> validator.parseAndValidate(invalidJson));
+    }
+
+    @Test
+    void testParsedTimestampIsKeptAsEpochMillis() throws ValidationException, JsonProcessingException {
+        String validJson = """
+            {
+                "linkId": 123,
+                "shortCode": "abc123",
+                "timestamp": "2025-08-24T12:30:00.250+02:00"
+            }
+            """;
+
+        ClickEvent event = validator.parseAndValidate(validJson);
+        assertEquals(1756031400250L, event.getTimestampMillis());
+    }
+
+    @Test
+    void testDecodedBinaryEventIsValidated() throws ValidationException {
+        ClickEvent valid = ClickEventCodec.decode(ClickEventCodec.encode(new ClickEvent(123L, "abc123", "2025-08-24T10:30:00Z")));
+        ClickEvent invalid = ClickEventCodec.decode(ClickEventCodec.encode(new ClickEvent(-1L, "abc123", "2025-08-24T10:30:00Z")));
+
+        assertEquals(valid, validator.validate(valid));
+        assertThrows(ValidationException.class, () -> validator.validate(invalid));
+    }
+
+    @Test
+    void testMissingFieldsAreReportedWithBeanValidationMessages() {
+        ValidationException e = assertThrows(ValidationException.class,
+                () -> validator.parseAndValidate("{\"shortCode\": \"  \", \"userAgent\": null}"));
+
+        assertEquals("Validation failed: linkId must not be null; shortCode must not be blank; "
+                + "timestamp must not be blank; ", e.getMessage());
+    }
+
+    @Test
+    void testMalformedJsonAndWrongTypesAreJsonErrors() {
+        assertThrows(JsonProcessingException.class, () -> validator.parseAndValidate("not json"));
+        assertThrows(JsonProcessingException.class, () -> validator.parseAndValidate("[1, 2]"));
+        assertThrows(JsonProcessingException.class,
+                () -> validator.parseAndValidate("{\"linkId\": \"abc\", \"shortCode\": \"a\"}"));
+        assertThrows(JsonProcessingException.class,
+                () -> validator.parseAndValidate("{\"linkId\": 1, \"shortCode\": {\"a\": 1}}"));
+    }
+
+    @Test
+    void testFieldsAreCoercedAndUnknownFieldsSkipped() throws Exception {
+        ClickEvent event = validator.parseAndValidate("""
+            {"linkId": "42", "shortCode": "abc", "timestamp": "2025-08-24T10:30:00Z",
+             "sessionId": {"nested": [1, 2]}, "userAgent": 7}
+            """.getBytes(java.nio.charset.StandardCharsets.UTF_8));
+
+        assertEquals(42L, event.getLinkId());
+        assertEquals("7", event.getUserAgent());
+    }
+
+    @Test
+    void testFastTimestampParsingMatchesDateTimeFormatter() {
+        for (String timestamp : List.of(
+            "2025-08-24T10:30Z",
+            "2025-08-24T10:30:00Z",
+            "2025-08-24T10:30:00.5Z",
+            "2025-08-24T10:30:00.123456789+05:30",
+            "2024-02-29T23:59:59.999-08:00",
+            "1969-12-31T23:59:59.001Z",
+            "2025-08-24T10:30:00+18:00"
+        )) {
+            assertEquals(OffsetDateTime.parse(timestamp).toInstant().toEpochMilli(), EventValidator.parseIsoMillis(timestamp));
+        }
+    }
+
+    @Test
+    void testOtherTimestampsAreLeftToDateTimeFormatter() {
+        for (String timestamp : List.of(
+            "2025-02-29T10:30:00Z",
+            "2025-13-01T10:30:00Z",
+            "2025-08-24T24:00:00Z",
+            "2025-08-24T10:30:00",
+            "2025-08-24T10:30:00.Z",
+            "2025-08-24 10:30:00Z",
+            "2025-08-24T10:30:00+19:00"
+        )) {
+            assertEquals(Long.MIN_VALUE, EventValidator.parseIsoMillis(timestamp));
+        }
+    }
+
+    @Test
+    void testInvalidTimestampsAreRejected() {
+        for (String timestamp : List.of(
+            "2025-02-29T10:30:00Z",
+            "2025-13-01T10:30:00Z",
+            "2025-08-24T10:30:00",
+            "2025-08-24 10:30:00Z",
+            "2025-08-24T10:30:00+19:00"
+        )) {
+            ValidationException e = assertThrows(ValidationException.class, () -> validator.parseAndValidate(
+                    "{\"linkId\": 1, \"shortCode\": \"a\", \"timestamp\": \"" + timestamp + "\"}"));
+            assertEquals("Timestamp must be in ISO-8601 format, got: " + timestamp, e.getMessage());
+        }
+    }
+
+    @Test
+    void testTimestampsOutsideTheFastPathAreStillAccepted() throws Exception {
+        ClickEvent event = validator.parseAndValidate(
+                "{\"linkId\": 1, \"shortCode\": \"a\", \"timestamp\": \"2025-08-24T10:30:00+05:30:15\"}");
+
+        assertEquals(OffsetDateTime.parse("2025-08-24T10:30:00+05:30:15").toInstant().toEpochMilli(),
+                event.getTimestampMillis());
+    }
+}
@@ -0,0 +1,35 @@
+package com.urlshortener.rollup;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+public class RollupGranularityTest {
+
+    private static final Instant CLICK = Instant.parse("2024-01-15T10:30:45.123Z");
+
+    @Test
+    void bucketStart_isTheSameForInstantsAndEpochMillis() {
+        for (RollupGranularity granularity : RollupGranularity.values()) {
+            assertEquals(granularity.bucketStart(CLICK).toEpochMilli(), granularity.bucketStart(CLICK.toEpochMilli()));
+        }
+        assertEquals(Instant.parse("2024-01-15T10:30:00Z"), RollupGranularity.MINUTE.bucketStart(CLICK));
+        assertEquals(Instant.parse("2024-01-15T00:00:00Z"), RollupGranularity.DAY.bucketStart(CLICK));
+    }
+
+    @Test
+    void bucketStart_roundsMillisBeforeTheEpochDown() {
+        assertEquals(-60_000L, RollupGranularity.MINUTE.bucketStart(-1L));
+    }
+
+    @Test
+    void finestFor_picksTheFinestGranularityWithinTheBucketLimit() {
+        Instant from = Instant.parse("2024-01-15T00:00:00Z");
+
+        assertEquals(RollupGranularity.MINUTE, RollupGranularity.finestFor(from, from.plusSeconds(3_600), 60));
+        assertEquals(RollupGranularity.HOUR, RollupGranularity.finestFor(from, from.plusSeconds(86_400), 60));
+        assertEquals(RollupGranularity.DAY, RollupGranularity.finestFor(from, from.plusSeconds(365L * 86_400), 60));
+    }
+}
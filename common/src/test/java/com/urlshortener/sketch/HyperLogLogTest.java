@@ -0,0 +1,131 @@
+package com.urlshortener.sketch;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+
+public class HyperLogLogTest {
+
+    // Stands in for the murmur3 hash the consumer uses; only needs to be well mixed
+    private static long hash(long value) {
+        long z = value + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    private static HyperLogLog sketchOf(long from, long to) {
+        HyperLogLog sketch = new HyperLogLog();
+        for (long i = from; i < to; i++) {
+            sketch.add(hash(i));
+        }
+        return sketch;
+    }
+
+    @Test
+    void estimate_staysWithinAFewStandardErrorsFromOneToAMillion() {
+        for (long distinct : List.of(1L, 10L, 100L, 1_000L, 5_000L, 20_000L, 50_000L, 1_000_000L)) {
+            // Given
+            HyperLogLog sketch = sketchOf(0, distinct);
+
+            // When
+            long estimate = sketch.estimate();
+
+            // Then
+            double error = Math.abs(estimate - distinct) / (double) distinct;
+            assertTrue(error < 0.03, distinct + " distinct values estimated as " + estimate);
+        }
+    }
+
+    @Test
+    void estimate_ignoresRepeatedValues() {
+        // Given
+        HyperLogLog sketch = new HyperLogLog();
+        SplittableRandom random = new SplittableRandom(42);
+
+        // When
+        for (int i = 0; i < 100_000; i++) {
+            sketch.add(hash(random.nextInt(500)));
+        }
+
+        // Then
+        assertEquals(500, sketch.estimate(), 10);
+    }
+
+    @Test
+    void estimate_isZeroForAnEmptySketch() {
+        assertEquals(0, new HyperLogLog().estimate());
+        assertEquals(0, HyperLogLog.fromBytes(new HyperLogLog().toBytes()).estimate());
+    }
+
+    @Test
+    void merge_estimatesTheUnion() {
+        // Given sparse and dense sketches over overlapping ranges
+        List<long[]> ranges = List.of(
+                new long[] {0, 300, 200, 400},
+                new long[] {0, 30_000, 20_000, 40_000},
+                new long[] {0, 300, 200, 40_000},
+                new long[] {0, 30_000, 29_900, 30_200});
+        for (long[] range : ranges) {
+            HyperLogLog sketch = sketchOf(range[0], range[1]);
+
+            // When
+            sketch.merge(sketchOf(range[2], range[3]));
+
+            // Then
+            long union = Math.max(range[1], range[3]) - range[0];
+            assertEquals(union, sketch.estimate(), union * 0.03);
+            assertEquals(sketchOf(range[0], Math.max(range[1], range[3])).estimate(), sketch.estimate());
+        }
+    }
+
+    @Test
+    void merge_rejectsADifferentPrecision() {
+        assertThrows(IllegalArgumentException.class, () -> new HyperLogLog(14).merge(new HyperLogLog(12)));
+    }
+
+    @Test
+    void toBytes_roundTripsSparseAndDenseSketches() {
+        for (long distinct : List.of(7L, 3_000L, 100_000L)) {
+            // Given
+            HyperLogLog sketch = sketchOf(0, distinct);
+
+            // When
+            HyperLogLog read = HyperLogLog.fromBytes(sketch.toBytes());
+
+            // Then
+            assertEquals(sketch.estimate(), read.estimate());
+            assertArrayEquals(sketch.toBytes(), read.toBytes());
+        }
+    }
+
+    @Test
+    void toBytes_takesAFewBytesPerVisitorUntilDenseIsSmaller() {
+        // Given
+        HyperLogLog few = sketchOf(0, 10);
+        HyperLogLog many = sketchOf(0, 1_000_000);
+
+        // Then
+        assertTrue(few.toBytes().length <= 3 + 1 + 10 * 4, "sparse sketch is " + few.toBytes().length + " bytes");
+        assertEquals(3 + (1 << HyperLogLog.DEFAULT_PRECISION), many.toBytes().length);
+    }
+
+    @Test
+    void fromBytes_rejectsBytesThatAreNotASketch() {
+        byte[] truncated = sketchOf(0, 100).toBytes();
+        List<byte[]> invalid = List.of(
+                new byte[0],
+                new byte[] {2, 14, 0, 0},
+                new byte[] {1, 30, 0, 0},
+                new byte[] {1, 14, 7, 0},
+                new byte[] {1, 14, 1, 0},
+                Arrays.copyOf(truncated, truncated.length - 1));
+        for (byte[] bytes : invalid) {
+            assertThrows(IllegalArgumentException.class, () -> HyperLogLog.fromBytes(bytes));
+        }
+    }
+}
@@ -1,90 +0,0 @@
-package com.urlshortener;
-
-import com.urlshortener.api.LinksResource;
-import com.urlshortener.api.MigrationStatusResource;
-import com.urlshortener.api.RedirectResource;
-import com.urlshortener.core.Base62Service;
-import com.urlshortener.db.LinkDAO;
-import com.urlshortener.health.BasicHealthCheck;
-import com.urlshortener.health.DatabaseHealthCheck;
-import com.urlshortener.kafka.EventPublisher;
-import com.urlshortener.manager.ClickManager;
-import com.urlshortener.manager.LinkManager;
-import io.dropwizard.configuration.EnvironmentVariableSubstitutor;
-import io.dropwizard.configuration.SubstitutingSourceProvider;
-import io.dropwizard.core.Application;
-import io.dropwizard.core.setup.Bootstrap;
-import io.dropwizard.core.setup.Environment;
-import io.dropwizard.db.DataSourceFactory;
-import io.dropwizard.migrations.MigrationsBundle;
-import org.jdbi.v3.core.Jdbi;
-import org.jdbi.v3.sqlobject.SqlObjectPlugin;
-
-import javax.sql.DataSource;
-
-public class UrlShortenerApplication extends Application<UrlShortenerConfiguration> {
-
-    private Jdbi jdbi;
-
-    public static void main(final String[] args) throws Exception {
-        new UrlShortenerApplication().run(args);
-    }
-
-    public Jdbi getJdbi() {
-        return jdbi;
-    }
-
-    @Override
-    public String getName() {
-        return "UrlShortener";
-    }
-
-    @Override
-    public void initialize(final Bootstrap<UrlShortenerConfiguration> bootstrap) {
-        bootstrap.setConfigurationSourceProvider(
-                new SubstitutingSourceProvider(bootstrap.getConfigurationSourceProvider(),
-                        new EnvironmentVariableSubstitutor(false)));
-        
-        bootstrap.addBundle(new MigrationsBundle<UrlShortenerConfiguration>() {
-            @Override
-            public DataSourceFactory getDataSourceFactory(UrlShortenerConfiguration configuration) {
-                return configuration.getDataSourceFactory();
-            }
-        });
-    }
-
-    @Override
-    public void run(final UrlShortenerConfiguration configuration,
-                    final Environment environment) {
-
-        // Use configured version instead of hardcoded value
-        UrlShortenerConfiguration.ApplicationConfiguration appConfig = configuration.getApplication();
-        environment.healthChecks().register("application",
-                new BasicHealthCheck(appConfig.getVersion(), appConfig.getName()));
-
-        DataSource dataSource = configuration.getDataSourceFactory().build(environment.metrics(), "database");
-        environment.healthChecks().register("database", new DatabaseHealthCheck(dataSource));
-
-        this.jdbi = Jdbi.create(dataSource);
-        this.jdbi.installPlugin(new SqlObjectPlugin());
-
-        LinkDAO linkDAO = this.jdbi.onDemand(LinkDAO.class);
-        Base62Service base62Service = new Base62Service();
-
-        // Initialize Kafka EventPublisher
-        UrlShortenerConfiguration.KafkaConfiguration kafkaConfig = configuration.getKafka();
-        EventPublisher eventPublisher = new EventPublisher(kafkaConfig);
-        environment.lifecycle().manage(eventPublisher);
-
-        LinkManager linkManager = new LinkManager(linkDAO, base62Service, appConfig);
-        ClickManager clickManager = new ClickManager(eventPublisher);
-
-        LinksResource linksResource = new LinksResource(linkManager);
-        RedirectResource redirectResource = new RedirectResource(linkManager, clickManager);
-        MigrationStatusResource migrationStatusResource = new MigrationStatusResource(dataSource);
-
-        environment.jersey().register(linksResource);
-        environment.jersey().register(redirectResource);
-        environment.jersey().register(migrationStatusResource);
-    }
-}
\ No newline at end of file
@@ -1,5 +1,19 @@
 package com.urlshortener.telemetry;
 
+import com.urlshortener.events.EventValidator;
+import com.urlshortener.telemetry.api.TrendingLinksResource;
+import com.urlshortener.telemetry.archive.ClickArchiver;
+import com.urlshortener.telemetry.commands.BackfillRollupsCommand;
+import com.urlshortener.telemetry.commands.ReadClickArchiveCommand;
+import com.urlshortener.telemetry.db.ClickBatchWriter;
+import com.urlshortener.telemetry.db.ClickCountDAO;
+import com.urlshortener.telemetry.db.ClickPartitionMaintainer;
+import com.urlshortener.telemetry.db.VisitorSketchWriter;
+import com.urlshortener.telemetry.kafka.ClickCountAggregator;
+import com.urlshortener.telemetry.kafka.ClickEventConsumer;
+import com.urlshortener.telemetry.kafka.ClickEventDeserializer;
+import com.urlshortener.telemetry.kafka.VisitorSketchAggregator;
+import com.urlshortener.telemetry.trending.TrendingLinks;
 import io.dropwizard.configuration.EnvironmentVariableSubstitutor;
 import io.dropwizard.configuration.SubstitutingSourceProvider;
 import io.dropwizard.core.Application;
@@ -41,6 +55,8 @@ public class TelemetryConsumerApplication extends Application<TelemetryConsumerC
                 return configuration.getDataSourceFactory();
             }
         });
+        bootstrap.addCommand(new BackfillRollupsCommand());
+        bootstrap.addCommand(new ReadClickArchiveCommand());
     }
 
     @Override
@@ -51,5 +67,27 @@ public class TelemetryConsumerApplication extends Application<TelemetryConsumerC
 
         this.jdbi = Jdbi.create(dataSource);
         this.jdbi.installPlugin(new SqlObjectPlugin());
+
+        EventValidator eventValidator = new EventValidator(environment.getObjectMapper());
+        ClickCountAggregator clickCountAggregator = new ClickCountAggregator(
+                this.jdbi.onDemand(ClickCountDAO.class), configuration.getClickCounts(), environment.metrics());
+        VisitorSketchAggregator visitorSketchAggregator = new VisitorSketchAggregator(
+                new VisitorSketchWriter(this.jdbi), environment.metrics());
+        TrendingLinks trendingLinks = new TrendingLinks(configuration.getTrending(), environment.metrics());
+        ClickEventConsumer clickEventConsumer = new ClickEventConsumer(configuration.getKafka(),
+                new ClickEventDeserializer(environment.getObjectMapper()), eventValidator,
+                new ClickBatchWriter(this.jdbi), clickCountAggregator, visitorSketchAggregator, trendingLinks,
+                environment.metrics());
+        environment.lifecycle().manage(clickEventConsumer);
+
+        if (configuration.getClickPartitions().isEnabled()) {
+            ClickArchiver clickArchiver = configuration.getClickArchive().isEnabled()
+                    ? new ClickArchiver(configuration.getClickArchive(), environment.metrics())
+                    : null;
+            environment.lifecycle().manage(new ClickPartitionMaintainer(this.jdbi, configuration.getClickPartitions(),
+                    clickArchiver, environment.metrics()));
+        }
+
+        environment.jersey().register(new TrendingLinksResource(trendingLinks, configuration.getTrending().getWindow()));
     }
 }
\ No newline at end of file
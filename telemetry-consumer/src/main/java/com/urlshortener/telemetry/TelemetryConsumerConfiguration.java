@@ -3,7 +3,10 @@ package com.urlshortener.telemetry;
 import com.fasterxml.jackson.annotation.JsonProperty;
 import io.dropwizard.core.Configuration;
 import io.dropwizard.db.DataSourceFactory;
+import io.dropwizard.util.Duration;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 
@@ -24,6 +27,26 @@ public class TelemetryConsumerConfiguration extends Configuration {
     @JsonProperty("kafka")
     private KafkaConsumerConfiguration kafka = new KafkaConsumerConfiguration();
 
+    @Valid
+    @NotNull
+    @JsonProperty("clickCounts")
+    private ClickCountConfiguration clickCounts = new ClickCountConfiguration();
+
+    @Valid
+    @NotNull
+    @JsonProperty("trending")
+    private TrendingConfiguration trending = new TrendingConfiguration();
+
+    @Valid
+    @NotNull
+    @JsonProperty("clickPartitions")
+    private ClickPartitionConfiguration clickPartitions = new ClickPartitionConfiguration();
+
+    @Valid
+    @NotNull
+    @JsonProperty("clickArchive")
+    private ClickArchiveConfiguration clickArchive = new ClickArchiveConfiguration();
+
     public DataSourceFactory getDataSourceFactory() {
         return database;
     }
@@ -48,6 +71,38 @@ public class TelemetryConsumerConfiguration extends Configuration {
         this.kafka = kafka;
     }
 
+    public ClickCountConfiguration getClickCounts() {
+        return clickCounts;
+    }
+
+    public void setClickCounts(ClickCountConfiguration clickCounts) {
+        this.clickCounts = clickCounts;
+    }
+
+    public TrendingConfiguration getTrending() {
+        return trending;
+    }
+
+    public void setTrending(TrendingConfiguration trending) {
+        this.trending = trending;
+    }
+
+    public ClickPartitionConfiguration getClickPartitions() {
+        return clickPartitions;
+    }
+
+    public void setClickPartitions(ClickPartitionConfiguration clickPartitions) {
+        this.clickPartitions = clickPartitions;
+    }
+
+    public ClickArchiveConfiguration getClickArchive() {
+        return clickArchive;
+    }
+
+    public void setClickArchive(ClickArchiveConfiguration clickArchive) {
+        this.clickArchive = clickArchive;
+    }
+
     public static class ApplicationConfiguration {
 
         @NotNull
@@ -107,6 +162,14 @@ public class TelemetryConsumerConfiguration extends Configuration {
         @JsonProperty("maxPollIntervalMs")
         private int maxPollIntervalMs = 300000;
 
+        @Min(1)
+        @JsonProperty("pollTimeoutMs")
+        private int pollTimeoutMs = 1000;
+
+        @Min(0)
+        @JsonProperty("retryBackoffMs")
+        private int retryBackoffMs = 1000;
+
         public String getBootstrapServers() {
             return bootstrapServers;
         }
@@ -170,5 +233,224 @@ public class TelemetryConsumerConfiguration extends Configuration {
         public void setMaxPollIntervalMs(int maxPollIntervalMs) {
             this.maxPollIntervalMs = maxPollIntervalMs;
         }
+
+        public int getPollTimeoutMs() {
+            return pollTimeoutMs;
+        }
+
+        public void setPollTimeoutMs(int pollTimeoutMs) {
+            this.pollTimeoutMs = pollTimeoutMs;
+        }
+
+        public int getRetryBackoffMs() {
+            return retryBackoffMs;
+        }
+
+        public void setRetryBackoffMs(int retryBackoffMs) {
+            this.retryBackoffMs = retryBackoffMs;
+        }
+    }
+
+    public static class ClickCountConfiguration {
+
+        @Min(0)
+        @JsonProperty("flushIntervalMs")
+        private int flushIntervalMs = 5000;
+
+        @Min(1)
+        @JsonProperty("maxPendingClicks")
+        private int maxPendingClicks = 10000;
+
+        public int getFlushIntervalMs() {
+            return flushIntervalMs;
+        }
+
+        public void setFlushIntervalMs(int flushIntervalMs) {
+            this.flushIntervalMs = flushIntervalMs;
+        }
+
+        public int getMaxPendingClicks() {
+            return maxPendingClicks;
+        }
+
+        public void setMaxPendingClicks(int maxPendingClicks) {
+            this.maxPendingClicks = maxPendingClicks;
+        }
+    }
+
+    public static class TrendingConfiguration {
+
+        // Clicks older than this no longer count towards a link's trend
+        @NotNull
+        @JsonProperty("window")
+        private Duration window = Duration.minutes(5);
+
+        // The window moves forward one slot at a time
+        @Min(1)
+        @Max(60)
+        @JsonProperty("slots")
+        private int slots = 10;
+
+        // How many of the most clicked links are kept
+        @Min(1)
+        @Max(10000)
+        @JsonProperty("size")
+        private int size = 100;
+
+        // Counters per sketch row; estimates are at most e / sketchWidth of the window's clicks too high
+        @Min(16)
+        @JsonProperty("sketchWidth")
+        private int sketchWidth = 2048;
+
+        @Min(1)
+        @Max(16)
+        @JsonProperty("sketchDepth")
+        private int sketchDepth = 4;
+
+        public Duration getWindow() {
+            return window;
+        }
+
+        public void setWindow(Duration window) {
+            this.window = window;
+        }
+
+        public int getSlots() {
+            return slots;
+        }
+
+        public void setSlots(int slots) {
+            this.slots = slots;
+        }
+
+        public int getSize() {
+            return size;
+        }
+
+        public void setSize(int size) {
+            this.size = size;
+        }
+
+        public int getSketchWidth() {
+            return sketchWidth;
+        }
+
+        public void setSketchWidth(int sketchWidth) {
+            this.sketchWidth = sketchWidth;
+        }
+
+        public int getSketchDepth() {
+            return sketchDepth;
+        }
+
+        public void setSketchDepth(int sketchDepth) {
+            this.sketchDepth = sketchDepth;
+        }
+    }
+
+    public static class ClickPartitionConfiguration {
+
+        // Turn off only where clicks is not partitioned, such as databases other than MySQL
+        @JsonProperty("enabled")
+        private boolean enabled = true;
+
+        // Days of clicks older than this are dropped
+        @NotNull
+        @JsonProperty("retention")
+        private Duration retention = Duration.days(90);
+
+        // Partitions are created this many days before they are needed
+        @Min(1)
+        @Max(365)
+        @JsonProperty("daysAhead")
+        private int daysAhead = 7;
+
+        @NotNull
+        @JsonProperty("checkInterval")
+        private Duration checkInterval = Duration.hours(1);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public Duration getRetention() {
+            return retention;
+        }
+
+        public void setRetention(Duration retention) {
+            this.retention = retention;
+        }
+
+        public int getDaysAhead() {
+            return daysAhead;
+        }
+
+        public void setDaysAhead(int daysAhead) {
+            this.daysAhead = daysAhead;
+        }
+
+        public Duration getCheckInterval() {
+            return checkInterval;
+        }
+
+        public void setCheckInterval(Duration checkInterval) {
+            this.checkInterval = checkInterval;
+        }
+    }
+
+    public static class ClickArchiveConfiguration {
+
+        // Archives each clicks partition before partition maintenance drops it
+        @JsonProperty("enabled")
+        private boolean enabled = false;
+
+        @NotBlank
+        @JsonProperty("directory")
+        private String directory = "archive/clicks";
+
+        // Archive files are deleted once their newest click is older than this
+        @NotNull
+        @JsonProperty("retention")
+        private Duration retention = Duration.days(365);
+
+        @Min(1)
+        @JsonProperty("rowGroupSize")
+        private int rowGroupSize = 65536;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getDirectory() {
+            return directory;
+        }
+
+        public void setDirectory(String directory) {
+            this.directory = directory;
+        }
+
+        public Duration getRetention() {
+            return retention;
+        }
+
+        public void setRetention(Duration retention) {
+            this.retention = retention;
+        }
+
+        public int getRowGroupSize() {
+            return rowGroupSize;
+        }
+
+        public void setRowGroupSize(int rowGroupSize) {
+            this.rowGroupSize = rowGroupSize;
+        }
     }
 }
@@ -0,0 +1,34 @@
+package com.urlshortener.telemetry.api;
+
+import com.urlshortener.telemetry.models.TrendingLinksResponse;
+import com.urlshortener.telemetry.trending.TrendingLinks;
+
+import io.dropwizard.util.Duration;
+import jakarta.validation.constraints.Min;
+import jakarta.ws.rs.DefaultValue;
+import jakarta.ws.rs.GET;
+import jakarta.ws.rs.Path;
+import jakarta.ws.rs.Produces;
+import jakarta.ws.rs.QueryParam;
+import jakarta.ws.rs.core.MediaType;
+
+/**
+ * The most clicked links of the last few minutes, answered from memory.
+ */
+@Path("/api/v1/trending")
+@Produces(MediaType.APPLICATION_JSON)
+public class TrendingLinksResource {
+
+    private final TrendingLinks trendingLinks;
+    private final Duration window;
+
+    public TrendingLinksResource(TrendingLinks trendingLinks, Duration window) {
+        this.trendingLinks = trendingLinks;
+        this.window = window;
+    }
+
+    @GET
+    public TrendingLinksResponse getTrendingLinks(@QueryParam("limit") @DefaultValue("100") @Min(1) int limit) {
+        return new TrendingLinksResponse(window.toSeconds(), trendingLinks.top(limit));
+    }
+}
@@ -0,0 +1,10 @@
+package com.urlshortener.telemetry.archive;
+
+import java.time.Instant;
+
+/**
+ * One clicks row as stored in a click archive.
+ */
+public record ArchivedClick(long id, long linkId, Instant clickTimestamp, String userAgent, String ipAddress,
+                            String referer) {
+}
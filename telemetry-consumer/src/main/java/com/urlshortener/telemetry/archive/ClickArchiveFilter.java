@@ -0,0 +1,29 @@
+package com.urlshortener.telemetry.archive;
+
+import java.time.Instant;
+
+/**
+ * Selects archived clicks of one link, or of every link if {@code linkId} is null, from
+ * {@code from} inclusive to {@code to} exclusive; a null bound is open.
+ */
+public record ClickArchiveFilter(Long linkId, Instant from, Instant to) {
+
+    public static ClickArchiveFilter all() {
+        return new ClickArchiveFilter(null, null, null);
+    }
+
+    /**
+     * @return false if no click between the two timestamps can match, so the row group holding
+     * them can be skipped without being decompressed
+     */
+    boolean overlaps(long oldestMillis, long newestMillis) {
+        return (from == null || newestMillis >= from.toEpochMilli())
+                && (to == null || oldestMillis < to.toEpochMilli());
+    }
+
+    boolean matches(ArchivedClick click) {
+        return (linkId == null || click.linkId() == linkId)
+                && (from == null || !click.clickTimestamp().isBefore(from))
+                && (to == null || click.clickTimestamp().isBefore(to));
+    }
+}
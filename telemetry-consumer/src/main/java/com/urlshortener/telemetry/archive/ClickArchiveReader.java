@@ -0,0 +1,201 @@
+package com.urlshortener.telemetry.archive;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.function.Consumer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Reads click archives written by {@link ClickArchiveWriter}. Row groups that cannot hold a
+ * matching click, by their timestamp range, are skipped without being decompressed.
+ */
+public class ClickArchiveReader {
+
+    private final Path file;
+
+    public ClickArchiveReader(Path file) {
+        this.file = file;
+    }
+
+    /**
+     * The number of clicks in an archive and the range of their ids and timestamps; the ranges
+     * are null for an empty archive.
+     */
+    public record Summary(long rows, Long minId, Long maxId, Instant oldest, Instant newest) {
+    }
+
+    /**
+     * Passes the clicks matching {@code filter} to {@code consumer} in the order they were
+     * written, stopping after {@code limit}.
+     *
+     * @return The number of clicks passed to {@code consumer}
+     * @throws IOException if the file cannot be read or is not a complete click archive
+     */
+    public long scan(ClickArchiveFilter filter, long limit, Consumer<ArchivedClick> consumer) throws IOException {
+        long matched = 0;
+        Inflater inflater = new Inflater();
+        try (DataInputStream in = open()) {
+            for (GroupHeader header = readHeader(in); header != null; header = readHeader(in)) {
+                if (matched >= limit || !filter.overlaps(header.oldest(), header.newest())) {
+                    skipColumns(in);
+                    continue;
+                }
+                for (ArchivedClick click : readGroup(in, header.rows(), inflater)) {
+                    if (matched < limit && filter.matches(click)) {
+                        consumer.accept(click);
+                        matched++;
+                    }
+                }
+            }
+        } finally {
+            inflater.end();
+        }
+        return matched;
+    }
+
+    /**
+     * Summarizes the archive from its row group headers, without decompressing any column.
+     */
+    public Summary summarize() throws IOException {
+        long rows = 0;
+        long minId = Long.MAX_VALUE;
+        long maxId = Long.MIN_VALUE;
+        long oldest = Long.MAX_VALUE;
+        long newest = Long.MIN_VALUE;
+        try (DataInputStream in = open()) {
+            for (GroupHeader header = readHeader(in); header != null; header = readHeader(in)) {
+                rows += header.rows();
+                minId = Math.min(minId, header.minId());
+                maxId = Math.max(maxId, header.maxId());
+                oldest = Math.min(oldest, header.oldest());
+                newest = Math.max(newest, header.newest());
+                skipColumns(in);
+            }
+        }
+        return rows == 0
+                ? new Summary(0, null, null, null, null)
+                : new Summary(rows, minId, maxId, Instant.ofEpochMilli(oldest), Instant.ofEpochMilli(newest));
+    }
+
+    private DataInputStream open() throws IOException {
+        DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)));
+        try {
+            if (in.readInt() != ClickArchiveWriter.MAGIC || in.readByte() != ClickArchiveWriter.VERSION) {
+                throw new IOException(file + " is not a version " + ClickArchiveWriter.VERSION + " click archive");
+            }
+        } catch (IOException e) {
+            in.close();
+            throw e instanceof EOFException ? new IOException(file + " is not a click archive", e) : e;
+        }
+        return in;
+    }
+
+    private GroupHeader readHeader(DataInputStream in) throws IOException {
+        try {
+            int rows = in.readInt();
+            if (rows == 0) {
+                return null;
+            }
+            return new GroupHeader(rows, in.readLong(), in.readLong(), in.readLong(), in.readLong());
+        } catch (EOFException e) {
+            throw new IOException(file + " is truncated", e);
+        }
+    }
+
+    private void skipColumns(DataInputStream in) throws IOException {
+        for (int i = 0; i < 6; i++) {
+            in.readInt();
+            in.skipNBytes(in.readInt());
+        }
+    }
+
+    private ArchivedClick[] readGroup(DataInputStream in, int rows, Inflater inflater) throws IOException {
+        ByteBuffer ids = readColumn(in, inflater);
+        ByteBuffer linkIds = readColumn(in, inflater);
+        ByteBuffer timestamps = readColumn(in, inflater);
+        ByteBuffer userAgentColumn = readColumn(in, inflater);
+        ByteBuffer ipAddresses = readColumn(in, inflater);
+        ByteBuffer refererColumn = readColumn(in, inflater);
+
+        try {
+            String[] userAgents = readDictionaryColumn(userAgentColumn, rows);
+            String[] referers = readDictionaryColumn(refererColumn, rows);
+            ArchivedClick[] clicks = new ArchivedClick[rows];
+            long id = 0;
+            long timestamp = 0;
+            for (int i = 0; i < rows; i++) {
+                id += unzigzag(readVarLong(ids));
+                timestamp += unzigzag(readVarLong(timestamps));
+                clicks[i] = new ArchivedClick(id, unzigzag(readVarLong(linkIds)), Instant.ofEpochMilli(timestamp),
+                        userAgents[i], readString(ipAddresses), referers[i]);
+            }
+            return clicks;
+        } catch (RuntimeException e) {
+            // Buffer underflows and dictionary indexes out of range
+            throw new IOException(file + " has a corrupt row group", e);
+        }
+    }
+
+    private ByteBuffer readColumn(DataInputStream in, Inflater inflater) throws IOException {
+        byte[] column = new byte[in.readInt()];
+        byte[] compressed = in.readNBytes(in.readInt());
+        inflater.reset();
+        inflater.setInput(compressed);
+        try {
+            if (inflater.inflate(column) != column.length || !inflater.finished()) {
+                throw new IOException(file + " has a corrupt column");
+            }
+        } catch (DataFormatException e) {
+            throw new IOException(file + " has a corrupt column", e);
+        }
+        return ByteBuffer.wrap(column);
+    }
+
+    private static String[] readDictionaryColumn(ByteBuffer column, int rows) {
+        String[] dictionary = new String[(int) readVarLong(column) + 1];
+        for (int i = 1; i < dictionary.length; i++) {
+            dictionary[i] = readString(column);
+        }
+        String[] values = new String[rows];
+        for (int i = 0; i < rows; i++) {
+            values[i] = dictionary[(int) readVarLong(column)];
+        }
+        return values;
+    }
+
+    private static String readString(ByteBuffer column) {
+        int length = (int) readVarLong(column);
+        if (length == 0) {
+            return null;
+        }
+        String value = new String(column.array(), column.position(), length - 1, StandardCharsets.UTF_8);
+        column.position(column.position() + length - 1);
+        return value;
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static long readVarLong(ByteBuffer column) {
+        long value = 0;
+        for (int shift = 0; ; shift += 7) {
+            byte b = column.get();
+            value |= (long) (b & 0x7F) << shift;
+            if (b >= 0) {
+                return value;
+            }
+        }
+    }
+
+    private record GroupHeader(int rows, long minId, long maxId, long oldest, long newest) {
+    }
+}
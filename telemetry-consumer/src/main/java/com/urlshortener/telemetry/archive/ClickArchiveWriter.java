@@ -0,0 +1,184 @@
+package com.urlshortener.telemetry.archive;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Writes clicks to a click archive: a column-oriented file read back by {@link ClickArchiveReader}.
+ *
+ * <p>Clicks are written in row groups of up to {@code rowGroupSize} rows. Each group starts with
+ * its row count and its lowest and highest id and timestamp, so readers skip groups outside the
+ * range they want, followed by one deflated block per column:
+ * <ul>
+ * <li>id and click_timestamp as the zigzag varint delta from the previous row, usually one or two
+ * bytes as rows are written in id order</li>
+ * <li>link_id as a zigzag varint</li>
+ * <li>user_agent and referer dictionary-encoded: the distinct values of the group, then a varint
+ * index per row, 0 for null</li>
+ * <li>ip_address as a varint length plus one, 0 for null, and the UTF-8 bytes</li>
+ * </ul>
+ * A row count of 0 ends the file, so a truncated file is detected. Not thread-safe.
+ */
+public class ClickArchiveWriter implements Closeable {
+
+    static final int MAGIC = 0x434C4B41;
+    static final byte VERSION = 1;
+    public static final int DEFAULT_ROW_GROUP_SIZE = 65_536;
+
+    private final DataOutputStream out;
+    private final int rowGroupSize;
+    private final Deflater deflater = new Deflater();
+
+    private final List<ArchivedClick> group = new ArrayList<>();
+    private long rows;
+
+    public ClickArchiveWriter(OutputStream out, int rowGroupSize) throws IOException {
+        if (rowGroupSize < 1) {
+            throw new IllegalArgumentException("rowGroupSize must be positive, got: " + rowGroupSize);
+        }
+        this.out = new DataOutputStream(new BufferedOutputStream(out));
+        this.rowGroupSize = rowGroupSize;
+        this.out.writeInt(MAGIC);
+        this.out.writeByte(VERSION);
+    }
+
+    public void write(ArchivedClick click) throws IOException {
+        group.add(click);
+        rows++;
+        if (group.size() == rowGroupSize) {
+            writeGroup();
+        }
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    /**
+     * Writes the last row group and the end marker, and closes the underlying stream.
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            if (!group.isEmpty()) {
+                writeGroup();
+            }
+            out.writeInt(0);
+            out.close();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private void writeGroup() throws IOException {
+        ByteArrayOutputStream ids = new ByteArrayOutputStream();
+        ByteArrayOutputStream linkIds = new ByteArrayOutputStream();
+        ByteArrayOutputStream timestamps = new ByteArrayOutputStream();
+        ByteArrayOutputStream ipAddresses = new ByteArrayOutputStream();
+        long minId = Long.MAX_VALUE;
+        long maxId = Long.MIN_VALUE;
+        long oldest = Long.MAX_VALUE;
+        long newest = Long.MIN_VALUE;
+        long previousId = 0;
+        long previousTimestamp = 0;
+        for (ArchivedClick click : group) {
+            long timestamp = click.clickTimestamp().toEpochMilli();
+            writeVarLong(ids, zigzag(click.id() - previousId));
+            writeVarLong(linkIds, zigzag(click.linkId()));
+            writeVarLong(timestamps, zigzag(timestamp - previousTimestamp));
+            writeString(ipAddresses, click.ipAddress());
+            previousId = click.id();
+            previousTimestamp = timestamp;
+            minId = Math.min(minId, click.id());
+            maxId = Math.max(maxId, click.id());
+            oldest = Math.min(oldest, timestamp);
+            newest = Math.max(newest, timestamp);
+        }
+
+        out.writeInt(group.size());
+        out.writeLong(minId);
+        out.writeLong(maxId);
+        out.writeLong(oldest);
+        out.writeLong(newest);
+        writeColumn(ids.toByteArray());
+        writeColumn(linkIds.toByteArray());
+        writeColumn(timestamps.toByteArray());
+        writeColumn(dictionaryColumn(ArchivedClick::userAgent));
+        writeColumn(ipAddresses.toByteArray());
+        writeColumn(dictionaryColumn(ArchivedClick::referer));
+        group.clear();
+    }
+
+    private byte[] dictionaryColumn(Function<ArchivedClick, String> column) throws IOException {
+        Map<String, Integer> dictionary = new HashMap<>();
+        List<String> values = new ArrayList<>();
+        ByteArrayOutputStream indexes = new ByteArrayOutputStream();
+        for (ArchivedClick click : group) {
+            String value = column.apply(click);
+            if (value == null) {
+                writeVarLong(indexes, 0);
+                continue;
+            }
+            Integer index = dictionary.get(value);
+            if (index == null) {
+                index = values.size() + 1;
+                dictionary.put(value, index);
+                values.add(value);
+            }
+            writeVarLong(indexes, index);
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        writeVarLong(bytes, values.size());
+        for (String value : values) {
+            writeString(bytes, value);
+        }
+        indexes.writeTo(bytes);
+        return bytes.toByteArray();
+    }
+
+    private void writeColumn(byte[] column) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(column.length / 4 + 16);
+        deflater.reset();
+        try (DeflaterOutputStream deflating = new DeflaterOutputStream(compressed, deflater)) {
+            deflating.write(column);
+        }
+        out.writeInt(column.length);
+        out.writeInt(compressed.size());
+        compressed.writeTo(out);
+    }
+
+    private static void writeString(ByteArrayOutputStream out, String value) {
+        if (value == null) {
+            writeVarLong(out, 0);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(out, bytes.length + 1L);
+        out.writeBytes(bytes);
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static void writeVarLong(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+}
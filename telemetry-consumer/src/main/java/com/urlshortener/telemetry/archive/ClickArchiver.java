@@ -0,0 +1,110 @@
+package com.urlshortener.telemetry.archive;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.regex.Pattern;
+
+import org.jdbi.v3.core.Handle;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.urlshortener.telemetry.TelemetryConsumerConfiguration.ClickArchiveConfiguration;
+
+import static com.codahale.metrics.MetricRegistry.name;
+
+/**
+ * Copies clicks partitions to click archive files before they are dropped, and deletes archive
+ * files once they are past their own retention. A partition is streamed through a single query
+ * in id order and written to a temporary file, which is synced and renamed into place only once
+ * complete, so a partition is never dropped with a partial archive.
+ */
+public class ClickArchiver {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ClickArchiver.class);
+
+    public static final String FILE_SUFFIX = ".clka";
+    private static final Pattern PARTITION_NAME = Pattern.compile("p\\w+");
+
+    private final Path directory;
+    private final long retentionMillis;
+    private final int rowGroupSize;
+    private final Meter archived;
+
+    public ClickArchiver(ClickArchiveConfiguration config, MetricRegistry metrics) {
+        this.directory = Paths.get(config.getDirectory());
+        this.retentionMillis = config.getRetention().toMilliseconds();
+        this.rowGroupSize = config.getRowGroupSize();
+        this.archived = metrics.meter(name(ClickArchiver.class, "archived"));
+    }
+
+    /**
+     * Writes every click of {@code partition} to {@code clicks-<partition>.clka}, replacing the
+     * file left by an earlier attempt.
+     *
+     * @return The archive file
+     */
+    public Path archive(Handle handle, String partition) throws IOException {
+        if (!PARTITION_NAME.matcher(partition).matches()) {
+            throw new IllegalArgumentException("Not a clicks partition name: " + partition);
+        }
+        Files.createDirectories(directory);
+        Path file = directory.resolve("clicks-" + partition + FILE_SUFFIX);
+        Path temporary = directory.resolve(file.getFileName() + ".tmp");
+
+        long rows;
+        try (ClickArchiveWriter writer = new ClickArchiveWriter(Files.newOutputStream(temporary), rowGroupSize)) {
+            handle.createQuery("SELECT id, link_id, click_timestamp, user_agent, ip_address, referer "
+                            + "FROM clicks PARTITION (" + partition + ") ORDER BY id")
+                    // Connector/J streams rows one at a time only with this fetch size
+                    .setFetchSize(Integer.MIN_VALUE)
+                    .map((rs, ctx) -> new ArchivedClick(rs.getLong("id"), rs.getLong("link_id"),
+                            rs.getTimestamp("click_timestamp").toInstant(), rs.getString("user_agent"),
+                            rs.getString("ip_address"), rs.getString("referer")))
+                    .useIterator(clicks -> {
+                        while (clicks.hasNext()) {
+                            writer.write(clicks.next());
+                        }
+                    });
+            rows = writer.getRows();
+        }
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+            channel.force(true);
+        }
+        Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+        archived.mark(rows);
+        LOGGER.info("Archived {} clicks of partition {} to {}", rows, partition, file);
+        return file;
+    }
+
+    /**
+     * Deletes the archive files whose newest click is older than the retention.
+     *
+     * @return The number of files deleted
+     */
+    public int deleteExpired(long nowMillis) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return 0;
+        }
+        int deleted = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + FILE_SUFFIX)) {
+            for (Path file : files) {
+                ClickArchiveReader.Summary summary = new ClickArchiveReader(file).summarize();
+                if (summary.newest() == null || nowMillis - summary.newest().toEpochMilli() > retentionMillis) {
+                    Files.delete(file);
+                    deleted++;
+                    LOGGER.info("Deleted click archive {} past retention", file);
+                }
+            }
+        }
+        return deleted;
+    }
+}
@@ -0,0 +1,76 @@
+package com.urlshortener.telemetry.commands;
+
+import com.urlshortener.telemetry.TelemetryConsumerConfiguration;
+import com.urlshortener.telemetry.db.ClickRollupBackfill;
+import io.dropwizard.core.cli.ConfiguredCommand;
+import io.dropwizard.core.setup.Bootstrap;
+import io.dropwizard.db.ManagedDataSource;
+import net.sourceforge.argparse4j.inf.Namespace;
+import net.sourceforge.argparse4j.inf.Subparser;
+import org.jdbi.v3.core.Jdbi;
+import org.jdbi.v3.sqlobject.SqlObjectPlugin;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+
+/**
+ * Builds the minute, hour and day click rollups from clicks stored before the consumer maintained
+ * them. Note {@code SELECT MAX(id) FROM clicks} once consumers without rollups have stopped, start
+ * the new ones, then run
+ * {@code java -jar telemetry-consumer-1.0.0-SNAPSHOT.jar backfill-rollups --through-id <max id> config.yml}; if
+ * it stops, running the same command again resumes it.
+ */
+public class BackfillRollupsCommand extends ConfiguredCommand<TelemetryConsumerConfiguration> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BackfillRollupsCommand.class);
+
+    public BackfillRollupsCommand() {
+        super("backfill-rollups", "Builds click rollups from existing clicks rows");
+    }
+
+    @Override
+    public void configure(Subparser subparser) {
+        super.configure(subparser);
+        subparser.addArgument("--through-id")
+                .dest("throughId")
+                .required(true)
+                .type(Long.class)
+                .help("Highest clicks id stored before consumers maintaining rollups started");
+        subparser.addArgument("--chunk-size")
+                .dest("chunkSize")
+                .type(Integer.class)
+                .setDefault(10_000)
+                .help("Clicks rolled up per transaction");
+        subparser.addArgument("--progress-interval")
+                .dest("progressInterval")
+                .type(Integer.class)
+                .setDefault(10)
+                .help("Seconds between progress reports");
+    }
+
+    @Override
+    protected void run(Bootstrap<TelemetryConsumerConfiguration> bootstrap, Namespace namespace,
+                       TelemetryConsumerConfiguration configuration) throws Exception {
+        long throughId = namespace.getLong("throughId");
+        int chunkSize = namespace.getInt("chunkSize");
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("--chunk-size must be positive");
+        }
+
+        ManagedDataSource dataSource = configuration.getDataSourceFactory()
+                .build(bootstrap.getMetricRegistry(), "backfill");
+        try {
+            Jdbi jdbi = Jdbi.create(dataSource);
+            jdbi.installPlugin(new SqlObjectPlugin());
+
+            long started = System.nanoTime();
+            long clicks = new ClickRollupBackfill(jdbi, chunkSize,
+                    Duration.ofSeconds(namespace.getInt("progressInterval"))).run(throughId);
+            LOGGER.info("Rollup backfill through click id {} finished in {}s: {} clicks rolled up",
+                    throughId, Duration.ofNanos(System.nanoTime() - started).toSeconds(), clicks);
+        } finally {
+            dataSource.stop();
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.urlshortener.telemetry.commands;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.urlshortener.telemetry.archive.ArchivedClick;
+import com.urlshortener.telemetry.archive.ClickArchiveFilter;
+import com.urlshortener.telemetry.archive.ClickArchiveReader;
+import com.urlshortener.telemetry.archive.ClickArchiver;
+import io.dropwizard.core.cli.Command;
+import io.dropwizard.core.setup.Bootstrap;
+import net.sourceforge.argparse4j.impl.Arguments;
+import net.sourceforge.argparse4j.inf.Namespace;
+import net.sourceforge.argparse4j.inf.Subparser;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Prints the clicks in click archive files as NDJSON, for ad-hoc queries on clicks that are no
+ * longer in the database. Run with
+ * {@code java -jar telemetry-consumer-1.0.0-SNAPSHOT.jar read-click-archive --link-id 42 --from 2024-01-15T00:00:00Z archive/clicks}.
+ */
+public class ReadClickArchiveCommand extends Command {
+
+    public ReadClickArchiveCommand() {
+        super("read-click-archive", "Prints the clicks in click archive files that match a filter");
+    }
+
+    @Override
+    public void configure(Subparser subparser) {
+        subparser.addArgument("paths")
+                .nargs("+")
+                .type(Arguments.fileType().verifyCanRead())
+                .help("Archive files, or directories whose " + ClickArchiver.FILE_SUFFIX + " files are all read");
+        subparser.addArgument("--link-id")
+                .dest("linkId")
+                .type(Long.class)
+                .help("Only clicks of this link id");
+        subparser.addArgument("--from")
+                .dest("from")
+                .help("Only clicks at or after this ISO-8601 date-time with an offset");
+        subparser.addArgument("--to")
+                .dest("to")
+                .help("Only clicks before this ISO-8601 date-time with an offset");
+        subparser.addArgument("--limit")
+                .dest("limit")
+                .type(Long.class)
+                .setDefault(Long.MAX_VALUE)
+                .help("Stop after this many clicks");
+        subparser.addArgument("--summary")
+                .dest("summary")
+                .action(Arguments.storeTrue())
+                .help("Print each file's click count and id and timestamp ranges instead of its clicks");
+    }
+
+    @Override
+    public void run(Bootstrap<?> bootstrap, Namespace namespace) throws Exception {
+        ClickArchiveFilter filter = new ClickArchiveFilter(namespace.getLong("linkId"),
+                parseInstant(namespace.getString("from")), parseInstant(namespace.getString("to")));
+        ObjectMapper mapper = bootstrap.getObjectMapper();
+
+        Writer out = new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+        long remaining = namespace.getLong("limit");
+        for (Path file : archiveFiles(namespace.getList("paths"))) {
+            ClickArchiveReader reader = new ClickArchiveReader(file);
+            if (namespace.getBoolean("summary")) {
+                ClickArchiveReader.Summary summary = reader.summarize();
+                Map<String, Object> line = new LinkedHashMap<>();
+                line.put("file", file.toString());
+                line.put("rows", summary.rows());
+                line.put("minId", summary.minId());
+                line.put("maxId", summary.maxId());
+                line.put("oldest", summary.oldest() != null ? summary.oldest().toString() : null);
+                line.put("newest", summary.newest() != null ? summary.newest().toString() : null);
+                out.write(mapper.writeValueAsString(line));
+                out.write('\n');
+                continue;
+            }
+            if (remaining == 0) {
+                break;
+            }
+            try {
+                remaining -= reader.scan(filter, remaining, click -> writeClick(out, mapper, click));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        }
+        out.flush();
+    }
+
+    private static void writeClick(Writer out, ObjectMapper mapper, ArchivedClick click) {
+        Map<String, Object> line = new LinkedHashMap<>();
+        line.put("id", click.id());
+        line.put("linkId", click.linkId());
+        line.put("clickTimestamp", click.clickTimestamp().toString());
+        line.put("userAgent", click.userAgent());
+        line.put("ipAddress", click.ipAddress());
+        line.put("referer", click.referer());
+        try {
+            out.write(mapper.writeValueAsString(line));
+            out.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Instant parseInstant(String value) {
+        return value != null ? OffsetDateTime.parse(value).toInstant() : null;
+    }
+
+    // Directories are expanded to their archive files in name order
+    private static List<Path> archiveFiles(List<File> paths) throws IOException {
+        List<Path> files = new ArrayList<>();
+        for (File path : paths) {
+            if (!path.isDirectory()) {
+                files.add(path.toPath());
+                continue;
+            }
+            try (Stream<Path> children = Files.list(path.toPath())) {
+                children.filter(child -> child.getFileName().toString().endsWith(ClickArchiver.FILE_SUFFIX))
+                        .sorted()
+                        .forEach(files::add);
+            }
+        }
+        return files;
+    }
+}
@@ -0,0 +1,72 @@
+package com.urlshortener.telemetry.db;
+
+import java.sql.Timestamp;
+import java.time.OffsetDateTime;
+import java.util.List;
+
+import org.jdbi.v3.core.Jdbi;
+import org.jdbi.v3.core.statement.Update;
+
+import com.urlshortener.events.ClickEvent;
+
+/**
+ * Writes click events to the clicks table with a single multi-row INSERT per batch, inside one
+ * transaction, so a poll of several hundred events costs one round trip and one commit.
+ */
+public class ClickBatchWriter {
+
+    private static final String INSERT_PREFIX =
+            "INSERT INTO clicks (link_id, click_timestamp, user_agent, ip_address, referer) VALUES ";
+    private static final String ROW_PLACEHOLDERS = "(?, ?, ?, ?, ?)";
+
+    private final Jdbi jdbi;
+
+    public ClickBatchWriter(Jdbi jdbi) {
+        this.jdbi = jdbi;
+    }
+
+    /**
+     * Inserts every event in one transaction. Either all rows are committed or none are.
+     *
+     * @return The number of rows inserted
+     */
+    public int insert(List<ClickEvent> events) {
+        if (events.isEmpty()) {
+            return 0;
+        }
+
+        String sql = insertStatement(events.size());
+        return jdbi.inTransaction(handle -> {
+            Update update = handle.createUpdate(sql);
+            int position = 0;
+            for (ClickEvent event : events) {
+                update.bind(position++, event.getLinkId());
+                update.bind(position++, timestampOf(event));
+                update.bind(position++, event.getUserAgent());
+                update.bind(position++, event.getIpAddress());
+                update.bind(position++, event.getReferer());
+            }
+            return update.execute();
+        });
+    }
+
+    // Validated and binary events already carry epoch millis; others are parsed here
+    private static Timestamp timestampOf(ClickEvent event) {
+        Long millis = event.getTimestampMillis();
+        return millis != null
+                ? new Timestamp(millis)
+                : Timestamp.from(OffsetDateTime.parse(event.getTimestamp()).toInstant());
+    }
+
+    static String insertStatement(int rows) {
+        StringBuilder sql = new StringBuilder(INSERT_PREFIX.length() + rows * (ROW_PLACEHOLDERS.length() + 2));
+        sql.append(INSERT_PREFIX);
+        for (int i = 0; i < rows; i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append(ROW_PLACEHOLDERS);
+        }
+        return sql.toString();
+    }
+}
@@ -0,0 +1,40 @@
+package com.urlshortener.telemetry.db;
+
+import java.util.List;
+import java.util.Map;
+
+import org.jdbi.v3.sqlobject.customizer.Bind;
+import org.jdbi.v3.sqlobject.customizer.BindMethods;
+import org.jdbi.v3.sqlobject.customizer.Define;
+import org.jdbi.v3.sqlobject.statement.SqlBatch;
+import org.jdbi.v3.sqlobject.transaction.Transaction;
+
+import com.urlshortener.rollup.RollupGranularity;
+
+public interface ClickCountDAO {
+
+    /**
+     * Applies one summed increment per link in a single JDBC batch and transaction.
+     */
+    @SqlBatch("UPDATE links SET click_count = click_count + :increment WHERE id = :linkId")
+    @Transaction
+    int[] incrementClickCounts(@Bind("linkId") List<Long> linkIds, @Bind("increment") List<Long> increments);
+
+    /**
+     * Adds each rollup's clicks to its bucket in {@code table}, creating the buckets not stored yet.
+     */
+    @SqlBatch("INSERT INTO <table> (link_id, bucket_start, clicks) VALUES (:linkId, :bucketStart, :clicks) "
+            + "ON DUPLICATE KEY UPDATE clicks = clicks + :clicks")
+    void incrementRollups(@Define("table") String table, @BindMethods List<ClickRollup> rollups);
+
+    /**
+     * Applies link click counts and their rollups in one transaction, so that a flush retried
+     * after a failure cannot apply either of them twice.
+     */
+    @Transaction
+    default void applyClickCounts(List<Long> linkIds, List<Long> increments,
+                                  Map<RollupGranularity, List<ClickRollup>> rollups) {
+        incrementClickCounts(linkIds, increments);
+        rollups.forEach((granularity, buckets) -> incrementRollups(granularity.getTable(), buckets));
+    }
+}
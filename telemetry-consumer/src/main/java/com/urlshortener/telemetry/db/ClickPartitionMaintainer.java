@@ -0,0 +1,213 @@
+package com.urlshortener.telemetry.db;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.jdbi.v3.core.Handle;
+import org.jdbi.v3.core.Jdbi;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.urlshortener.telemetry.TelemetryConsumerConfiguration.ClickPartitionConfiguration;
+import com.urlshortener.telemetry.archive.ClickArchiver;
+
+import io.dropwizard.lifecycle.Managed;
+
+import static com.codahale.metrics.MetricRegistry.name;
+import static java.util.concurrent.Executors.newSingleThreadScheduledExecutor;
+
+/**
+ * Background task that keeps the clicks table, partitioned by UTC day of click_timestamp on
+ * MySQL, a few days ahead of the clock and within its retention. New days are split off the
+ * empty {@code MAXVALUE} partition, which is a metadata change, and expired days are dropped
+ * whole rather than deleted row by row. With a {@link ClickArchiver}, each expired day is copied
+ * to an archive file first, and is dropped only once its archive is complete.
+ *
+ * <p>Each run takes a MySQL named lock, so when several consumers run it only one changes the
+ * table at a time. A run that fails is retried at the next interval; until then clicks past the
+ * last day go to the {@code MAXVALUE} partition and are moved into their day when it is created.
+ */
+public class ClickPartitionMaintainer implements Managed {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ClickPartitionMaintainer.class);
+
+    private static final long DAY_SECONDS = TimeUnit.DAYS.toSeconds(1);
+    private static final String LOCK_NAME = "clicks-partition-maintenance";
+    private static final DateTimeFormatter PARTITION_NAME = DateTimeFormatter.ofPattern("'p'yyyyMMdd")
+            .withZone(ZoneOffset.UTC);
+
+    private final Jdbi jdbi;
+    // Null when clicks are dropped without being archived
+    private final ClickArchiver archiver;
+    private final long retentionSeconds;
+    private final int daysAhead;
+    private final long checkIntervalMs;
+    private final Meter created;
+    private final Meter dropped;
+
+    private ScheduledExecutorService scheduler;
+
+    public ClickPartitionMaintainer(Jdbi jdbi, ClickPartitionConfiguration config, ClickArchiver archiver,
+                                    MetricRegistry metrics) {
+        this.jdbi = jdbi;
+        this.archiver = archiver;
+        this.retentionSeconds = config.getRetention().toSeconds();
+        this.daysAhead = config.getDaysAhead();
+        this.checkIntervalMs = config.getCheckInterval().toMilliseconds();
+        this.created = metrics.meter(name(ClickPartitionMaintainer.class, "created"));
+        this.dropped = metrics.meter(name(ClickPartitionMaintainer.class, "dropped"));
+    }
+
+    /**
+     * One partition of clicks, holding clicks before {@code lessThanSeconds} in epoch seconds,
+     * which is null for the {@code MAXVALUE} partition.
+     */
+    record Partition(String name, Long lessThanSeconds) {
+    }
+
+    /**
+     * The partitions to drop and the ends of the days to split off the {@code MAXVALUE} partition.
+     */
+    record Plan(List<String> drop, List<Long> create) {
+
+        boolean isEmpty() {
+            return drop.isEmpty() && create.isEmpty();
+        }
+    }
+
+    /**
+     * Creates the partitions for today and the next {@code daysAhead} days and drops those whose
+     * clicks are all older than the retention, archiving them first if archiving is enabled.
+     *
+     * @return the changes made, empty if another consumer holds the lock or clicks is not
+     * partitioned
+     * @throws IOException if an archive could not be written; no partition is dropped unarchived
+     */
+    public Plan maintain() throws IOException {
+        return jdbi.withHandle(handle -> {
+            if (handle.createQuery("SELECT GET_LOCK(:name, 0)").bind("name", LOCK_NAME).mapTo(Integer.class).one() != 1) {
+                return new Plan(List.of(), List.of());
+            }
+            try {
+                return maintain(handle);
+            } finally {
+                handle.createQuery("SELECT RELEASE_LOCK(:name)").bind("name", LOCK_NAME).mapTo(Integer.class).one();
+            }
+        });
+    }
+
+    private Plan maintain(Handle handle) throws IOException {
+        List<Partition> partitions = handle.createQuery("SELECT partition_name, partition_description "
+                        + "FROM information_schema.partitions WHERE table_schema = DATABASE() AND table_name = 'clicks' "
+                        + "AND partition_name IS NOT NULL ORDER BY partition_ordinal_position")
+                .map((rs, ctx) -> {
+                    String lessThan = rs.getString("partition_description");
+                    return new Partition(rs.getString("partition_name"),
+                            "MAXVALUE".equals(lessThan) ? null : Long.parseLong(lessThan));
+                })
+                .list();
+        Partition catchAll = partitions.isEmpty() ? null : partitions.get(partitions.size() - 1);
+        if (catchAll == null || catchAll.lessThanSeconds() != null) {
+            LOGGER.warn("clicks is not partitioned by day with a MAXVALUE partition; skipping partition maintenance");
+            return new Plan(List.of(), List.of());
+        }
+
+        Plan plan = plan(partitions, System.currentTimeMillis() / 1000, retentionSeconds, daysAhead);
+        if (!plan.create().isEmpty()) {
+            handle.execute(reorganizeStatement(catchAll.name(), plan.create()));
+            created.mark(plan.create().size());
+            LOGGER.info("Created {} clicks partitions through {}", plan.create().size(),
+                    partitionName(plan.create().get(plan.create().size() - 1)));
+        }
+        if (!plan.drop().isEmpty()) {
+            if (archiver != null) {
+                for (String partition : plan.drop()) {
+                    archiver.archive(handle, partition);
+                }
+            }
+            handle.execute(dropStatement(plan.drop()));
+            dropped.mark(plan.drop().size());
+            LOGGER.info("Dropped expired clicks partitions {}", plan.drop());
+        }
+        if (archiver != null) {
+            archiver.deleteExpired(System.currentTimeMillis());
+        }
+        return plan;
+    }
+
+    /**
+     * Plans the days to create, through the end of today plus {@code daysAhead} days, and the
+     * bounded partitions that end at least {@code retentionSeconds} before {@code nowSeconds}.
+     * The last partition must be the {@code MAXVALUE} one.
+     */
+    static Plan plan(List<Partition> partitions, long nowSeconds, long retentionSeconds, int daysAhead) {
+        long todayStart = nowSeconds - Math.floorMod(nowSeconds, DAY_SECONDS);
+        long lastNeeded = todayStart + (daysAhead + 1) * DAY_SECONDS;
+        long lastEnd = partitions.stream()
+                .map(Partition::lessThanSeconds)
+                .filter(lessThan -> lessThan != null)
+                .mapToLong(Long::longValue)
+                .max()
+                .orElse(todayStart);
+
+        List<Long> create = new ArrayList<>();
+        for (long end = lastEnd + DAY_SECONDS; end <= lastNeeded; end += DAY_SECONDS) {
+            create.add(end);
+        }
+        List<String> drop = partitions.stream()
+                .filter(partition -> partition.lessThanSeconds() != null)
+                .filter(partition -> partition.lessThanSeconds() <= nowSeconds - retentionSeconds)
+                .map(Partition::name)
+                .toList();
+        return new Plan(drop, create);
+    }
+
+    static String reorganizeStatement(String catchAll, List<Long> ends) {
+        StringBuilder sql = new StringBuilder("ALTER TABLE clicks REORGANIZE PARTITION ")
+                .append(catchAll)
+                .append(" INTO (");
+        for (long end : ends) {
+            sql.append("PARTITION ").append(partitionName(end)).append(" VALUES LESS THAN (").append(end).append("), ");
+        }
+        return sql.append("PARTITION ").append(catchAll).append(" VALUES LESS THAN MAXVALUE)").toString();
+    }
+
+    static String dropStatement(List<String> partitions) {
+        return "ALTER TABLE clicks DROP PARTITION " + String.join(", ", partitions);
+    }
+
+    // Named after the day the partition holds
+    private static String partitionName(long endSeconds) {
+        return PARTITION_NAME.format(Instant.ofEpochSecond(endSeconds - DAY_SECONDS));
+    }
+
+    @Override
+    public void start() {
+        scheduler = newSingleThreadScheduledExecutor(
+                new ThreadFactoryBuilder().setNameFormat("click-partition-maintainer").setDaemon(true).build());
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                maintain();
+            } catch (Exception e) {
+                LOGGER.error("Click partition maintenance failed: {}", e.getMessage());
+            }
+        }, 0, checkIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void stop() throws InterruptedException {
+        if (scheduler != null) {
+            scheduler.shutdown();
+            scheduler.awaitTermination(5, TimeUnit.SECONDS);
+        }
+    }
+}
@@ -0,0 +1,9 @@
+package com.urlshortener.telemetry.db;
+
+import java.sql.Timestamp;
+
+/**
+ * Clicks to add to one link's bucket in a rollup table.
+ */
+public record ClickRollup(long linkId, Timestamp bucketStart, long clicks) {
+}
@@ -0,0 +1,114 @@
+package com.urlshortener.telemetry.db;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import org.jdbi.v3.core.Handle;
+import org.jdbi.v3.core.Jdbi;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Builds the click rollups from clicks rows stored before the consumer maintained them. Clicks
+ * are read in id order a chunk at a time, and each chunk's rollups are added in the transaction
+ * that records, in click_rollup_backfill, the id to continue from. A backfill that stops resumes
+ * when run again, without adding any chunk twice.
+ */
+public class ClickRollupBackfill {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ClickRollupBackfill.class);
+    private static final String NAME = "clicks";
+
+    private final Jdbi jdbi;
+    private final int chunkSize;
+    private final Duration progressInterval;
+
+    public ClickRollupBackfill(Jdbi jdbi, int chunkSize, Duration progressInterval) {
+        this.jdbi = jdbi;
+        this.chunkSize = chunkSize;
+        this.progressInterval = progressInterval;
+    }
+
+    /**
+     * Rolls up every click with an id up to {@code throughId}, which should be the highest id
+     * stored before a consumer maintaining rollups started; later clicks are rolled up already.
+     *
+     * @return The number of clicks rolled up by this run
+     * @throws IllegalArgumentException if an earlier run was started with another {@code throughId}
+     */
+    public long run(long throughId) {
+        jdbi.useTransaction(handle -> start(handle, throughId));
+
+        long clicks = 0;
+        long lastReport = System.nanoTime();
+        while (true) {
+            Chunk chunk = jdbi.inTransaction(handle -> rollUpChunk(handle, throughId));
+            if (chunk.clicks() == 0) {
+                return clicks;
+            }
+            clicks += chunk.clicks();
+            if (System.nanoTime() - lastReport >= progressInterval.toNanos()) {
+                LOGGER.info("Rolled up {} clicks, through id {} of {}", clicks, chunk.lastId(), throughId);
+                lastReport = System.nanoTime();
+            }
+        }
+    }
+
+    private static void start(Handle handle, long throughId) {
+        Optional<Long> started = handle
+                .createQuery("SELECT through_click_id FROM click_rollup_backfill WHERE name = :name FOR UPDATE")
+                .bind("name", NAME)
+                .mapTo(Long.class)
+                .findOne();
+        if (started.isEmpty()) {
+            handle.createUpdate("INSERT INTO click_rollup_backfill (name, next_click_id, through_click_id) "
+                            + "VALUES (:name, 0, :throughId)")
+                    .bind("name", NAME)
+                    .bind("throughId", throughId)
+                    .execute();
+        } else if (started.get() != throughId) {
+            throw new IllegalArgumentException("A backfill through click id " + started.get()
+                    + " was already started; run it again with that id to resume it");
+        }
+    }
+
+    private Chunk rollUpChunk(Handle handle, long throughId) {
+        long next = handle.createQuery("SELECT next_click_id FROM click_rollup_backfill WHERE name = :name FOR UPDATE")
+                .bind("name", NAME)
+                .mapTo(Long.class)
+                .one();
+        List<Click> clicks = handle.createQuery("SELECT id, link_id, click_timestamp FROM clicks "
+                        + "WHERE id >= :next AND id <= :throughId ORDER BY id LIMIT :limit")
+                .bind("next", next)
+                .bind("throughId", throughId)
+                .bind("limit", chunkSize)
+                .map((rs, ctx) -> new Click(rs.getLong("id"), rs.getLong("link_id"),
+                        rs.getTimestamp("click_timestamp").getTime()))
+                .list();
+        if (clicks.isEmpty()) {
+            return new Chunk(0, next - 1);
+        }
+
+        ClickRollups rollups = new ClickRollups();
+        for (Click click : clicks) {
+            rollups.add(click.linkId(), click.timestampMillis(), 1);
+        }
+        ClickCountDAO clickCountDAO = handle.attach(ClickCountDAO.class);
+        rollups.toClickRollups().forEach((granularity, buckets) ->
+                clickCountDAO.incrementRollups(granularity.getTable(), buckets));
+
+        long lastId = clicks.get(clicks.size() - 1).id();
+        handle.createUpdate("UPDATE click_rollup_backfill SET next_click_id = :next WHERE name = :name")
+                .bind("next", lastId + 1)
+                .bind("name", NAME)
+                .execute();
+        return new Chunk(clicks.size(), lastId);
+    }
+
+    private record Click(long id, long linkId, long timestampMillis) {
+    }
+
+    private record Chunk(int clicks, long lastId) {
+    }
+}
@@ -0,0 +1,39 @@
+package com.urlshortener.telemetry.db;
+
+import java.sql.Timestamp;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.urlshortener.rollup.RollupGranularity;
+
+/**
+ * Sums clicks into each link's minute, hour and day buckets, ready for
+ * {@link ClickCountDAO#incrementRollups}. Not thread-safe.
+ */
+public class ClickRollups {
+
+    private final Map<RollupGranularity, Map<Bucket, Long>> counts = new EnumMap<>(RollupGranularity.class);
+
+    public void add(long linkId, long timestampMillis, long clicks) {
+        for (RollupGranularity granularity : RollupGranularity.values()) {
+            Bucket bucket = new Bucket(linkId, granularity.bucketStart(timestampMillis));
+            counts.computeIfAbsent(granularity, g -> new HashMap<>()).merge(bucket, clicks, Long::sum);
+        }
+    }
+
+    /**
+     * @return the summed clicks of every bucket, by granularity
+     */
+    public Map<RollupGranularity, List<ClickRollup>> toClickRollups() {
+        Map<RollupGranularity, List<ClickRollup>> rollups = new EnumMap<>(RollupGranularity.class);
+        counts.forEach((granularity, buckets) -> rollups.put(granularity, buckets.entrySet().stream()
+                .map(e -> new ClickRollup(e.getKey().linkId(), new Timestamp(e.getKey().startMillis()), e.getValue()))
+                .toList()));
+        return rollups;
+    }
+
+    private record Bucket(long linkId, long startMillis) {
+    }
+}
@@ -0,0 +1,105 @@
+package com.urlshortener.telemetry.db;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.jdbi.v3.core.Handle;
+import org.jdbi.v3.core.Jdbi;
+import org.jdbi.v3.core.statement.PreparedBatch;
+import org.jdbi.v3.core.statement.Query;
+
+import com.urlshortener.sketch.HyperLogLog;
+
+/**
+ * Merges visitor sketches into the link_visitor_sketches table. Stored sketches for the same
+ * link and hour are read with {@code FOR UPDATE}, merged in memory and written back in one
+ * transaction, so consumers sharing a bucket during a rebalance do not lose each other's visitors.
+ */
+public class VisitorSketchWriter {
+
+    // Keeps the IN list of one SELECT well under the database's placeholder limit
+    private static final int SELECT_CHUNK_SIZE = 500;
+
+    private final Jdbi jdbi;
+
+    public VisitorSketchWriter(Jdbi jdbi) {
+        this.jdbi = jdbi;
+    }
+
+    /**
+     * One link's visitors in the hour starting at {@code bucketStartMillis}.
+     */
+    public record Bucket(long linkId, long bucketStartMillis) {
+    }
+
+    /**
+     * Merges every sketch into its stored bucket, creating buckets that are not stored yet. The
+     * sketches passed in are left unchanged, so a failed merge can be retried with them.
+     *
+     * @return The number of buckets written
+     */
+    public int merge(Map<Bucket, HyperLogLog> sketches) {
+        if (sketches.isEmpty()) {
+            return 0;
+        }
+
+        return jdbi.inTransaction(handle -> {
+            Map<Bucket, HyperLogLog> stored = selectForUpdate(handle, new ArrayList<>(sketches.keySet()));
+
+            PreparedBatch updates = handle.prepareBatch(
+                    "UPDATE link_visitor_sketches SET sketch = ? WHERE link_id = ? AND bucket_start = ?");
+            PreparedBatch inserts = handle.prepareBatch(
+                    "INSERT INTO link_visitor_sketches (link_id, bucket_start, sketch) VALUES (?, ?, ?)");
+            sketches.forEach((bucket, sketch) -> {
+                HyperLogLog existing = stored.get(bucket);
+                if (existing != null) {
+                    existing.merge(sketch);
+                    updates.add(existing.toBytes(), bucket.linkId(), new Timestamp(bucket.bucketStartMillis()));
+                } else {
+                    inserts.add(bucket.linkId(), new Timestamp(bucket.bucketStartMillis()), sketch.toBytes());
+                }
+            });
+
+            if (updates.size() > 0) {
+                updates.execute();
+            }
+            if (inserts.size() > 0) {
+                inserts.execute();
+            }
+            return sketches.size();
+        });
+    }
+
+    private static Map<Bucket, HyperLogLog> selectForUpdate(Handle handle, List<Bucket> buckets) {
+        Map<Bucket, HyperLogLog> stored = new HashMap<>();
+        for (int from = 0; from < buckets.size(); from += SELECT_CHUNK_SIZE) {
+            List<Bucket> chunk = buckets.subList(from, Math.min(from + SELECT_CHUNK_SIZE, buckets.size()));
+            Query query = handle.createQuery(selectStatement(chunk.size()));
+            int position = 0;
+            for (Bucket bucket : chunk) {
+                query.bind(position++, bucket.linkId());
+                query.bind(position++, new Timestamp(bucket.bucketStartMillis()));
+            }
+            query.map((rs, ctx) -> Map.entry(
+                            new Bucket(rs.getLong("link_id"), rs.getTimestamp("bucket_start").getTime()),
+                            HyperLogLog.fromBytes(rs.getBytes("sketch"))))
+                    .forEach(entry -> stored.put(entry.getKey(), entry.getValue()));
+        }
+        return stored;
+    }
+
+    static String selectStatement(int buckets) {
+        StringBuilder sql = new StringBuilder(
+                "SELECT link_id, bucket_start, sketch FROM link_visitor_sketches WHERE (link_id, bucket_start) IN (");
+        for (int i = 0; i < buckets; i++) {
+            if (i > 0) {
+                sql.append(", ");
+            }
+            sql.append("(?, ?)");
+        }
+        return sql.append(") FOR UPDATE").toString();
+    }
+}
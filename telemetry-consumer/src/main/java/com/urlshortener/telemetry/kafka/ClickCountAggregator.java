@@ -0,0 +1,133 @@
+package com.urlshortener.telemetry.kafka;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.kafka.common.TopicPartition;
+
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.urlshortener.events.ClickEvent;
+import com.urlshortener.rollup.RollupGranularity;
+import com.urlshortener.telemetry.TelemetryConsumerConfiguration.ClickCountConfiguration;
+import com.urlshortener.telemetry.db.ClickCountDAO;
+import com.urlshortener.telemetry.db.ClickRollups;
+
+import static com.codahale.metrics.MetricRegistry.name;
+
+/**
+ * Sums click count increments per link in memory and applies them with one
+ * {@code click_count = click_count + ?} update per link, instead of one update per click, so a
+ * popular link's row is locked once per flush rather than once per click. The same flush adds the
+ * clicks to the link's minute, hour and day rollups, in the same transaction, so the rollups
+ * always agree with {@code click_count} and a retried flush applies neither twice.
+ *
+ * <p>Clicks are summed per link and minute, by their own timestamp, which is all the hour and day
+ * rollups need as well.
+ *
+ * <p>Increments are kept per partition so that those of a partition lost in a rebalance can be
+ * discarded; its new owner replays them from the last committed offset. Not thread-safe; it is
+ * only used from the consumer's poll thread.
+ */
+public class ClickCountAggregator {
+
+    private final ClickCountDAO clickCountDAO;
+    private final long flushIntervalNanos;
+    private final int maxPendingClicks;
+
+    private final Histogram flushSize;
+    private final Timer pendingAge;
+
+    private final Map<TopicPartition, Map<Bucket, Long>> pending = new HashMap<>();
+    private int pendingClicks;
+    private long oldestPendingNanos;
+
+    public ClickCountAggregator(ClickCountDAO clickCountDAO, ClickCountConfiguration config, MetricRegistry metrics) {
+        this.clickCountDAO = clickCountDAO;
+        this.flushIntervalNanos = config.getFlushIntervalMs() * 1_000_000L;
+        this.maxPendingClicks = config.getMaxPendingClicks();
+        this.flushSize = metrics.histogram(name(ClickCountAggregator.class, "flush-size"));
+        this.pendingAge = metrics.timer(name(ClickCountAggregator.class, "pending-age"));
+    }
+
+    /**
+     * Adds validated events, which carry their timestamp in epoch millis.
+     */
+    public void add(TopicPartition partition, List<ClickEvent> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        if (pendingClicks == 0) {
+            oldestPendingNanos = System.nanoTime();
+        }
+
+        Map<Bucket, Long> counts = pending.computeIfAbsent(partition, p -> new HashMap<>());
+        for (ClickEvent event : events) {
+            long minute = RollupGranularity.MINUTE.bucketStart(event.getTimestampMillis());
+            counts.merge(new Bucket(event.getLinkId(), minute), 1L, Long::sum);
+        }
+        pendingClicks += events.size();
+    }
+
+    /**
+     * Returns true once the oldest pending increment has waited a full flush interval, or enough
+     * clicks are pending.
+     */
+    public boolean shouldFlush() {
+        return pendingClicks > 0
+                && (pendingClicks >= maxPendingClicks || System.nanoTime() - oldestPendingNanos >= flushIntervalNanos);
+    }
+
+    public int getPendingClicks() {
+        return pendingClicks;
+    }
+
+    /**
+     * Applies every pending increment and rollup in one transaction. On failure nothing is cleared, so the
+     * next flush retries the same totals.
+     *
+     * @return The number of links updated
+     */
+    public int flush() {
+        if (pendingClicks == 0) {
+            return 0;
+        }
+
+        Map<Long, Long> totals = new HashMap<>();
+        ClickRollups rollups = new ClickRollups();
+        for (Map<Bucket, Long> counts : pending.values()) {
+            counts.forEach((minute, count) -> {
+                totals.merge(minute.linkId(), count, Long::sum);
+                rollups.add(minute.linkId(), minute.startMillis(), count);
+            });
+        }
+        clickCountDAO.applyClickCounts(new ArrayList<>(totals.keySet()), new ArrayList<>(totals.values()),
+                rollups.toClickRollups());
+
+        flushSize.update(totals.size());
+        pendingAge.update(System.nanoTime() - oldestPendingNanos, TimeUnit.NANOSECONDS);
+        pending.clear();
+        pendingClicks = 0;
+        return totals.size();
+    }
+
+    /**
+     * Drops the increments of partitions this consumer no longer owns without applying them.
+     */
+    public void discard(Collection<TopicPartition> partitions) {
+        for (TopicPartition partition : partitions) {
+            Map<Bucket, Long> counts = pending.remove(partition);
+            if (counts != null) {
+                pendingClicks -= (int) counts.values().stream().mapToLong(Long::longValue).sum();
+            }
+        }
+    }
+
+    private record Bucket(long linkId, long startMillis) {
+    }
+}
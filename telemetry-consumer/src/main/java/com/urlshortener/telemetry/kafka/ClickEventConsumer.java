@@ -0,0 +1,357 @@
+package com.urlshortener.telemetry.kafka;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRebalanceListener;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.common.KafkaException;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.errors.InterruptException;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.errors.WakeupException;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
+import com.urlshortener.events.ClickEvent;
+import com.urlshortener.events.ClickEventCodec;
+import com.urlshortener.events.EventValidator;
+import com.urlshortener.events.ValidationException;
+import com.urlshortener.telemetry.TelemetryConsumerConfiguration.KafkaConsumerConfiguration;
+import com.urlshortener.telemetry.db.ClickBatchWriter;
+import com.urlshortener.telemetry.trending.TrendingLinks;
+
+import io.dropwizard.lifecycle.Managed;
+
+import static com.codahale.metrics.MetricRegistry.name;
+
+/**
+ * Consumes click events from Kafka and stores them in micro-batches: every poll is validated and
+ * written to the clicks table in a single transaction, and its link click counts and visitors are
+ * handed to the {@link ClickCountAggregator} and {@link VisitorSketchAggregator}. Offsets are
+ * committed only after the batch and the counts and sketches covering it are stored. Inserted
+ * clicks also go to {@link TrendingLinks}. A batch that fails to insert is rewound and retried, so
+ * delivery is at-least-once.
+ *
+ * <p>The poll loop runs on its own thread, started and stopped with the application.
+ */
+public class ClickEventConsumer implements Managed, Runnable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ClickEventConsumer.class);
+
+    private final Consumer<String, byte[]> consumer;
+    private final String topicName;
+    private final ClickEventDeserializer deserializer;
+    private final EventValidator eventValidator;
+    private final ClickBatchWriter batchWriter;
+    private final ClickCountAggregator clickCountAggregator;
+    private final VisitorSketchAggregator visitorSketchAggregator;
+    private final TrendingLinks trendingLinks;
+    private final Duration pollTimeout;
+    private final long retryBackoffMs;
+
+    private final Meter consumed;
+    private final Meter consumedBinary;
+    private final Meter inserted;
+    private final Meter invalid;
+    private final Meter failedBatches;
+    private final Meter failedCommits;
+    private final Histogram batchSize;
+    private final Timer commitLatency;
+    // From the click's own timestamp, taken by the API, to its row being inserted here
+    private final Timer clickToInsert;
+
+    // Offsets of inserted batches, committed once their click counts are flushed
+    private final Map<TopicPartition, OffsetAndMetadata> pendingOffsets = new HashMap<>();
+
+    private volatile boolean running;
+    private Thread pollThread;
+
+    public ClickEventConsumer(KafkaConsumerConfiguration config, ClickEventDeserializer deserializer,
+                              EventValidator eventValidator, ClickBatchWriter batchWriter,
+                              ClickCountAggregator clickCountAggregator,
+                              VisitorSketchAggregator visitorSketchAggregator, TrendingLinks trendingLinks,
+                              MetricRegistry metrics) {
+        this(createConsumer(config), config, deserializer, eventValidator, batchWriter, clickCountAggregator,
+                visitorSketchAggregator, trendingLinks, metrics);
+    }
+
+    /**
+     * Constructor for testing that accepts a Consumer, such as Kafka's MockConsumer.
+     */
+    public ClickEventConsumer(Consumer<String, byte[]> consumer, KafkaConsumerConfiguration config,
+                              ClickEventDeserializer deserializer, EventValidator eventValidator,
+                              ClickBatchWriter batchWriter, ClickCountAggregator clickCountAggregator,
+                              VisitorSketchAggregator visitorSketchAggregator, TrendingLinks trendingLinks,
+                              MetricRegistry metrics) {
+        this.consumer = consumer;
+        this.topicName = config.getTopicName();
+        this.deserializer = deserializer;
+        this.eventValidator = eventValidator;
+        this.batchWriter = batchWriter;
+        this.clickCountAggregator = clickCountAggregator;
+        this.visitorSketchAggregator = visitorSketchAggregator;
+        this.trendingLinks = trendingLinks;
+        this.pollTimeout = Duration.ofMillis(config.getPollTimeoutMs());
+        this.retryBackoffMs = config.getRetryBackoffMs();
+
+        this.consumed = metrics.meter(name(ClickEventConsumer.class, "consumed"));
+        this.consumedBinary = metrics.meter(name(ClickEventConsumer.class, "consumed-binary"));
+        this.inserted = metrics.meter(name(ClickEventConsumer.class, "inserted"));
+        this.invalid = metrics.meter(name(ClickEventConsumer.class, "invalid"));
+        this.failedBatches = metrics.meter(name(ClickEventConsumer.class, "failed-batches"));
+        this.failedCommits = metrics.meter(name(ClickEventConsumer.class, "failed-commits"));
+        this.batchSize = metrics.histogram(name(ClickEventConsumer.class, "batch-size"));
+        this.commitLatency = metrics.timer(name(ClickEventConsumer.class, "commit-latency"));
+        this.clickToInsert = metrics.timer(name(ClickEventConsumer.class, "click-to-insert"));
+    }
+
+    // Values are deserialized per record in process(), so one bad record cannot fail the whole poll
+    private static KafkaConsumer<String, byte[]> createConsumer(KafkaConsumerConfiguration config) {
+        Properties props = new Properties();
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, config.getBootstrapServers());
+        props.put(ConsumerConfig.GROUP_ID_CONFIG, config.getGroupId());
+        props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class.getName());
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class.getName());
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, config.getAutoOffsetReset());
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, config.isEnableAutoCommit());
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, config.getMaxPollRecords());
+        props.put(ConsumerConfig.SESSION_TIMEOUT_MS_CONFIG, config.getSessionTimeoutMs());
+        props.put(ConsumerConfig.MAX_POLL_INTERVAL_MS_CONFIG, config.getMaxPollIntervalMs());
+
+        return new KafkaConsumer<>(props);
+    }
+
+    /**
+     * Polls once and stores the returned batch, then flushes click counts and commits offsets
+     * if they are due.
+     *
+     * @return The number of click events inserted
+     */
+    public int pollOnce() {
+        ConsumerRecords<String, byte[]> records = consumer.poll(pollTimeout);
+        int rows = records.isEmpty() ? 0 : process(records);
+        commitIfDue();
+        return rows;
+    }
+
+    private int process(ConsumerRecords<String, byte[]> records) {
+        consumed.mark(records.count());
+
+        List<ClickEvent> events = new ArrayList<>(records.count());
+        Map<TopicPartition, List<ClickEvent>> eventsByPartition = new HashMap<>();
+        for (TopicPartition partition : records.partitions()) {
+            List<ClickEvent> partitionEvents = new ArrayList<>();
+            for (ConsumerRecord<String, byte[]> record : records.records(partition)) {
+                try {
+                    partitionEvents.add(eventValidator.validate(read(record)));
+                } catch (ValidationException | SerializationException e) {
+                    // Malformed events can never be inserted; skip them rather than block the partition
+                    invalid.mark();
+                    LOGGER.warn("Skipping invalid click event at {}-{} offset {}: {}",
+                            record.topic(), record.partition(), record.offset(), e.getMessage());
+                }
+            }
+            events.addAll(partitionEvents);
+            eventsByPartition.put(partition, partitionEvents);
+        }
+        batchSize.update(events.size());
+
+        int rows;
+        try (Timer.Context ignored = commitLatency.time()) {
+            rows = batchWriter.insert(events);
+        } catch (RuntimeException e) {
+            failedBatches.mark();
+            LOGGER.error("Failed to insert batch of {} click events, retrying in {} ms: {}",
+                    events.size(), retryBackoffMs, e.getMessage());
+            rewind(records);
+            backOff();
+            return 0;
+        }
+        inserted.mark(rows);
+        long insertedAt = System.currentTimeMillis();
+        for (ClickEvent event : events) {
+            clickToInsert.update(insertedAt - event.getTimestampMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        eventsByPartition.forEach(clickCountAggregator::add);
+        visitorSketchAggregator.add(events);
+        trendingLinks.add(events);
+        pendingOffsets.putAll(nextOffsets(records));
+        return rows;
+    }
+
+    private ClickEvent read(ConsumerRecord<String, byte[]> record) throws ValidationException {
+        if (ClickEventCodec.isBinary(record.value())) {
+            consumedBinary.mark();
+        }
+        ClickEvent event = deserializer.deserialize(record.topic(), record.value());
+        if (event == null) {
+            throw new ValidationException("Click event cannot be empty");
+        }
+        return event;
+    }
+
+    private void commitIfDue() {
+        if (!pendingOffsets.isEmpty()
+                && (clickCountAggregator.getPendingClicks() == 0 || clickCountAggregator.shouldFlush())) {
+            if (!flushAndCommit()) {
+                backOff();
+            }
+        }
+    }
+
+    /**
+     * Merges pending visitor sketches, applies pending click counts and then commits the offsets
+     * they cover. Offsets are never committed ahead of the counts, so a crash replays clicks
+     * rather than losing their counts. Sketches go first: merging them again is harmless, while
+     * counts applied before a failed sketch merge would be applied twice on the retry.
+     *
+     * <p>A failed commit is logged and its offsets dropped rather than retried, since the consumer
+     * may no longer own the partitions.
+     *
+     * @return false if the sketches or counts could not be stored and nothing was committed
+     */
+    private boolean flushAndCommit() {
+        try {
+            visitorSketchAggregator.flush();
+        } catch (RuntimeException e) {
+            LOGGER.error("Failed to merge {} pending visitor sketches: {}",
+                    visitorSketchAggregator.getPendingBuckets(), e.getMessage());
+            return false;
+        }
+
+        try {
+            clickCountAggregator.flush();
+        } catch (RuntimeException e) {
+            LOGGER.error("Failed to flush {} pending click counts: {}",
+                    clickCountAggregator.getPendingClicks(), e.getMessage());
+            return false;
+        }
+
+        if (!pendingOffsets.isEmpty()) {
+            try {
+                consumer.commitSync(pendingOffsets);
+            } catch (WakeupException | InterruptException e) {
+                throw e;
+            } catch (KafkaException e) {
+                // Typically a rebalance moved the partitions on; their new owners replay from the last commit
+                failedCommits.mark();
+                LOGGER.warn("Failed to commit offsets for {}, their clicks will be replayed: {}",
+                        pendingOffsets.keySet(), e.getMessage());
+            }
+            pendingOffsets.clear();
+        }
+        return true;
+    }
+
+    private void rewind(ConsumerRecords<String, byte[]> records) {
+        for (TopicPartition partition : records.partitions()) {
+            consumer.seek(partition, records.records(partition).get(0).offset());
+        }
+    }
+
+    private static Map<TopicPartition, OffsetAndMetadata> nextOffsets(ConsumerRecords<String, byte[]> records) {
+        Map<TopicPartition, OffsetAndMetadata> offsets = new HashMap<>();
+        for (TopicPartition partition : records.partitions()) {
+            List<ConsumerRecord<String, byte[]>> partitionRecords = records.records(partition);
+            long lastOffset = partitionRecords.get(partitionRecords.size() - 1).offset();
+            offsets.put(partition, new OffsetAndMetadata(lastOffset + 1));
+        }
+        return offsets;
+    }
+
+    private void backOff() {
+        try {
+            Thread.sleep(retryBackoffMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (running) {
+                pollOnce();
+            }
+        } catch (WakeupException e) {
+            if (running) {
+                throw e;
+            }
+        } catch (RuntimeException e) {
+            LOGGER.error("Click event consumer stopped unexpectedly: {}", e.getMessage(), e);
+        } finally {
+            flushBeforeClose();
+            consumer.close();
+            LOGGER.info("Click event consumer closed");
+        }
+    }
+
+    private void flushBeforeClose() {
+        try {
+            flushAndCommit();
+        } catch (RuntimeException e) {
+            LOGGER.warn("Could not commit click counts on shutdown, they will be replayed: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void start() {
+        consumer.subscribe(List.of(topicName), new RebalanceListener());
+        running = true;
+        pollThread = new Thread(this, "click-event-consumer");
+        pollThread.start();
+        LOGGER.info("Click event consumer subscribed to topic: {}", topicName);
+    }
+
+    @Override
+    public void stop() throws InterruptedException {
+        running = false;
+        consumer.wakeup();
+        if (pollThread != null) {
+            pollThread.join(pollTimeout.toMillis() + retryBackoffMs + 5000);
+        }
+    }
+
+    /**
+     * Settles pending counts before partitions move to another consumer. Counts that cannot be
+     * committed for a partition are dropped, because its new owner replays them.
+     */
+    private class RebalanceListener implements ConsumerRebalanceListener {
+
+        @Override
+        public void onPartitionsRevoked(Collection<TopicPartition> partitions) {
+            if (!flushAndCommit()) {
+                onPartitionsLost(partitions);
+            }
+        }
+
+        @Override
+        public void onPartitionsAssigned(Collection<TopicPartition> partitions) {
+        }
+
+        @Override
+        public void onPartitionsLost(Collection<TopicPartition> partitions) {
+            clickCountAggregator.discard(partitions);
+            pendingOffsets.keySet().removeAll(partitions);
+        }
+    }
+}
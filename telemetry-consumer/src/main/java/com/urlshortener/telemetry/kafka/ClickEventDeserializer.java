@@ -0,0 +1,43 @@
+package com.urlshortener.telemetry.kafka;
+
+import java.io.IOException;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.urlshortener.events.ClickEvent;
+import com.urlshortener.events.ClickEventCodec;
+import com.urlshortener.events.ClickEventJsonReader;
+
+/**
+ * Reads click events from the link_clicks topic in either format the API publishes: the
+ * {@link ClickEventCodec} binary encoding, recognised by its first byte, or JSON. Both can be on
+ * the topic at once while producers switch format.
+ */
+public class ClickEventDeserializer implements Deserializer<ClickEvent> {
+
+    private final ClickEventJsonReader jsonReader;
+
+    public ClickEventDeserializer(ObjectMapper objectMapper) {
+        this.jsonReader = new ClickEventJsonReader(objectMapper.getFactory());
+    }
+
+    /**
+     * @throws SerializationException if the value is neither a binary click event of a known
+     *                                version nor a JSON click event
+     */
+    @Override
+    public ClickEvent deserialize(String topic, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        try {
+            return ClickEventCodec.isBinary(data)
+                    ? ClickEventCodec.decode(data)
+                    : jsonReader.read(data);
+        } catch (IOException | IllegalArgumentException e) {
+            throw new SerializationException("Could not read click event: " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.urlshortener.telemetry.kafka;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.base.Strings;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import com.urlshortener.events.ClickEvent;
+import com.urlshortener.sketch.HyperLogLog;
+import com.urlshortener.telemetry.db.VisitorSketchWriter;
+import com.urlshortener.telemetry.db.VisitorSketchWriter.Bucket;
+
+import static com.codahale.metrics.MetricRegistry.name;
+
+/**
+ * Collects the distinct visitors, by IP address and user agent, of each link in each hour into
+ * HyperLogLog sketches, and merges them into the stored sketches when flushed.
+ *
+ * <p>Adding a visitor a sketch has already seen changes nothing, so replayed clicks are harmless
+ * and, unlike click counts, sketches of partitions lost in a rebalance need not be discarded.
+ * Not thread-safe; it is only used from the consumer's poll thread.
+ */
+public class VisitorSketchAggregator {
+
+    private static final long BUCKET_MILLIS = TimeUnit.HOURS.toMillis(1);
+    private static final HashFunction VISITOR_HASH = Hashing.murmur3_128();
+
+    private final VisitorSketchWriter sketchWriter;
+    private final Histogram flushSize;
+
+    private final Map<Bucket, HyperLogLog> pending = new HashMap<>();
+
+    public VisitorSketchAggregator(VisitorSketchWriter sketchWriter, MetricRegistry metrics) {
+        this.sketchWriter = sketchWriter;
+        this.flushSize = metrics.histogram(name(VisitorSketchAggregator.class, "flush-size"));
+    }
+
+    /**
+     * Adds validated events, which carry their timestamp in epoch millis.
+     */
+    public void add(List<ClickEvent> events) {
+        for (ClickEvent event : events) {
+            long timestamp = event.getTimestampMillis();
+            Bucket bucket = new Bucket(event.getLinkId(), timestamp - Math.floorMod(timestamp, BUCKET_MILLIS));
+            pending.computeIfAbsent(bucket, b -> new HyperLogLog()).add(visitorHash(event));
+        }
+    }
+
+    public int getPendingBuckets() {
+        return pending.size();
+    }
+
+    /**
+     * Merges every pending sketch into the stored ones in one transaction. On failure nothing is
+     * cleared, so the next flush retries the same sketches.
+     *
+     * @return The number of link hours written
+     */
+    public int flush() {
+        if (pending.isEmpty()) {
+            return 0;
+        }
+
+        int buckets = sketchWriter.merge(pending);
+        flushSize.update(buckets);
+        pending.clear();
+        return buckets;
+    }
+
+    static long visitorHash(ClickEvent event) {
+        return VISITOR_HASH.newHasher()
+                .putString(Strings.nullToEmpty(event.getIpAddress()), StandardCharsets.UTF_8)
+                .putByte((byte) 0)
+                .putString(Strings.nullToEmpty(event.getUserAgent()), StandardCharsets.UTF_8)
+                .hash()
+                .asLong();
+    }
+}
@@ -0,0 +1,26 @@
+package com.urlshortener.telemetry.models;
+
+import java.util.List;
+
+import com.urlshortener.telemetry.trending.TrendingLinks.TrendingLink;
+
+public class TrendingLinksResponse {
+    private long windowSeconds;
+    private List<TrendingLink> links;
+
+    private TrendingLinksResponse() {
+    }
+
+    public TrendingLinksResponse(long windowSeconds, List<TrendingLink> links) {
+        this.windowSeconds = windowSeconds;
+        this.links = links;
+    }
+
+    public long getWindowSeconds() {
+        return windowSeconds;
+    }
+
+    public List<TrendingLink> getLinks() {
+        return links;
+    }
+}
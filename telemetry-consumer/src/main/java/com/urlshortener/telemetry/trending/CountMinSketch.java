@@ -0,0 +1,73 @@
+package com.urlshortener.telemetry.trending;
+
+import java.util.Arrays;
+
+/**
+ * Count-Min sketch: approximate counts of any number of distinct keys in a fixed
+ * {@code depth x width} table of counters. A key's estimate never falls below its true count
+ * and exceeds it by at most {@code e / width} of the total count with probability
+ * {@code 1 - e^-depth}.
+ *
+ * <p>Sketches of the same shape add and subtract counter by counter, which is what lets
+ * {@link TrendingLinks} keep a sliding window as the sum of per-slot sketches. Keys are given as
+ * a 64-bit hash whose halves derive the row indexes (Kirsch-Mitzenmacher). Not thread-safe.
+ */
+public class CountMinSketch {
+
+    private final int width;
+    private final int depth;
+    private final int[] counters;
+
+    public CountMinSketch(int width, int depth) {
+        if (width < 1 || depth < 1) {
+            throw new IllegalArgumentException("width and depth must be positive, got: " + width + "x" + depth);
+        }
+        this.width = width;
+        this.depth = depth;
+        this.counters = new int[width * depth];
+    }
+
+    public void add(long hash, int count) {
+        for (int row = 0; row < depth; row++) {
+            counters[cell(row, hash)] += count;
+        }
+    }
+
+    public long estimate(long hash) {
+        int min = Integer.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            min = Math.min(min, counters[cell(row, hash)]);
+        }
+        return min;
+    }
+
+    public void add(CountMinSketch other) {
+        checkShape(other);
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] += other.counters[i];
+        }
+    }
+
+    public void subtract(CountMinSketch other) {
+        checkShape(other);
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] -= other.counters[i];
+        }
+    }
+
+    public void clear() {
+        Arrays.fill(counters, 0);
+    }
+
+    private int cell(int row, long hash) {
+        int combined = (int) hash + row * (int) (hash >>> 32);
+        return row * width + Math.floorMod(combined, width);
+    }
+
+    private void checkShape(CountMinSketch other) {
+        if (other.width != width || other.depth != depth) {
+            throw new IllegalArgumentException("Cannot combine a " + other.depth + "x" + other.width
+                    + " sketch with a " + depth + "x" + width + " one");
+        }
+    }
+}
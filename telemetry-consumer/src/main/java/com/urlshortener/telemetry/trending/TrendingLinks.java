@@ -0,0 +1,146 @@
+package com.urlshortener.telemetry.trending;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.LongSupplier;
+
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.hash.HashFunction;
+import com.google.common.hash.Hashing;
+import com.urlshortener.events.ClickEvent;
+import com.urlshortener.telemetry.TelemetryConsumerConfiguration.TrendingConfiguration;
+
+import static com.codahale.metrics.MetricRegistry.name;
+
+/**
+ * The most clicked short codes over a sliding window, kept in fixed memory however many links
+ * are clicked.
+ *
+ * <p>The window is split into slots, each with its own {@link CountMinSketch}, and a window
+ * sketch holds their sum: when a slot expires its sketch is subtracted and cleared. The window
+ * so covers between {@code slots - 1} and {@code slots} slot lengths of history. Alongside, a
+ * min-heap keeps the {@code size} short codes with the highest estimates: a clicked code replaces
+ * the heap's minimum once its estimate is higher, and when a slot expires every code in the heap
+ * is estimated again.
+ *
+ * <p>Clicks are counted when this consumer reads them, so a backlog does not appear as a spike;
+ * clicks whose own timestamp is already older than the window are skipped. Each instance counts
+ * only the partitions it consumes. Thread-safe: the poll thread adds while HTTP threads read.
+ */
+public class TrendingLinks {
+
+    private static final HashFunction SHORT_CODE_HASH = Hashing.murmur3_128();
+    private static final Comparator<Candidate> BY_CLICKS = Comparator.comparingLong(Candidate::clicks);
+
+    private final CountMinSketch window;
+    private final CountMinSketch[] slots;
+    private final long slotMillis;
+    private final long windowMillis;
+    private final int size;
+    private final LongSupplier clock;
+    private final Meter stale;
+
+    // Guarded by this
+    private final Map<String, Candidate> candidates = new HashMap<>();
+    private final PriorityQueue<Candidate> heap = new PriorityQueue<>(BY_CLICKS);
+    private int currentSlot;
+    private long currentSlotStart;
+
+    public TrendingLinks(TrendingConfiguration config, MetricRegistry metrics) {
+        this(config, metrics, System::currentTimeMillis);
+    }
+
+    TrendingLinks(TrendingConfiguration config, MetricRegistry metrics, LongSupplier clock) {
+        this.window = new CountMinSketch(config.getSketchWidth(), config.getSketchDepth());
+        this.slots = new CountMinSketch[config.getSlots()];
+        for (int i = 0; i < slots.length; i++) {
+            slots[i] = new CountMinSketch(config.getSketchWidth(), config.getSketchDepth());
+        }
+        this.windowMillis = config.getWindow().toMilliseconds();
+        this.slotMillis = Math.max(1, windowMillis / slots.length);
+        this.size = config.getSize();
+        this.clock = clock;
+        this.stale = metrics.meter(name(TrendingLinks.class, "stale"));
+        this.currentSlotStart = clock.getAsLong();
+    }
+
+    public synchronized void add(List<ClickEvent> events) {
+        long now = clock.getAsLong();
+        advance(now);
+        for (ClickEvent event : events) {
+            if (now - event.getTimestampMillis() > windowMillis) {
+                stale.mark();
+                continue;
+            }
+            add(event.getShortCode());
+        }
+    }
+
+    /**
+     * @return up to {@code limit} short codes and their estimated clicks in the window, most
+     * clicked first
+     */
+    public synchronized List<TrendingLink> top(int limit) {
+        advance(clock.getAsLong());
+        return heap.stream()
+                .sorted(BY_CLICKS.reversed())
+                .limit(limit)
+                .map(candidate -> new TrendingLink(candidate.shortCode(), candidate.clicks()))
+                .toList();
+    }
+
+    private void add(String shortCode) {
+        long hash = SHORT_CODE_HASH.hashString(shortCode, StandardCharsets.UTF_8).asLong();
+        slots[currentSlot].add(hash, 1);
+        window.add(hash, 1);
+
+        Candidate candidate = new Candidate(shortCode, hash, window.estimate(hash));
+        Candidate existing = candidates.get(shortCode);
+        if (existing != null) {
+            heap.remove(existing);
+        } else if (heap.size() >= size) {
+            if (heap.peek().clicks() >= candidate.clicks()) {
+                return;
+            }
+            candidates.remove(heap.poll().shortCode());
+        }
+        candidates.put(shortCode, candidate);
+        heap.add(candidate);
+    }
+
+    // Expires every slot that has ended since the last call
+    private void advance(long now) {
+        long elapsed = (now - currentSlotStart) / slotMillis;
+        if (elapsed <= 0) {
+            return;
+        }
+        for (long i = 0; i < Math.min(elapsed, slots.length); i++) {
+            currentSlot = (currentSlot + 1) % slots.length;
+            window.subtract(slots[currentSlot]);
+            slots[currentSlot].clear();
+        }
+        currentSlotStart += elapsed * slotMillis;
+
+        List<Candidate> remaining = heap.stream()
+                .map(candidate -> new Candidate(candidate.shortCode(), candidate.hash(), window.estimate(candidate.hash())))
+                .filter(candidate -> candidate.clicks() > 0)
+                .toList();
+        heap.clear();
+        candidates.clear();
+        for (Candidate candidate : remaining) {
+            heap.add(candidate);
+            candidates.put(candidate.shortCode(), candidate);
+        }
+    }
+
+    private record Candidate(String shortCode, long hash, long clicks) {
+    }
+
+    public record TrendingLink(String shortCode, long clicks) {
+    }
+}
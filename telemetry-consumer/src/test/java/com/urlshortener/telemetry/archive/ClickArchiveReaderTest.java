@@ -0,0 +1,105 @@
+package com.urlshortener.telemetry.archive;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class ClickArchiveReaderTest {
+
+    @TempDir
+    Path directory;
+
+    private List<ArchivedClick> clicks;
+    private Path file;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        // One click every 1.5s from 2024-01-15T00:00:00Z, in row groups of 1000
+        clicks = ClickArchiveWriterTest.clicks(5000);
+        file = ClickArchiveWriterTest.write(directory.resolve("clicks.clka"), clicks, 1000);
+    }
+
+    @Test
+    void scan_returnsTheClicksMatchingTheFilter() throws IOException {
+        // Given
+        ClickArchiveFilter filter = new ClickArchiveFilter(3L,
+                Instant.parse("2024-01-15T00:30:00Z"), Instant.parse("2024-01-15T01:00:00Z"));
+
+        // When
+        List<ArchivedClick> read = new ArrayList<>();
+        long matched = new ClickArchiveReader(file).scan(filter, Long.MAX_VALUE, read::add);
+
+        // Then
+        List<ArchivedClick> expected = clicks.stream().filter(filter::matches).toList();
+        assertEquals(expected.size(), matched);
+        assertEquals(expected, read);
+        assertEquals(172, matched);
+        assertTrue(read.stream().allMatch(click -> click.linkId() == 3));
+    }
+
+    @Test
+    void scan_stopsAtTheLimit() throws IOException {
+        // When
+        List<ArchivedClick> read = new ArrayList<>();
+        long matched = new ClickArchiveReader(file).scan(ClickArchiveFilter.all(), 10, read::add);
+
+        // Then
+        assertEquals(10, matched);
+        assertEquals(clicks.subList(0, 10), read);
+    }
+
+    @Test
+    void overlaps_skipsRowGroupsOutsideTheRange() {
+        ClickArchiveFilter filter = new ClickArchiveFilter(null,
+                Instant.parse("2024-01-15T01:00:00Z"), Instant.parse("2024-01-15T02:00:00Z"));
+        long hour = Instant.parse("2024-01-15T01:00:00Z").toEpochMilli();
+
+        assertTrue(filter.overlaps(hour - 10, hour));
+        assertTrue(filter.overlaps(hour + 3_599_999, hour + 4_000_000));
+        assertEquals(false, filter.overlaps(hour - 10, hour - 1));
+        assertEquals(false, filter.overlaps(hour + 3_600_000, hour + 4_000_000));
+    }
+
+    @Test
+    void summarize_readsOnlyTheRowGroupHeaders() throws IOException {
+        // When
+        ClickArchiveReader.Summary summary = new ClickArchiveReader(file).summarize();
+
+        // Then
+        assertEquals(new ClickArchiveReader.Summary(5000, 1000L, 5999L,
+                Instant.parse("2024-01-15T00:00:00Z"), Instant.parse("2024-01-15T02:04:58.500Z")), summary);
+    }
+
+    @Test
+    void scan_rejectsFilesThatAreNotCompleteArchives() throws IOException {
+        byte[] bytes = Files.readAllBytes(file);
+        byte[] corrupt = bytes.clone();
+        corrupt[corrupt.length / 2] ^= 0x55;
+        List<byte[]> invalid = List.of(
+                new byte[0],
+                "not an archive".getBytes(),
+                Arrays.copyOf(bytes, bytes.length - 4),
+                Arrays.copyOf(bytes, bytes.length / 2),
+                corrupt);
+        for (byte[] content : invalid) {
+            // Given
+            Path invalidFile = Files.write(directory.resolve("invalid.clka"), content);
+
+            // When / Then
+            assertThrows(IOException.class, () -> new ClickArchiveReader(invalidFile)
+                    .scan(ClickArchiveFilter.all(), Long.MAX_VALUE, click -> { }));
+        }
+    }
+}
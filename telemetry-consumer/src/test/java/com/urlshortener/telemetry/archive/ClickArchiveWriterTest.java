@@ -0,0 +1,92 @@
+package com.urlshortener.telemetry.archive;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class ClickArchiveWriterTest {
+
+    private static final Instant START = Instant.parse("2024-01-15T00:00:00Z");
+
+    @TempDir
+    Path directory;
+
+    static List<ArchivedClick> clicks(int count) {
+        List<String> userAgents = List.of("Mozilla/5.0 (Windows NT 10.0; Win64; x64)", "curl/8.4.0", "Googlebot/2.1");
+        List<ArchivedClick> clicks = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            clicks.add(new ArchivedClick(1000 + i, i % 7, START.plusMillis(i * 1500L),
+                    userAgents.get(i % userAgents.size()), "10.0." + (i % 256) + "." + (i / 256 % 256),
+                    i % 5 == 0 ? null : "https://ref" + (i % 4) + ".example/page"));
+        }
+        return clicks;
+    }
+
+    static Path write(Path file, List<ArchivedClick> clicks, int rowGroupSize) throws IOException {
+        try (ClickArchiveWriter writer = new ClickArchiveWriter(Files.newOutputStream(file), rowGroupSize)) {
+            for (ArchivedClick click : clicks) {
+                writer.write(click);
+            }
+        }
+        return file;
+    }
+
+    @Test
+    void write_roundTripsEveryColumnAcrossRowGroups() throws IOException {
+        // Given
+        List<ArchivedClick> clicks = new ArrayList<>(clicks(2500));
+        clicks.add(new ArchivedClick(5000, 3, START.minusSeconds(30), null, null, null));
+        clicks.add(new ArchivedClick(4000, Long.MAX_VALUE, START, "Ünïcode agent", "::1", ""));
+        Path file = write(directory.resolve("clicks.clka"), clicks, 1000);
+
+        // When
+        List<ArchivedClick> read = new ArrayList<>();
+        long rows = new ClickArchiveReader(file).scan(ClickArchiveFilter.all(), Long.MAX_VALUE, read::add);
+
+        // Then
+        assertEquals(clicks.size(), rows);
+        assertEquals(clicks, read);
+    }
+
+    @Test
+    void write_takesAFewBytesPerClick() throws IOException {
+        // Given
+        List<ArchivedClick> clicks = clicks(100_000);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+        // When
+        try (ClickArchiveWriter writer = new ClickArchiveWriter(bytes, ClickArchiveWriter.DEFAULT_ROW_GROUP_SIZE)) {
+            for (ArchivedClick click : clicks) {
+                writer.write(click);
+            }
+        }
+
+        // Then: a clicks row with these values takes over 100 bytes in MySQL
+        assertTrue(bytes.size() < clicks.size() * 4, "archive is " + bytes.size() + " bytes");
+    }
+
+    @Test
+    void write_anEmptyArchive() throws IOException {
+        // Given
+        Path file = write(directory.resolve("empty.clka"), List.of(), 1000);
+
+        // Then
+        assertEquals(new ClickArchiveReader.Summary(0, null, null, null, null), new ClickArchiveReader(file).summarize());
+    }
+
+    @Test
+    void constructor_rejectsAnEmptyRowGroup() {
+        assertThrows(IllegalArgumentException.class, () -> new ClickArchiveWriter(new ByteArrayOutputStream(), 0));
+    }
+}
@@ -0,0 +1,68 @@
+package com.urlshortener.telemetry.archive;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.codahale.metrics.MetricRegistry;
+import com.urlshortener.telemetry.TelemetryConsumerConfiguration.ClickArchiveConfiguration;
+
+import io.dropwizard.util.Duration;
+
+public class ClickArchiverTest {
+
+    @TempDir
+    Path directory;
+
+    private ClickArchiver archiver;
+
+    @BeforeEach
+    void setUp() {
+        ClickArchiveConfiguration config = new ClickArchiveConfiguration();
+        config.setDirectory(directory.toString());
+        config.setRetention(Duration.days(365));
+        archiver = new ClickArchiver(config, new MetricRegistry());
+    }
+
+    @Test
+    void deleteExpired_deletesFilesOnceTheirNewestClickIsPastRetention() throws IOException {
+        // Given
+        List<ArchivedClick> clicks = ClickArchiveWriterTest.clicks(10);
+        Path old = ClickArchiveWriterTest.write(directory.resolve("clicks-p20240115.clka"), clicks, 1000);
+        Path recent = ClickArchiveWriterTest.write(directory.resolve("clicks-p20240116.clka"), List.of(
+                new ArchivedClick(1, 1, Instant.parse("2024-01-16T12:00:00Z"), null, null, null)), 1000);
+        Path other = Files.writeString(directory.resolve("notes.txt"), "kept");
+
+        // When
+        int deleted = archiver.deleteExpired(Instant.parse("2025-01-15T00:00:00Z").toEpochMilli());
+
+        // Then
+        assertEquals(1, deleted);
+        assertFalse(Files.exists(old));
+        assertTrue(Files.exists(recent));
+        assertTrue(Files.exists(other));
+    }
+
+    @Test
+    void deleteExpired_withoutAnArchiveDirectory() throws IOException {
+        Files.delete(directory);
+
+        assertEquals(0, archiver.deleteExpired(System.currentTimeMillis()));
+    }
+
+    @Test
+    void archive_rejectsNamesThatAreNotPartitions() {
+        assertThrows(IllegalArgumentException.class, () -> archiver.archive(null, "p1; DROP TABLE clicks"));
+    }
+}
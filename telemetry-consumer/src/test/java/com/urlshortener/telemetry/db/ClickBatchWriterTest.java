@@ -0,0 +1,72 @@
+package com.urlshortener.telemetry.db;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import org.jdbi.v3.core.Jdbi;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.urlshortener.events.ClickEvent;
+
+public class ClickBatchWriterTest {
+
+    private Jdbi jdbi;
+    private ClickBatchWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        jdbi = Jdbi.create("jdbc:h2:mem:clicks-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1");
+        jdbi.useHandle(handle -> handle.execute("""
+                CREATE TABLE clicks (
+                    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+                    link_id BIGINT NOT NULL,
+                    click_timestamp TIMESTAMP DEFAULT CURRENT_TIMESTAMP NOT NULL,
+                    user_agent TEXT,
+                    ip_address VARCHAR(45),
+                    referer TEXT
+                )"""));
+        writer = new ClickBatchWriter(jdbi);
+    }
+
+    @Test
+    void insert_writesEveryEventInOneStatement() {
+        // Given
+        List<ClickEvent> events = List.of(
+                new ClickEvent(1L, "abc", "2024-01-15T10:30:00Z", "Mozilla/5.0", "10.0.0.1", "https://ref.example"),
+                new ClickEvent(2L, "def", "2024-01-15T10:31:00+02:00"));
+
+        // When
+        int rows = writer.insert(events);
+
+        // Then
+        assertEquals(2, rows);
+        List<Map<String, Object>> stored = jdbi.withHandle(handle -> handle
+                .createQuery("SELECT link_id, click_timestamp, user_agent FROM clicks ORDER BY link_id")
+                .mapToMap()
+                .list());
+        assertEquals(2, stored.size());
+        assertEquals("Mozilla/5.0", stored.get(0).get("user_agent"));
+        assertEquals(Instant.parse("2024-01-15T08:31:00Z"),
+                ((Timestamp) stored.get(1).get("click_timestamp")).toInstant());
+    }
+
+    @Test
+    void insert_skipsTheDatabaseForAnEmptyBatch() {
+        // When
+        int rows = writer.insert(List.of());
+
+        // Then
+        assertEquals(0, rows);
+    }
+
+    @Test
+    void insertStatement_hasOneRowOfPlaceholdersPerEvent() {
+        assertEquals("INSERT INTO clicks (link_id, click_timestamp, user_agent, ip_address, referer) VALUES "
+                + "(?, ?, ?, ?, ?), (?, ?, ?, ?, ?)", ClickBatchWriter.insertStatement(2));
+    }
+}
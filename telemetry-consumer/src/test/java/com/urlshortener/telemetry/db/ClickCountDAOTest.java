@@ -0,0 +1,100 @@
+package com.urlshortener.telemetry.db;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import org.jdbi.v3.core.Jdbi;
+import org.jdbi.v3.sqlobject.SqlObjectPlugin;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.urlshortener.rollup.RollupGranularity;
+
+public class ClickCountDAOTest {
+
+    private static final Instant MINUTE = Instant.parse("2024-01-15T10:30:00Z");
+
+    private Jdbi jdbi;
+    private ClickCountDAO clickCountDAO;
+
+    @BeforeEach
+    void setUp() {
+        jdbi = Jdbi.create("jdbc:h2:mem:click-counts-" + System.nanoTime() + ";MODE=MySQL;DB_CLOSE_DELAY=-1");
+        jdbi.installPlugin(new SqlObjectPlugin());
+        jdbi.useHandle(handle -> {
+            handle.execute("CREATE TABLE links (id BIGINT PRIMARY KEY, click_count BIGINT NOT NULL DEFAULT 0)");
+            for (RollupGranularity granularity : RollupGranularity.values()) {
+                handle.execute("CREATE TABLE " + granularity.getTable() + " (link_id BIGINT NOT NULL, "
+                        + "bucket_start TIMESTAMP NOT NULL, clicks BIGINT NOT NULL, PRIMARY KEY (link_id, bucket_start))");
+            }
+            handle.execute("INSERT INTO links (id) VALUES (1), (2)");
+        });
+        clickCountDAO = jdbi.onDemand(ClickCountDAO.class);
+    }
+
+    private long rollup(RollupGranularity granularity, long linkId) {
+        return jdbi.withHandle(handle -> handle
+                .createQuery("SELECT clicks FROM " + granularity.getTable() + " WHERE link_id = ? AND bucket_start = ?")
+                .bind(0, linkId)
+                .bind(1, Timestamp.from(MINUTE))
+                .mapTo(Long.class)
+                .one());
+    }
+
+    private long clickCount(long linkId) {
+        return jdbi.withHandle(handle -> handle.createQuery("SELECT click_count FROM links WHERE id = ?")
+                .bind(0, linkId)
+                .mapTo(Long.class)
+                .one());
+    }
+
+    @Test
+    void incrementRollups_insertsNewBucketsAndAddsToStoredOnes() {
+        // Given
+        clickCountDAO.incrementRollups("click_rollups_minute", List.of(new ClickRollup(1, Timestamp.from(MINUTE), 3)));
+
+        // When
+        clickCountDAO.incrementRollups("click_rollups_minute", List.of(
+                new ClickRollup(1, Timestamp.from(MINUTE), 2),
+                new ClickRollup(2, Timestamp.from(MINUTE), 1)));
+
+        // Then
+        assertEquals(5, rollup(RollupGranularity.MINUTE, 1));
+        assertEquals(1, rollup(RollupGranularity.MINUTE, 2));
+    }
+
+    @Test
+    void applyClickCounts_appliesCountsAndRollupsTogether() {
+        // Given
+        ClickRollup rollup = new ClickRollup(1, Timestamp.from(MINUTE), 2);
+
+        // When
+        clickCountDAO.applyClickCounts(List.of(1L), List.of(2L), Map.of(
+                RollupGranularity.MINUTE, List.of(rollup),
+                RollupGranularity.HOUR, List.of(rollup)));
+
+        // Then
+        assertEquals(2, clickCount(1));
+        assertEquals(2, rollup(RollupGranularity.MINUTE, 1));
+        assertEquals(2, rollup(RollupGranularity.HOUR, 1));
+    }
+
+    @Test
+    void applyClickCounts_rollsBackTheCountsWhenARollupFails() {
+        // Given
+        jdbi.useHandle(handle -> handle.execute("DROP TABLE click_rollups_day"));
+        ClickRollup rollup = new ClickRollup(1, Timestamp.from(MINUTE), 2);
+
+        // When
+        assertThrows(RuntimeException.class, () -> clickCountDAO.applyClickCounts(List.of(1L), List.of(2L),
+                Map.of(RollupGranularity.DAY, List.of(rollup))));
+
+        // Then
+        assertEquals(0, clickCount(1));
+    }
+}
@@ -0,0 +1,100 @@
+package com.urlshortener.telemetry.db;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import com.urlshortener.telemetry.db.ClickPartitionMaintainer.Partition;
+import com.urlshortener.telemetry.db.ClickPartitionMaintainer.Plan;
+
+public class ClickPartitionMaintainerTest {
+
+    private static final long DAY = TimeUnit.DAYS.toSeconds(1);
+    private static final long RETENTION = 30 * DAY;
+
+    private static long seconds(String instant) {
+        return Instant.parse(instant).getEpochSecond();
+    }
+
+    @Test
+    void plan_createsTodayAndTheDaysAheadAfterTheHistoryPartition() {
+        // Given: clicks as the migration leaves it on 2024-01-15
+        List<Partition> partitions = List.of(
+                new Partition("p_history", seconds("2024-01-16T00:00:00Z")),
+                new Partition("p_future", null));
+
+        // When
+        Plan plan = ClickPartitionMaintainer.plan(partitions, seconds("2024-01-15T10:30:00Z"), RETENTION, 2);
+
+        // Then
+        assertEquals(List.of(seconds("2024-01-17T00:00:00Z"), seconds("2024-01-18T00:00:00Z")), plan.create());
+        assertEquals(List.of(), plan.drop());
+    }
+
+    @Test
+    void plan_changesNothingWhenUpToDate() {
+        // Given
+        List<Partition> partitions = List.of(
+                new Partition("p20240115", seconds("2024-01-16T00:00:00Z")),
+                new Partition("p20240116", seconds("2024-01-17T00:00:00Z")),
+                new Partition("p_future", null));
+
+        // When
+        Plan plan = ClickPartitionMaintainer.plan(partitions, seconds("2024-01-15T23:59:59Z"), RETENTION, 1);
+
+        // Then
+        assertTrue(plan.isEmpty());
+    }
+
+    @Test
+    void plan_dropsPartitionsOnceAllTheirClicksAreOlderThanTheRetention() {
+        // Given
+        List<Partition> partitions = List.of(
+                new Partition("p_history", seconds("2024-01-01T00:00:00Z")),
+                new Partition("p20240101", seconds("2024-01-02T00:00:00Z")),
+                new Partition("p20240102", seconds("2024-01-03T00:00:00Z")),
+                new Partition("p20240201", seconds("2024-02-02T00:00:00Z")),
+                new Partition("p20240202", seconds("2024-02-03T00:00:00Z")),
+                new Partition("p_future", null));
+
+        // When
+        Plan plan = ClickPartitionMaintainer.plan(partitions, seconds("2024-02-01T12:00:00Z"), RETENTION, 1);
+
+        // Then
+        assertEquals(List.of("p_history", "p20240101"), plan.drop());
+        assertEquals(List.of(), plan.create());
+    }
+
+    @Test
+    void plan_catchesUpOnDaysMissedWhileMaintenanceWasNotRunning() {
+        // Given
+        List<Partition> partitions = List.of(
+                new Partition("p20240110", seconds("2024-01-11T00:00:00Z")),
+                new Partition("p_future", null));
+
+        // When
+        Plan plan = ClickPartitionMaintainer.plan(partitions, seconds("2024-01-15T10:30:00Z"), RETENTION, 1);
+
+        // Then
+        assertEquals(6, plan.create().size());
+        assertEquals(seconds("2024-01-12T00:00:00Z"), plan.create().get(0));
+        assertEquals(seconds("2024-01-17T00:00:00Z"), plan.create().get(5));
+    }
+
+    @Test
+    void statements_nameEachPartitionAfterItsDay() {
+        assertEquals("ALTER TABLE clicks REORGANIZE PARTITION p_future INTO ("
+                        + "PARTITION p20240116 VALUES LESS THAN (1705449600), "
+                        + "PARTITION p20240117 VALUES LESS THAN (1705536000), "
+                        + "PARTITION p_future VALUES LESS THAN MAXVALUE)",
+                ClickPartitionMaintainer.reorganizeStatement("p_future",
+                        List.of(seconds("2024-01-17T00:00:00Z"), seconds("2024-01-18T00:00:00Z"))));
+        assertEquals("ALTER TABLE clicks DROP PARTITION p_history, p20240101",
+                ClickPartitionMaintainer.dropStatement(List.of("p_history", "p20240101")));
+    }
+}
@@ -0,0 +1,109 @@
+package com.urlshortener.telemetry.db;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+
+import org.jdbi.v3.core.Jdbi;
+import org.jdbi.v3.sqlobject.SqlObjectPlugin;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.urlshortener.rollup.RollupGranularity;
+
+public class ClickRollupBackfillTest {
+
+    private Jdbi jdbi;
+
+    @BeforeEach
+    void setUp() {
+        jdbi = Jdbi.create("jdbc:h2:mem:rollup-backfill-" + System.nanoTime() + ";MODE=MySQL;DB_CLOSE_DELAY=-1");
+        jdbi.installPlugin(new SqlObjectPlugin());
+        jdbi.useHandle(handle -> {
+            handle.execute("""
+                    CREATE TABLE clicks (
+                        id BIGINT AUTO_INCREMENT PRIMARY KEY,
+                        link_id BIGINT NOT NULL,
+                        click_timestamp TIMESTAMP NOT NULL
+                    )""");
+            for (RollupGranularity granularity : RollupGranularity.values()) {
+                handle.execute("CREATE TABLE " + granularity.getTable() + " (link_id BIGINT NOT NULL, "
+                        + "bucket_start TIMESTAMP NOT NULL, clicks BIGINT NOT NULL, PRIMARY KEY (link_id, bucket_start))");
+            }
+            handle.execute("""
+                    CREATE TABLE click_rollup_backfill (
+                        name VARCHAR(64) PRIMARY KEY,
+                        next_click_id BIGINT NOT NULL,
+                        through_click_id BIGINT NOT NULL
+                    )""");
+        });
+        insertClick(1, "2024-01-15T10:30:05Z");
+        insertClick(1, "2024-01-15T10:30:55Z");
+        insertClick(1, "2024-01-15T11:00:00Z");
+        insertClick(2, "2024-01-16T09:00:00Z");
+        // Stored by a consumer that maintains rollups itself
+        insertClick(1, "2024-01-16T12:00:00Z");
+    }
+
+    private void insertClick(long linkId, String timestamp) {
+        jdbi.useHandle(handle -> handle.execute("INSERT INTO clicks (link_id, click_timestamp) VALUES (?, ?)",
+                linkId, Timestamp.from(Instant.parse(timestamp))));
+    }
+
+    private Map<String, Long> rollups(RollupGranularity granularity, long linkId) {
+        return jdbi.withHandle(handle -> handle
+                .createQuery("SELECT bucket_start, clicks FROM " + granularity.getTable() + " WHERE link_id = ?")
+                .bind(0, linkId)
+                .map((rs, ctx) -> Map.entry(rs.getTimestamp("bucket_start").toInstant().toString(), rs.getLong("clicks")))
+                .collectToMap(Map.Entry::getKey, Map.Entry::getValue));
+    }
+
+    @Test
+    void run_rollsUpClicksThroughTheGivenId() {
+        // Given
+        ClickRollupBackfill backfill = new ClickRollupBackfill(jdbi, 2, Duration.ofSeconds(10));
+
+        // When
+        long clicks = backfill.run(4);
+
+        // Then
+        assertEquals(4, clicks);
+        assertEquals(Map.of("2024-01-15T10:30:00Z", 2L, "2024-01-15T11:00:00Z", 1L),
+                rollups(RollupGranularity.MINUTE, 1));
+        assertEquals(Map.of("2024-01-15T10:00:00Z", 2L, "2024-01-15T11:00:00Z", 1L),
+                rollups(RollupGranularity.HOUR, 1));
+        assertEquals(Map.of("2024-01-15T00:00:00Z", 3L), rollups(RollupGranularity.DAY, 1));
+        assertEquals(Map.of("2024-01-16T00:00:00Z", 1L), rollups(RollupGranularity.DAY, 2));
+    }
+
+    @Test
+    void run_resumesWithoutRollingUpAChunkTwice() {
+        // Given: a run that stopped after its first chunk
+        jdbi.useHandle(handle -> handle.execute(
+                "INSERT INTO click_rollup_backfill (name, next_click_id, through_click_id) VALUES ('clicks', 3, 4)"));
+        ClickRollupBackfill backfill = new ClickRollupBackfill(jdbi, 2, Duration.ofSeconds(10));
+
+        // When
+        long clicks = backfill.run(4);
+        long again = backfill.run(4);
+
+        // Then
+        assertEquals(2, clicks);
+        assertEquals(0, again);
+        assertEquals(Map.of("2024-01-15T00:00:00Z", 1L), rollups(RollupGranularity.DAY, 1));
+    }
+
+    @Test
+    void run_rejectsAnotherThroughIdOnceStarted() {
+        // Given
+        ClickRollupBackfill backfill = new ClickRollupBackfill(jdbi, 2, Duration.ofSeconds(10));
+        backfill.run(4);
+
+        // When / Then
+        assertThrows(IllegalArgumentException.class, () -> backfill.run(5));
+    }
+}
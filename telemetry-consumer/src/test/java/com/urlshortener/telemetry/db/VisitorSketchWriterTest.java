@@ -0,0 +1,82 @@
+package com.urlshortener.telemetry.db;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.jdbi.v3.core.Jdbi;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.urlshortener.sketch.HyperLogLog;
+import com.urlshortener.telemetry.db.VisitorSketchWriter.Bucket;
+
+public class VisitorSketchWriterTest {
+
+    private static final long HOUR = Instant.parse("2024-01-15T10:00:00Z").toEpochMilli();
+
+    private Jdbi jdbi;
+    private VisitorSketchWriter writer;
+
+    @BeforeEach
+    void setUp() {
+        jdbi = Jdbi.create("jdbc:h2:mem:sketches-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1");
+        jdbi.useHandle(handle -> handle.execute("""
+                CREATE TABLE link_visitor_sketches (
+                    link_id BIGINT NOT NULL,
+                    bucket_start TIMESTAMP NOT NULL,
+                    sketch BLOB NOT NULL,
+                    PRIMARY KEY (link_id, bucket_start)
+                )"""));
+        writer = new VisitorSketchWriter(jdbi);
+    }
+
+    private static HyperLogLog visitors(long... hashes) {
+        HyperLogLog sketch = new HyperLogLog();
+        for (long hash : hashes) {
+            sketch.add(hash);
+        }
+        return sketch;
+    }
+
+    private HyperLogLog stored(long linkId, long bucketStart) {
+        return jdbi.withHandle(handle -> handle
+                .createQuery("SELECT sketch FROM link_visitor_sketches WHERE link_id = ? AND bucket_start = ?")
+                .bind(0, linkId)
+                .bind(1, new Timestamp(bucketStart))
+                .map((rs, ctx) -> HyperLogLog.fromBytes(rs.getBytes("sketch")))
+                .one());
+    }
+
+    @Test
+    void merge_insertsNewBucketsAndMergesIntoStoredOnes() {
+        // Given
+        writer.merge(Map.of(new Bucket(1, HOUR), visitors(0x1111_0000_0000_0000L, 0x2222_0000_0000_0000L)));
+        Map<Bucket, HyperLogLog> sketches = new HashMap<>();
+        sketches.put(new Bucket(1, HOUR), visitors(0x2222_0000_0000_0000L, 0x3333_0000_0000_0000L));
+        sketches.put(new Bucket(2, HOUR), visitors(0x4444_0000_0000_0000L));
+
+        // When
+        int buckets = writer.merge(sketches);
+
+        // Then
+        assertEquals(2, buckets);
+        assertEquals(3, stored(1, HOUR).estimate());
+        assertEquals(1, stored(2, HOUR).estimate());
+        assertEquals(1, sketches.get(new Bucket(2, HOUR)).estimate());
+    }
+
+    @Test
+    void merge_skipsTheDatabaseWhenNothingIsPending() {
+        assertEquals(0, writer.merge(Map.of()));
+    }
+
+    @Test
+    void selectStatement_hasOnePairOfPlaceholdersPerBucket() {
+        assertEquals("SELECT link_id, bucket_start, sketch FROM link_visitor_sketches "
+                + "WHERE (link_id, bucket_start) IN ((?, ?), (?, ?)) FOR UPDATE", VisitorSketchWriter.selectStatement(2));
+    }
+}
@@ -0,0 +1,161 @@
+package com.urlshortener.telemetry.kafka;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.codahale.metrics.MetricRegistry;
+import com.urlshortener.events.ClickEvent;
+import com.urlshortener.telemetry.TelemetryConsumerConfiguration.ClickCountConfiguration;
+import com.urlshortener.telemetry.db.ClickCountDAO;
+import com.urlshortener.telemetry.db.ClickRollup;
+import com.urlshortener.rollup.RollupGranularity;
+
+@ExtendWith(MockitoExtension.class)
+public class ClickCountAggregatorTest {
+
+    private static final TopicPartition PARTITION_0 = new TopicPartition("link_clicks", 0);
+    private static final TopicPartition PARTITION_1 = new TopicPartition("link_clicks", 1);
+
+    @Mock
+    private ClickCountDAO clickCountDAO;
+
+    private MetricRegistry metrics;
+    private ClickCountAggregator aggregator;
+
+    @BeforeEach
+    void setUp() {
+        ClickCountConfiguration config = new ClickCountConfiguration();
+        config.setFlushIntervalMs(60_000);
+        config.setMaxPendingClicks(4);
+        metrics = new MetricRegistry();
+        aggregator = new ClickCountAggregator(clickCountDAO, config, metrics);
+    }
+
+    private static ClickEvent click(long linkId) {
+        return click(linkId, "2024-01-15T10:30:00Z");
+    }
+
+    private static ClickEvent click(long linkId, String timestamp) {
+        return new ClickEvent(linkId, "abc", Instant.parse(timestamp), null, null, null);
+    }
+
+    private static ClickRollup rollup(long linkId, String bucketStart, long clicks) {
+        return new ClickRollup(linkId, Timestamp.from(Instant.parse(bucketStart)), clicks);
+    }
+
+    @Test
+    void flush_appliesOneIncrementPerLinkAcrossPartitions() {
+        // Given
+        aggregator.add(PARTITION_0, List.of(click(1), click(1), click(2)));
+        aggregator.add(PARTITION_1, List.of(click(1)));
+
+        // When
+        int links = aggregator.flush();
+
+        // Then
+        assertEquals(2, links);
+        verify(clickCountDAO).applyClickCounts(eq(List.of(1L, 2L)), eq(List.of(3L, 1L)), anyMap());
+        assertEquals(0, aggregator.getPendingClicks());
+        assertEquals(1, metrics.histogram(MetricRegistry.name(ClickCountAggregator.class, "flush-size")).getCount());
+        assertEquals(1, metrics.timer(MetricRegistry.name(ClickCountAggregator.class, "pending-age")).getCount());
+    }
+
+    @Test
+    void shouldFlush_onceEnoughClicksArePending() {
+        // Given
+        aggregator.add(PARTITION_0, List.of(click(1), click(2), click(3)));
+        assertFalse(aggregator.shouldFlush());
+
+        // When
+        aggregator.add(PARTITION_0, List.of(click(1)));
+
+        // Then
+        assertTrue(aggregator.shouldFlush());
+    }
+
+    @Test
+    void flush_keepsIncrementsWhenTheUpdateFails() {
+        // Given
+        aggregator.add(PARTITION_0, List.of(click(1), click(1)));
+        doThrow(new RuntimeException("deadlock"))
+                .doNothing()
+                .when(clickCountDAO).applyClickCounts(anyList(), anyList(), anyMap());
+
+        // When
+        assertThrows(RuntimeException.class, aggregator::flush);
+        aggregator.flush();
+
+        // Then
+        verify(clickCountDAO, times(2)).applyClickCounts(eq(List.of(1L)), eq(List.of(2L)), anyMap());
+    }
+
+    @Test
+    void discard_dropsOnlyTheLostPartitions() {
+        // Given
+        aggregator.add(PARTITION_0, List.of(click(1), click(1)));
+        aggregator.add(PARTITION_1, List.of(click(2)));
+
+        // When
+        aggregator.discard(List.of(PARTITION_0));
+        aggregator.flush();
+
+        // Then
+        assertEquals(0, aggregator.getPendingClicks());
+        verify(clickCountDAO).applyClickCounts(eq(List.of(2L)), eq(List.of(1L)), anyMap());
+        verify(clickCountDAO, never()).applyClickCounts(eq(List.of(1L)), eq(List.of(2L)), anyMap());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void flush_rollsClicksUpByMinuteHourAndDay() {
+        // Given
+        aggregator.add(PARTITION_0, List.of(
+                click(1, "2024-01-15T10:30:05Z"),
+                click(1, "2024-01-15T10:30:55Z"),
+                click(1, "2024-01-15T10:31:00Z"),
+                click(1, "2024-01-15T23:59:59Z")));
+        aggregator.add(PARTITION_1, List.of(click(2, "2024-01-16T00:00:00Z")));
+        ArgumentCaptor<Map<RollupGranularity, List<ClickRollup>>> rollups = ArgumentCaptor.forClass(Map.class);
+
+        // When
+        aggregator.flush();
+
+        // Then
+        verify(clickCountDAO).applyClickCounts(eq(List.of(1L, 2L)), eq(List.of(4L, 1L)), rollups.capture());
+        assertEquals(Set.of(
+                rollup(1, "2024-01-15T10:30:00Z", 2),
+                rollup(1, "2024-01-15T10:31:00Z", 1),
+                rollup(1, "2024-01-15T23:59:00Z", 1),
+                rollup(2, "2024-01-16T00:00:00Z", 1)), Set.copyOf(rollups.getValue().get(RollupGranularity.MINUTE)));
+        assertEquals(Set.of(
+                rollup(1, "2024-01-15T10:00:00Z", 3),
+                rollup(1, "2024-01-15T23:00:00Z", 1),
+                rollup(2, "2024-01-16T00:00:00Z", 1)), Set.copyOf(rollups.getValue().get(RollupGranularity.HOUR)));
+        assertEquals(Set.of(
+                rollup(1, "2024-01-15T00:00:00Z", 4),
+                rollup(2, "2024-01-16T00:00:00Z", 1)), Set.copyOf(rollups.getValue().get(RollupGranularity.DAY)));
+    }
+}
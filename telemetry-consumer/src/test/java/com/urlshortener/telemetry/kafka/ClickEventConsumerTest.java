@@ -0,0 +1,279 @@
+package com.urlshortener.telemetry.kafka;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.kafka.clients.consumer.CommitFailedException;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.MockConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.consumer.OffsetResetStrategy;
+import org.apache.kafka.common.TopicPartition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.codahale.metrics.MetricRegistry;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.urlshortener.events.ClickEvent;
+import com.urlshortener.events.ClickEventCodec;
+import com.urlshortener.events.EventValidator;
+import com.urlshortener.telemetry.TelemetryConsumerConfiguration.ClickCountConfiguration;
+import com.urlshortener.telemetry.TelemetryConsumerConfiguration.KafkaConsumerConfiguration;
+import com.urlshortener.telemetry.TelemetryConsumerConfiguration.TrendingConfiguration;
+import com.urlshortener.telemetry.db.ClickBatchWriter;
+import com.urlshortener.telemetry.db.ClickCountDAO;
+import com.urlshortener.telemetry.db.VisitorSketchWriter;
+import com.urlshortener.telemetry.trending.TrendingLinks;
+
+
+@ExtendWith(MockitoExtension.class)
+public class ClickEventConsumerTest {
+
+    private static final String TOPIC = "link_clicks";
+    private static final TopicPartition PARTITION = new TopicPartition(TOPIC, 0);
+
+    @Mock
+    private ClickBatchWriter batchWriter;
+
+    @Mock
+    private ClickCountDAO clickCountDAO;
+
+    @Mock
+    private VisitorSketchWriter sketchWriter;
+
+    private MockConsumer<String, byte[]> mockConsumer;
+    // Number of upcoming commits that fail as they would after a rebalance
+    private int failingCommits;
+    private MetricRegistry metrics;
+    private ClickCountConfiguration clickCountConfig;
+    private ClickEventConsumer clickEventConsumer;
+
+    @BeforeEach
+    void setUp() {
+        clickCountConfig = new ClickCountConfiguration();
+        clickCountConfig.setFlushIntervalMs(0);
+        metrics = new MetricRegistry();
+        clickEventConsumer = createConsumer();
+    }
+
+    private ClickEventConsumer createConsumer() {
+        KafkaConsumerConfiguration config = new KafkaConsumerConfiguration();
+        config.setRetryBackoffMs(0);
+
+        mockConsumer = new MockConsumer<>(OffsetResetStrategy.EARLIEST) {
+            @Override
+            public synchronized void commitSync(Map<TopicPartition, OffsetAndMetadata> offsets) {
+                if (failingCommits > 0) {
+                    failingCommits--;
+                    throw new CommitFailedException();
+                }
+                super.commitSync(offsets);
+            }
+        };
+        mockConsumer.assign(List.of(PARTITION));
+        Map<TopicPartition, Long> beginningOffsets = new HashMap<>();
+        beginningOffsets.put(PARTITION, 0L);
+        mockConsumer.updateBeginningOffsets(beginningOffsets);
+
+        EventValidator eventValidator = new EventValidator(new ObjectMapper());
+        ClickCountAggregator aggregator = new ClickCountAggregator(clickCountDAO, clickCountConfig, metrics);
+        return new ClickEventConsumer(mockConsumer, config, new ClickEventDeserializer(new ObjectMapper()),
+                eventValidator, batchWriter, aggregator, new VisitorSketchAggregator(sketchWriter, metrics),
+                new TrendingLinks(new TrendingConfiguration(), metrics), metrics);
+    }
+
+    private void addRecord(long offset, String value) {
+        addRecord(offset, value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void addRecord(long offset, byte[] value) {
+        mockConsumer.addRecord(new ConsumerRecord<>(TOPIC, 0, offset, "abc", value));
+    }
+
+    private static String clickJson(long linkId) {
+        return "{\"linkId\":" + linkId + ",\"shortCode\":\"abc\",\"timestamp\":\"2024-01-15T10:30:00Z\"}";
+    }
+
+    @Test
+    void pollOnce_insertsTheBatchAndCommitsOffsets() {
+        // Given
+        addRecord(0, clickJson(1));
+        addRecord(1, clickJson(2));
+        when(batchWriter.insert(anyList())).thenReturn(2);
+
+        // When
+        int inserted = clickEventConsumer.pollOnce();
+
+        // Then
+        assertEquals(2, inserted);
+        assertEquals(2L, mockConsumer.committed(Set.of(PARTITION)).get(PARTITION).offset());
+        assertEquals(2, metrics.meter(MetricRegistry.name(ClickEventConsumer.class, "inserted")).getCount());
+        assertEquals(1, metrics.timer(MetricRegistry.name(ClickEventConsumer.class, "commit-latency")).getCount());
+        assertEquals(2, metrics.timer(MetricRegistry.name(ClickEventConsumer.class, "click-to-insert")).getCount());
+    }
+
+    @Test
+    void pollOnce_keepsPollingAfterACommitFails() {
+        // Given: a batch whose commit fails, then another batch
+        addRecord(0, clickJson(1));
+        addRecord(1, clickJson(2));
+        when(batchWriter.insert(anyList())).thenReturn(2, 1);
+        failingCommits = 1;
+
+        // When
+        int first = clickEventConsumer.pollOnce();
+        addRecord(2, clickJson(3));
+        int second = clickEventConsumer.pollOnce();
+
+        // Then: the failed offsets are dropped and the next commit covers both batches
+        assertEquals(2, first);
+        assertEquals(1, second);
+        assertEquals(1, metrics.meter(MetricRegistry.name(ClickEventConsumer.class, "failed-commits")).getCount());
+        assertEquals(3L, mockConsumer.committed(Set.of(PARTITION)).get(PARTITION).offset());
+    }
+
+    @Test
+    void pollOnce_skipsInvalidEventsButCommitsPastThem() {
+        // Given
+        addRecord(0, "not json");
+        addRecord(1, clickJson(-1));
+        addRecord(2, clickJson(3));
+        when(batchWriter.insert(anyList())).thenReturn(1);
+
+        // When
+        clickEventConsumer.pollOnce();
+
+        // Then
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<ClickEvent>> batch = ArgumentCaptor.forClass(List.class);
+        verify(batchWriter).insert(batch.capture());
+        assertEquals(1, batch.getValue().size());
+        assertEquals(3L, batch.getValue().get(0).getLinkId());
+        assertEquals(2, metrics.meter(MetricRegistry.name(ClickEventConsumer.class, "invalid")).getCount());
+        assertEquals(3L, mockConsumer.committed(Set.of(PARTITION)).get(PARTITION).offset());
+    }
+
+    @Test
+    void pollOnce_readsJsonAndBinaryEventsSideBySide() {
+        // Given: one JSON event, one binary event and one binary event of an unknown version
+        byte[] unknownVersion = ClickEventCodec.encode(new ClickEvent(3L, "abc", Instant.parse("2024-01-15T10:30:00Z"),
+                null, null, null));
+        unknownVersion[1] = (byte) (ClickEventCodec.VERSION + 1);
+        addRecord(0, clickJson(1));
+        addRecord(1, ClickEventCodec.encode(new ClickEvent(2L, "abc", Instant.parse("2024-01-15T10:30:00Z"),
+                "Mozilla/5.0", "203.0.113.42", null)));
+        addRecord(2, unknownVersion);
+        when(batchWriter.insert(anyList())).thenReturn(2);
+
+        // When
+        clickEventConsumer.pollOnce();
+
+        // Then: both readable events are inserted with their epoch millis known
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<ClickEvent>> batch = ArgumentCaptor.forClass(List.class);
+        verify(batchWriter).insert(batch.capture());
+        assertEquals(List.of(1L, 2L), batch.getValue().stream().map(ClickEvent::getLinkId).toList());
+        assertEquals("Mozilla/5.0", batch.getValue().get(1).getUserAgent());
+        assertEquals(List.of(1705314600000L, 1705314600000L),
+                batch.getValue().stream().map(ClickEvent::getTimestampMillis).toList());
+        assertEquals(2, metrics.meter(MetricRegistry.name(ClickEventConsumer.class, "consumed-binary")).getCount());
+        assertEquals(1, metrics.meter(MetricRegistry.name(ClickEventConsumer.class, "invalid")).getCount());
+        assertEquals(3L, mockConsumer.committed(Set.of(PARTITION)).get(PARTITION).offset());
+    }
+
+    @Test
+    void pollOnce_rewindsWithoutCommittingWhenTheInsertFails() {
+        // Given
+        addRecord(0, clickJson(1));
+        addRecord(1, clickJson(2));
+        when(batchWriter.insert(anyList())).thenThrow(new RuntimeException("database unavailable"));
+
+        // When
+        int inserted = clickEventConsumer.pollOnce();
+
+        // Then
+        assertEquals(0, inserted);
+        assertNull(mockConsumer.committed(Set.of(PARTITION)).get(PARTITION));
+        assertEquals(0L, mockConsumer.position(PARTITION));
+        assertEquals(1, metrics.meter(MetricRegistry.name(ClickEventConsumer.class, "failed-batches")).getCount());
+    }
+
+    @Test
+    void pollOnce_appliesSummedClickCountsBeforeCommitting() {
+        // Given
+        addRecord(0, clickJson(1));
+        addRecord(1, clickJson(1));
+        addRecord(2, clickJson(2));
+        when(batchWriter.insert(anyList())).thenReturn(3);
+
+        // When
+        clickEventConsumer.pollOnce();
+
+        // Then
+        verify(clickCountDAO).applyClickCounts(eq(List.of(1L, 2L)), eq(List.of(2L, 1L)), anyMap());
+        assertEquals(3L, mockConsumer.committed(Set.of(PARTITION)).get(PARTITION).offset());
+    }
+
+    @Test
+    void pollOnce_holdsOffsetsUntilClickCountsAreFlushed() {
+        // Given: a flush interval that has not elapsed
+        clickCountConfig.setFlushIntervalMs(60_000);
+        clickEventConsumer = createConsumer();
+        addRecord(0, clickJson(1));
+        when(batchWriter.insert(anyList())).thenReturn(1);
+
+        // When
+        clickEventConsumer.pollOnce();
+
+        // Then
+        verify(clickCountDAO, never()).applyClickCounts(anyList(), anyList(), anyMap());
+        assertNull(mockConsumer.committed(Set.of(PARTITION)).get(PARTITION));
+    }
+
+    @Test
+    void pollOnce_keepsOffsetsUncommittedWhenTheCountFlushFails() {
+        // Given
+        addRecord(0, clickJson(1));
+        when(batchWriter.insert(anyList())).thenReturn(1);
+        doThrow(new RuntimeException("lock wait timeout")).when(clickCountDAO).applyClickCounts(anyList(), anyList(), anyMap());
+
+        // When
+        clickEventConsumer.pollOnce();
+
+        // Then
+        assertNull(mockConsumer.committed(Set.of(PARTITION)).get(PARTITION));
+    }
+
+    @Test
+    void pollOnce_appliesNoClickCountsWhenTheSketchMergeFails() {
+        // Given
+        addRecord(0, clickJson(1));
+        when(batchWriter.insert(anyList())).thenReturn(1);
+        when(sketchWriter.merge(anyMap())).thenThrow(new RuntimeException("lock wait timeout"));
+
+        // When
+        clickEventConsumer.pollOnce();
+
+        // Then: the counts wait for the sketches, so the retry cannot apply them twice
+        verify(clickCountDAO, never()).applyClickCounts(anyList(), anyList(), anyMap());
+        assertNull(mockConsumer.committed(Set.of(PARTITION)).get(PARTITION));
+    }
+}
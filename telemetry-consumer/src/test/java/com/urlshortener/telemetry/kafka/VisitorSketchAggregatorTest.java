@@ -0,0 +1,117 @@
+package com.urlshortener.telemetry.kafka;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.codahale.metrics.MetricRegistry;
+import com.urlshortener.events.ClickEvent;
+import com.urlshortener.sketch.HyperLogLog;
+import com.urlshortener.telemetry.db.VisitorSketchWriter;
+import com.urlshortener.telemetry.db.VisitorSketchWriter.Bucket;
+
+@ExtendWith(MockitoExtension.class)
+public class VisitorSketchAggregatorTest {
+
+    private static final long TEN_O_CLOCK = Instant.parse("2024-01-15T10:00:00Z").toEpochMilli();
+    private static final long ELEVEN_O_CLOCK = Instant.parse("2024-01-15T11:00:00Z").toEpochMilli();
+
+    @Mock
+    private VisitorSketchWriter sketchWriter;
+
+    private MetricRegistry metrics;
+    private VisitorSketchAggregator aggregator;
+
+    @BeforeEach
+    void setUp() {
+        metrics = new MetricRegistry();
+        aggregator = new VisitorSketchAggregator(sketchWriter, metrics);
+    }
+
+    private static ClickEvent click(long linkId, String timestamp, String ipAddress, String userAgent) {
+        return new ClickEvent(linkId, "abc", Instant.parse(timestamp), userAgent, ipAddress, null);
+    }
+
+    @Test
+    void flush_countsEachVisitorOncePerLinkAndHour() {
+        // Given
+        when(sketchWriter.merge(anyMap())).thenAnswer(invocation -> invocation.<Map<?, ?>>getArgument(0).size());
+        aggregator.add(List.of(
+                click(1, "2024-01-15T10:05:00Z", "203.0.113.1", "Mozilla/5.0"),
+                click(1, "2024-01-15T10:59:59Z", "203.0.113.1", "Mozilla/5.0"),
+                click(1, "2024-01-15T10:30:00Z", "203.0.113.1", "curl/8.4.0"),
+                click(1, "2024-01-15T11:00:00Z", "203.0.113.1", "Mozilla/5.0"),
+                click(2, "2024-01-15T10:10:00Z", "203.0.113.2", null)));
+
+        // When
+        int buckets = aggregator.flush();
+
+        // Then
+        assertEquals(3, buckets);
+        assertEquals(0, aggregator.getPendingBuckets());
+        assertEquals(1, metrics.histogram(MetricRegistry.name(VisitorSketchAggregator.class, "flush-size")).getCount());
+    }
+
+    @Test
+    void add_keysSketchesByLinkAndHourStart() {
+        // Given
+        Map<Bucket, HyperLogLog> sketches = new HashMap<>();
+        when(sketchWriter.merge(anyMap())).thenAnswer(invocation -> {
+            sketches.putAll(invocation.getArgument(0));
+            return sketches.size();
+        });
+        aggregator.add(List.of(
+                click(1, "2024-01-15T10:05:00Z", "203.0.113.1", "Mozilla/5.0"),
+                click(1, "2024-01-15T10:30:00Z", "203.0.113.1", "curl/8.4.0"),
+                click(1, "2024-01-15T11:00:00Z", "203.0.113.1", "Mozilla/5.0")));
+
+        // When
+        aggregator.flush();
+
+        // Then
+        assertEquals(2, sketches.get(new Bucket(1, TEN_O_CLOCK)).estimate());
+        assertEquals(1, sketches.get(new Bucket(1, ELEVEN_O_CLOCK)).estimate());
+    }
+
+    @Test
+    void flush_keepsSketchesWhenTheMergeFails() {
+        // Given
+        aggregator.add(List.of(click(1, "2024-01-15T10:05:00Z", "203.0.113.1", "Mozilla/5.0")));
+        when(sketchWriter.merge(anyMap()))
+                .thenThrow(new RuntimeException("deadlock"))
+                .thenReturn(1);
+
+        // When
+        assertThrows(RuntimeException.class, aggregator::flush);
+        aggregator.flush();
+
+        // Then
+        verify(sketchWriter, times(2)).merge(anyMap());
+        assertEquals(0, aggregator.getPendingBuckets());
+    }
+
+    @Test
+    void visitorHash_distinguishesTheAddressFromTheUserAgent() {
+        assertNotEquals(
+                VisitorSketchAggregator.visitorHash(click(1, "2024-01-15T10:05:00Z", "ab", "c")),
+                VisitorSketchAggregator.visitorHash(click(1, "2024-01-15T10:05:00Z", "a", "bc")));
+        assertEquals(
+                VisitorSketchAggregator.visitorHash(click(1, "2024-01-15T10:05:00Z", "203.0.113.1", "Mozilla/5.0")),
+                VisitorSketchAggregator.visitorHash(click(2, "2024-01-15T11:05:00Z", "203.0.113.1", "Mozilla/5.0")));
+    }
+}
@@ -0,0 +1,60 @@
+package com.urlshortener.telemetry.trending;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+public class CountMinSketchTest {
+
+    @Test
+    void estimate_neverUndercountsAndStaysWithinTheErrorBound() {
+        // Given: 100000 clicks spread over 20000 keys, key i clicked i % 10 + 1 times
+        CountMinSketch sketch = new CountMinSketch(2048, 4);
+        SplittableRandom random = new SplittableRandom(7);
+        long[] hashes = new long[20_000];
+        long total = 0;
+        for (int i = 0; i < hashes.length; i++) {
+            hashes[i] = random.nextLong();
+            sketch.add(hashes[i], i % 10 + 1);
+            total += i % 10 + 1;
+        }
+
+        // Then
+        long bound = (long) Math.ceil(Math.E / 2048 * total);
+        int withinBound = 0;
+        for (int i = 0; i < hashes.length; i++) {
+            long error = sketch.estimate(hashes[i]) - (i % 10 + 1);
+            assertTrue(error >= 0);
+            if (error <= bound) {
+                withinBound++;
+            }
+        }
+        assertTrue(withinBound > hashes.length * 0.95, withinBound + " of " + hashes.length + " within " + bound);
+    }
+
+    @Test
+    void subtract_removesTheCountsOfAnotherSketch() {
+        // Given
+        CountMinSketch window = new CountMinSketch(64, 3);
+        CountMinSketch expired = new CountMinSketch(64, 3);
+        expired.add(42L, 5);
+        window.add(expired);
+        window.add(43L, 2);
+
+        // When
+        window.subtract(expired);
+
+        // Then
+        assertEquals(0, window.estimate(42L));
+        assertEquals(2, window.estimate(43L));
+    }
+
+    @Test
+    void add_rejectsASketchOfAnotherShape() {
+        assertThrows(IllegalArgumentException.class, () -> new CountMinSketch(64, 3).add(new CountMinSketch(32, 3)));
+    }
+}
@@ -0,0 +1,113 @@
+package com.urlshortener.telemetry.trending;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.codahale.metrics.MetricRegistry;
+import com.urlshortener.events.ClickEvent;
+import com.urlshortener.telemetry.TelemetryConsumerConfiguration.TrendingConfiguration;
+import com.urlshortener.telemetry.trending.TrendingLinks.TrendingLink;
+
+public class TrendingLinksTest {
+
+    private final AtomicLong clock = new AtomicLong(Instant.parse("2024-01-15T10:00:00Z").toEpochMilli());
+    private MetricRegistry metrics;
+    private TrendingLinks trendingLinks;
+
+    @BeforeEach
+    void setUp() {
+        TrendingConfiguration config = new TrendingConfiguration();
+        config.setSize(3);
+        metrics = new MetricRegistry();
+        trendingLinks = new TrendingLinks(config, metrics, clock::get);
+    }
+
+    private List<ClickEvent> clicks(String shortCode, int count) {
+        List<ClickEvent> events = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            events.add(new ClickEvent(1L, shortCode, Instant.ofEpochMilli(clock.get()), null, null, null));
+        }
+        return events;
+    }
+
+    private void advance(long seconds) {
+        clock.addAndGet(TimeUnit.SECONDS.toMillis(seconds));
+    }
+
+    @Test
+    void top_ranksTheMostClickedLinksFirst() {
+        // Given
+        trendingLinks.add(clicks("a", 5));
+        trendingLinks.add(clicks("b", 9));
+        trendingLinks.add(clicks("c", 1));
+        trendingLinks.add(clicks("d", 7));
+
+        // When
+        List<TrendingLink> top = trendingLinks.top(10);
+
+        // Then: only the three most clicked are kept
+        assertEquals(List.of(new TrendingLink("b", 9), new TrendingLink("d", 7), new TrendingLink("a", 5)), top);
+        assertEquals(List.of(new TrendingLink("b", 9)), trendingLinks.top(1));
+    }
+
+    @Test
+    void top_letsALinkClimbIntoAFullLeaderboard() {
+        // Given
+        trendingLinks.add(clicks("a", 3));
+        trendingLinks.add(clicks("b", 3));
+        trendingLinks.add(clicks("c", 3));
+
+        // When
+        for (int i = 0; i < 4; i++) {
+            trendingLinks.add(clicks("new", 1));
+        }
+
+        // Then
+        assertEquals(new TrendingLink("new", 4), trendingLinks.top(1).get(0));
+        assertEquals(3, trendingLinks.top(10).size());
+    }
+
+    @Test
+    void top_forgetsClicksOnceTheyLeaveTheWindow() {
+        // Given: five minutes in ten slots of 30 seconds
+        trendingLinks.add(clicks("old", 10));
+        advance(150);
+        trendingLinks.add(clicks("recent", 4));
+
+        // When
+        advance(149);
+        List<TrendingLink> beforeExpiry = trendingLinks.top(10);
+        advance(1);
+        List<TrendingLink> afterExpiry = trendingLinks.top(10);
+        advance(300);
+        List<TrendingLink> idle = trendingLinks.top(10);
+
+        // Then
+        assertEquals(List.of(new TrendingLink("old", 10), new TrendingLink("recent", 4)), beforeExpiry);
+        assertEquals(List.of(new TrendingLink("recent", 4)), afterExpiry);
+        assertTrue(idle.isEmpty());
+    }
+
+    @Test
+    void add_skipsClicksOlderThanTheWindow() {
+        // Given
+        List<ClickEvent> replayed = clicks("replayed", 3);
+        advance(301);
+
+        // When
+        trendingLinks.add(replayed);
+
+        // Then
+        assertTrue(trendingLinks.top(10).isEmpty());
+        assertEquals(3, metrics.meter(MetricRegistry.name(TrendingLinks.class, "stale")).getCount());
+    }
+}